@@ -31,9 +31,19 @@ generate_jwt_keys() {
         # Cria o diretorio se nao existir
         mkdir -p "$JWT_SECRETS_DIR"
 
-        # Gera par de chaves RSA 2048 bits
-        openssl genrsa -out "$PRIVATE_KEY" 2048 2>/dev/null
-        openssl rsa -in "$PRIVATE_KEY" -pubout -out "$PUBLIC_KEY" 2>/dev/null
+        # Gera o par de chaves conforme o algoritmo de assinatura configurado
+        case "${SMALLRYE_JWT_NEW_TOKEN_SIGNATURE_ALGORITHM:-RS256}" in
+            ES256)
+                openssl genpkey -algorithm EC -pkeyopt ec_paramgen_curve:P-256 -out "$PRIVATE_KEY" 2>/dev/null
+                ;;
+            EdDSA)
+                openssl genpkey -algorithm ed25519 -out "$PRIVATE_KEY" 2>/dev/null
+                ;;
+            *)
+                openssl genpkey -algorithm RSA -pkeyopt rsa_keygen_bits:2048 -out "$PRIVATE_KEY" 2>/dev/null
+                ;;
+        esac
+        openssl pkey -in "$PRIVATE_KEY" -pubout -out "$PUBLIC_KEY" 2>/dev/null
 
         echo "Chaves JWT geradas com sucesso!"
         echo "  - Chave privada: $PRIVATE_KEY"
@@ -92,6 +102,7 @@ echo "Database URL: ${QUARKUS_DATASOURCE_JDBC_URL}"
 echo "MinIO Endpoint: ${QUARKUS_S3_ENDPOINT_OVERRIDE}"
 echo "JWT Private Key: ${SMALLRYE_JWT_SIGN_KEY_LOCATION:-$PRIVATE_KEY}"
 echo "JWT Public Key: ${MP_JWT_VERIFY_PUBLICKEY_LOCATION:-$PUBLIC_KEY}"
+echo "JWT Algorithm: ${SMALLRYE_JWT_NEW_TOKEN_SIGNATURE_ALGORITHM:-RS256}"
 echo "Profile: ${QUARKUS_PROFILE:-default}"
 echo "============================================="
 echo ""
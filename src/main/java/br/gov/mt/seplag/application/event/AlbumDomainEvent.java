@@ -0,0 +1,60 @@
+package br.gov.mt.seplag.application.event;
+
+import br.gov.mt.seplag.presentation.dto.album.AlbumImagemResponse;
+import br.gov.mt.seplag.presentation.dto.album.AlbumResponse;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Eventos de dominio de album.
+ *
+ * Os topicos incluem os valores anteriores a alteracao (ano/artistas
+ * antigos), calculados pelo servico enquanto a entidade ainda esta carregada.
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+public sealed interface AlbumDomainEvent extends DomainEvent {
+
+    Long albumId();
+
+    @Override
+    default String aggregateId() {
+        return "album:" + albumId();
+    }
+
+    /**
+     * Album criado (estado completo).
+     */
+    record Created(AlbumResponse album) implements AlbumDomainEvent {
+        @Override
+        public Long albumId() {
+            return album.getId();
+        }
+    }
+
+    /**
+     * Album alterado.
+     *
+     * @param changes apenas os campos alterados (nome -> novo valor)
+     */
+    record Updated(AlbumResponse album, Map<String, Object> changes, Collection<String> topics)
+        implements AlbumDomainEvent {
+        @Override
+        public Long albumId() {
+            return album.getId();
+        }
+    }
+
+    /**
+     * Album removido.
+     */
+    record Deleted(Long albumId, Collection<String> topics) implements AlbumDomainEvent {}
+
+    /**
+     * Imagens adicionadas e/ou removidas de um album.
+     */
+    record ImagesChanged(Long albumId, List<AlbumImagemResponse> added, List<Long> removed,
+                         Collection<String> topics) implements AlbumDomainEvent {}
+}
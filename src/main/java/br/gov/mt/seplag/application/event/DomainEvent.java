@@ -0,0 +1,17 @@
+package br.gov.mt.seplag.application.event;
+
+/**
+ * Evento de dominio registrado por um servico durante a transacao.
+ *
+ * Eventos com o mesmo aggregateId sao entregues aos listeners na ordem
+ * em que foram registrados.
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+public interface DomainEvent {
+
+    /**
+     * Identificador do agregado (ex: album:1), usado para garantir a ordem de entrega.
+     */
+    String aggregateId();
+}
@@ -0,0 +1,15 @@
+package br.gov.mt.seplag.application.event;
+
+/**
+ * Consumidor de eventos de dominio.
+ *
+ * Implementacoes sao beans CDI descobertos pelo DomainEventPublisher e
+ * chamadas fora da transacao, em uma thread do despachante. Uma falha em
+ * um listener nao afeta os demais.
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+public interface DomainEventListener {
+
+    void onEvent(RecordedEvent recorded);
+}
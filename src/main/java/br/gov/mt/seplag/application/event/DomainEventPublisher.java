@@ -0,0 +1,223 @@
+package br.gov.mt.seplag.application.event;
+
+import br.gov.mt.seplag.infrastructure.metrics.MetricsService;
+import io.quarkus.runtime.ShutdownEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.inject.Any;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+import org.jboss.logging.Logger;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Barramento interno de eventos de dominio com entrega apos o commit.
+ *
+ * Funcionamento:
+ * - Servicos chamam publish() dentro da transacao; o evento fica pendente
+ *   no contexto da transacao (TransactionSynchronizationRegistry)
+ * - Apos o commit, os eventos sao enviados aos listeners em threads do
+ *   despachante, fora da transacao e da requisicao
+ * - Em rollback os eventos sao descartados (nenhum cliente e avisado de
+ *   uma alteracao que nao aconteceu)
+ * - Sem transacao (STATUS_NO_TRANSACTION), o evento e despachado imediatamente
+ * - Em transacao que nao pode mais ser confirmada (ex: marcada para rollback),
+ *   o evento e descartado como no rollback
+ *
+ * Ordem: cada agregado e sempre atendido pela mesma fila (hash do
+ * aggregateId), com uma unica thread por fila, entao eventos do mesmo
+ * agregado chegam aos listeners na ordem de registro e de commit.
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+@ApplicationScoped
+public class DomainEventPublisher {
+
+    private static final Logger LOG = Logger.getLogger(DomainEventPublisher.class);
+
+    private static final Object PENDING_KEY = new Object();
+
+    @Inject
+    TransactionSynchronizationRegistry transactionRegistry;
+
+    @Inject
+    @Any
+    Instance<DomainEventListener> listenerInstances;
+
+    @Inject
+    JsonWebToken jwt;
+
+    @Inject
+    MetricsService metricsService;
+
+    @ConfigProperty(name = "app.events.dispatch-lanes", defaultValue = "4")
+    int lanes;
+
+    List<DomainEventListener> listeners = List.of();
+
+    private ExecutorService[] executors;
+
+    @PostConstruct
+    void init() {
+        if (listenerInstances != null) {
+            List<DomainEventListener> encontrados = new ArrayList<>();
+            listenerInstances.forEach(encontrados::add);
+            listeners = List.copyOf(encontrados);
+        }
+
+        executors = new ExecutorService[lanes];
+        for (int i = 0; i < lanes; i++) {
+            String nome = "domain-events-" + i;
+            executors[i] = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, nome);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        LOG.debugf("Despachante de eventos de dominio: %d filas, %d listeners", lanes, listeners.size());
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        for (ExecutorService executor : executors) {
+            executor.shutdown();
+        }
+        try {
+            for (ExecutorService executor : executors) {
+                if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                    LOG.warn("Eventos de dominio pendentes descartados no desligamento");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Registra um evento. Com transacao ativa, a entrega acontece apos o commit;
+     * sem transacao, imediatamente; em transacao condenada, o evento e descartado.
+     */
+    public void publish(DomainEvent event) {
+        RecordedEvent recorded = new RecordedEvent(event, currentUsername(), Instant.now());
+
+        int status = transactionRegistry == null
+            ? Status.STATUS_NO_TRANSACTION
+            : transactionRegistry.getTransactionStatus();
+        if (status == Status.STATUS_NO_TRANSACTION) {
+            dispatch(List.of(recorded));
+            return;
+        }
+        if (status != Status.STATUS_ACTIVE) {
+            metricsService.recordDomainEventsDiscarded(1);
+            LOG.debugf("Transacao com status %d: evento de dominio %s (%s) descartado",
+                status, event.getClass().getSimpleName(), event.aggregateId());
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<RecordedEvent> pending = (List<RecordedEvent>) transactionRegistry.getResource(PENDING_KEY);
+        if (pending == null) {
+            List<RecordedEvent> eventos = new ArrayList<>();
+            transactionRegistry.putResource(PENDING_KEY, eventos);
+            transactionRegistry.registerInterposedSynchronization(new AfterCommit(eventos));
+            pending = eventos;
+        }
+        pending.add(recorded);
+    }
+
+    /**
+     * Retorna estatisticas do despachante.
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("lanes", lanes);
+        stats.put("listeners", listeners.stream().map(l -> l.getClass().getSimpleName()).toList());
+        int enfileirados = 0;
+        for (ExecutorService executor : executors) {
+            if (executor instanceof ThreadPoolExecutor pool) {
+                enfileirados += pool.getQueue().size();
+            }
+        }
+        stats.put("queued", enfileirados);
+        return stats;
+    }
+
+    void dispatch(List<RecordedEvent> eventos) {
+        for (RecordedEvent recorded : eventos) {
+            executors[lane(recorded.event().aggregateId())].execute(() -> deliver(recorded));
+        }
+        metricsService.recordDomainEventsDispatched(eventos.size());
+    }
+
+    private void deliver(RecordedEvent recorded) {
+        for (DomainEventListener listener : listeners) {
+            try {
+                listener.onEvent(recorded);
+            } catch (Exception e) {
+                metricsService.recordDomainEventListenerFailure();
+                LOG.errorf(e, "Falha no listener %s ao tratar %s (%s)",
+                    listener.getClass().getSimpleName(),
+                    recorded.event().getClass().getSimpleName(),
+                    recorded.event().aggregateId());
+            }
+        }
+    }
+
+    private int lane(String aggregateId) {
+        return Math.floorMod(aggregateId.hashCode(), executors.length);
+    }
+
+    /**
+     * Extrai o username do token JWT atual, se disponivel.
+     */
+    private String currentUsername() {
+        try {
+            if (jwt != null && jwt.getName() != null) {
+                return jwt.getName();
+            }
+        } catch (Exception e) {
+            // Token nao disponivel (requisicao anonima ou tarefa agendada)
+        }
+        return "anonymous";
+    }
+
+    /**
+     * Despacha os eventos da transacao apenas se ela for confirmada.
+     */
+    private final class AfterCommit implements Synchronization {
+
+        private final List<RecordedEvent> eventos;
+
+        private AfterCommit(List<RecordedEvent> eventos) {
+            this.eventos = eventos;
+        }
+
+        @Override
+        public void beforeCompletion() {
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (status == Status.STATUS_COMMITTED) {
+                dispatch(eventos);
+            } else {
+                metricsService.recordDomainEventsDiscarded(eventos.size());
+                LOG.debugf("Transacao nao confirmada: %d eventos de dominio descartados", eventos.size());
+            }
+        }
+    }
+}
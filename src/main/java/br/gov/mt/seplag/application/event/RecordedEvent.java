@@ -0,0 +1,14 @@
+package br.gov.mt.seplag.application.event;
+
+import java.time.Instant;
+
+/**
+ * Evento de dominio com os dados capturados no momento do registro
+ * (a entrega acontece depois, fora do contexto da requisicao).
+ *
+ * @param event evento registrado
+ * @param username usuario da requisicao que gerou o evento
+ * @param recordedAt instante do registro
+ * @author Jean Paulo Sassi de Miranda
+ */
+public record RecordedEvent(DomainEvent event, String username, Instant recordedAt) {}
@@ -1,5 +1,7 @@
 package br.gov.mt.seplag.application.service;
 
+import br.gov.mt.seplag.application.event.AlbumDomainEvent;
+import br.gov.mt.seplag.application.event.DomainEventPublisher;
 import br.gov.mt.seplag.domain.exception.BusinessException;
 import br.gov.mt.seplag.domain.exception.ResourceNotFoundException;
 import br.gov.mt.seplag.domain.model.Album;
@@ -8,6 +10,7 @@ import br.gov.mt.seplag.domain.repository.AlbumImagemRepository;
 import br.gov.mt.seplag.domain.repository.AlbumRepository;
 import br.gov.mt.seplag.infrastructure.storage.StorageService;
 import br.gov.mt.seplag.presentation.dto.album.AlbumImagemResponse;
+import br.gov.mt.seplag.presentation.websocket.AlbumTopics;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
@@ -80,6 +83,9 @@ public class AlbumImagemService {
     @Inject
     StorageService storageService;
 
+    @Inject
+    DomainEventPublisher eventPublisher;
+
     /**
      * Faz upload de uma ou mais imagens para um album.
      */
@@ -126,6 +132,9 @@ public class AlbumImagemService {
             }
         }
 
+        eventPublisher.publish(new AlbumDomainEvent.ImagesChanged(albumId, responses, List.of(),
+            AlbumTopics.forAlbum(album)));
+
         return responses;
     }
 
@@ -166,9 +175,15 @@ public class AlbumImagemService {
         storageService.delete(imagem.getObjectKey());
 
         // Deleta do banco
+        Album album = imagem.getAlbum();
         albumImagemRepository.delete(imagem);
 
         LOG.infof("Imagem ID: %d deletada com sucesso", imagemId);
+
+        if (album != null) {
+            eventPublisher.publish(new AlbumDomainEvent.ImagesChanged(album.getId(), List.of(), List.of(imagemId),
+                AlbumTopics.forAlbum(album)));
+        }
     }
 
     /**
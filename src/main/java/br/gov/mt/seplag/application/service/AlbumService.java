@@ -1,27 +1,41 @@
 package br.gov.mt.seplag.application.service;
 
+import br.gov.mt.seplag.application.event.AlbumDomainEvent;
+import br.gov.mt.seplag.application.event.DomainEventPublisher;
 import br.gov.mt.seplag.domain.exception.BusinessException;
 import br.gov.mt.seplag.domain.exception.ResourceNotFoundException;
 import br.gov.mt.seplag.domain.model.Album;
+import br.gov.mt.seplag.domain.model.AlbumImagem;
 import br.gov.mt.seplag.domain.model.Artista;
+import br.gov.mt.seplag.domain.repository.AlbumCampos;
+import br.gov.mt.seplag.domain.repository.AlbumCampos.Expansao;
+import br.gov.mt.seplag.domain.repository.AlbumImagemRepository;
+import br.gov.mt.seplag.domain.repository.AlbumProjecao;
 import br.gov.mt.seplag.domain.repository.AlbumRepository;
 import br.gov.mt.seplag.domain.repository.ArtistaRepository;
 import br.gov.mt.seplag.presentation.dto.album.AlbumDetailResponse;
 import br.gov.mt.seplag.presentation.dto.album.AlbumImagemResponse;
 import br.gov.mt.seplag.presentation.dto.album.AlbumRequest;
 import br.gov.mt.seplag.presentation.dto.album.AlbumResponse;
+import br.gov.mt.seplag.presentation.dto.common.LoteResponse;
 import br.gov.mt.seplag.presentation.dto.common.PageResponse;
 import br.gov.mt.seplag.infrastructure.storage.StorageService;
-import br.gov.mt.seplag.presentation.websocket.AlbumWebSocket;
+import br.gov.mt.seplag.presentation.websocket.AlbumTopics;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import org.jboss.logging.Logger;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Servico de albuns.
@@ -40,33 +54,93 @@ public class AlbumService {
     @Inject
     ArtistaRepository artistaRepository;
 
+    @Inject
+    AlbumImagemRepository albumImagemRepository;
+
     @Inject
     StorageService storageService;
 
     @Inject
-    AlbumWebSocket albumWebSocket;
+    DomainEventPublisher eventPublisher;
 
     /**
-     * Lista albuns com filtros e paginacao.
+     * Lista albuns com filtros e paginacao (resposta completa, com artistas).
      */
     public PageResponse<AlbumResponse> listar(String titulo, Integer anoLancamento, Long artistaId,
                                                String sortField, String sortDir, int page, int size) {
-        LOG.debugf("Listando albuns - titulo: %s, anoLancamento: %s, artistaId: %s, page: %d, size: %d",
-            titulo, anoLancamento, artistaId, page, size);
+        return listar(titulo, anoLancamento, artistaId, sortField, sortDir, page, size, AlbumCampos.LISTAGEM);
+    }
+
+    /**
+     * Lista albuns com filtros e paginacao, lendo apenas os campos pedidos.
+     * Os artistas da pagina, se expandidos, vem em uma unica query (sem N+1).
+     */
+    public PageResponse<AlbumResponse> listar(String titulo, Integer anoLancamento, Long artistaId,
+                                               String sortField, String sortDir, int page, int size,
+                                               AlbumCampos campos) {
+        LOG.debugf("Listando albuns - titulo: %s, anoLancamento: %s, artistaId: %s, page: %d, size: %d, campos: %s",
+            titulo, anoLancamento, artistaId, page, size, campos);
 
-        List<Album> albuns = albumRepository.findWithFilters(titulo, anoLancamento, artistaId, sortField, sortDir, page, size);
+        List<AlbumProjecao> albuns = albumRepository.findProjetados(titulo, anoLancamento, artistaId,
+            sortField, sortDir, page, size, campos);
         long total = albumRepository.countWithFilters(titulo, anoLancamento, artistaId);
 
-        List<AlbumResponse> content = AlbumResponse.fromEntities(albuns);
+        Map<Long, List<Artista>> artistas = artistasSeExpandidos(albuns, campos);
+        List<AlbumResponse> content = albuns.stream()
+            .map(album -> AlbumResponse.fromProjecao(album, artistas != null
+                ? artistas.getOrDefault(album.id(), List.of()) : null))
+            .collect(Collectors.toList());
         return PageResponse.of(content, page, size, total);
     }
 
+    /**
+     * Versao de uma pagina da listagem para o ETag, sem carregar albuns.
+     * Inclui filtros, pagina, ordenacao e campos: cada combinacao e uma representacao.
+     */
+    public String versaoListagem(String titulo, Integer anoLancamento, Long artistaId,
+                                 String sortField, String sortDir, int page, int size, AlbumCampos campos) {
+        return String.join(";",
+            albumRepository.findVersaoListagem(titulo, anoLancamento, artistaId, campos),
+            "titulo=" + titulo, "anoLancamento=" + anoLancamento, "artistaId=" + artistaId,
+            "sort=" + sortField + "," + sortDir, "page=" + page + "," + size, campos.chave());
+    }
+
+    /**
+     * Versao do detalhe do album para o ETag, sem carregar o album.
+     * Com imagens expandidas entra tambem a janela das URLs pre-assinadas.
+     *
+     * @throws ResourceNotFoundException album nao existe
+     */
+    public String versao(Long id, AlbumCampos campos) {
+        String versao = albumRepository.findVersao(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Album", id));
+        String chave = versao + ";" + campos.chave();
+        return campos.expande(Expansao.IMAGENS) ? chave + ";urls=" + storageService.getJanelaPresignedUrls() : chave;
+    }
+
     /**
      * Busca album por ID com detalhes e imagens.
      */
     public AlbumDetailResponse buscarPorId(Long id) {
+        return buscarPorId(id, AlbumCampos.DETALHE);
+    }
+
+    /**
+     * Busca album por ID com os campos e associacoes pedidos.
+     *
+     * A resposta completa usa um unico fetch join. Nos demais casos apenas as
+     * colunas pedidas sao lidas e as imagens (e suas URLs pre-assinadas) so sao
+     * carregadas se expandidas.
+     */
+    public AlbumDetailResponse buscarPorId(Long id, AlbumCampos campos) {
         LOG.debugf("Buscando album por ID: %d", id);
 
+        if (!campos.equals(AlbumCampos.DETALHE)) {
+            AlbumProjecao album = albumRepository.findProjetadoById(id, campos)
+                .orElseThrow(() -> new ResourceNotFoundException("Album", id));
+            return detalhes(List.of(album), campos).get(id);
+        }
+
         Album album = albumRepository.findByIdWithDetails(id)
             .orElseThrow(() -> new ResourceNotFoundException("Album", id));
 
@@ -82,6 +156,76 @@ public class AlbumService {
         return AlbumDetailResponse.fromEntity(album, imagensComUrls);
     }
 
+    /**
+     * Busca varios albuns por ID com detalhes e imagens (ex: playlists).
+     */
+    public LoteResponse<AlbumDetailResponse> buscarPorIds(List<Long> ids) {
+        return buscarPorIds(ids, AlbumCampos.DETALHE);
+    }
+
+    /**
+     * Busca varios albuns por ID com os campos e associacoes pedidos.
+     *
+     * Custo fixo por lote, independente da quantidade de ids: uma query para
+     * as colunas pedidas e, se expandidos, uma para os artistas, uma para as
+     * imagens e um unico presigner para as URLs.
+     *
+     * @param ids ids distintos, na ordem em que devem ser retornados
+     */
+    public LoteResponse<AlbumDetailResponse> buscarPorIds(List<Long> ids, AlbumCampos campos) {
+        LOG.debugf("Buscando %d albuns por ID", ids.size());
+
+        Map<Long, AlbumDetailResponse> albuns = detalhes(albumRepository.findProjetadosByIds(ids, campos), campos);
+        return LoteResponse.of(ids, albuns, album -> album);
+    }
+
+    /**
+     * Monta os detalhes dos albuns carregando as associacoes expandidas em lote.
+     */
+    private Map<Long, AlbumDetailResponse> detalhes(List<AlbumProjecao> albuns, AlbumCampos campos) {
+        Map<Long, List<Artista>> artistas = artistasSeExpandidos(albuns, campos);
+
+        Map<Long, List<AlbumImagemResponse>> imagens = null;
+        if (campos.expande(Expansao.IMAGENS)) {
+            Map<Long, List<AlbumImagem>> imagensPorAlbum = albuns.isEmpty() ? Map.of()
+                : albumImagemRepository.findByAlbumIds(albuns.stream().map(AlbumProjecao::id).toList()).stream()
+                    .collect(Collectors.groupingBy(imagem -> imagem.getAlbum().getId()));
+
+            Map<String, String> urls = storageService.getPresignedUrls(imagensPorAlbum.values().stream()
+                .flatMap(List::stream)
+                .map(AlbumImagem::getObjectKey)
+                .toList());
+
+            imagens = new HashMap<>();
+            for (Map.Entry<Long, List<AlbumImagem>> entrada : imagensPorAlbum.entrySet()) {
+                imagens.put(entrada.getKey(), entrada.getValue().stream()
+                    .map(imagem -> AlbumImagemResponse.fromEntity(imagem, urls.get(imagem.getObjectKey())))
+                    .collect(Collectors.toList()));
+            }
+        }
+
+        Map<Long, AlbumDetailResponse> detalhes = new HashMap<>();
+        for (AlbumProjecao album : albuns) {
+            detalhes.put(album.id(), AlbumDetailResponse.fromProjecao(album,
+                artistas != null ? artistas.getOrDefault(album.id(), List.of()) : null,
+                imagens != null ? imagens.getOrDefault(album.id(), List.of()) : null));
+        }
+        return detalhes;
+    }
+
+    /**
+     * Artistas por album em uma unica query, ou null se nao foram expandidos.
+     */
+    private Map<Long, List<Artista>> artistasSeExpandidos(List<AlbumProjecao> albuns, AlbumCampos campos) {
+        if (!campos.expande(Expansao.ARTISTAS)) {
+            return null;
+        }
+        if (albuns.isEmpty()) {
+            return Map.of();
+        }
+        return albumRepository.findArtistasByAlbumIds(albuns.stream().map(AlbumProjecao::id).toList());
+    }
+
     /**
      * Cria um novo album.
      */
@@ -112,9 +256,9 @@ public class AlbumService {
 
         LOG.infof("Album criado com sucesso - ID: %d", album.getId());
 
-        // Notifica via WebSocket
+        // Entregue aos listeners (WebSocket, auditoria) apenas apos o commit
         AlbumResponse response = AlbumResponse.fromEntity(album);
-        albumWebSocket.notifyNewAlbum(response);
+        eventPublisher.publish(new AlbumDomainEvent.Created(response));
 
         return response;
     }
@@ -129,6 +273,13 @@ public class AlbumService {
         Album album = albumRepository.findByIdWithDetails(id)
             .orElseThrow(() -> new ResourceNotFoundException("Album", id));
 
+        // Estado anterior para calcular o delta do evento de alteracao
+        String tituloAnterior = album.getTitulo();
+        Integer anoAnterior = album.getAnoLancamento();
+        String descricaoAnterior = album.getDescricao();
+        Set<Long> artistasAnteriores = artistaIds(album);
+        Set<String> topics = new LinkedHashSet<>(AlbumTopics.forAlbum(album));
+
         album.setTitulo(request.getTitulo());
         album.setAnoLancamento(request.getAnoLancamento());
         album.setDescricao(request.getDescricao());
@@ -153,7 +304,27 @@ public class AlbumService {
         albumRepository.persist(album);
 
         LOG.infof("Album atualizado com sucesso - ID: %d", album.getId());
-        return AlbumResponse.fromEntity(album);
+
+        AlbumResponse response = AlbumResponse.fromEntity(album);
+
+        // Notifica apenas os campos alterados
+        Map<String, Object> changes = new LinkedHashMap<>();
+        if (!Objects.equals(tituloAnterior, album.getTitulo())) {
+            changes.put("titulo", response.getTitulo());
+        }
+        if (!Objects.equals(anoAnterior, album.getAnoLancamento())) {
+            changes.put("anoLancamento", response.getAnoLancamento());
+        }
+        if (!Objects.equals(descricaoAnterior, album.getDescricao())) {
+            changes.put("descricao", response.getDescricao());
+        }
+        if (!artistasAnteriores.equals(artistaIds(album))) {
+            changes.put("artistas", response.getArtistas());
+        }
+        topics.addAll(AlbumTopics.forAlbum(album));
+        eventPublisher.publish(new AlbumDomainEvent.Updated(response, changes, topics));
+
+        return response;
     }
 
     /**
@@ -175,6 +346,8 @@ public class AlbumService {
         Album album = albumRepository.findByIdWithDetails(id)
             .orElseThrow(() -> new ResourceNotFoundException("Album", id));
 
+        List<String> topics = AlbumTopics.forAlbum(album);
+
         // Remove imagens do MinIO
         if (album.getImagens() != null && !album.getImagens().isEmpty()) {
             LOG.debugf("Removendo %d imagens do album ID: %d", album.getImagens().size(), id);
@@ -197,5 +370,16 @@ public class AlbumService {
 
         albumRepository.delete(album);
         LOG.infof("Album removido com sucesso - ID: %d", id);
+
+        eventPublisher.publish(new AlbumDomainEvent.Deleted(id, topics));
+    }
+
+    private static Set<Long> artistaIds(Album album) {
+        if (album.getArtistas() == null) {
+            return Set.of();
+        }
+        return album.getArtistas().stream()
+            .map(Artista::getId)
+            .collect(Collectors.toSet());
     }
 }
@@ -8,6 +8,7 @@ import br.gov.mt.seplag.domain.repository.ArtistaRepository;
 import br.gov.mt.seplag.presentation.dto.artista.ArtistaDetailResponse;
 import br.gov.mt.seplag.presentation.dto.artista.ArtistaRequest;
 import br.gov.mt.seplag.presentation.dto.artista.ArtistaResponse;
+import br.gov.mt.seplag.presentation.dto.common.LoteResponse;
 import br.gov.mt.seplag.presentation.dto.common.PageResponse;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
@@ -15,6 +16,8 @@ import jakarta.transaction.Transactional;
 import org.jboss.logging.Logger;
 
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * Servico de artistas - contem a logica de negocio do CRUD.
@@ -43,6 +46,26 @@ public class ArtistaService {
         return PageResponse.of(content, page, size, total);
     }
 
+    /**
+     * Versao de uma pagina da listagem para o ETag, sem carregar artistas.
+     * Inclui filtros, pagina e ordenacao: cada combinacao e uma representacao.
+     */
+    public String versaoListagem(String nome, TipoArtista tipo, String sortField, String sortDir, int page, int size) {
+        return String.join(";",
+            artistaRepository.findVersaoListagem(nome, tipo),
+            "nome=" + nome, "tipo=" + tipo, "sort=" + sortField + "," + sortDir, "page=" + page + "," + size);
+    }
+
+    /**
+     * Versao do detalhe do artista para o ETag, sem carregar o artista.
+     *
+     * @throws ResourceNotFoundException artista nao existe
+     */
+    public String versao(Long id) {
+        return artistaRepository.findVersao(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Artista", id));
+    }
+
     /**
      * Busca artista por ID com detalhes e albuns.
      */
@@ -55,6 +78,20 @@ public class ArtistaService {
         return ArtistaDetailResponse.fromEntity(artista);
     }
 
+    /**
+     * Busca varios artistas por ID com albuns, em uma unica query.
+     *
+     * @param ids ids distintos, na ordem em que devem ser retornados
+     */
+    public LoteResponse<ArtistaDetailResponse> buscarPorIds(List<Long> ids) {
+        LOG.debugf("Buscando %d artistas por ID", ids.size());
+
+        Map<Long, Artista> artistas = artistaRepository.findByIdsWithAlbuns(ids).stream()
+            .collect(Collectors.toMap(Artista::getId, artista -> artista));
+
+        return LoteResponse.of(ids, artistas, ArtistaDetailResponse::fromEntity);
+    }
+
     /**
      * Cria um novo artista.
      * Verifica duplicidade de nome antes de inserir.
@@ -3,8 +3,11 @@ package br.gov.mt.seplag.application.service;
 import br.gov.mt.seplag.domain.exception.AuthenticationException;
 import br.gov.mt.seplag.domain.model.Usuario;
 import br.gov.mt.seplag.domain.repository.UsuarioRepository;
+import br.gov.mt.seplag.infrastructure.security.ActiveUserSnapshot;
+import br.gov.mt.seplag.infrastructure.security.ActiveUserSnapshot.ActiveUser;
 import br.gov.mt.seplag.infrastructure.security.JwtTokenService;
 import br.gov.mt.seplag.infrastructure.security.PasswordEncoder;
+import br.gov.mt.seplag.infrastructure.security.RefreshTokenStore;
 import br.gov.mt.seplag.presentation.dto.auth.LoginRequest;
 import br.gov.mt.seplag.presentation.dto.auth.LoginResponse;
 import br.gov.mt.seplag.presentation.dto.auth.RefreshTokenRequest;
@@ -17,7 +20,11 @@ import org.jboss.logging.Logger;
 
 /**
  * Servico de autenticacao.
- * Gerencia login e renovacao de tokens JWT.
+ * Gerencia login, renovacao de tokens JWT e logout.
+ *
+ * Refresh tokens pertencem a uma familia aberta no login e sao rotacionados
+ * a cada renovacao (ver RefreshTokenStore). A renovacao nao consulta a tabela
+ * de usuarios: o usuario e validado pelo ActiveUserSnapshot.
  *
  * @author Jean Paulo Sassi de Miranda
  */
@@ -38,6 +45,12 @@ public class AuthService {
     @Inject
     JWTParser jwtParser;
 
+    @Inject
+    RefreshTokenStore refreshTokenStore;
+
+    @Inject
+    ActiveUserSnapshot activeUserSnapshot;
+
     /**
      * Realiza o login do usuario.
      *
@@ -56,8 +69,13 @@ public class AuthService {
             throw new AuthenticationException("Credenciais invalidas");
         }
 
+        rehashIfNeeded(usuario, request.getPassword());
+        activeUserSnapshot.remember(usuario);
+
+        RefreshTokenStore.Issued issued = refreshTokenStore.startFamily(usuario.getUsername());
         String accessToken = jwtTokenService.generateToken(usuario.getUsername(), usuario.getRole());
-        String refreshToken = jwtTokenService.generateRefreshToken(usuario.getUsername(), usuario.getRole());
+        String refreshToken = jwtTokenService.generateRefreshToken(
+            usuario.getUsername(), usuario.getRole(), issued.familyId(), issued.tokenId());
 
         LOG.infof("Login realizado com sucesso para usuario: %s", request.getUsername());
 
@@ -73,38 +91,106 @@ public class AuthService {
     /**
      * Renova o token de acesso usando o refresh token.
      *
+     * O refresh token apresentado e rotacionado: um novo e emitido e o anterior
+     * deixa de valer. Reapresentar um token ja rotacionado revoga a familia.
+     *
      * @param request dados do refresh token
      * @return resposta com novo token
-     * @throws AuthenticationException se o refresh token for invalido
+     * @throws AuthenticationException se o refresh token for invalido, revogado ou reutilizado
      */
     public LoginResponse refreshToken(RefreshTokenRequest request) {
-        try {
-            JsonWebToken jwt = jwtParser.parse(request.getRefreshToken());
+        JsonWebToken jwt = parseRefreshToken(request.getRefreshToken());
+
+        String familyId = jwt.getClaim(JwtTokenService.FAMILY_CLAIM);
+        String tokenId = jwt.getTokenID();
+        if (familyId == null || tokenId == null) {
+            throw new AuthenticationException("Refresh token invalido ou revogado");
+        }
 
-            String tokenType = jwt.getClaim("type");
-            if (!"refresh".equals(tokenType)) {
-                throw new AuthenticationException("Token invalido para renovacao");
-            }
+        String username = jwt.getSubject();
+        ActiveUser usuario = activeUserSnapshot.find(username)
+            .orElseThrow(() -> {
+                refreshTokenStore.revokeFamily(familyId);
+                return new AuthenticationException("Usuario nao encontrado ou inativo");
+            });
 
-            String username = jwt.getSubject();
-            Usuario usuario = usuarioRepository.findByUsernameAndAtivo(username)
-                .orElseThrow(() -> new AuthenticationException("Usuario nao encontrado ou inativo"));
+        String novoTokenId = refreshTokenStore.rotate(familyId, tokenId, username)
+            .orElseThrow(() -> new AuthenticationException("Refresh token invalido ou revogado"));
+
+        String accessToken = jwtTokenService.generateToken(usuario.username(), usuario.role());
+        String newRefreshToken = jwtTokenService.generateRefreshToken(
+            usuario.username(), usuario.role(), familyId, novoTokenId);
+
+        LOG.infof("Token renovado com sucesso para usuario: %s", username);
+
+        return new LoginResponse(
+            accessToken,
+            newRefreshToken,
+            jwtTokenService.getTokenLifespan(),
+            usuario.username(),
+            usuario.role()
+        );
+    }
+
+    /**
+     * Encerra a sessao revogando a familia do refresh token informado.
+     *
+     * @param request dados do refresh token
+     * @throws AuthenticationException se o refresh token for invalido
+     */
+    public void logout(RefreshTokenRequest request) {
+        JsonWebToken jwt = parseRefreshToken(request.getRefreshToken());
 
-            String accessToken = jwtTokenService.generateToken(usuario.getUsername(), usuario.getRole());
-            String newRefreshToken = jwtTokenService.generateRefreshToken(usuario.getUsername(), usuario.getRole());
+        String familyId = jwt.getClaim(JwtTokenService.FAMILY_CLAIM);
+        if (familyId != null) {
+            refreshTokenStore.revokeFamily(familyId);
+        }
 
-            LOG.infof("Token renovado com sucesso para usuario: %s", username);
+        LOG.infof("Logout realizado para usuario: %s", jwt.getSubject());
+    }
 
-            return new LoginResponse(
-                accessToken,
-                newRefreshToken,
-                jwtTokenService.getTokenLifespan(),
-                usuario.getUsername(),
-                usuario.getRole()
-            );
+    /**
+     * Valida assinatura, expiracao e tipo do refresh token.
+     */
+    private JsonWebToken parseRefreshToken(String refreshToken) {
+        JsonWebToken jwt;
+        try {
+            jwt = jwtParser.parse(refreshToken);
         } catch (ParseException e) {
             LOG.error("Erro ao fazer parse do refresh token", e);
             throw new AuthenticationException("Refresh token invalido ou expirado");
         }
+
+        String tokenType = jwt.getClaim("type");
+        if (!"refresh".equals(tokenType)) {
+            throw new AuthenticationException("Token invalido para renovacao");
+        }
+        return jwt;
+    }
+
+    /**
+     * Regenera o hash da senha quando o work factor armazenado esta fora da faixa.
+     *
+     * So e chamado apos a senha ser validada, pois precisa da senha em texto plano.
+     * - Custo abaixo do calibrado: hash fraco para o host atual -> sobe o custo
+     * - Custo acima do teto configurado (igual no cluster) -> desce o custo
+     *
+     * Falhas aqui nao impedem o login; o rehash e tentado novamente no proximo acesso.
+     */
+    private void rehashIfNeeded(Usuario usuario, String rawPassword) {
+        String hashAtual = usuario.getPassword();
+        if (!passwordEncoder.needsRehash(hashAtual) && !passwordEncoder.exceedsMaxWorkFactor(hashAtual)) {
+            return;
+        }
+
+        try {
+            String novoHash = passwordEncoder.encode(rawPassword);
+            usuarioRepository.atualizarSenha(usuario.getId(), novoHash);
+            usuario.setPassword(novoHash);
+            LOG.infof("Hash de senha atualizado para work factor %d - usuario: %s",
+                passwordEncoder.getWorkFactor(), usuario.getUsername());
+        } catch (Exception e) {
+            LOG.warnf("Falha ao atualizar hash de senha do usuario %s: %s", usuario.getUsername(), e.getMessage());
+        }
     }
 }
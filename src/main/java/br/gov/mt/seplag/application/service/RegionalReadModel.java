@@ -0,0 +1,85 @@
+package br.gov.mt.seplag.application.service;
+
+import br.gov.mt.seplag.domain.model.Regional;
+import br.gov.mt.seplag.domain.repository.RegionalRepository;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Modelo de leitura das regionais em memoria.
+ *
+ * A tabela e pequena e so muda na sincronizacao, entao listagem, busca por
+ * ID e estatisticas sao atendidas por um RegionalSnapshot imutavel, trocado
+ * atomicamente (referencia volatile) a cada recarga:
+ * - Na inicializacao
+ * - Apos cada sincronizacao aplicada
+ * - Periodicamente (alteracoes feitas por outro no ou direto no banco)
+ *
+ * Se uma recarga falhar (banco indisponivel), o snapshot anterior continua
+ * sendo servido. Enquanto nenhum snapshot foi carregado, cada leitura tenta
+ * carregar.
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+@ApplicationScoped
+public class RegionalReadModel {
+
+    private static final Logger LOG = Logger.getLogger(RegionalReadModel.class);
+
+    @Inject
+    RegionalRepository regionalRepository;
+
+    private volatile RegionalSnapshot snapshot;
+
+    void onStart(@Observes StartupEvent event) {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            LOG.warnf("Snapshot de regionais nao carregado na inicializacao: %s", e.getMessage());
+        }
+    }
+
+    @Scheduled(every = "${app.regionais.snapshot.refresh-interval:5m}",
+        concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            LOG.warnf("Falha ao recarregar regionais; mantendo snapshot de %s: %s",
+                snapshot != null ? snapshot.carregadoEm() : "-", e.getMessage());
+        }
+    }
+
+    /**
+     * Recarrega o snapshot a partir do banco (uma consulta).
+     */
+    public synchronized RegionalSnapshot refresh() {
+        List<Regional> regionais = regionalRepository.findAllOrdenadas();
+        RegionalSnapshot novo = new RegionalSnapshot(regionais, Instant.now());
+        snapshot = novo;
+        LOG.debugf("Snapshot de regionais recarregado: %d regionais", novo.size());
+        return novo;
+    }
+
+    /**
+     * Snapshot atual, sem acesso ao banco apos a primeira carga.
+     */
+    public RegionalSnapshot current() {
+        RegionalSnapshot atual = snapshot;
+        return atual != null ? atual : refresh();
+    }
+
+    /**
+     * Snapshot atual ou null se ainda nao foi carregado (nunca acessa o banco).
+     */
+    public RegionalSnapshot peek() {
+        return snapshot;
+    }
+}
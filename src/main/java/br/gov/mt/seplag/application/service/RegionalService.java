@@ -1,20 +1,53 @@
 package br.gov.mt.seplag.application.service;
 
 import br.gov.mt.seplag.domain.exception.BusinessException;
-import br.gov.mt.seplag.domain.model.Regional;
+import br.gov.mt.seplag.domain.model.RegionalAlteracao;
+import br.gov.mt.seplag.domain.repository.RegionalAlteracaoRepository;
 import br.gov.mt.seplag.domain.repository.RegionalRepository;
-import br.gov.mt.seplag.infrastructure.client.RegionaisClient;
-import br.gov.mt.seplag.infrastructure.client.RegionaisClient.RegionalExterna;
+import br.gov.mt.seplag.domain.repository.RegionalRepository.ImpressaoDigital;
+import br.gov.mt.seplag.domain.repository.RegionalRepository.ResultadoSincronizacao;
+import br.gov.mt.seplag.infrastructure.client.RegionaisGateway;
+import br.gov.mt.seplag.infrastructure.client.RegionaisGateway.RegionaisPayload;
+import br.gov.mt.seplag.infrastructure.client.RegionaisPayloadReader;
+import br.gov.mt.seplag.infrastructure.lock.AdvisoryLockService;
+import br.gov.mt.seplag.infrastructure.metrics.MetricsService;
+import br.gov.mt.seplag.presentation.dto.regional.AlteracoesRegionaisResponse;
+import br.gov.mt.seplag.presentation.dto.regional.RegionalAlteracaoResponse;
 import br.gov.mt.seplag.presentation.dto.regional.RegionalResponse;
 import br.gov.mt.seplag.presentation.dto.regional.SincronizacaoResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.ManagedContext;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
 import jakarta.inject.Inject;
-import jakarta.transaction.Transactional;
-import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
 
 /**
  * Servico de regionais com sincronizacao otimizada.
@@ -24,6 +57,34 @@ import java.util.stream.Collectors;
  * 2. Ausente no endpoint  -> UPDATE ativo = false na tabela local
  * 3. Atributo alterado    -> UPDATE com novo valor na tabela local
  *
+ * Deteccao de mudanca: a impressao digital do ultimo payload aplicado
+ * (ETag, Last-Modified e SHA-256 do corpo) fica no banco
+ * (regional_sincronizacao_estado), lida sob o advisory lock e gravada na
+ * transacao do upsert. A busca seguinte e condicional; com HTTP 304 ou corpo
+ * identico, nada e desserializado nem reaplicado. Como a comparacao e com o
+ * que esta no banco, qualquer instancia decide corretamente, inclusive logo
+ * apos um restart ou depois que outra instancia aplicou um payload diferente.
+ *
+ * Busca: RegionaisGateway faz a requisicao sem bloquear (bulkhead, retry com
+ * jitter, circuit breaker). Com a API indisponivel, o gateway devolve o
+ * ultimo payload obtido (stale); se ele ja foi aplicado, a sincronizacao e
+ * dispensada informando a idade dos dados, em vez de falhar.
+ *
+ * Aplicacao: o corpo chega em arquivo temporario (RegionaisGateway), o hash
+ * e calculado lendo o arquivo em streaming e, se mudou, os tokens sao lidos
+ * do arquivo (RegionaisPayloadReader) e enviados ao banco em lotes de
+ * app.regionais.sync.batch-size, na mesma transacao. O heap usado e o de um
+ * buffer e um lote, sem o corpo nem a lista de regionais em memoria.
+ *
+ * Historico: cada sincronizacao aplicada grava as regionais alteradas em
+ * regional_alteracao com o seu id; consumidores leem apenas o delta com
+ * listarAlteracoes(since), em vez da lista completa.
+ *
+ * Concorrencia: cada no tem uma unica execucao em andamento (single-flight);
+ * chamadas simultaneas compartilham o seu resultado e uma chamada forcada
+ * espera a execucao comum terminar e roda em seguida. Entre nos, um advisory
+ * lock do Postgres deixa apenas um no chamar a API e escrever na tabela por vez.
+ *
  * @author Jean Paulo Sassi de Miranda
  */
 @ApplicationScoped
@@ -35,8 +96,77 @@ public class RegionalService {
     RegionalRepository regionalRepository;
 
     @Inject
-    @RestClient
-    RegionaisClient regionaisClient;
+    RegionalAlteracaoRepository alteracaoRepository;
+
+    @Inject
+    RegionaisGateway regionaisGateway;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    MetricsService metricsService;
+
+    @Inject
+    AdvisoryLockService advisoryLock;
+
+    @Inject
+    RegionalReadModel readModel;
+
+    @ConfigProperty(name = "app.regionais.sync.interval", defaultValue = "off")
+    String intervalo;
+
+    @ConfigProperty(name = "app.regionais.sync.jitter", defaultValue = "30s")
+    Duration jitter;
+
+    @ConfigProperty(name = "app.regionais.client.max-wait", defaultValue = "30s")
+    Duration esperaMaxima;
+
+    @ConfigProperty(name = "app.regionais.sync.batch-size", defaultValue = "1000")
+    int tamanhoLote;
+
+    static final String LOCK_SINCRONIZACAO = "regional-sync";
+
+    static final int LIMITE_ALTERACOES_MAXIMO = 5000;
+
+    private static final String RESULTADO_APLICADA = "applied";
+    private static final String RESULTADO_OUTRO_NO = "locked";
+    private static final String RESULTADO_STALE = "stale";
+    private static final String RESULTADO_ERRO = "error";
+
+    /**
+     * Execucao em andamento neste no (no maximo uma).
+     */
+    private final AtomicReference<EmAndamento> emAndamento = new AtomicReference<>();
+
+    /**
+     * Execucao agendada aguardando o jitter (evita acumular disparos).
+     */
+    private final AtomicBoolean agendadaPendente = new AtomicBoolean();
+
+    private ScheduledExecutorService atrasos;
+
+    private final AtomicReference<UltimaExecucao> ultimaExecucao = new AtomicReference<>();
+
+    private volatile Instant ultimoSucesso;
+
+    @PostConstruct
+    void init() {
+        metricsService.registerRegionalSyncInProgressGauge(emAndamento, ref -> ref.get() != null ? 1 : 0);
+        metricsService.registerRegionalSyncLastRunGauge(ultimaExecucao,
+            ref -> ref.get() != null ? ref.get().inicio().getEpochSecond() : 0);
+        metricsService.registerRegionalSyncLastSuccessGauge(this,
+            service -> service.ultimoSucesso != null ? service.ultimoSucesso.getEpochSecond() : 0);
+        atrasos = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "regional-sync-agendada");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        atrasos.shutdownNow();
+    }
 
     /**
      * Lista todas as regionais.
@@ -46,13 +176,8 @@ public class RegionalService {
     public List<RegionalResponse> listar(Boolean apenasAtivas) {
         LOG.debugf("Listando regionais - apenasAtivas: %s", apenasAtivas);
 
-        List<Regional> regionais = Boolean.TRUE.equals(apenasAtivas)
-            ? regionalRepository.findAllAtivas()
-            : regionalRepository.findAllOrdenadas();
-
-        return regionais.stream()
-            .map(RegionalResponse::fromEntity)
-            .collect(Collectors.toList());
+        RegionalSnapshot snapshot = readModel.current();
+        return Boolean.TRUE.equals(apenasAtivas) ? snapshot.ativas() : snapshot.todas();
     }
 
     /**
@@ -61,103 +186,299 @@ public class RegionalService {
     public RegionalResponse buscarPorId(Integer id) {
         LOG.debugf("Buscando regional por ID: %d", id);
 
-        Regional regional = regionalRepository.findByIdOptional(id)
+        return readModel.current().find(id)
             .orElseThrow(() -> new BusinessException("Regional nao encontrada: " + id));
+    }
+
+    /**
+     * Lista as alteracoes de regionais posteriores ao cursor, em ordem de aplicacao.
+     *
+     * Com since=0 o historico comeca pela carga inicial (estado das regionais na
+     * criacao da tabela), entao um consumidor novo reconstroi a lista completa.
+     * O cursor da resposta e o since da proxima chamada.
+     *
+     * @param since seq da ultima alteracao ja consumida
+     * @param limite maximo de alteracoes (limitado a LIMITE_ALTERACOES_MAXIMO)
+     */
+    public AlteracoesRegionaisResponse listarAlteracoes(long since, int limite) {
+        if (since < 0) {
+            throw new BusinessException("Parametro since deve ser maior ou igual a zero");
+        }
+        if (limite < 1) {
+            throw new BusinessException("Parametro limite deve ser maior que zero");
+        }
+        int efetivo = Math.min(limite, LIMITE_ALTERACOES_MAXIMO);
+        LOG.debugf("Listando alteracoes de regionais - since: %d, limite: %d", since, efetivo);
 
-        return RegionalResponse.fromEntity(regional);
+        // Um registro a mais indica se ha outra pagina sem precisar de count
+        List<RegionalAlteracao> alteracoes = alteracaoRepository.findPosteriores(since, efetivo + 1);
+        boolean temMais = alteracoes.size() > efetivo;
+        if (temMais) {
+            alteracoes = alteracoes.subList(0, efetivo);
+        }
+        long cursor = alteracoes.isEmpty() ? since : alteracoes.get(alteracoes.size() - 1).getSeq();
+        return new AlteracoesRegionaisResponse(
+            alteracoes.stream().map(RegionalAlteracaoResponse::fromEntity).toList(), cursor, temMais);
+    }
+
+    /**
+     * Sincroniza regionais com a API externa, dispensando o trabalho quando
+     * nada mudou desde a ultima sincronizacao aplicada.
+     */
+    public SincronizacaoResponse sincronizar() {
+        return sincronizar(false);
     }
 
     /**
      * Sincroniza regionais com a API externa.
      *
-     * Algoritmo com complexidade O(n + m):
-     * - Carrega dados em memoria e indexa em HashMap
-     * - Processa cada regional externa com lookup O(1)
-     * - Inativa ausentes via query unica
+     * Chamadas simultaneas neste no compartilham uma unica execucao e o seu
+     * resultado (single-flight). Uma chamada forcada nao aceita o resultado de
+     * uma execucao comum: espera ela terminar e roda em seguida (chamadas
+     * forcadas que chegam juntas compartilham essa execucao). Entre nos, o
+     * advisory lock garante uma sincronizacao por vez; quem nao obtem o lock
+     * retorna sem chamar a API.
+     *
+     * @param forcar ignora a impressao digital e aplica o payload mesmo sem mudanca
+     *               (ex.: apos alteracao manual na tabela)
      */
-    @Transactional
-    public SincronizacaoResponse sincronizar() {
-        LOG.info("=== Iniciando sincronizacao de regionais ===");
+    public SincronizacaoResponse sincronizar(boolean forcar) {
+        return singleFlight(forcar ? Modo.FORCADA : Modo.MANUAL);
+    }
+
+    /**
+     * Sincronizacao periodica (desligada por padrao). Com a deteccao de mudanca,
+     * execucoes sem alteracao na API custam apenas a requisicao condicional.
+     *
+     * O atraso aleatorio (jitter) evita que todos os nos disparem no mesmo
+     * instante e disputem o lock a cada intervalo. A espera fica numa thread
+     * propria (disparo atrasado), sem ocupar a thread do scheduler; enquanto
+     * um disparo aguarda o jitter, os seguintes sao ignorados.
+     */
+    @Scheduled(every = "${app.regionais.sync.interval:off}",
+        concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void sincronizarAgendado() {
+        if (!agendadaPendente.compareAndSet(false, true)) {
+            LOG.debug("Sincronizacao agendada ignorada: disparo anterior ainda aguardando o jitter");
+            return;
+        }
+        long espera = jitter.toMillis() > 0 ? ThreadLocalRandom.current().nextLong(jitter.toMillis() + 1) : 0;
+        try {
+            atrasos.schedule(this::executarAgendada, espera, TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            // Executor encerrado (desligamento)
+            agendadaPendente.set(false);
+        }
+    }
+
+    /**
+     * Disparo atrasado da sincronizacao agendada, fora da thread do scheduler.
+     */
+    void executarAgendada() {
+        agendadaPendente.set(false);
+        if (emAndamento.get() != null) {
+            LOG.debug("Sincronizacao agendada ignorada: ja existe uma execucao neste no");
+            return;
+        }
+        ManagedContext requestContext = Arc.container().requestContext();
+        requestContext.activate();
+        try {
+            singleFlight(Modo.AGENDADA);
+        } catch (BusinessException e) {
+            LOG.warnf("Sincronizacao agendada de regionais falhou: %s", e.getMessage());
+        } catch (RuntimeException e) {
+            LOG.errorf(e, "Sincronizacao agendada de regionais falhou: %s", e.getMessage());
+        } finally {
+            requestContext.terminate();
+        }
+    }
+
+    /**
+     * Estado da sincronizacao neste no.
+     */
+    public Map<String, Object> getStatusSincronizacao() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("emAndamento", emAndamento.get() != null);
+        status.put("agendamento", intervalo);
+        status.put("jitter", jitter.toString());
+
+        UltimaExecucao ultima = ultimaExecucao.get();
+        if (ultima != null) {
+            Map<String, Object> execucao = new LinkedHashMap<>();
+            execucao.put("inicio", ultima.inicio().toString());
+            execucao.put("duracaoMs", ultima.duracaoMs());
+            execucao.put("modo", ultima.modo().name());
+            execucao.put("resultado", ultima.resultado());
+            execucao.put("mensagem", ultima.mensagem());
+            status.put("ultimaExecucao", execucao);
+        }
+        Instant sucesso = ultimoSucesso;
+        status.put("ultimoSucesso", sucesso != null ? sucesso.toString() : null);
+
+        Optional<ImpressaoDigital> aplicada = impressaoDigital();
+        status.put("regionaisUltimoPayload", aplicada.map(ImpressaoDigital::total).orElse(null));
+        status.put("etagUltimoPayload", aplicada.map(ImpressaoDigital::etag).orElse(null));
+        status.put("circuitoApi", regionaisGateway.estadoCircuito().name());
+        status.put("idadeUltimaRespostaApiSegundos",
+            regionaisGateway.ultimoPayload().map(payload -> payload.idade().toSeconds()).orElse(null));
+
+        RegionalSnapshot snapshot = readModel.peek();
+        status.put("snapshotCarregadoEm", snapshot != null ? snapshot.carregadoEm().toString() : null);
+        status.put("snapshotRegionais", snapshot != null ? snapshot.size() : null);
+        return status;
+    }
+
+    private SincronizacaoResponse singleFlight(Modo modo) {
+        while (true) {
+            EmAndamento atual = emAndamento.get();
+            if (atual == null) {
+                EmAndamento nova = new EmAndamento(modo, new CompletableFuture<>());
+                if (emAndamento.compareAndSet(null, nova)) {
+                    return executarUnica(nova);
+                }
+                continue;
+            }
+
+            if (modo != Modo.FORCADA || atual.modo() == Modo.FORCADA) {
+                // Uma execucao forcada tambem atende chamadas comuns
+                metricsService.recordRegionalSyncShared();
+                LOG.info("Sincronizacao de regionais ja em andamento neste no: aguardando o resultado");
+                return aguardar(atual.resultado());
+            }
+
+            // Forcada atras de uma execucao comum: espera o fim (com qualquer resultado) e tenta de novo
+            LOG.info("Sincronizacao forcada aguardando a execucao em andamento neste no");
+            atual.resultado().handle((response, erro) -> null).join();
+        }
+    }
+
+    private SincronizacaoResponse executarUnica(EmAndamento execucao) {
+        try {
+            SincronizacaoResponse response = executarComLock(execucao.modo());
+            execucao.resultado().complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            execucao.resultado().completeExceptionally(e);
+            throw e;
+        } finally {
+            emAndamento.compareAndSet(execucao, null);
+        }
+    }
+
+    private static SincronizacaoResponse aguardar(CompletableFuture<SincronizacaoResponse> resultado) {
+        try {
+            return resultado.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    private SincronizacaoResponse executarComLock(Modo modo) {
+        Instant inicio = Instant.now();
         long startTime = System.currentTimeMillis();
+        metricsService.recordRegionalSync();
 
+        Execucao execucao;
         try {
-            // Busca regionais da API externa
-            List<RegionalExterna> regionaisExternas = regionaisClient.getRegionais();
-            LOG.infof("Regionais externas recebidas: %d", regionaisExternas.size());
-
-            // Busca todas as regionais locais indexadas por ID
-            Map<Integer, Regional> regionaisLocais = regionalRepository.findAllAsMap();
-            LOG.infof("Regionais locais encontradas: %d", regionaisLocais.size());
-
-            int inseridas = 0;
-            int atualizadas = 0;
-            int reativadas = 0;
-            int semAlteracao = 0;
-
-            Set<Integer> idsExternos = new HashSet<>();
-
-            for (RegionalExterna externa : regionaisExternas) {
-                idsExternos.add(externa.getId());
-                Regional local = regionaisLocais.get(externa.getId());
-
-                if (local == null) {
-                    // CASO 1: Nova regional -> INSERT
-                    Regional nova = Regional.fromExternal(externa.getId(), externa.getNome());
-                    regionalRepository.persist(nova);
-                    inseridas++;
-                    LOG.debugf("[INSERT] Nova regional: ID=%d, Nome='%s'",
-                        externa.getId(), externa.getNome());
-
-                } else if (!local.getAtivo()) {
-                    // Regional existe mas esta inativa - reativar
-                    if (local.nomeAlterado(externa.getNome())) {
-                        local.atualizarNome(externa.getNome());
-                        local.reativar();
-                        regionalRepository.persist(local);
-                        atualizadas++;
-                        LOG.debugf("[UPDATE+REATIVAR] Regional reativada com nome alterado: ID=%d", local.getId());
-                    } else {
-                        local.reativar();
-                        regionalRepository.persist(local);
-                        reativadas++;
-                        LOG.debugf("[REATIVAR] Regional reativada: ID=%d", local.getId());
-                    }
-
-                } else if (local.nomeAlterado(externa.getNome())) {
-                    // CASO 3: Atributo alterado -> UPDATE
-                    String nomeAntigo = local.getNome();
-                    local.atualizarNome(externa.getNome());
-                    regionalRepository.persist(local);
-                    atualizadas++;
-                    LOG.debugf("[UPDATE] Regional atualizada: ID=%d, '%s' -> '%s'",
-                        local.getId(), nomeAntigo, externa.getNome());
-
-                } else {
-                    semAlteracao++;
+            execucao = advisoryLock.runExclusive(LOCK_SINCRONIZACAO, () -> executar(modo, startTime))
+                .orElseGet(() -> outroNo(startTime));
+        } catch (BusinessException e) {
+            registrar(modo, inicio, startTime, RESULTADO_ERRO, e.getMessage());
+            throw e;
+        } catch (RuntimeException e) {
+            LOG.errorf(e, "Erro na sincronizacao de regionais: %s", e.getMessage());
+            registrar(modo, inicio, startTime, RESULTADO_ERRO, e.getMessage());
+            throw new BusinessException("Erro ao sincronizar regionais: " + e.getMessage(), e);
+        }
+
+        registrar(modo, inicio, startTime, execucao.resultado(), execucao.response().getMensagem());
+        return execucao.response();
+    }
+
+    private Execucao executar(Modo modo, long startTime) {
+        LOG.infof("=== Iniciando sincronizacao de regionais (%s) ===", modo);
+
+        try {
+            // Sob o advisory lock: nenhuma outra instancia grava entre esta leitura e o upsert
+            ImpressaoDigital anterior = modo == Modo.FORCADA ? null
+                : regionalRepository.findImpressaoDigital().orElse(null);
+
+            // Busca condicional na API externa (espera limitada; as tentativas nao ocupam esta thread)
+            RegionaisPayload payload = regionaisGateway.buscar(
+                    anterior != null ? anterior.etag() : null,
+                    anterior != null ? anterior.lastModified() : null)
+                .await().atMost(esperaMaxima);
+
+            if (payload.naoModificado()) {
+                if (anterior == null) {
+                    throw new IllegalStateException("API de regionais retornou HTTP 304 sem busca condicional");
                 }
+                return semMudancas(anterior, "not_modified", "HTTP 304", startTime);
             }
 
-            // CASO 2: Ausente no endpoint -> INATIVAR
-            int inativadas = regionalRepository.inativarAusentes(idsExternos);
-            if (inativadas > 0) {
-                LOG.infof("[INATIVAR] %d regionais inativadas (ausentes no endpoint)", inativadas);
+            String hash = sha256(payload.corpo());
+            if (anterior != null && hash.equals(anterior.hash())) {
+                if (payload.stale()) {
+                    return semMudancas(anterior, RESULTADO_STALE, "API externa indisponivel; ultimo payload obtido ha "
+                        + payload.idade().toSeconds() + "s ja aplicado", startTime);
+                }
+                // Mesmo conteudo: guarda os validadores novos para a proxima busca
+                if (!Objects.equals(payload.etag(), anterior.etag())
+                        || !Objects.equals(payload.lastModified(), anterior.lastModified())) {
+                    regionalRepository.atualizarValidadores(payload.etag(), payload.lastModified(), hash);
+                }
+                return semMudancas(anterior, "unchanged", "conteudo identico", startTime);
+            }
+            if (payload.stale()) {
+                // Ultimo payload obtido ainda nao aplicado (ex.: falha no banco apos a busca)
+                LOG.warnf("API de regionais indisponivel; aplicando payload obtido ha %ds", payload.idade().toSeconds());
             }
 
+            // Leitura em streaming: cada lote vai ao banco antes do proximo ser lido.
+            // A impressao digital e gravada no mesmo commit: uma falha no banco faz
+            // a proxima sincronizacao (em qualquer instancia) tentar de novo
+            int[] lidas = new int[1];
+            ResultadoSincronizacao resultado = regionalRepository.sincronizar(
+                aplicarLote -> lidas[0] = lerPayload(payload.corpo(), aplicarLote),
+                payload.etag(), payload.lastModified(), hash);
+            LOG.infof("Regionais externas recebidas: %d", resultado.recebidas());
+            if (lidas[0] > resultado.recebidas()) {
+                LOG.warnf("%d ids repetidos no payload de regionais (vale a ultima ocorrencia)",
+                    lidas[0] - resultado.recebidas());
+            }
+            if (resultado.inativadas() > 0) {
+                LOG.infof("[INATIVAR] %d regionais inativadas (ausentes no endpoint)", resultado.inativadas());
+            }
+
+            recarregarSnapshot();
+
             long duration = System.currentTimeMillis() - startTime;
+            metricsService.recordRegionalSyncResults(resultado.inseridas(),
+                resultado.atualizadas() + resultado.reativadas(), resultado.inativadas());
 
             SincronizacaoResponse response = new SincronizacaoResponse(
-                regionaisExternas.size(),
-                inseridas,
-                atualizadas,
-                inativadas,
-                semAlteracao
+                resultado.recebidas(),
+                resultado.inseridas(),
+                resultado.atualizadas(),
+                resultado.reativadas(),
+                resultado.inativadas(),
+                resultado.semAlteracao()
             );
+            response.setSincronizacao(resultado.sincronizacao());
+            if (payload.stale()) {
+                response.setMensagem("Sincronizacao concluida com o ultimo payload obtido ha "
+                    + payload.idade().toSeconds() + "s (API externa indisponivel)");
+            }
 
-            LOG.infof("=== Sincronizacao concluida em %dms ===", duration);
+            LOG.infof("=== Sincronizacao %d concluida em %dms ===", resultado.sincronizacao(), duration);
             LOG.infof("Resultado: Total=%d, Inseridas=%d, Atualizadas=%d, Reativadas=%d, Inativadas=%d, SemAlteracao=%d",
-                regionaisExternas.size(), inseridas, atualizadas, reativadas, inativadas, semAlteracao);
+                resultado.recebidas(), resultado.inseridas(), resultado.atualizadas(), resultado.reativadas(),
+                resultado.inativadas(), resultado.semAlteracao());
 
-            return response;
+            return new Execucao(response, RESULTADO_APLICADA);
 
         } catch (Exception e) {
             LOG.errorf(e, "Erro na sincronizacao de regionais: %s", e.getMessage());
@@ -165,14 +486,99 @@ public class RegionalService {
         }
     }
 
+    private int lerPayload(Path corpo, BiConsumer<Integer[], String[]> aplicarLote) {
+        try (InputStream json = Files.newInputStream(corpo)) {
+            return RegionaisPayloadReader.lerEmLotes(objectMapper.getFactory(), json, tamanhoLote, aplicarLote);
+        } catch (IOException e) {
+            // Nao verificada: a transacao da sincronizacao faz rollback
+            throw new UncheckedIOException("Payload de regionais invalido: " + e.getMessage(), e);
+        }
+    }
+
+    private void recarregarSnapshot() {
+        try {
+            readModel.refresh();
+        } catch (RuntimeException e) {
+            // A sincronizacao ja foi confirmada; a recarga periodica corrige o snapshot
+            LOG.warnf("Sincronizacao aplicada, mas o snapshot de regionais nao foi recarregado: %s", e.getMessage());
+        }
+    }
+
+    private Execucao semMudancas(ImpressaoDigital anterior, String motivo, String descricao, long startTime) {
+        metricsService.recordRegionalSyncSkipped(motivo);
+        LOG.infof("=== Sincronizacao dispensada (%s) em %dms ===", descricao, System.currentTimeMillis() - startTime);
+        return new Execucao(SincronizacaoResponse.semMudancas(anterior.total(),
+            "Nenhuma alteracao na API externa desde a ultima sincronizacao (" + descricao + ")"), motivo);
+    }
+
+    private Execucao outroNo(long startTime) {
+        metricsService.recordRegionalSyncSkipped(RESULTADO_OUTRO_NO);
+        LOG.infof("=== Sincronizacao dispensada (em andamento em outro no) em %dms ===",
+            System.currentTimeMillis() - startTime);
+        int total = impressaoDigital().map(ImpressaoDigital::total).orElse(0);
+        return new Execucao(SincronizacaoResponse.semMudancas(total,
+            "Sincronizacao em andamento em outra instancia; nada foi aplicado por esta"), RESULTADO_OUTRO_NO);
+    }
+
+    private void registrar(Modo modo, Instant inicio, long startTime, String resultado, String mensagem) {
+        long duracao = System.currentTimeMillis() - startTime;
+        metricsService.recordRegionalSyncDuration(duracao);
+        ultimaExecucao.set(new UltimaExecucao(inicio, duracao, modo, resultado, mensagem));
+        if (!RESULTADO_ERRO.equals(resultado) && !RESULTADO_OUTRO_NO.equals(resultado)
+                && !RESULTADO_STALE.equals(resultado)) {
+            ultimoSucesso = inicio;
+        }
+    }
+
     /**
-     * Retorna estatisticas das regionais.
+     * Impressao digital para consulta (fora do lock); falha no banco vira vazio.
+     */
+    private Optional<ImpressaoDigital> impressaoDigital() {
+        try {
+            return regionalRepository.findImpressaoDigital();
+        } catch (RuntimeException e) {
+            LOG.debugf("Impressao digital de regionais indisponivel: %s", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * SHA-256 do corpo, lido do arquivo em streaming (memoria de um buffer).
+     */
+    private static String sha256(Path corpo) throws IOException {
+        MessageDigest sha256;
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponivel", e);
+        }
+        try (InputStream json = new DigestInputStream(Files.newInputStream(corpo), sha256)) {
+            json.transferTo(OutputStream.nullOutputStream());
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(sha256.digest());
+    }
+
+    /**
+     * Retorna estatisticas das regionais (pre-calculadas no snapshot).
      */
     public Map<String, Long> getEstatisticas() {
-        Map<String, Long> stats = new HashMap<>();
-        stats.put("total", regionalRepository.count());
-        stats.put("ativas", regionalRepository.countAtivas());
-        stats.put("inativas", regionalRepository.countInativas());
-        return stats;
+        return readModel.current().estatisticas();
     }
+
+    /**
+     * Origem da sincronizacao. Uma chamada forcada nao recebe o resultado de uma execucao comum.
+     */
+    private enum Modo { MANUAL, FORCADA, AGENDADA }
+
+    /**
+     * Execucao em andamento e o resultado compartilhado com quem chegar durante ela.
+     */
+    private record EmAndamento(Modo modo, CompletableFuture<SincronizacaoResponse> resultado) {}
+
+    /**
+     * Resposta e resultado (applied, not_modified, unchanged, stale, locked) de uma execucao.
+     */
+    private record Execucao(SincronizacaoResponse response, String resultado) {}
+
+    private record UltimaExecucao(Instant inicio, long duracaoMs, Modo modo, String resultado, String mensagem) {}
 }
@@ -0,0 +1,126 @@
+package br.gov.mt.seplag.application.service;
+
+import br.gov.mt.seplag.domain.model.Regional;
+import br.gov.mt.seplag.presentation.dto.regional.RegionalResponse;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Copia imutavel da tabela regional, pronta para leitura.
+ *
+ * Estrutura:
+ * - Array ordenado por nome (mesma ordem de findAllOrdenadas) e as listas
+ *   "todas" e "ativas" ja montadas, devolvidas sem copia
+ * - Indice id -> posicao com chaves int (enderecamento aberto, sondagem
+ *   linear), sem boxing de Integer na busca
+ * - Contadores total/ativas/inativas calculados na construcao
+ *
+ * Os RegionalResponse sao imutaveis e devolvidos sem copia: a mesma instancia
+ * atende todas as requisicoes ate a proxima recarga.
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+public final class RegionalSnapshot {
+
+    private final RegionalResponse[] ordenadas;
+    private final List<RegionalResponse> todas;
+    private final List<RegionalResponse> ativas;
+    private final int[] chaves;
+    // Posicao em ordenadas + 1 (0 = posicao livre)
+    private final int[] posicoes;
+    private final int mascara;
+    private final Map<String, Long> estatisticas;
+    private final Instant carregadoEm;
+
+    /**
+     * @param regionaisOrdenadas regionais ordenadas por nome
+     * @param carregadoEm instante da leitura no banco
+     */
+    RegionalSnapshot(List<Regional> regionaisOrdenadas, Instant carregadoEm) {
+        this.carregadoEm = carregadoEm;
+        this.ordenadas = new RegionalResponse[regionaisOrdenadas.size()];
+
+        List<RegionalResponse> somenteAtivas = new ArrayList<>();
+        for (int i = 0; i < ordenadas.length; i++) {
+            ordenadas[i] = RegionalResponse.fromEntity(regionaisOrdenadas.get(i));
+            if (Boolean.TRUE.equals(ordenadas[i].getAtivo())) {
+                somenteAtivas.add(ordenadas[i]);
+            }
+        }
+        this.todas = List.of(ordenadas);
+        this.ativas = List.copyOf(somenteAtivas);
+
+        int capacidade = Integer.highestOneBit(Math.max(2, ordenadas.length * 2 - 1)) << 1;
+        this.chaves = new int[capacidade];
+        this.posicoes = new int[capacidade];
+        this.mascara = capacidade - 1;
+        for (int i = 0; i < ordenadas.length; i++) {
+            int slot = slot(ordenadas[i].getId());
+            while (posicoes[slot] != 0 && chaves[slot] != ordenadas[i].getId()) {
+                slot = (slot + 1) & mascara;
+            }
+            chaves[slot] = ordenadas[i].getId();
+            posicoes[slot] = i + 1;
+        }
+
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("total", (long) ordenadas.length);
+        stats.put("ativas", (long) ativas.size());
+        stats.put("inativas", (long) (ordenadas.length - ativas.size()));
+        this.estatisticas = Collections.unmodifiableMap(stats);
+    }
+
+    /**
+     * Busca por ID sem alocacao alem do Optional.
+     */
+    public Optional<RegionalResponse> find(int id) {
+        int slot = slot(id);
+        while (posicoes[slot] != 0) {
+            if (chaves[slot] == id) {
+                return Optional.of(ordenadas[posicoes[slot] - 1]);
+            }
+            slot = (slot + 1) & mascara;
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Todas as regionais ordenadas por nome (lista imutavel).
+     */
+    public List<RegionalResponse> todas() {
+        return todas;
+    }
+
+    /**
+     * Regionais ativas ordenadas por nome (lista imutavel).
+     */
+    public List<RegionalResponse> ativas() {
+        return ativas;
+    }
+
+    /**
+     * Contadores total, ativas e inativas (mapa imutavel).
+     */
+    public Map<String, Long> estatisticas() {
+        return estatisticas;
+    }
+
+    public int size() {
+        return ordenadas.length;
+    }
+
+    public Instant carregadoEm() {
+        return carregadoEm;
+    }
+
+    private int slot(int id) {
+        int hash = id * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mascara;
+    }
+}
@@ -0,0 +1,90 @@
+package br.gov.mt.seplag.domain.model;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidade que representa um evento de album enviado pelo WebSocket.
+ *
+ * Guarda a mensagem ja serializada para que clientes que reconectam
+ * recebam exatamente o mesmo conteudo (replay por numero de sequencia).
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+@Entity
+@Table(name = "album_event")
+public class AlbumEvent extends PanacheEntityBase {
+
+    @Id
+    @Column(nullable = false)
+    private Long seq;
+
+    @Column(nullable = false, length = 30)
+    private String type;
+
+    /**
+     * Topicos separados por virgula.
+     */
+    @Column(nullable = false, length = 2000)
+    private String topics;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public AlbumEvent() {
+    }
+
+    public AlbumEvent(Long seq, String type, String topics, String payload, LocalDateTime createdAt) {
+        this.seq = seq;
+        this.type = type;
+        this.topics = topics;
+        this.payload = payload;
+        this.createdAt = createdAt;
+    }
+
+    // Getters e Setters
+    public Long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(Long seq) {
+        this.seq = seq;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getTopics() {
+        return topics;
+    }
+
+    public void setTopics(String topics) {
+        this.topics = topics;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
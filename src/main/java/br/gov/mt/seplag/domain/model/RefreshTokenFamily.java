@@ -0,0 +1,115 @@
+package br.gov.mt.seplag.domain.model;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidade que representa uma familia de refresh tokens.
+ *
+ * Cada login abre uma familia. A cada renovacao o refresh token e rotacionado
+ * e apenas o ultimo emitido (currentTokenId) continua valido.
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+@Entity
+@Table(name = "refresh_token_family")
+public class RefreshTokenFamily extends PanacheEntityBase {
+
+    @Id
+    @Column(name = "family_id", nullable = false, length = 36)
+    private String familyId;
+
+    @Column(nullable = false, length = 100)
+    private String username;
+
+    /**
+     * jti do unico refresh token valido da familia.
+     */
+    @Column(name = "current_token_id", nullable = false, length = 36)
+    private String currentTokenId;
+
+    @Column(nullable = false)
+    private Boolean revoked = false;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public RefreshTokenFamily() {
+    }
+
+    public RefreshTokenFamily(String familyId, String username, String currentTokenId, Boolean revoked,
+                              LocalDateTime expiresAt, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.familyId = familyId;
+        this.username = username;
+        this.currentTokenId = currentTokenId;
+        this.revoked = revoked;
+        this.expiresAt = expiresAt;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    // Getters e Setters
+    public String getFamilyId() {
+        return familyId;
+    }
+
+    public void setFamilyId(String familyId) {
+        this.familyId = familyId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getCurrentTokenId() {
+        return currentTokenId;
+    }
+
+    public void setCurrentTokenId(String currentTokenId) {
+        this.currentTokenId = currentTokenId;
+    }
+
+    public Boolean getRevoked() {
+        return revoked;
+    }
+
+    public void setRevoked(Boolean revoked) {
+        this.revoked = revoked;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,100 @@
+package br.gov.mt.seplag.domain.model;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidade que representa uma alteracao de regional aplicada por uma sincronizacao.
+ *
+ * As linhas sao gravadas pelo RegionalRepository no mesmo comando do upsert
+ * (e da inativacao); aqui sao apenas lidas, em ordem de seq, por quem
+ * consome o historico de forma incremental.
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+@Entity
+@Table(name = "regional_alteracao")
+public class RegionalAlteracao extends PanacheEntityBase {
+
+    @Id
+    @Column(nullable = false)
+    private Long seq;
+
+    /**
+     * Id da sincronizacao que aplicou a alteracao (0 = carga inicial).
+     */
+    @Column(nullable = false)
+    private Long sincronizacao;
+
+    @Column(name = "regional_id", nullable = false)
+    private Integer regionalId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TipoAlteracaoRegional tipo;
+
+    @Column(nullable = false, length = 200)
+    private String nome;
+
+    /**
+     * Nome antes da alteracao; preenchido apenas em RENOMEADA.
+     */
+    @Column(name = "nome_anterior", length = 200)
+    private String nomeAnterior;
+
+    @Column(nullable = false)
+    private Boolean ativo;
+
+    @Column(name = "alterado_em", nullable = false, insertable = false, updatable = false)
+    private LocalDateTime alteradoEm;
+
+    public RegionalAlteracao() {
+    }
+
+    public RegionalAlteracao(Long seq, Long sincronizacao, Integer regionalId, TipoAlteracaoRegional tipo,
+                             String nome, String nomeAnterior, Boolean ativo, LocalDateTime alteradoEm) {
+        this.seq = seq;
+        this.sincronizacao = sincronizacao;
+        this.regionalId = regionalId;
+        this.tipo = tipo;
+        this.nome = nome;
+        this.nomeAnterior = nomeAnterior;
+        this.ativo = ativo;
+        this.alteradoEm = alteradoEm;
+    }
+
+    // Getters
+    public Long getSeq() {
+        return seq;
+    }
+
+    public Long getSincronizacao() {
+        return sincronizacao;
+    }
+
+    public Integer getRegionalId() {
+        return regionalId;
+    }
+
+    public TipoAlteracaoRegional getTipo() {
+        return tipo;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public String getNomeAnterior() {
+        return nomeAnterior;
+    }
+
+    public Boolean getAtivo() {
+        return ativo;
+    }
+
+    public LocalDateTime getAlteradoEm() {
+        return alteradoEm;
+    }
+}
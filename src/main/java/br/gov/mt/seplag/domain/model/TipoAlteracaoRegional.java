@@ -0,0 +1,13 @@
+package br.gov.mt.seplag.domain.model;
+
+/**
+ * Enum que representa o tipo de alteracao de uma regional em uma sincronizacao.
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+public enum TipoAlteracaoRegional {
+    INSERIDA,
+    RENOMEADA,
+    INATIVADA,
+    REATIVADA
+}
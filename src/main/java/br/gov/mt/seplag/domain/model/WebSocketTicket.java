@@ -28,6 +28,18 @@ public class WebSocketTicket {
         this.used = false;
     }
 
+    /**
+     * Cria um ticket com valor e validade ja definidos (ex: ticket assinado).
+     */
+    public WebSocketTicket(String ticket, String username, Set<String> roles, Instant createdAt, Instant expiresAt) {
+        this.ticket = ticket;
+        this.username = username;
+        this.roles = Set.copyOf(roles);
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+        this.used = false;
+    }
+
     /**
      * Verifica se o ticket e valido (nao expirado e nao usado).
      */
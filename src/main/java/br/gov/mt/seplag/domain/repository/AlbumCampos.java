@@ -0,0 +1,148 @@
+package br.gov.mt.seplag.domain.repository;
+
+import br.gov.mt.seplag.domain.exception.BusinessException;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Campos e associacoes de album pedidos pelo cliente (?fields= e ?expand=).
+ *
+ * O AlbumRepository seleciona apenas as colunas pedidas e so carrega as
+ * associacoes expandidas; o AlbumService so gera URLs pre-assinadas quando
+ * as imagens sao expandidas. O id e sempre incluido.
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+public record AlbumCampos(Set<Campo> campos, Set<Expansao> expansoes) {
+
+    /**
+     * Colunas de album; o nome e o do JSON e do atributo da entidade.
+     */
+    public enum Campo {
+        ID("id"),
+        TITULO("titulo"),
+        ANO_LANCAMENTO("anoLancamento"),
+        DESCRICAO("descricao"),
+        /** Calculado (count das imagens), apenas na listagem. */
+        QUANTIDADE_IMAGENS("quantidadeImagens"),
+        CREATED_AT("createdAt"),
+        UPDATED_AT("updatedAt");
+
+        private final String nome;
+
+        Campo(String nome) {
+            this.nome = nome;
+        }
+
+        public String nome() {
+            return nome;
+        }
+    }
+
+    /**
+     * Associacoes carregadas apenas quando pedidas.
+     */
+    public enum Expansao {
+        ARTISTAS("artistas"),
+        /** Imagens com URLs pre-assinadas, apenas no detalhe. */
+        IMAGENS("imagens");
+
+        private final String nome;
+
+        Expansao(String nome) {
+            this.nome = nome;
+        }
+
+        public String nome() {
+            return nome;
+        }
+    }
+
+    /**
+     * Padrao (e tudo o que e aceito) na listagem: resposta completa com artistas.
+     */
+    public static final AlbumCampos LISTAGEM = new AlbumCampos(
+        EnumSet.allOf(Campo.class), EnumSet.of(Expansao.ARTISTAS));
+
+    /**
+     * Padrao (e tudo o que e aceito) no detalhe: resposta completa com artistas e imagens.
+     */
+    public static final AlbumCampos DETALHE = new AlbumCampos(
+        EnumSet.complementOf(EnumSet.of(Campo.QUANTIDADE_IMAGENS)), EnumSet.allOf(Expansao.class));
+
+    public AlbumCampos {
+        campos = Set.copyOf(campos);
+        expansoes = Set.copyOf(expansoes);
+    }
+
+    /**
+     * Le os parametros do endpoint. Parametro ausente (null) mantem o padrao;
+     * vazio (?expand=) nao pede nada alem do id.
+     *
+     * @param fields campos separados por virgula (ex: titulo,anoLancamento)
+     * @param expand associacoes separadas por virgula (ex: artistas)
+     * @param padrao resposta padrao do endpoint, que tambem limita o que pode ser pedido
+     * @throws BusinessException campo ou associacao desconhecido ou nao disponivel no endpoint
+     */
+    public static AlbumCampos parse(String fields, String expand, AlbumCampos padrao) {
+        Set<Campo> campos = EnumSet.of(Campo.ID);
+        if (fields == null) {
+            campos.addAll(padrao.campos());
+        } else {
+            for (String nome : nomes(fields)) {
+                campos.add(Arrays.stream(Campo.values())
+                    .filter(campo -> campo.nome().equals(nome) && padrao.campos().contains(campo))
+                    .findFirst()
+                    .orElseThrow(() -> invalido("fields", nome, padrao.campos().stream().map(Campo::nome))));
+            }
+        }
+
+        Set<Expansao> expansoes = EnumSet.noneOf(Expansao.class);
+        if (expand == null) {
+            expansoes.addAll(padrao.expansoes());
+        } else {
+            for (String nome : nomes(expand)) {
+                expansoes.add(Arrays.stream(Expansao.values())
+                    .filter(expansao -> expansao.nome().equals(nome) && padrao.expansoes().contains(expansao))
+                    .findFirst()
+                    .orElseThrow(() -> invalido("expand", nome, padrao.expansoes().stream().map(Expansao::nome))));
+            }
+        }
+        return new AlbumCampos(campos, expansoes);
+    }
+
+    public boolean inclui(Campo campo) {
+        return campos.contains(campo);
+    }
+
+    public boolean expande(Expansao expansao) {
+        return expansoes.contains(expansao);
+    }
+
+    /**
+     * Forma canonica (ordem dos enums), estavel entre instancias; usada no ETag.
+     * O toString dos Set.copyOf nao serve: a ordem de iteracao muda a cada JVM.
+     */
+    public String chave() {
+        return Arrays.stream(Campo.values()).filter(this::inclui).map(Campo::nome)
+            .collect(Collectors.joining(",", "fields=", ";"))
+            + Arrays.stream(Expansao.values()).filter(this::expande).map(Expansao::nome)
+            .collect(Collectors.joining(",", "expand=", ""));
+    }
+
+    private static Set<String> nomes(String valor) {
+        return Arrays.stream(valor.split(","))
+            .map(String::trim)
+            .filter(nome -> !nome.isEmpty())
+            .collect(Collectors.toSet());
+    }
+
+    private static BusinessException invalido(String parametro, String nome, Stream<String> aceitos) {
+        return new BusinessException("Valor invalido em " + parametro + ": " + nome
+            + " (aceitos: " + aceitos.sorted().collect(Collectors.joining(", ")) + ")");
+    }
+}
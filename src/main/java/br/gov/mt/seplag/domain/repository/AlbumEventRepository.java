@@ -0,0 +1,101 @@
+package br.gov.mt.seplag.domain.repository;
+
+import br.gov.mt.seplag.domain.model.AlbumEvent;
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import io.quarkus.panache.common.Sort;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.transaction.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repositorio para a entidade AlbumEvent.
+ * Usado apenas pelo AlbumEventLog (carga no boot e gravacao assincrona)
+ * e pelo AlbumEventCluster (sequencia global e NOTIFY entre nos).
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+@ApplicationScoped
+public class AlbumEventRepository implements PanacheRepositoryBase<AlbumEvent, Long> {
+
+    /**
+     * Busca os eventos mais recentes, do mais novo para o mais antigo.
+     */
+    public List<AlbumEvent> findRecentes(int limite) {
+        return findAll(Sort.descending("seq")).page(0, limite).list();
+    }
+
+    /**
+     * Grava os eventos informados em uma unica transacao.
+     */
+    @Transactional
+    public void persistAll(Collection<AlbumEvent> eventos) {
+        persist(eventos);
+    }
+
+    /**
+     * Busca eventos pelos seqs informados, em ordem crescente.
+     */
+    @Transactional
+    public List<AlbumEvent> findBySeqs(Collection<Long> seqs) {
+        return list("seq in ?1", Sort.ascending("seq"), seqs);
+    }
+
+    /**
+     * Busca os eventos posteriores ao seq informado, em ordem crescente.
+     */
+    @Transactional
+    public List<AlbumEvent> findPosteriores(long seq, int limite) {
+        return find("seq > ?1", Sort.ascending("seq"), seq).page(0, limite).list();
+    }
+
+    /**
+     * Reserva a quantidade informada de valores da sequencia album_event_seq.
+     */
+    @Transactional
+    @SuppressWarnings("unchecked")
+    public List<Long> nextSeqs(int quantidade) {
+        return getEntityManager()
+            .createNativeQuery("SELECT nextval('album_event_seq') FROM generate_series(1, :quantidade)", Long.class)
+            .setParameter("quantidade", quantidade)
+            .getResultList();
+    }
+
+    /**
+     * Ultimo valor entregue pela sequencia album_event_seq (0 se nunca usada).
+     */
+    @Transactional
+    public long currentSeq() {
+        Number atual = (Number) getEntityManager()
+            .createNativeQuery("SELECT CASE WHEN is_called THEN last_value ELSE last_value - 1 END FROM album_event_seq")
+            .getSingleResult();
+        return atual.longValue();
+    }
+
+    /**
+     * Grava os eventos e envia as notificacoes na mesma transacao.
+     * O NOTIFY so e entregue no commit, entao quem recebe ja encontra as linhas.
+     */
+    @Transactional
+    public void persistAndNotify(Collection<AlbumEvent> eventos, String channel, List<String> notificacoes) {
+        persist(eventos);
+        for (String notificacao : notificacoes) {
+            getEntityManager()
+                .createNativeQuery("SELECT CAST(pg_notify(:channel, :payload) AS TEXT)")
+                .setParameter("channel", channel)
+                .setParameter("payload", notificacao)
+                .getSingleResult();
+        }
+    }
+
+    /**
+     * Remove eventos com sequencia menor que a informada.
+     *
+     * @return numero de linhas removidas
+     */
+    @Transactional
+    public long deleteAnteriores(long seq) {
+        return delete("seq < ?1", seq);
+    }
+}
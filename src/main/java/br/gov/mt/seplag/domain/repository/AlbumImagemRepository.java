@@ -4,6 +4,7 @@ import br.gov.mt.seplag.domain.model.AlbumImagem;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,6 +23,13 @@ public class AlbumImagemRepository implements PanacheRepository<AlbumImagem> {
         return list("album.id", albumId);
     }
 
+    /**
+     * Busca as imagens de varios albuns em uma unica query (IN), em ordem de ID.
+     */
+    public List<AlbumImagem> findByAlbumIds(Collection<Long> albumIds) {
+        return list("album.id IN ?1 ORDER BY id", albumIds);
+    }
+
     /**
      * Busca imagem por object key.
      */
@@ -0,0 +1,13 @@
+package br.gov.mt.seplag.domain.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Colunas de album lidas conforme AlbumCampos; as nao pedidas ficam nulas.
+ *
+ * @param quantidadeImagens count das imagens (subquery), apenas se pedido
+ * @author Jean Paulo Sassi de Miranda
+ */
+public record AlbumProjecao(Long id, String titulo, Integer anoLancamento, String descricao,
+                            Long quantidadeImagens, LocalDateTime createdAt, LocalDateTime updatedAt) {
+}
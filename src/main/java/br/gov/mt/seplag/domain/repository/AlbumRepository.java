@@ -1,13 +1,25 @@
 package br.gov.mt.seplag.domain.repository;
 
 import br.gov.mt.seplag.domain.model.Album;
+import br.gov.mt.seplag.domain.model.Artista;
+import br.gov.mt.seplag.domain.repository.AlbumCampos.Campo;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import io.quarkus.panache.common.Page;
 import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.stream.Collectors;
 
 /**
  * Repositorio para a entidade Album.
@@ -20,9 +32,14 @@ import java.util.Optional;
 public class AlbumRepository implements PanacheRepository<Album> {
 
     /**
-     * Busca albuns com paginacao e filtros.
+     * Busca albuns com paginacao e filtros, lendo apenas as colunas pedidas.
      * A query eh montada dinamicamente pra suportar combinacao de filtros opcionais.
      *
+     * O filtro por artista usa EXISTS em vez de join, entao nao precisa de
+     * DISTINCT e a ordenacao pode usar uma coluna que nao foi selecionada.
+     * Associacoes nao entram aqui (ver findArtistasByAlbumIds), o que evita
+     * carregar artistas e imagens album a album.
+     *
      * @param titulo        filtro por titulo (parcial, case-insensitive)
      * @param anoLancamento filtro por ano de lancamento
      * @param artistaId     filtro por ID do artista
@@ -30,73 +47,210 @@ public class AlbumRepository implements PanacheRepository<Album> {
      * @param sortDir       direcao da ordenacao
      * @param page          numero da pagina
      * @param size          tamanho da pagina
-     * @return lista de albuns
+     * @param campos        colunas a selecionar
+     * @return albuns com as colunas pedidas
      */
-    public List<Album> findWithFilters(String titulo, Integer anoLancamento, Long artistaId,
-                                        String sortField, String sortDir, int page, int size) {
-        StringBuilder query = new StringBuilder("SELECT DISTINCT al FROM Album al LEFT JOIN al.artistas ar WHERE 1=1");
-
-        if (titulo != null && !titulo.isBlank()) {
-            query.append(" AND lower(al.titulo) LIKE lower(concat('%', :titulo, '%'))");
-        }
-        if (anoLancamento != null) {
-            query.append(" AND al.anoLancamento = :anoLancamento");
-        }
-        if (artistaId != null) {
-            query.append(" AND ar.id = :artistaId");
-        }
+    public List<AlbumProjecao> findProjetados(String titulo, Integer anoLancamento, Long artistaId,
+                                              String sortField, String sortDir, int page, int size,
+                                              AlbumCampos campos) {
+        StringBuilder query = new StringBuilder(selecao(campos)).append(" FROM Album al")
+            .append(filtros(titulo, anoLancamento, artistaId));
 
         String orderField = sortField != null ? "al." + sortField : "al.titulo";
         String orderDir = sortDir != null && sortDir.equalsIgnoreCase("desc") ? "DESC" : "ASC";
         query.append(" ORDER BY ").append(orderField).append(" ").append(orderDir);
 
-        var panacheQuery = getEntityManager().createQuery(query.toString(), Album.class);
-
-        if (titulo != null && !titulo.isBlank()) {
-            panacheQuery.setParameter("titulo", titulo);
-        }
-        if (anoLancamento != null) {
-            panacheQuery.setParameter("anoLancamento", anoLancamento);
-        }
-        if (artistaId != null) {
-            panacheQuery.setParameter("artistaId", artistaId);
-        }
+        var panacheQuery = getEntityManager().createQuery(query.toString(), Tuple.class);
+        parametros(panacheQuery, titulo, anoLancamento, artistaId);
 
         return panacheQuery
             .setFirstResult(page * size)
             .setMaxResults(size)
-            .getResultList();
+            .getResultStream()
+            .map(tuple -> projecao(tuple, campos))
+            .toList();
     }
 
     /**
-     * Conta albuns com filtros (pra paginacao).
+     * Busca album por ID lendo apenas as colunas pedidas.
      */
-    public long countWithFilters(String titulo, Integer anoLancamento, Long artistaId) {
-        StringBuilder query = new StringBuilder("SELECT COUNT(DISTINCT al) FROM Album al LEFT JOIN al.artistas ar WHERE 1=1");
+    public Optional<AlbumProjecao> findProjetadoById(Long id, AlbumCampos campos) {
+        return getEntityManager()
+            .createQuery(selecao(campos) + " FROM Album al WHERE al.id = :id", Tuple.class)
+            .setParameter("id", id)
+            .getResultStream()
+            .findFirst()
+            .map(tuple -> projecao(tuple, campos));
+    }
+
+    /**
+     * Busca albuns pelos IDs lendo apenas as colunas pedidas, em uma unica query (IN).
+     */
+    public List<AlbumProjecao> findProjetadosByIds(Collection<Long> ids, AlbumCampos campos) {
+        return getEntityManager()
+            .createQuery(selecao(campos) + " FROM Album al WHERE al.id IN :ids", Tuple.class)
+            .setParameter("ids", ids)
+            .getResultStream()
+            .map(tuple -> projecao(tuple, campos))
+            .toList();
+    }
 
+    /**
+     * Busca os artistas de varios albuns em uma unica query (IN), por ID do album.
+     */
+    public Map<Long, List<Artista>> findArtistasByAlbumIds(Collection<Long> albumIds) {
+        Map<Long, List<Artista>> artistas = new HashMap<>();
+        getEntityManager()
+            .createQuery("SELECT al.id, ar FROM Album al JOIN al.artistas ar WHERE al.id IN :ids ORDER BY ar.nome",
+                Object[].class)
+            .setParameter("ids", albumIds)
+            .getResultStream()
+            .forEach(linha -> artistas.computeIfAbsent((Long) linha[0], id -> new ArrayList<>()).add((Artista) linha[1]));
+        return artistas;
+    }
+
+    /**
+     * Versao do detalhe do album, sem carregar a entidade nem as associacoes.
+     *
+     * O updated_at do album nao basta: vincular artistas (lado dono e Artista)
+     * e enviar imagens nao alteram a linha do album, e renomear um artista so
+     * altera a do artista. Por isso entram tambem os ids dos artistas e das
+     * imagens vinculados, concatenados em ordem: trocar {1,4} por {2,3} muda a
+     * versao (quantidade e soma dos ids nao mudariam). O MAX(updated_at) dos
+     * artistas pega a renomeacao. Todas as subconsultas usam os indices por album_id.
+     *
+     * @return valores que mudam sempre que o detalhe muda; vazio se o album nao existe
+     */
+    public Optional<String> findVersao(Long id) {
+        return getEntityManager()
+            .createQuery("SELECT al.updatedAt, " +
+                "(SELECT listagg(cast(ar.id as String), ',') WITHIN GROUP (ORDER BY ar.id) " +
+                    "FROM Artista ar JOIN ar.albuns ab WHERE ab = al), " +
+                "(SELECT MAX(ar.updatedAt) FROM Artista ar JOIN ar.albuns ab WHERE ab = al), " +
+                "(SELECT listagg(cast(i.id as String), ',') WITHIN GROUP (ORDER BY i.id) " +
+                    "FROM AlbumImagem i WHERE i.album = al) " +
+                "FROM Album al WHERE al.id = :id", Object[].class)
+            .setParameter("id", id)
+            .getResultStream()
+            .findFirst()
+            .map(AlbumRepository::versao);
+    }
+
+    /**
+     * Versao de uma pagina da listagem, com os mesmos filtros de findProjetados.
+     *
+     * Agrega os albuns filtrados (md5 dos ids em ordem, ultimo updated_at)
+     * e, so quando a resposta os inclui, os vinculos com artistas e as imagens
+     * desses mesmos albuns: uma alteracao em album fora do filtro nao muda o ETag.
+     * Vinculos entram como md5 dos pares (album, artista) em ordem, que muda em
+     * qualquer troca, mesmo com quantidade e soma dos ids iguais.
+     *
+     * @return valores que mudam sempre que alguma pagina com esses filtros muda
+     */
+    public String findVersaoListagem(String titulo, Integer anoLancamento, Long artistaId, AlbumCampos campos) {
+        var query = getEntityManager().createQuery(
+            "SELECT md5(listagg(cast(al.id as String), ',') WITHIN GROUP (ORDER BY al.id)), MAX(al.updatedAt) " +
+                "FROM Album al" + filtros(titulo, anoLancamento, artistaId), Object[].class);
+        parametros(query, titulo, anoLancamento, artistaId);
+
+        StringBuilder versao = new StringBuilder(versao(query.getSingleResult()));
+        if (campos.expande(AlbumCampos.Expansao.ARTISTAS)) {
+            var artistas = getEntityManager().createQuery(
+                "SELECT COUNT(alb), md5(listagg(concat(cast(alb.id as String), ':', cast(art.id as String)), ',') " +
+                    "WITHIN GROUP (ORDER BY alb.id, art.id)), MAX(art.updatedAt) " +
+                    "FROM Artista art JOIN art.albuns alb WHERE alb.id IN " + filtrados(titulo, anoLancamento, artistaId),
+                Object[].class);
+            parametros(artistas, titulo, anoLancamento, artistaId);
+            versao.append('|').append(versao(artistas.getSingleResult()));
+        }
+        if (campos.inclui(Campo.QUANTIDADE_IMAGENS)) {
+            var imagens = getEntityManager().createQuery(
+                "SELECT COUNT(i), md5(listagg(cast(i.id as String), ',') WITHIN GROUP (ORDER BY i.id)) " +
+                    "FROM AlbumImagem i WHERE i.album.id IN "
+                    + filtrados(titulo, anoLancamento, artistaId), Object[].class);
+            parametros(imagens, titulo, anoLancamento, artistaId);
+            versao.append('|').append(versao(imagens.getSingleResult()));
+        }
+        return versao.toString();
+    }
+
+    /**
+     * Filtros da listagem, os mesmos na pagina, na contagem e na versao. O
+     * filtro por artista usa EXISTS, entao nao duplica linhas nos agregados.
+     */
+    private static String filtros(String titulo, Integer anoLancamento, Long artistaId) {
+        StringBuilder where = new StringBuilder(" WHERE 1=1");
         if (titulo != null && !titulo.isBlank()) {
-            query.append(" AND lower(al.titulo) LIKE lower(concat('%', :titulo, '%'))");
+            where.append(" AND lower(al.titulo) LIKE lower(concat('%', :titulo, '%'))");
         }
         if (anoLancamento != null) {
-            query.append(" AND al.anoLancamento = :anoLancamento");
+            where.append(" AND al.anoLancamento = :anoLancamento");
         }
         if (artistaId != null) {
-            query.append(" AND ar.id = :artistaId");
+            where.append(" AND EXISTS (SELECT 1 FROM Artista ar JOIN ar.albuns ab WHERE ab = al AND ar.id = :artistaId)");
         }
+        return where.toString();
+    }
 
-        var panacheQuery = getEntityManager().createQuery(query.toString(), Long.class);
+    /**
+     * Ids dos albuns filtrados, para restringir os agregados das associacoes.
+     * Os apelidos de fora nao podem ser ar/ab, ja usados no EXISTS dos filtros.
+     */
+    private static String filtrados(String titulo, Integer anoLancamento, Long artistaId) {
+        return "(SELECT al.id FROM Album al" + filtros(titulo, anoLancamento, artistaId) + ")";
+    }
 
+    private static void parametros(Query query, String titulo, Integer anoLancamento, Long artistaId) {
         if (titulo != null && !titulo.isBlank()) {
-            panacheQuery.setParameter("titulo", titulo);
+            query.setParameter("titulo", titulo);
         }
         if (anoLancamento != null) {
-            panacheQuery.setParameter("anoLancamento", anoLancamento);
+            query.setParameter("anoLancamento", anoLancamento);
         }
         if (artistaId != null) {
-            panacheQuery.setParameter("artistaId", artistaId);
+            query.setParameter("artistaId", artistaId);
+        }
+    }
+
+    private static String versao(Object[] valores) {
+        return Arrays.stream(valores).map(String::valueOf).collect(Collectors.joining("|"));
+    }
+
+    private static String selecao(AlbumCampos campos) {
+        StringJoiner select = new StringJoiner(", ", "SELECT ", "");
+        for (Campo campo : Campo.values()) {
+            if (!campos.inclui(campo)) {
+                continue;
+            }
+            if (campo == Campo.QUANTIDADE_IMAGENS) {
+                select.add("(SELECT COUNT(i) FROM AlbumImagem i WHERE i.album = al) AS quantidadeImagens");
+            } else {
+                select.add("al." + campo.nome() + " AS " + campo.nome());
+            }
         }
+        return select.toString();
+    }
+
+    private static AlbumProjecao projecao(Tuple tuple, AlbumCampos campos) {
+        return new AlbumProjecao(
+            tuple.get("id", Long.class),
+            campos.inclui(Campo.TITULO) ? tuple.get("titulo", String.class) : null,
+            campos.inclui(Campo.ANO_LANCAMENTO) ? tuple.get("anoLancamento", Integer.class) : null,
+            campos.inclui(Campo.DESCRICAO) ? tuple.get("descricao", String.class) : null,
+            campos.inclui(Campo.QUANTIDADE_IMAGENS) ? tuple.get("quantidadeImagens", Long.class) : null,
+            campos.inclui(Campo.CREATED_AT) ? tuple.get("createdAt", LocalDateTime.class) : null,
+            campos.inclui(Campo.UPDATED_AT) ? tuple.get("updatedAt", LocalDateTime.class) : null
+        );
+    }
 
-        return panacheQuery.getSingleResult();
+    /**
+     * Conta albuns com filtros (pra paginacao).
+     */
+    public long countWithFilters(String titulo, Integer anoLancamento, Long artistaId) {
+        var query = getEntityManager().createQuery(
+            "SELECT COUNT(al) FROM Album al" + filtros(titulo, anoLancamento, artistaId), Long.class);
+        parametros(query, titulo, anoLancamento, artistaId);
+        return query.getSingleResult();
     }
 
     /**
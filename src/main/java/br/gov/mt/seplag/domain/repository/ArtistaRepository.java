@@ -7,8 +7,11 @@ import io.quarkus.panache.common.Page;
 import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * Repositorio para a entidade Artista.
@@ -71,6 +74,66 @@ public class ArtistaRepository implements PanacheRepository<Artista> {
         }
     }
 
+    /**
+     * Versao do detalhe do artista, sem carregar a entidade nem os albuns.
+     *
+     * Vincular albuns nao altera o updated_at do artista (so a tabela de
+     * relacionamento) e renomear um album so altera a linha do album, entao
+     * entram tambem os ids dos albuns vinculados, concatenados em ordem (trocar
+     * {1,4} por {2,3} muda a versao), e o MAX(updated_at) deles.
+     *
+     * @return valores que mudam sempre que o detalhe muda; vazio se o artista nao existe
+     */
+    public Optional<String> findVersao(Long id) {
+        return getEntityManager()
+            .createQuery("SELECT ar.updatedAt, listagg(cast(ab.id as String), ',') WITHIN GROUP (ORDER BY ab.id), " +
+                "MAX(ab.updatedAt) FROM Artista ar LEFT JOIN ar.albuns ab WHERE ar.id = :id GROUP BY ar.id, ar.updatedAt", Object[].class)
+            .setParameter("id", id)
+            .getResultStream()
+            .findFirst()
+            .map(ArtistaRepository::versao);
+    }
+
+    /**
+     * Versao de uma pagina da listagem, com os mesmos filtros de findWithFilters.
+     *
+     * Agrega os artistas filtrados (md5 dos ids em ordem, ultimo updated_at)
+     * e, como a resposta traz quantidadeAlbuns, os vinculos com albuns (globais:
+     * mais barato que restringir ao filtro), como md5 dos pares (artista, album)
+     * em ordem: qualquer troca muda a versao.
+     *
+     * @return valores que mudam sempre que alguma pagina com esses filtros muda
+     */
+    public String findVersaoListagem(String nome, TipoArtista tipo) {
+        StringBuilder query = new StringBuilder(
+            "SELECT md5(listagg(cast(ar.id as String), ',') WITHIN GROUP (ORDER BY ar.id)), MAX(ar.updatedAt) " +
+                "FROM Artista ar WHERE 1=1");
+        if (nome != null && !nome.isBlank()) {
+            query.append(" AND lower(ar.nome) LIKE lower(concat('%', :nome, '%'))");
+        }
+        if (tipo != null) {
+            query.append(" AND ar.tipo = :tipo");
+        }
+
+        var artistas = getEntityManager().createQuery(query.toString(), Object[].class);
+        if (nome != null && !nome.isBlank()) {
+            artistas.setParameter("nome", nome);
+        }
+        if (tipo != null) {
+            artistas.setParameter("tipo", tipo);
+        }
+
+        Object[] vinculos = getEntityManager()
+            .createQuery("SELECT COUNT(ab), md5(listagg(concat(cast(ar.id as String), ':', cast(ab.id as String)), ',') " +
+                "WITHIN GROUP (ORDER BY ar.id, ab.id)) FROM Artista ar JOIN ar.albuns ab", Object[].class)
+            .getSingleResult();
+        return versao(artistas.getSingleResult()) + "|" + versao(vinculos);
+    }
+
+    private static String versao(Object[] valores) {
+        return Arrays.stream(valores).map(String::valueOf).collect(Collectors.joining("|"));
+    }
+
     /**
      * Busca artista por ID com albuns carregados.
      * Fetch join pra evitar N+1 na hora de montar a resposta detalhada.
@@ -80,6 +143,13 @@ public class ArtistaRepository implements PanacheRepository<Artista> {
             .firstResultOptional();
     }
 
+    /**
+     * Busca artistas pelos IDs com albuns carregados, em uma unica query (IN).
+     */
+    public List<Artista> findByIdsWithAlbuns(Collection<Long> ids) {
+        return list("SELECT DISTINCT a FROM Artista a LEFT JOIN FETCH a.albuns WHERE a.id IN ?1", ids);
+    }
+
     /**
      * Busca artistas por nome (exato).
      * Usado para validar duplicidade antes de inserir.
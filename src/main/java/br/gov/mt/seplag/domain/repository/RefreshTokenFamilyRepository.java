@@ -0,0 +1,133 @@
+package br.gov.mt.seplag.domain.repository;
+
+import br.gov.mt.seplag.domain.model.RefreshTokenFamily;
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.transaction.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Repositorio para a entidade RefreshTokenFamily.
+ * Usado apenas pelo RefreshTokenStore: o banco e a fonte da verdade da
+ * rotacao e da revogacao, entao todas as instancias enxergam o mesmo estado.
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+@ApplicationScoped
+public class RefreshTokenFamilyRepository implements PanacheRepositoryBase<RefreshTokenFamily, String> {
+
+    /**
+     * Familias novas em um unico statement (unnest dos arrays). ON CONFLICT
+     * DO NOTHING: uma familia regravada apos falha nunca sobrescreve uma
+     * rotacao ou revogacao ja aplicada.
+     */
+    private static final String INSERIR_LOTE_SQL = """
+        INSERT INTO refresh_token_family
+            (family_id, username, current_token_id, revoked, expires_at, created_at, updated_at)
+        SELECT f.family_id, f.username, f.current_token_id, FALSE, f.expires_at, f.created_at, f.created_at
+        FROM unnest(CAST(:familyIds AS varchar[]), CAST(:usernames AS varchar[]), CAST(:tokenIds AS varchar[]),
+                    CAST(:expiresAt AS timestamp[]), CAST(:createdAt AS timestamp[]))
+            AS f(family_id, username, current_token_id, expires_at, created_at)
+        ON CONFLICT (family_id) DO NOTHING
+        """;
+
+    /**
+     * Busca a familia direto no banco (estado atual, inclusive de outras instancias).
+     * Transacional para usar uma sessao nova: a do request poderia devolver a
+     * entidade lida antes do UPDATE condicional.
+     */
+    @Transactional
+    public Optional<RefreshTokenFamily> buscar(String familyId) {
+        return find("familyId", familyId).firstResultOptional();
+    }
+
+    /**
+     * Rotaciona o token apenas se o apresentado ainda for o atual (compare-and-set).
+     * Duas renovacoes concorrentes com o mesmo token, em qualquer instancia,
+     * resultam em exatamente uma atualizacao.
+     *
+     * @return true se esta chamada rotacionou a familia
+     */
+    @Transactional
+    public boolean rotacionar(String familyId, String tokenAtual, String tokenNovo,
+                              LocalDateTime expiraEm, LocalDateTime agora) {
+        return getEntityManager().createNativeQuery("""
+                UPDATE refresh_token_family
+                SET current_token_id = :novo, expires_at = :expiraEm, updated_at = :agora
+                WHERE family_id = :familyId AND current_token_id = :atual
+                  AND NOT revoked AND expires_at > :agora
+                """)
+            .setParameter("novo", tokenNovo)
+            .setParameter("expiraEm", expiraEm)
+            .setParameter("agora", agora)
+            .setParameter("familyId", familyId)
+            .setParameter("atual", tokenAtual)
+            .executeUpdate() == 1;
+    }
+
+    /**
+     * Revoga uma familia.
+     *
+     * @return true se a familia estava ativa
+     */
+    @Transactional
+    public boolean revogar(String familyId) {
+        return update("revoked = true, updatedAt = ?1 where familyId = ?2 and revoked = false",
+            LocalDateTime.now(), familyId) == 1;
+    }
+
+    /**
+     * Revoga todas as familias ativas de um usuario.
+     *
+     * @return numero de familias revogadas
+     */
+    @Transactional
+    public int revogarDoUsuario(String username) {
+        return update("revoked = true, updatedAt = ?1 where username = ?2 and revoked = false",
+            LocalDateTime.now(), username);
+    }
+
+    /**
+     * Insere as familias novas em um unico statement.
+     */
+    @Transactional
+    public void insertAll(Collection<RefreshTokenFamily> familias) {
+        int tamanho = familias.size();
+        String[] familyIds = new String[tamanho];
+        String[] usernames = new String[tamanho];
+        String[] tokenIds = new String[tamanho];
+        LocalDateTime[] expiresAt = new LocalDateTime[tamanho];
+        LocalDateTime[] createdAt = new LocalDateTime[tamanho];
+
+        int i = 0;
+        for (RefreshTokenFamily familia : familias) {
+            familyIds[i] = familia.getFamilyId();
+            usernames[i] = familia.getUsername();
+            tokenIds[i] = familia.getCurrentTokenId();
+            expiresAt[i] = familia.getExpiresAt();
+            createdAt[i] = familia.getCreatedAt();
+            i++;
+        }
+
+        getEntityManager().createNativeQuery(INSERIR_LOTE_SQL)
+            .setParameter("familyIds", familyIds)
+            .setParameter("usernames", usernames)
+            .setParameter("tokenIds", tokenIds)
+            .setParameter("expiresAt", expiresAt)
+            .setParameter("createdAt", createdAt)
+            .executeUpdate();
+    }
+
+    /**
+     * Remove familias expiradas.
+     *
+     * @return numero de linhas removidas
+     */
+    @Transactional
+    public long deleteExpiradas(LocalDateTime agora) {
+        return delete("expiresAt <= ?1", agora);
+    }
+}
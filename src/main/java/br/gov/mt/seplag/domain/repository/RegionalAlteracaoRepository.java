@@ -0,0 +1,25 @@
+package br.gov.mt.seplag.domain.repository;
+
+import br.gov.mt.seplag.domain.model.RegionalAlteracao;
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import io.quarkus.panache.common.Sort;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.List;
+
+/**
+ * Repositorio (somente leitura) para a entidade RegionalAlteracao.
+ * As linhas sao gravadas pelo RegionalRepository durante a sincronizacao.
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+@ApplicationScoped
+public class RegionalAlteracaoRepository implements PanacheRepositoryBase<RegionalAlteracao, Long> {
+
+    /**
+     * Busca as alteracoes posteriores ao seq informado, em ordem crescente.
+     */
+    public List<RegionalAlteracao> findPosteriores(long seq, int limite) {
+        return find("seq > ?1", Sort.ascending("seq"), seq).page(0, limite).list();
+    }
+}
@@ -3,12 +3,11 @@ package br.gov.mt.seplag.domain.repository;
 import br.gov.mt.seplag.domain.model.Regional;
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.transaction.Transactional;
 
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.function.BiConsumer;
 
 /**
  * Repositorio para a entidade Regional.
@@ -19,6 +18,177 @@ import java.util.stream.Collectors;
 @ApplicationScoped
 public class RegionalRepository implements PanacheRepositoryBase<Regional, Integer> {
 
+    private static final String PROXIMA_SINCRONIZACAO_SQL = "SELECT nextval('regional_sincronizacao_seq')";
+
+    /**
+     * Ids recebidos na sincronizacao em andamento (descartada no commit ou rollback).
+     */
+    private static final String CRIAR_RECEBIDAS_SQL =
+        "CREATE TEMP TABLE IF NOT EXISTS regional_sync_recebidas (id integer PRIMARY KEY) ON COMMIT DROP";
+
+    /**
+     * Regionais distintas recebidas: a chave primaria da tabela temporaria ja
+     * descarta os ids repetidos no payload.
+     */
+    private static final String CONTAR_RECEBIDAS_SQL = "SELECT count(*) FROM regional_sync_recebidas";
+
+    /**
+     * Aplicacao de um lote em um unico comando:
+     * - externas: lote do payload (unnest dos arrays; em ids repetidos vale o ultimo)
+     * - recebidas: registra os ids na tabela temporaria (para a inativacao no fim)
+     * - anteriores: estado das linhas afetadas antes do comando (mesmo snapshot)
+     * - upsert: insere novas e atualiza apenas nome alterado ou inativa (WHERE)
+     * - alteracoes: uma linha de historico por regional inserida ou atualizada
+     */
+    private static final String APLICAR_LOTE_SQL = """
+        WITH externas AS (
+            SELECT DISTINCT ON (e.id) e.id, e.nome
+            FROM unnest(CAST(:ids AS integer[]), CAST(:nomes AS varchar[])) WITH ORDINALITY AS e(id, nome, ordem)
+            ORDER BY e.id, e.ordem DESC
+        ),
+        recebidas AS (
+            INSERT INTO regional_sync_recebidas (id)
+            SELECT id FROM externas
+            ON CONFLICT (id) DO NOTHING
+        ),
+        anteriores AS (
+            SELECT r.id, r.nome, r.ativo
+            FROM regional r
+            JOIN externas e ON e.id = r.id
+        ),
+        upsert AS (
+            INSERT INTO regional (id, nome, ativo)
+            SELECT id, nome, TRUE FROM externas
+            ON CONFLICT (id) DO UPDATE SET nome = EXCLUDED.nome, ativo = TRUE
+            WHERE regional.nome IS DISTINCT FROM EXCLUDED.nome OR NOT regional.ativo
+            RETURNING regional.id, regional.nome
+        ),
+        alteracoes AS (
+            INSERT INTO regional_alteracao (sincronizacao, regional_id, tipo, nome, nome_anterior, ativo)
+            SELECT :sincronizacao, u.id,
+                CASE
+                    WHEN a.id IS NULL THEN 'INSERIDA'
+                    WHEN a.nome IS DISTINCT FROM u.nome THEN 'RENOMEADA'
+                    ELSE 'REATIVADA'
+                END,
+                u.nome,
+                CASE WHEN a.nome IS DISTINCT FROM u.nome THEN a.nome END,
+                TRUE
+            FROM upsert u
+            LEFT JOIN anteriores a ON a.id = u.id
+            ORDER BY u.id
+        )
+        SELECT
+            count(u.id) FILTER (WHERE a.id IS NULL),
+            count(u.id) FILTER (WHERE a.id IS NOT NULL AND a.nome IS DISTINCT FROM u.nome),
+            count(u.id) FILTER (WHERE a.id IS NOT NULL AND a.nome IS NOT DISTINCT FROM u.nome)
+        FROM upsert u
+        LEFT JOIN anteriores a ON a.id = u.id
+        """;
+
+    /**
+     * Inativacao das ausentes: anti-join com todos os ids recebidos, com o
+     * historico gravado no mesmo comando.
+     */
+    private static final String INATIVAR_AUSENTES_SQL = """
+        WITH inativadas AS (
+            UPDATE regional r SET ativo = FALSE
+            WHERE r.ativo AND NOT EXISTS (SELECT 1 FROM regional_sync_recebidas e WHERE e.id = r.id)
+            RETURNING r.id, r.nome
+        ),
+        alteracoes AS (
+            INSERT INTO regional_alteracao (sincronizacao, regional_id, tipo, nome, ativo)
+            SELECT :sincronizacao, id, 'INATIVADA', nome, FALSE
+            FROM inativadas
+            ORDER BY id
+        )
+        SELECT count(*) FROM inativadas
+        """;
+
+    private static final String BUSCAR_IMPRESSAO_DIGITAL_SQL =
+        "SELECT etag, last_modified, hash, total FROM regional_sincronizacao_estado WHERE id = 1";
+
+    private static final String GRAVAR_IMPRESSAO_DIGITAL_SQL = """
+        INSERT INTO regional_sincronizacao_estado (id, etag, last_modified, hash, total, sincronizacao, aplicada_em)
+        VALUES (1, :etag, :lastModified, :hash, :total, :sincronizacao, CURRENT_TIMESTAMP)
+        ON CONFLICT (id) DO UPDATE SET
+            etag = EXCLUDED.etag,
+            last_modified = EXCLUDED.last_modified,
+            hash = EXCLUDED.hash,
+            total = EXCLUDED.total,
+            sincronizacao = EXCLUDED.sincronizacao,
+            aplicada_em = EXCLUDED.aplicada_em
+        """;
+
+    /**
+     * Origem dos lotes de uma sincronizacao, lida dentro da transacao.
+     */
+    @FunctionalInterface
+    public interface OrigemLotes {
+
+        /**
+         * Entrega os lotes (ids e nomes em arrays paralelos) em ordem; cada lote
+         * e aplicado antes de a chamada retornar. Falhas devem ser excecoes nao
+         * verificadas, para a transacao fazer rollback.
+         */
+        void enviar(BiConsumer<Integer[], String[]> aplicarLote);
+    }
+
+    /**
+     * Contadores de uma sincronizacao.
+     * Regional inativa que volta com nome alterado conta como atualizada.
+     *
+     * @param sincronizacao id da sincronizacao no historico (regional_alteracao)
+     */
+    public record ResultadoSincronizacao(long sincronizacao, int recebidas, int inseridas, int atualizadas,
+                                         int reativadas, int inativadas) {
+
+        public int semAlteracao() {
+            return recebidas - inseridas - atualizadas - reativadas;
+        }
+    }
+
+    /**
+     * Impressao digital do ultimo payload aplicado (por qualquer instancia).
+     *
+     * @param etag ETag da resposta (null se a API nao enviar)
+     * @param lastModified Last-Modified da resposta (null se a API nao enviar)
+     * @param hash SHA-256 do corpo
+     * @param total regionais distintas no payload
+     */
+    public record ImpressaoDigital(String etag, String lastModified, String hash, int total) {}
+
+    /**
+     * Le a impressao digital do ultimo payload aplicado. Deve ser chamada sob o
+     * advisory lock da sincronizacao, que serializa as gravacoes.
+     */
+    @Transactional
+    public Optional<ImpressaoDigital> findImpressaoDigital() {
+        List<?> linhas = getEntityManager().createNativeQuery(BUSCAR_IMPRESSAO_DIGITAL_SQL).getResultList();
+        if (linhas.isEmpty()) {
+            return Optional.empty();
+        }
+        Object[] linha = (Object[]) linhas.get(0);
+        return Optional.of(new ImpressaoDigital((String) linha[0], (String) linha[1], (String) linha[2],
+            ((Number) linha[3]).intValue()));
+    }
+
+    /**
+     * Troca os validadores (ETag, Last-Modified) sem reaplicar o payload, quando
+     * a API responde com o mesmo corpo. Condicional no hash: validadores nunca
+     * ficam associados a um corpo diferente do aplicado.
+     */
+    @Transactional
+    public void atualizarValidadores(String etag, String lastModified, String hash) {
+        getEntityManager()
+            .createNativeQuery("UPDATE regional_sincronizacao_estado SET etag = :etag, last_modified = :lastModified "
+                + "WHERE id = 1 AND hash = :hash")
+            .setParameter("etag", etag)
+            .setParameter("lastModified", lastModified)
+            .setParameter("hash", hash)
+            .executeUpdate();
+    }
+
     /**
      * Busca todas as regionais ativas ordenadas por nome.
      */
@@ -55,23 +225,63 @@ public class RegionalRepository implements PanacheRepositoryBase<Regional, Integ
     }
 
     /**
-     * Retorna um mapa de todas as regionais indexadas por ID.
-     * Usado na sincronizacao para lookups O(1).
+     * Aplica o payload externo no banco, lote a lote, em uma unica transacao:
+     * um upsert por lote e, no fim, a inativacao das ausentes. Nenhuma regional
+     * e carregada na aplicacao e os ids recebidos ficam em uma tabela temporaria,
+     * entao a memoria usada nao depende do tamanho do payload nem da tabela.
+     *
+     * Um id repetido em lotes diferentes e reaplicado no lote seguinte (vale o
+     * ultimo nome) e, se o nome mudar, conta tambem como atualizada.
+     *
+     * Cada regional alterada gera uma linha em regional_alteracao com o id
+     * desta sincronizacao, gravada pelo proprio comando do lote (sem ida e
+     * volta extra). Em rollback, o historico tambem e descartado.
+     *
+     * A impressao digital do payload e gravada na mesma transacao: ela so
+     * existe se o payload foi de fato aplicado.
+     *
+     * @param etag ETag da resposta que originou o payload
+     * @param lastModified Last-Modified da resposta que originou o payload
+     * @param hash SHA-256 do corpo
      */
-    public Map<Integer, Regional> findAllAsMap() {
-        return listAll().stream()
-            .collect(Collectors.toMap(Regional::getId, r -> r, (r1, r2) -> r1));
-    }
+    @Transactional
+    public ResultadoSincronizacao sincronizar(OrigemLotes origem, String etag, String lastModified, String hash) {
+        long sincronizacao = ((Number) getEntityManager()
+            .createNativeQuery(PROXIMA_SINCRONIZACAO_SQL)
+            .getSingleResult()).longValue();
+        getEntityManager().createNativeQuery(CRIAR_RECEBIDAS_SQL).executeUpdate();
 
-    /**
-     * Inativa todas as regionais cujos IDs nao estao no conjunto fornecido.
-     * Usado para inativar regionais ausentes no endpoint externo.
-     */
-    public int inativarAusentes(Set<Integer> idsPresentes) {
-        if (idsPresentes == null || idsPresentes.isEmpty()) {
-            return update("ativo = false WHERE ativo = true");
-        }
-        return update("ativo = false WHERE ativo = true AND id NOT IN ?1", idsPresentes);
+        int[] contadores = new int[3];
+        origem.enviar((ids, nomes) -> {
+            Object[] linha = (Object[]) getEntityManager()
+                .createNativeQuery(APLICAR_LOTE_SQL)
+                .setParameter("ids", ids)
+                .setParameter("nomes", nomes)
+                .setParameter("sincronizacao", sincronizacao)
+                .getSingleResult();
+            for (int i = 0; i < contadores.length; i++) {
+                contadores[i] += ((Number) linha[i]).intValue();
+            }
+        });
+        int recebidas = ((Number) getEntityManager()
+            .createNativeQuery(CONTAR_RECEBIDAS_SQL)
+            .getSingleResult()).intValue();
+
+        Number inativadas = (Number) getEntityManager()
+            .createNativeQuery(INATIVAR_AUSENTES_SQL)
+            .setParameter("sincronizacao", sincronizacao)
+            .getSingleResult();
+
+        getEntityManager().createNativeQuery(GRAVAR_IMPRESSAO_DIGITAL_SQL)
+            .setParameter("etag", etag)
+            .setParameter("lastModified", lastModified)
+            .setParameter("hash", hash)
+            .setParameter("total", recebidas)
+            .setParameter("sincronizacao", sincronizacao)
+            .executeUpdate();
+
+        return new ResultadoSincronizacao(sincronizacao, recebidas, contadores[0], contadores[1], contadores[2],
+            inativadas.intValue());
     }
 
     /**
@@ -3,7 +3,10 @@ package br.gov.mt.seplag.domain.repository;
 import br.gov.mt.seplag.domain.model.Usuario;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.transaction.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -29,10 +32,29 @@ public class UsuarioRepository implements PanacheRepository<Usuario> {
         return find("username = ?1 and ativo = true", username).firstResultOptional();
     }
 
+    /**
+     * Busca todos os usuarios ativos.
+     * Usado para montar o snapshot de usuarios ativos (renovacao de token sem consulta).
+     */
+    public List<Usuario> findAllAtivos() {
+        return list("ativo", true);
+    }
+
     /**
      * Verifica se existe um usuario com o username informado.
      */
     public boolean existsByUsername(String username) {
         return count("username", username) > 0;
     }
+
+    /**
+     * Atualiza o hash da senha de um usuario.
+     * Usado no rehash transparente durante o login (work factor recalibrado).
+     *
+     * @return numero de linhas atualizadas
+     */
+    @Transactional
+    public int atualizarSenha(Long id, String novoHash) {
+        return update("password = ?1, updatedAt = ?2 WHERE id = ?3", novoHash, LocalDateTime.now(), id);
+    }
 }
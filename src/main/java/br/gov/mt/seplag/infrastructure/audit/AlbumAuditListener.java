@@ -0,0 +1,49 @@
+package br.gov.mt.seplag.infrastructure.audit;
+
+import br.gov.mt.seplag.application.event.AlbumDomainEvent;
+import br.gov.mt.seplag.application.event.DomainEventListener;
+import br.gov.mt.seplag.application.event.RecordedEvent;
+import br.gov.mt.seplag.infrastructure.audit.AuditService.AuditOperation;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Registra na auditoria as operacoes de album confirmadas (apos o commit).
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+@ApplicationScoped
+public class AlbumAuditListener implements DomainEventListener {
+
+    private static final String ENTITY = "Album";
+
+    @Inject
+    AuditService auditService;
+
+    @Override
+    public void onEvent(RecordedEvent recorded) {
+        if (!(recorded.event() instanceof AlbumDomainEvent event)) {
+            return;
+        }
+        switch (event) {
+            case AlbumDomainEvent.Created created ->
+                auditService.audit(AuditOperation.CREATE, ENTITY, created.albumId(),
+                    "titulo=" + created.album().getTitulo(), recorded.username());
+            case AlbumDomainEvent.Updated updated ->
+                auditService.audit(AuditOperation.UPDATE, ENTITY, updated.albumId(),
+                    "campos=" + String.join(",", updated.changes().keySet()), recorded.username());
+            case AlbumDomainEvent.Deleted deleted ->
+                auditService.audit(AuditOperation.DELETE, ENTITY, deleted.albumId(), null, recorded.username());
+            case AlbumDomainEvent.ImagesChanged images -> {
+                if (!images.added().isEmpty()) {
+                    auditService.audit(AuditOperation.UPLOAD, ENTITY, images.albumId(),
+                        "imagens=" + images.added().size(), recorded.username());
+                }
+                if (!images.removed().isEmpty()) {
+                    auditService.audit(AuditOperation.DELETE, "AlbumImagem", images.albumId(),
+                        "imagens=" + images.removed(), recorded.username());
+                }
+            }
+        }
+    }
+}
@@ -31,7 +31,14 @@ public class AuditService {
      * @param details   detalhes adicionais
      */
     public void audit(AuditOperation operation, String entity, Object entityId, String details) {
-        String username = extractUsername();
+        audit(operation, entity, entityId, details, extractUsername());
+    }
+
+    /**
+     * Registra uma operacao de auditoria com o usuario informado
+     * (ex: eventos entregues fora da requisicao que os gerou).
+     */
+    public void audit(AuditOperation operation, String entity, Object entityId, String details, String username) {
         AuditEvent event = new AuditEvent(
             Instant.now(),
             username,
@@ -1,19 +1,18 @@
 package br.gov.mt.seplag.infrastructure.client;
 
+import io.smallrye.mutiny.Uni;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
-import org.eclipse.microprofile.faulttolerance.CircuitBreaker;
-import org.eclipse.microprofile.faulttolerance.Retry;
-import org.eclipse.microprofile.faulttolerance.Timeout;
 import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
-
-import java.util.List;
+import org.jboss.resteasy.reactive.RestResponse;
 
 /**
  * Cliente REST para a API de regionais da Policia Civil.
- * Implementa padroes de resiliencia: Circuit Breaker, Retry e Timeout.
+ * A resiliencia fica em RegionaisGateway, que e o ponto de uso.
  *
  * @author Jean Paulo Sassi de Miranda
  */
@@ -22,25 +21,25 @@ import java.util.List;
 public interface RegionaisClient {
 
     /**
-     * Busca lista de regionais da API externa.
+     * Busca condicional e nao bloqueante da lista de regionais.
+     *
+     * Com ETag ou Last-Modified da ultima resposta aplicada, a API pode
+     * responder 304 sem corpo. Cabecalhos nulos nao sao enviados. O corpo e
+     * gravado pelo cliente em um arquivo temporario a medida que chega (sem
+     * copia no heap); o chamador calcula o hash e le os tokens a partir dele.
+     *
+     * Sem anotacoes de resiliencia: timeout, retry, bulkhead, circuit breaker
+     * e fallback ficam em RegionaisGateway, que e o ponto de uso.
      *
-     * Configuracoes de resiliencia:
-     * - Timeout: 10 segundos
-     * - Retry: 3 tentativas com delay de 1 segundo
-     * - Circuit Breaker: Abre apos 50% de falhas em 10 requisicoes, espera 30s
+     * @param etag ETag da ultima resposta aplicada (If-None-Match)
+     * @param lastModified Last-Modified da ultima resposta aplicada (If-Modified-Since)
      */
     @GET
     @Path("/regionais")
     @Produces(MediaType.APPLICATION_JSON)
-    @Timeout(10000)
-    @Retry(maxRetries = 3, delay = 1000)
-    @CircuitBreaker(
-        requestVolumeThreshold = 10,
-        failureRatio = 0.5,
-        delay = 30000,
-        successThreshold = 3
-    )
-    List<RegionalExterna> getRegionais();
+    Uni<RestResponse<java.nio.file.Path>> getRegionaisCondicional(
+        @HeaderParam(HttpHeaders.IF_NONE_MATCH) String etag,
+        @HeaderParam(HttpHeaders.IF_MODIFIED_SINCE) String lastModified);
 
     /**
      * DTO para representar a regional da API externa.
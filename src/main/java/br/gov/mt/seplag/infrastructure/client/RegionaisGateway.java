@@ -0,0 +1,227 @@
+package br.gov.mt.seplag.infrastructure.client;
+
+import br.gov.mt.seplag.infrastructure.metrics.MetricsService;
+import io.smallrye.faulttolerance.api.AsynchronousNonBlocking;
+import io.smallrye.faulttolerance.api.CircuitBreakerMaintenance;
+import io.smallrye.faulttolerance.api.CircuitBreakerName;
+import io.smallrye.faulttolerance.api.CircuitBreakerState;
+import io.smallrye.faulttolerance.api.ExponentialBackoff;
+import io.smallrye.mutiny.Uni;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.faulttolerance.Bulkhead;
+import org.eclipse.microprofile.faulttolerance.CircuitBreaker;
+import org.eclipse.microprofile.faulttolerance.Fallback;
+import org.eclipse.microprofile.faulttolerance.Retry;
+import org.eclipse.microprofile.faulttolerance.Timeout;
+import org.eclipse.microprofile.faulttolerance.exceptions.BulkheadException;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.jboss.logging.Logger;
+import org.jboss.resteasy.reactive.RestResponse;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Acesso nao bloqueante a API de regionais, com resiliencia e fallback.
+ *
+ * Configuracoes de resiliencia (pior caso ~13s, sem ocupar thread de worker
+ * durante as esperas):
+ * - Bulkhead: 2 chamadas simultaneas e ate 8 na fila; rejeicoes vao direto
+ *   ao fallback, sem retry e sem contar como falha no circuit breaker
+ * - Timeout: 4 segundos por tentativa
+ * - Retry: 2 novas tentativas com backoff exponencial (500ms, 1s) e jitter
+ *   de 250ms, para os nos nao repetirem em sincronia
+ * - Circuit Breaker "regionais-api": abre apos 50% de falhas em 10
+ *   requisicoes, espera 30s; o estado e exportado como metrica
+ * - Fallback: ultimo payload obtido com sucesso, marcado como stale e com a
+ *   sua idade; sem payload anterior, a falha original e propagada
+ *
+ * O corpo nunca fica no heap: o cliente REST grava a resposta em um arquivo
+ * temporario enquanto ela chega, e o payload guarda apenas o caminho. O
+ * arquivo do ultimo payload e mantido para o fallback e apagado quando outro
+ * o substitui (ou no shutdown), entao o disco usado e o de um corpo.
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+@ApplicationScoped
+public class RegionaisGateway {
+
+    private static final Logger LOG = Logger.getLogger(RegionaisGateway.class);
+
+    public static final String CIRCUIT_BREAKER = "regionais-api";
+
+    @Inject
+    @RestClient
+    RegionaisClient regionaisClient;
+
+    @Inject
+    MetricsService metricsService;
+
+    @Inject
+    CircuitBreakerMaintenance circuitBreakers;
+
+    private final AtomicReference<RegionaisPayload> ultimoPayload = new AtomicReference<>();
+
+    private final AtomicReference<Instant> ultimoSucesso = new AtomicReference<>();
+
+    @PostConstruct
+    void init() {
+        metricsService.registerRegionalApiCircuitBreakerGauge(this, gateway -> switch (gateway.estadoCircuito()) {
+            case CLOSED -> 0;
+            case HALF_OPEN -> 1;
+            case OPEN -> 2;
+        });
+    }
+
+    /**
+     * Busca condicional das regionais.
+     *
+     * @param etag ETag da ultima resposta aplicada (If-None-Match), ou null
+     * @param lastModified Last-Modified da ultima resposta aplicada (If-Modified-Since), ou null
+     * @return payload atual, 304 (naoModificado) ou o ultimo payload valido (stale)
+     */
+    @AsynchronousNonBlocking
+    @Bulkhead(value = 2, waitingTaskQueue = 8)
+    @Timeout(4000)
+    @Retry(maxRetries = 2, delay = 500, jitter = 250, abortOn = BulkheadException.class)
+    @ExponentialBackoff(factor = 2, maxDelay = 4000)
+    @CircuitBreaker(
+        requestVolumeThreshold = 10,
+        failureRatio = 0.5,
+        delay = 30000,
+        successThreshold = 3,
+        skipOn = BulkheadException.class
+    )
+    @CircuitBreakerName(CIRCUIT_BREAKER)
+    @Fallback(fallbackMethod = "ultimoPayloadValido")
+    public Uni<RegionaisPayload> buscar(String etag, String lastModified) {
+        return regionaisClient.getRegionaisCondicional(etag, lastModified)
+            .map(response -> registrar(response, etag, lastModified));
+    }
+
+    /**
+     * Fallback de buscar: serve o ultimo payload obtido, marcado como stale.
+     */
+    Uni<RegionaisPayload> ultimoPayloadValido(String etag, String lastModified, Throwable falha) {
+        RegionaisPayload anterior = ultimoPayload.get();
+        if (anterior == null) {
+            return Uni.createFrom().failure(falha);
+        }
+        metricsService.recordRegionalApiFallback();
+        LOG.warnf("API de regionais indisponivel (%s); usando payload obtido ha %ds",
+            falha.getMessage(), anterior.idade().toSeconds());
+        return Uni.createFrom().item(anterior.comoStale());
+    }
+
+    /**
+     * Ultimo payload obtido com sucesso (nunca stale).
+     */
+    public Optional<RegionaisPayload> ultimoPayload() {
+        return Optional.ofNullable(ultimoPayload.get());
+    }
+
+    /**
+     * Instante da ultima resposta valida da API (200 ou 304), sem chamada nova.
+     */
+    public Optional<Instant> ultimoSucesso() {
+        return Optional.ofNullable(ultimoSucesso.get());
+    }
+
+    public CircuitBreakerState estadoCircuito() {
+        return circuitBreakers.currentState(CIRCUIT_BREAKER);
+    }
+
+    /**
+     * Descarta o ultimo payload (o fallback passa a propagar a falha).
+     */
+    @PreDestroy
+    void limpar() {
+        RegionaisPayload anterior = ultimoPayload.getAndSet(null);
+        if (anterior != null) {
+            apagar(anterior.corpo());
+        }
+    }
+
+    private RegionaisPayload registrar(RestResponse<Path> response, String etag, String lastModified) {
+        Instant agora = Instant.now();
+        int status = response.getStatus();
+
+        if (status == Response.Status.NOT_MODIFIED.getStatusCode()) {
+            apagar(response.getEntity());
+            ultimoSucesso.set(agora);
+            // A API confirmou a versao enviada: se for a guardada, ela continua atual
+            ultimoPayload.updateAndGet(p -> p != null
+                && Objects.equals(p.etag(), etag) && Objects.equals(p.lastModified(), lastModified)
+                ? p.revalidado(agora) : p);
+            return new RegionaisPayload(status, null, etag, lastModified, agora, false);
+        }
+        if (status / 100 != 2 || response.getEntity() == null) {
+            // Falha para retry e circuit breaker (4xx/5xx ja chegam como excecao do cliente)
+            apagar(response.getEntity());
+            throw new IllegalStateException("API de regionais retornou HTTP " + status
+                + (response.getEntity() == null ? " sem corpo" : ""));
+        }
+
+        ultimoSucesso.set(agora);
+        RegionaisPayload payload = new RegionaisPayload(status, response.getEntity(),
+            response.getHeaderString(HttpHeaders.ETAG), response.getHeaderString(HttpHeaders.LAST_MODIFIED),
+            agora, false);
+        RegionaisPayload anterior = ultimoPayload.getAndSet(payload);
+        if (anterior != null && !anterior.corpo().equals(payload.corpo())) {
+            apagar(anterior.corpo());
+        }
+        return payload;
+    }
+
+    private static void apagar(Path arquivo) {
+        if (arquivo == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(arquivo);
+        } catch (IOException e) {
+            LOG.warnf("Nao foi possivel apagar o corpo temporario da API de regionais %s: %s", arquivo, e.getMessage());
+        }
+    }
+
+    /**
+     * Resposta da API de regionais.
+     *
+     * @param status HTTP da resposta (200 ou 304)
+     * @param corpo arquivo temporario com o JSON recebido (null em 304)
+     * @param etag ETag da resposta (null se a API nao enviar)
+     * @param lastModified Last-Modified da resposta (null se a API nao enviar)
+     * @param obtidoEm instante da resposta (ou da ultima revalidacao por 304)
+     * @param stale true quando veio do fallback (API indisponivel)
+     */
+    public record RegionaisPayload(int status, Path corpo, String etag, String lastModified,
+                                   Instant obtidoEm, boolean stale) {
+
+        public boolean naoModificado() {
+            return status == Response.Status.NOT_MODIFIED.getStatusCode();
+        }
+
+        public Duration idade() {
+            return Duration.between(obtidoEm, Instant.now());
+        }
+
+        RegionaisPayload comoStale() {
+            return new RegionaisPayload(status, corpo, etag, lastModified, obtidoEm, true);
+        }
+
+        RegionaisPayload revalidado(Instant instante) {
+            return new RegionaisPayload(status, corpo, etag, lastModified, instante, false);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package br.gov.mt.seplag.infrastructure.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+/**
+ * Leitura em streaming do payload da API de regionais.
+ *
+ * O array JSON e percorrido token a token (sem List de RegionalExterna) e
+ * entregue em lotes de tamanho fixo: ids e nomes em arrays paralelos,
+ * reutilizados entre lotes. O corpo e lido de um InputStream, entao a memoria
+ * usada e a do buffer do parser mais a de um lote, qualquer que seja o
+ * tamanho do payload. Ids repetidos nao sao tratados aqui: o banco ja deduplica os ids
+ * recebidos e conta os distintos.
+ *
+ * Formato aceito: [{"id": 1, "nome": "..."}, ...]; outros campos sao
+ * ignorados e o id pode vir como numero ou texto numerico.
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+public final class RegionaisPayloadReader {
+
+    private RegionaisPayloadReader() {
+    }
+
+    /**
+     * Le o payload e entrega cada lote ao destino, na ordem do array.
+     *
+     * Os arrays sao reutilizados no lote seguinte: o destino deve consumi-los
+     * antes de retornar. O ultimo lote tem o tamanho exato do restante.
+     *
+     * @param json corpo da resposta (fechado ao fim da leitura)
+     * @param tamanhoLote regionais por lote
+     * @param destino recebe (ids, nomes) de cada lote
+     * @return regionais lidas, contando cada ocorrencia de um id repetido
+     * @throws IOException JSON invalido, fora do formato ou regional sem id
+     */
+    public static int lerEmLotes(JsonFactory factory, InputStream json, int tamanhoLote,
+                                 BiConsumer<Integer[], String[]> destino) throws IOException {
+        Integer[] ids = new Integer[tamanhoLote];
+        String[] nomes = new String[tamanhoLote];
+        int lidas = 0;
+        int quantidade = 0;
+
+        try (JsonParser parser = factory.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Payload de regionais deve ser um array JSON");
+            }
+
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token != JsonToken.START_OBJECT) {
+                    throw new JsonParseException(parser, "Regional deve ser um objeto JSON, encontrado " + token);
+                }
+
+                Integer id = null;
+                String nome = null;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String campo = parser.currentName();
+                    JsonToken valor = parser.nextToken();
+                    switch (campo) {
+                        case "id" -> id = lerId(parser, valor);
+                        case "nome" -> nome = valor == JsonToken.VALUE_NULL ? null : parser.getValueAsString();
+                        default -> parser.skipChildren();
+                    }
+                }
+                if (id == null) {
+                    throw new JsonParseException(parser, "Regional sem id no payload");
+                }
+
+                lidas++;
+                ids[quantidade] = id;
+                nomes[quantidade] = nome;
+                if (++quantidade == tamanhoLote) {
+                    destino.accept(ids, nomes);
+                    quantidade = 0;
+                }
+            }
+        }
+
+        if (quantidade > 0) {
+            destino.accept(Arrays.copyOf(ids, quantidade), Arrays.copyOf(nomes, quantidade));
+        }
+        return lidas;
+    }
+
+    private static Integer lerId(JsonParser parser, JsonToken valor) throws IOException {
+        return switch (valor) {
+            case VALUE_NULL -> null;
+            case VALUE_NUMBER_INT -> parser.getIntValue();
+            case VALUE_STRING -> {
+                try {
+                    yield Integer.valueOf(parser.getText().trim());
+                } catch (NumberFormatException e) {
+                    throw new JsonParseException(parser, "Id de regional invalido: " + parser.getText());
+                }
+            }
+            default -> throw new JsonParseException(parser, "Id de regional invalido: " + valor);
+        };
+    }
+}
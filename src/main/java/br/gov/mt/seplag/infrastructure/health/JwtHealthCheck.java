@@ -1,18 +1,32 @@
 package br.gov.mt.seplag.infrastructure.health;
 
+import io.smallrye.jwt.algorithm.SignatureAlgorithm;
+import io.smallrye.jwt.util.KeyUtils;
 import jakarta.enterprise.context.ApplicationScoped;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.health.HealthCheck;
 import org.eclipse.microprofile.health.HealthCheckResponse;
 import org.eclipse.microprofile.health.HealthCheckResponseBuilder;
 import org.eclipse.microprofile.health.Readiness;
+import org.jose4j.jwk.JsonWebKey;
 
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.Key;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Health Check customizado para verificar configuracao JWT.
- * Valida se as chaves publicas/privadas estao acessiveis.
+ * Valida se as chaves publicas/privadas estao acessiveis e se o tipo
+ * da chave corresponde ao algoritmo configurado (RSA para RS256, EC para
+ * ES256, Ed25519 para EdDSA).
+ *
+ * A chave publica pode ser um PEM unico ou um JWK Set (rotacao de chaves);
+ * no segundo caso, o kid de assinatura precisa estar presente no conjunto.
  *
  * @author Jean Paulo Sassi de Miranda
  */
@@ -26,45 +40,192 @@ public class JwtHealthCheck implements HealthCheck {
     @ConfigProperty(name = "smallrye.jwt.sign.key.location", defaultValue = "privateKey.pem")
     String privateKeyLocation;
 
+    @ConfigProperty(name = "smallrye.jwt.new-token.signature-algorithm", defaultValue = "RS256")
+    String signatureAlgorithm;
+
+    @ConfigProperty(name = "smallrye.jwt.sign.key.id")
+    Optional<String> signingKeyId;
+
+    /**
+     * Algoritmos aceitos na verificacao (lista separada por virgula).
+     * Durante a troca de algoritmo (ex: RS256 -> ES256) ambos ficam aceitos.
+     */
+    @ConfigProperty(name = "mp.jwt.verify.publickey.algorithm", defaultValue = "RS256")
+    List<String> verifyAlgorithms;
+
     @Override
     public HealthCheckResponse call() {
         HealthCheckResponseBuilder responseBuilder = HealthCheckResponse
             .named("JWT Configuration");
 
-        boolean publicKeyOk = isKeyAccessible(publicKeyLocation, "Public Key");
-        boolean privateKeyOk = isKeyAccessible(privateKeyLocation, "Private Key");
+        SignatureAlgorithm algorithm;
+        List<SignatureAlgorithm> acceptedAlgorithms = new ArrayList<>();
+        try {
+            algorithm = SignatureAlgorithm.fromAlgorithm(signatureAlgorithm);
+            for (String verifyAlgorithm : verifyAlgorithms) {
+                acceptedAlgorithms.add(SignatureAlgorithm.fromAlgorithm(verifyAlgorithm.trim()));
+            }
+        } catch (Exception e) {
+            return responseBuilder
+                .withData("algorithm", signatureAlgorithm)
+                .withData("status", "Algoritmo de assinatura nao suportado")
+                .down()
+                .build();
+        }
+
+        responseBuilder
+            .withData("algorithm", algorithm.getAlgorithm())
+            .withData("keyId", signingKeyId.orElse("-"));
+
+        if (!acceptedAlgorithms.contains(algorithm)) {
+            return responseBuilder
+                .withData("status", "Algoritmo de assinatura nao aceito na verificacao")
+                .down()
+                .build();
+        }
+
+        String publicKeyContent = readKeyContent(publicKeyLocation);
+        String privateKeyContent = readKeyContent(privateKeyLocation);
+
+        String publicKeyStatus = publicKeyContent == null ? "MISSING"
+            : checkVerificationKeys(publicKeyContent, acceptedAlgorithms, responseBuilder);
+        String privateKeyStatus = privateKeyContent == null ? "MISSING"
+            : checkSigningKey(privateKeyContent, algorithm);
 
         responseBuilder
-            .withData("publicKey", publicKeyOk ? "OK" : "MISSING")
-            .withData("privateKey", privateKeyOk ? "OK" : "MISSING");
+            .withData("publicKey", publicKeyStatus)
+            .withData("privateKey", privateKeyStatus);
 
-        if (publicKeyOk && privateKeyOk) {
+        if ("OK".equals(publicKeyStatus) && "OK".equals(privateKeyStatus)) {
             return responseBuilder
                 .withData("status", "Chaves JWT configuradas corretamente")
                 .up()
                 .build();
-        } else {
+        } else if (publicKeyContent == null || privateKeyContent == null) {
             return responseBuilder
                 .withData("status", "Chaves JWT nao encontradas")
                 .down()
                 .build();
+        } else {
+            return responseBuilder
+                .withData("status", "Chaves JWT incompativeis com o algoritmo " + algorithm.getAlgorithm())
+                .down()
+                .build();
+        }
+    }
+
+    /**
+     * Valida a chave privada (PEM ou JWK) contra o algoritmo de assinatura.
+     */
+    private String checkSigningKey(String content, SignatureAlgorithm algorithm) {
+        try {
+            Key key;
+            if (isJson(content)) {
+                JsonWebKey jwk = signingKeyId
+                    .map(kid -> KeyUtils.getJwkKeyFromJwkSet(kid, content))
+                    .orElseGet(() -> firstJwk(content));
+                key = jwk == null ? null : KeyUtils.getPrivateOrSecretSigningKey(jwk, algorithm);
+            } else {
+                key = KeyUtils.decodePrivateKey(content, algorithm);
+            }
+            return key != null && isCompatible(key, algorithm) ? "OK" : "INVALID";
+        } catch (Exception e) {
+            return "INVALID";
+        }
+    }
+
+    /**
+     * Valida a(s) chave(s) de verificacao. Um JWK Set pode conter mais de uma
+     * chave durante a rotacao; todas precisam ser de um dos algoritmos aceitos
+     * e o kid de assinatura (se configurado) precisa estar entre elas.
+     */
+    private String checkVerificationKeys(String content, List<SignatureAlgorithm> algorithms,
+                                         HealthCheckResponseBuilder responseBuilder) {
+        try {
+            if (!isJson(content)) {
+                responseBuilder.withData("verificationKeys", 1);
+                for (SignatureAlgorithm algorithm : algorithms) {
+                    if (isCompatible(decodePublicKey(content, algorithm), algorithms)) {
+                        return "OK";
+                    }
+                }
+                return "INVALID";
+            }
+
+            List<JsonWebKey> jwks = KeyUtils.loadJsonWebKeys(content);
+            if (jwks == null || jwks.isEmpty()) {
+                return "INVALID";
+            }
+            responseBuilder.withData("verificationKeys", jwks.size());
+
+            List<String> kids = new ArrayList<>();
+            for (JsonWebKey jwk : jwks) {
+                if (!isCompatible(jwk.getKey(), algorithms)) {
+                    return "INVALID";
+                }
+                kids.add(jwk.getKeyId());
+            }
+
+            if (signingKeyId.isPresent() && !kids.contains(signingKeyId.get())) {
+                return "KID_NOT_FOUND";
+            }
+            return "OK";
+        } catch (Exception e) {
+            return "INVALID";
+        }
+    }
+
+    private boolean isCompatible(Key key, List<SignatureAlgorithm> algorithms) {
+        return algorithms.stream().anyMatch(algorithm -> isCompatible(key, algorithm));
+    }
+
+    private Key decodePublicKey(String content, SignatureAlgorithm algorithm) {
+        try {
+            return KeyUtils.decodePublicKey(content, algorithm);
+        } catch (Exception e) {
+            return null;
         }
     }
 
-    private boolean isKeyAccessible(String location, String keyType) {
+    private boolean isCompatible(Key key, SignatureAlgorithm algorithm) {
+        if (key == null) {
+            return false;
+        }
+        String keyAlgorithm = key.getAlgorithm();
+        return switch (algorithm) {
+            case RS256, RS384, RS512, PS256, PS384, PS512 -> "RSA".equals(keyAlgorithm);
+            case ES256, ES384, ES512 -> "EC".equals(keyAlgorithm);
+            case EDDSA -> "EdDSA".equals(keyAlgorithm) || "Ed25519".equals(keyAlgorithm);
+            default -> false;
+        };
+    }
+
+    private JsonWebKey firstJwk(String content) {
+        List<JsonWebKey> jwks = KeyUtils.loadJsonWebKeys(content);
+        return jwks == null || jwks.isEmpty() ? null : jwks.get(0);
+    }
+
+    private boolean isJson(String content) {
+        return content.trim().startsWith("{");
+    }
+
+    private String readKeyContent(String location) {
         try {
             // Tenta carregar do classpath primeiro
-            var resource = getClass().getClassLoader().getResourceAsStream(location);
-            if (resource != null) {
-                resource.close();
-                return true;
+            try (InputStream resource = getClass().getClassLoader().getResourceAsStream(location)) {
+                if (resource != null) {
+                    return new String(resource.readAllBytes(), StandardCharsets.UTF_8);
+                }
             }
 
             // Tenta como arquivo do sistema
             Path path = Path.of(location);
-            return Files.exists(path) && Files.isReadable(path);
+            if (Files.exists(path) && Files.isReadable(path)) {
+                return Files.readString(path);
+            }
+            return null;
         } catch (Exception e) {
-            return false;
+            return null;
         }
     }
 }
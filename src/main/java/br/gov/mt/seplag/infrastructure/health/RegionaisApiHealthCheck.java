@@ -1,6 +1,7 @@
 package br.gov.mt.seplag.infrastructure.health;
 
-import br.gov.mt.seplag.infrastructure.client.RegionaisClient;
+import br.gov.mt.seplag.infrastructure.client.RegionaisGateway;
+import io.smallrye.faulttolerance.api.CircuitBreakerState;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
@@ -8,10 +9,20 @@ import org.eclipse.microprofile.health.HealthCheck;
 import org.eclipse.microprofile.health.HealthCheckResponse;
 import org.eclipse.microprofile.health.HealthCheckResponseBuilder;
 import org.eclipse.microprofile.health.Readiness;
-import org.eclipse.microprofile.rest.client.inject.RestClient;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
 
 /**
- * Health Check customizado para verificar conectividade com API externa de regionais.
+ * Health Check customizado para a API externa de regionais.
+ *
+ * Nao chama a API: informa o estado do circuit breaker e o instante da
+ * ultima resposta valida registrados pelo RegionaisGateway. Assim a sondagem
+ * nao ocupa o bulkhead, nao conta no circuit breaker e nao altera o ultimo
+ * payload usado no fallback da sincronizacao.
+ *
+ * Fica DOWN apenas com o circuito aberto.
  *
  * @author Jean Paulo Sassi de Miranda
  */
@@ -20,32 +31,35 @@ import org.eclipse.microprofile.rest.client.inject.RestClient;
 public class RegionaisApiHealthCheck implements HealthCheck {
 
     @Inject
-    @RestClient
-    RegionaisClient regionaisClient;
+    RegionaisGateway regionaisGateway;
 
     @ConfigProperty(name = "quarkus.rest-client.regionais-api.url", defaultValue = "https://aberto.sesp.mt.gov.br/api-regionais")
     String apiUrl;
 
     @Override
     public HealthCheckResponse call() {
+        CircuitBreakerState estado = regionaisGateway.estadoCircuito();
         HealthCheckResponseBuilder responseBuilder = HealthCheckResponse
             .named("Regionais External API")
-            .withData("url", apiUrl);
+            .withData("url", apiUrl)
+            .withData("circuitBreaker", estado.name());
 
-        try {
-            var regionais = regionaisClient.getRegionais();
+        Optional<Instant> ultimoSucesso = regionaisGateway.ultimoSucesso();
+        if (ultimoSucesso.isPresent()) {
+            responseBuilder
+                .withData("ultimoSucesso", ultimoSucesso.get().toString())
+                .withData("idadeSegundos", Duration.between(ultimoSucesso.get(), Instant.now()).toSeconds());
+        }
 
+        if (estado == CircuitBreakerState.OPEN) {
             return responseBuilder
-                .withData("status", "API acessivel")
-                .withData("registros", regionais != null ? regionais.size() : 0)
-                .up()
-                .build();
-        } catch (Exception e) {
-            return responseBuilder
-                .withData("error", e.getMessage())
                 .withData("status", "API inacessivel - servico pode funcionar com dados em cache")
                 .down()
                 .build();
         }
+        return responseBuilder
+            .withData("status", ultimoSucesso.isPresent() ? "API acessivel" : "Nenhuma chamada a API ainda")
+            .up()
+            .build();
     }
 }
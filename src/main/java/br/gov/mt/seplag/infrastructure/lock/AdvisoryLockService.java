@@ -0,0 +1,88 @@
+package br.gov.mt.seplag.infrastructure.lock;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Exclusao mutua entre nos via advisory lock de sessao do Postgres.
+ *
+ * Funcionamento:
+ * - pg_try_advisory_lock(namespace, hash do nome) em uma conexao do pool
+ *   reservada enquanto a tarefa roda (autocommit, sem transacao aberta)
+ * - Sem o lock (outro no executando), a tarefa nao roda e o retorno e vazio;
+ *   ninguem fica bloqueado esperando
+ * - Ao fim, pg_advisory_unlock; se o no cair, o Postgres libera o lock
+ *   junto com a conexao
+ *
+ * A tarefa usa outras conexoes para o proprio trabalho (transacoes curtas),
+ * entao o chamador nao deve estar dentro de uma transacao.
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+@ApplicationScoped
+public class AdvisoryLockService {
+
+    private static final Logger LOG = Logger.getLogger(AdvisoryLockService.class);
+
+    // Primeira chave do par (int, int): separa os locks da aplicacao de outros usos no banco
+    static final int NAMESPACE = 0x50535342; // "PSSB"
+
+    @Inject
+    DataSource dataSource;
+
+    /**
+     * Executa a tarefa apenas se nenhum outro no (ou thread) detem o lock.
+     *
+     * @param nome identificador do lock (ex.: "regional-sync")
+     * @return resultado da tarefa, ou vazio se o lock estava ocupado
+     */
+    public <T> Optional<T> runExclusive(String nome, Supplier<T> tarefa) {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!tryLock(connection, nome)) {
+                LOG.debugf("Advisory lock ocupado: %s", nome);
+                return Optional.empty();
+            }
+            try {
+                return Optional.ofNullable(tarefa.get());
+            } finally {
+                unlock(connection, nome);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Falha no advisory lock " + nome + ": " + e.getMessage(), e);
+        }
+    }
+
+    private boolean tryLock(Connection connection, String nome) throws SQLException {
+        return call(connection, "SELECT pg_try_advisory_lock(?, ?)", nome);
+    }
+
+    private void unlock(Connection connection, String nome) {
+        try {
+            if (!call(connection, "SELECT pg_advisory_unlock(?, ?)", nome)) {
+                LOG.warnf("Advisory lock %s nao estava com esta sessao ao liberar", nome);
+            }
+        } catch (SQLException e) {
+            // Conexao provavelmente perdida: o Postgres libera o lock ao encerrar a sessao
+            LOG.warnf("Erro ao liberar advisory lock %s: %s", nome, e.getMessage());
+        }
+    }
+
+    private static boolean call(Connection connection, String sql, String nome) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, NAMESPACE);
+            statement.setInt(2, nome.hashCode());
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getBoolean(1);
+            }
+        }
+    }
+}
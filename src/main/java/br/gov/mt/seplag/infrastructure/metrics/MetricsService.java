@@ -14,12 +14,14 @@ import java.util.concurrent.TimeUnit;
  * Fornece metricas customizadas para monitoramento via Prometheus.
  *
  * Metricas disponiveis:
- * - Autenticacao: logins bem sucedidos/falhos, duracao
+ * - Autenticacao: logins bem sucedidos/falhos, duracao, cache de JWT
  * - Entidades: criacao, atualizacao e delecao de artistas e albuns
  * - Imagens: uploads, delecoes, tamanho de arquivos
- * - Regionais: sincronizacoes, inseridas, alteradas, inativadas
+ * - Regionais: sincronizacoes, inseridas, alteradas, inativadas, fallback e
+ *   estado do circuit breaker da API externa
  * - Seguranca: rate limit, magic numbers invalidos
- * - WebSocket: conexoes ativas
+ * - WebSocket: conexoes ativas, filas de envio (atraso, descartes, coalescencia),
+ *   heartbeat (pings, sessoes inativas removidas, limite por usuario)
  *
  * @author Jean Paulo Sassi de Miranda
  */
@@ -33,6 +35,9 @@ public class MetricsService {
     private final Counter authFailureCounter;
     private final Counter tokenRefreshCounter;
     private final Counter tokenExpiredCounter;
+    private final Counter jwtCacheHitCounter;
+    private final Counter jwtCacheMissCounter;
+    private final Counter refreshTokenReuseCounter;
 
     // Contadores de Artistas
     private final Counter artistaCreatedCounter;
@@ -54,6 +59,12 @@ public class MetricsService {
     private final Counter regionalSyncInseridaCounter;
     private final Counter regionalSyncAlteradaCounter;
     private final Counter regionalSyncInativadaCounter;
+    private final Counter regionalSyncNotModifiedCounter;
+    private final Counter regionalSyncUnchangedCounter;
+    private final Counter regionalSyncLockedCounter;
+    private final Counter regionalSyncSharedCounter;
+    private final Counter regionalSyncStaleCounter;
+    private final Counter regionalApiFallbackCounter;
 
     // Contadores de Seguranca
     private final Counter rateLimitExceededCounter;
@@ -67,15 +78,43 @@ public class MetricsService {
     private final Counter wsAuthFailureExpiredCounter;
     private final Counter wsAuthFailureUsedCounter;
 
+    // Contadores de WebSocket Broadcast
+    private final Counter wsFrameSentCounter;
+    private final Counter wsFrameDroppedCounter;
+    private final Counter wsResyncCounter;
+    private final Counter wsFrameFailedCounter;
+    private final Counter wsSlowConsumerDisconnectCounter;
+    private final Counter wsEventsCoalescedCounter;
+    private final Counter wsClusterEventsPublishedCounter;
+    private final Counter wsClusterEventsReceivedCounter;
+    private final Counter wsClusterEchoesDroppedCounter;
+
+    // Contadores de WebSocket Heartbeat
+    private final Counter wsPingSentCounter;
+    private final Counter wsReapedIdleCounter;
+    private final Counter wsReapedClosedCounter;
+    private final Counter wsReapedPingFailedCounter;
+    private final Counter wsUserLimitRejectedCounter;
+
+    // Contadores de Eventos de Dominio
+    private final Counter domainEventsDispatchedCounter;
+    private final Counter domainEventsDiscardedCounter;
+    private final Counter domainEventListenerFailureCounter;
+
     // Timers
     private final Timer authTimer;
     private final Timer regionalSyncTimer;
     private final Timer imagemUploadTimer;
     private final Timer albumOperationTimer;
     private final Timer artistaOperationTimer;
+    private final Timer wsOutboundLagTimer;
+    private final Timer wsFrameEncodeJsonTimer;
+    private final Timer wsFrameEncodeCborTimer;
 
     // Distribution Summaries (Histogramas)
     private final DistributionSummary imagemSizeSummary;
+    private final DistributionSummary wsFrameSizeJsonSummary;
+    private final DistributionSummary wsFrameSizeCborSummary;
 
     @Inject
     public MetricsService(MeterRegistry registry) {
@@ -102,6 +141,20 @@ public class MetricsService {
             .description("Total de requisicoes com token expirado")
             .register(registry);
 
+        this.jwtCacheHitCounter = Counter.builder("auth_jwt_cache_total")
+            .tag("result", "hit")
+            .description("Total de tokens JWT servidos pelo cache de verificacao")
+            .register(registry);
+
+        this.jwtCacheMissCounter = Counter.builder("auth_jwt_cache_total")
+            .tag("result", "miss")
+            .description("Total de tokens JWT verificados por falta no cache")
+            .register(registry);
+
+        this.refreshTokenReuseCounter = Counter.builder("auth_refresh_token_reuse_total")
+            .description("Total de reusos de refresh token detectados (familia revogada)")
+            .register(registry);
+
         // =====================
         // Contadores de Artistas
         // =====================
@@ -180,6 +233,34 @@ public class MetricsService {
             .description("Total de regionais inativadas na sincronizacao")
             .register(registry);
 
+        this.regionalSyncNotModifiedCounter = Counter.builder("regional_sync_skipped_total")
+            .tag("reason", "not_modified")
+            .description("Total de sincronizacoes dispensadas por HTTP 304 da API externa")
+            .register(registry);
+
+        this.regionalSyncUnchangedCounter = Counter.builder("regional_sync_skipped_total")
+            .tag("reason", "unchanged")
+            .description("Total de sincronizacoes dispensadas por payload identico ao ultimo aplicado")
+            .register(registry);
+
+        this.regionalSyncLockedCounter = Counter.builder("regional_sync_skipped_total")
+            .tag("reason", "locked")
+            .description("Total de sincronizacoes dispensadas por execucao em andamento em outro no")
+            .register(registry);
+
+        this.regionalSyncStaleCounter = Counter.builder("regional_sync_skipped_total")
+            .tag("reason", "stale")
+            .description("Total de sincronizacoes dispensadas com a API indisponivel e o ultimo payload ja aplicado")
+            .register(registry);
+
+        this.regionalApiFallbackCounter = Counter.builder("regional_api_fallback_total")
+            .description("Total de buscas na API de regionais atendidas pelo ultimo payload valido")
+            .register(registry);
+
+        this.regionalSyncSharedCounter = Counter.builder("regional_sync_shared_total")
+            .description("Total de chamadas de sincronizacao atendidas por uma execucao ja em andamento")
+            .register(registry);
+
         // =====================
         // Contadores de Seguranca
         // =====================
@@ -227,6 +308,94 @@ public class MetricsService {
             .description("Total de falhas WebSocket por ticket ja utilizado")
             .register(registry);
 
+        // =====================
+        // Contadores de WebSocket Broadcast
+        // =====================
+        this.wsFrameSentCounter = Counter.builder("websocket_outbound_frames_total")
+            .tag("result", "sent")
+            .description("Total de frames WebSocket enviados")
+            .register(registry);
+
+        this.wsFrameDroppedCounter = Counter.builder("websocket_outbound_frames_total")
+            .tag("result", "dropped")
+            .description("Total de frames WebSocket descartados por fila cheia")
+            .register(registry);
+
+        this.wsResyncCounter = Counter.builder("websocket_outbound_resyncs_total")
+            .description("Total de avisos RESYNC_REQUIRED enviados apos descarte de frames por fila cheia")
+            .register(registry);
+
+        this.wsFrameFailedCounter = Counter.builder("websocket_outbound_frames_total")
+            .tag("result", "failed")
+            .description("Total de frames WebSocket com falha no envio")
+            .register(registry);
+
+        this.wsSlowConsumerDisconnectCounter = Counter.builder("websocket_slow_consumer_disconnects_total")
+            .description("Total de clientes WebSocket desconectados por nao acompanhar o envio")
+            .register(registry);
+
+        this.wsEventsCoalescedCounter = Counter.builder("websocket_events_coalesced_total")
+            .description("Total de eventos de album agrupados em outra mensagem na mesma janela")
+            .register(registry);
+
+        this.wsClusterEventsPublishedCounter = Counter.builder("websocket_cluster_events_total")
+            .tag("direction", "published")
+            .description("Total de eventos de album enviados aos demais nos via NOTIFY")
+            .register(registry);
+
+        this.wsClusterEventsReceivedCounter = Counter.builder("websocket_cluster_events_total")
+            .tag("direction", "received")
+            .description("Total de eventos de album recebidos de outros nos via NOTIFY")
+            .register(registry);
+
+        this.wsClusterEchoesDroppedCounter = Counter.builder("websocket_cluster_echoes_dropped_total")
+            .description("Total de notificacoes do proprio no descartadas")
+            .register(registry);
+
+        // =====================
+        // Contadores de WebSocket Heartbeat
+        // =====================
+        this.wsPingSentCounter = Counter.builder("websocket_pings_total")
+            .description("Total de pings de protocolo enviados pelo servidor")
+            .register(registry);
+
+        this.wsReapedIdleCounter = Counter.builder("websocket_sessions_reaped_total")
+            .tag("reason", "idle")
+            .description("Total de sessoes WebSocket encerradas por inatividade")
+            .register(registry);
+
+        this.wsReapedClosedCounter = Counter.builder("websocket_sessions_reaped_total")
+            .tag("reason", "closed")
+            .description("Total de sessoes WebSocket ja fechadas removidas pelo heartbeat")
+            .register(registry);
+
+        this.wsReapedPingFailedCounter = Counter.builder("websocket_sessions_reaped_total")
+            .tag("reason", "ping_failed")
+            .description("Total de sessoes WebSocket encerradas por falha no ping")
+            .register(registry);
+
+        this.wsUserLimitRejectedCounter = Counter.builder("websocket_connections_rejected_total")
+            .tag("reason", "user_limit")
+            .description("Total de conexoes WebSocket recusadas pelo limite por usuario")
+            .register(registry);
+
+        // =====================
+        // Contadores de Eventos de Dominio
+        // =====================
+        this.domainEventsDispatchedCounter = Counter.builder("domain_events_total")
+            .tag("result", "dispatched")
+            .description("Total de eventos de dominio despachados apos o commit")
+            .register(registry);
+
+        this.domainEventsDiscardedCounter = Counter.builder("domain_events_total")
+            .tag("result", "discarded")
+            .description("Total de eventos de dominio descartados por rollback")
+            .register(registry);
+
+        this.domainEventListenerFailureCounter = Counter.builder("domain_event_listener_failures_total")
+            .description("Total de falhas de listeners ao tratar eventos de dominio")
+            .register(registry);
+
         // =====================
         // Timers
         // =====================
@@ -250,6 +419,23 @@ public class MetricsService {
             .description("Duracao de operacoes em artistas em segundos")
             .register(registry);
 
+        this.wsOutboundLagTimer = Timer.builder("websocket_outbound_lag_seconds")
+            .description("Atraso entre a criacao de um frame WebSocket e o envio para cada sessao")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(registry);
+
+        this.wsFrameEncodeJsonTimer = Timer.builder("websocket_frame_encode_seconds")
+            .tag("encoding", "json")
+            .description("Tempo de serializacao de um frame WebSocket (uma vez por broadcast)")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(registry);
+
+        this.wsFrameEncodeCborTimer = Timer.builder("websocket_frame_encode_seconds")
+            .tag("encoding", "cbor")
+            .description("Tempo de serializacao de um frame WebSocket (uma vez por broadcast)")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(registry);
+
         // =====================
         // Distribution Summaries
         // =====================
@@ -257,6 +443,18 @@ public class MetricsService {
             .description("Distribuicao de tamanho de imagens enviadas em bytes")
             .publishPercentiles(0.5, 0.75, 0.95, 0.99)
             .register(registry);
+
+        this.wsFrameSizeJsonSummary = DistributionSummary.builder("websocket_frame_size_bytes")
+            .tag("encoding", "json")
+            .description("Tamanho dos frames WebSocket antes da compressao (permessage-deflate)")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(registry);
+
+        this.wsFrameSizeCborSummary = DistributionSummary.builder("websocket_frame_size_bytes")
+            .tag("encoding", "cbor")
+            .description("Tamanho dos frames WebSocket antes da compressao (permessage-deflate)")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(registry);
     }
 
     // =====================
@@ -282,6 +480,18 @@ public class MetricsService {
         tokenExpiredCounter.increment();
     }
 
+    public void recordJwtCacheHit() {
+        jwtCacheHitCounter.increment();
+    }
+
+    public void recordJwtCacheMiss() {
+        jwtCacheMissCounter.increment();
+    }
+
+    public void recordRefreshTokenReuse() {
+        refreshTokenReuseCounter.increment();
+    }
+
     // =====================
     // Metodos de Artistas
     // =====================
@@ -366,6 +576,23 @@ public class MetricsService {
         }
     }
 
+    public void recordRegionalSyncSkipped(String reason) {
+        switch (reason) {
+            case "not_modified" -> regionalSyncNotModifiedCounter.increment();
+            case "locked" -> regionalSyncLockedCounter.increment();
+            case "stale" -> regionalSyncStaleCounter.increment();
+            default -> regionalSyncUnchangedCounter.increment();
+        }
+    }
+
+    public void recordRegionalSyncShared() {
+        regionalSyncSharedCounter.increment();
+    }
+
+    public void recordRegionalApiFallback() {
+        regionalApiFallbackCounter.increment();
+    }
+
     // =====================
     // Metodos de Seguranca
     // =====================
@@ -398,10 +625,124 @@ public class MetricsService {
         }
     }
 
+    // =====================
+    // Metodos de WebSocket Broadcast
+    // =====================
+    public void recordWebSocketFrameSent(long lagNanos) {
+        wsFrameSentCounter.increment();
+        wsOutboundLagTimer.record(lagNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Registra a serializacao de um frame na codificacao informada (json ou cbor).
+     */
+    public void recordWebSocketFrameEncoded(String encoding, long durationNanos, int sizeBytes) {
+        if ("cbor".equals(encoding)) {
+            wsFrameEncodeCborTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+            wsFrameSizeCborSummary.record(sizeBytes);
+        } else {
+            wsFrameEncodeJsonTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+            wsFrameSizeJsonSummary.record(sizeBytes);
+        }
+    }
+
+    public void recordWebSocketFrameDropped() {
+        wsFrameDroppedCounter.increment();
+    }
+
+    public void recordWebSocketResync() {
+        wsResyncCounter.increment();
+    }
+
+    public void recordWebSocketFrameFailed() {
+        wsFrameFailedCounter.increment();
+    }
+
+    public void recordWebSocketSlowConsumerDisconnect() {
+        wsSlowConsumerDisconnectCounter.increment();
+    }
+
+    public void recordWebSocketEventsCoalesced(int count) {
+        wsEventsCoalescedCounter.increment(count);
+    }
+
+    public void recordWebSocketClusterEventsPublished(int count) {
+        wsClusterEventsPublishedCounter.increment(count);
+    }
+
+    public void recordWebSocketClusterEventsReceived(int count) {
+        wsClusterEventsReceivedCounter.increment(count);
+    }
+
+    public void recordWebSocketClusterEchoDropped() {
+        wsClusterEchoesDroppedCounter.increment();
+    }
+
+    // =====================
+    // Metodos de WebSocket Heartbeat
+    // =====================
+    public void recordWebSocketPingSent() {
+        wsPingSentCounter.increment();
+    }
+
+    public void recordWebSocketSessionReaped(String reason) {
+        switch (reason) {
+            case "closed" -> wsReapedClosedCounter.increment();
+            case "ping_failed" -> wsReapedPingFailedCounter.increment();
+            default -> wsReapedIdleCounter.increment();
+        }
+    }
+
+    public void recordWebSocketUserLimitRejected() {
+        wsUserLimitRejectedCounter.increment();
+    }
+
+    // =====================
+    // Metodos de Eventos de Dominio
+    // =====================
+    public void recordDomainEventsDispatched(int count) {
+        domainEventsDispatchedCounter.increment(count);
+    }
+
+    public void recordDomainEventsDiscarded(int count) {
+        domainEventsDiscardedCounter.increment(count);
+    }
+
+    public void recordDomainEventListenerFailure() {
+        domainEventListenerFailureCounter.increment();
+    }
+
     // =====================
     // Gauges Dinamicos
     // =====================
     public <T> void registerWebSocketConnectionsGauge(T stateObject, java.util.function.ToDoubleFunction<T> valueFunction) {
         registry.gauge("websocket_connections_active", stateObject, valueFunction);
     }
+
+    public <T> void registerWebSocketQueuedFramesGauge(T stateObject, java.util.function.ToDoubleFunction<T> valueFunction) {
+        registry.gauge("websocket_outbound_queued_frames", stateObject, valueFunction);
+    }
+
+    public <T> void registerJwtCacheSizeGauge(T stateObject, java.util.function.ToDoubleFunction<T> valueFunction) {
+        registry.gauge("auth_jwt_cache_size", stateObject, valueFunction);
+    }
+
+    public <T> void registerRegionalSyncInProgressGauge(T stateObject, java.util.function.ToDoubleFunction<T> valueFunction) {
+        registry.gauge("regional_sync_in_progress", stateObject, valueFunction);
+    }
+
+    public <T> void registerRegionalSyncLastRunGauge(T stateObject, java.util.function.ToDoubleFunction<T> valueFunction) {
+        registry.gauge("regional_sync_last_run_timestamp_seconds", stateObject, valueFunction);
+    }
+
+    public <T> void registerRegionalSyncLastSuccessGauge(T stateObject, java.util.function.ToDoubleFunction<T> valueFunction) {
+        registry.gauge("regional_sync_last_success_timestamp_seconds", stateObject, valueFunction);
+    }
+
+    /**
+     * Estado do circuit breaker da API de regionais: 0 = fechado, 1 = meio aberto, 2 = aberto.
+     */
+    public <T> void registerRegionalApiCircuitBreakerGauge(T stateObject, java.util.function.ToDoubleFunction<T> valueFunction) {
+        registry.gauge("regional_api_circuit_breaker_state", stateObject, valueFunction);
+    }
 }
@@ -0,0 +1,118 @@
+package br.gov.mt.seplag.infrastructure.security;
+
+import br.gov.mt.seplag.domain.model.Usuario;
+import br.gov.mt.seplag.domain.repository.UsuarioRepository;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Snapshot em memoria dos usuarios ativos (username -> role).
+ *
+ * Evita a consulta ao banco a cada renovacao de token. O snapshot e
+ * recarregado periodicamente; usuarios que deixam de estar ativos tem
+ * todas as familias de refresh token revogadas na mesma recarga. Se a
+ * revogacao de um usuario falha, ele fica pendente e e tentado de novo nas
+ * recargas seguintes (enquanto continuar inativo).
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+@ApplicationScoped
+public class ActiveUserSnapshot {
+
+    private static final Logger LOG = Logger.getLogger(ActiveUserSnapshot.class);
+
+    @Inject
+    UsuarioRepository usuarioRepository;
+
+    @Inject
+    RefreshTokenStore refreshTokenStore;
+
+    /**
+     * Mapa imutavel trocado atomicamente a cada recarga.
+     */
+    private volatile Map<String, ActiveUser> users = Map.of();
+
+    /**
+     * Usuarios desativados cuja revogacao ainda nao foi concluida.
+     */
+    private final Set<String> pendingRevocations = new HashSet<>();
+
+    void onStart(@Observes StartupEvent event) {
+        refresh();
+    }
+
+    @Scheduled(every = "${app.security.active-users.refresh-interval:30s}")
+    void scheduledRefresh() {
+        refresh();
+    }
+
+    /**
+     * Recarrega o snapshot a partir do banco.
+     */
+    public synchronized void refresh() {
+        Map<String, ActiveUser> novos = new HashMap<>();
+        for (Usuario usuario : usuarioRepository.findAllAtivos()) {
+            novos.put(usuario.getUsername(), new ActiveUser(usuario.getUsername(), usuario.getRole()));
+        }
+
+        for (String username : users.keySet()) {
+            if (!novos.containsKey(username)) {
+                pendingRevocations.add(username);
+            }
+        }
+        // Reativado antes da revogacao concluir: nao revoga mais
+        pendingRevocations.removeIf(novos::containsKey);
+        users = Map.copyOf(novos);
+
+        // Uma falha nao impede as demais revogacoes nem se perde: fica pendente para a proxima recarga
+        pendingRevocations.removeIf(this::revoke);
+
+        LOG.debugf("Snapshot de usuarios ativos recarregado: %d usuarios", novos.size());
+    }
+
+    private boolean revoke(String username) {
+        try {
+            refreshTokenStore.revokeAllForUser(username);
+            return true;
+        } catch (RuntimeException e) {
+            LOG.warnf("Falha ao revogar refresh tokens do usuario inativo %s, nova tentativa na proxima recarga: %s",
+                username, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Inclui um usuario que acabou de autenticar (ex: criado apos a ultima recarga).
+     */
+    public synchronized void remember(Usuario usuario) {
+        ActiveUser atual = users.get(usuario.getUsername());
+        if (atual != null && atual.role().equals(usuario.getRole())) {
+            return;
+        }
+        Map<String, ActiveUser> novos = new HashMap<>(users);
+        novos.put(usuario.getUsername(), new ActiveUser(usuario.getUsername(), usuario.getRole()));
+        users = Map.copyOf(novos);
+    }
+
+    /**
+     * Busca um usuario ativo pelo username, sem acesso ao banco.
+     */
+    public Optional<ActiveUser> find(String username) {
+        return Optional.ofNullable(users.get(username));
+    }
+
+    /**
+     * Dados minimos de um usuario ativo para emissao de tokens.
+     */
+    public record ActiveUser(String username, String role) {}
+}
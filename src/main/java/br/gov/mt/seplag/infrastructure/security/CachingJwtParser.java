@@ -0,0 +1,266 @@
+package br.gov.mt.seplag.infrastructure.security;
+
+import br.gov.mt.seplag.infrastructure.metrics.MetricsService;
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.jwt.auth.principal.DefaultJWTParser;
+import io.smallrye.jwt.auth.principal.JWTAuthContextInfo;
+import io.smallrye.jwt.auth.principal.JWTParser;
+import io.smallrye.jwt.auth.principal.ParseException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Alternative;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+import org.jboss.logging.Logger;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Parser JWT com cache de tokens ja verificados.
+ *
+ * Substitui o DefaultJWTParser (via @Alternative) no mecanismo de autenticacao
+ * do SmallRye JWT e no AuthService. Clientes SPA enviam o mesmo bearer token
+ * centenas de vezes durante seus 5 minutos de vida; com o cache, a verificacao
+ * RSA acontece apenas na primeira requisicao.
+ *
+ * Funcionamento:
+ * - Chave do cache: SHA-256 do token (o token bruto nunca fica em memoria como chave)
+ * - Valor: claims ja verificados + instante de expiracao (claim exp)
+ * - Entradas expiram no exp do token; apos isso o token e verificado de novo
+ *   pelo parser padrao (que o rejeitara se estiver expirado)
+ * - Indice ordenado por expiracao (TreeSet) ao lado do mapa: a limpeza e o
+ *   descarte com o cache cheio retiram entradas do inicio do indice em
+ *   O(log n) cada, sem percorrer o cache na requisicao
+ * - Alteracoes no mapa e no indice (erros de cache e limpeza) ficam sob um
+ *   unico lock para os dois nao divergirem; acertos nao travam
+ * - Tamanho limitado; entradas expiradas sao removidas a cada minuto
+ * - Acertos, erros e tamanho sao publicados pelo MetricsService
+ *   (auth_jwt_cache_total e auth_jwt_cache_size)
+ *
+ * Apenas parse(String) e cacheado; os demais metodos delegam direto.
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+@Alternative
+@Priority(1)
+@ApplicationScoped
+public class CachingJwtParser implements JWTParser {
+
+    private static final Logger LOG = Logger.getLogger(CachingJwtParser.class);
+
+    @Inject
+    DefaultJWTParser delegate;
+
+    @Inject
+    MetricsService metricsService;
+
+    @ConfigProperty(name = "app.security.jwt-cache.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "app.security.jwt-cache.max-size", defaultValue = "10000")
+    int maxSize;
+
+    private final Map<String, CachedToken> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Chaves do cache ordenadas por expiracao. A expiracao vem do proprio
+     * token, entao cada chave tem uma unica entrada possivel no indice.
+     * Acessado apenas sob o lock desta instancia.
+     */
+    private final NavigableSet<Expiry> byExpiry = new TreeSet<>();
+
+    @PostConstruct
+    void init() {
+        if (metricsService != null) {
+            metricsService.registerJwtCacheSizeGauge(cache, Map::size);
+        }
+    }
+
+    @Override
+    public JsonWebToken parse(String token) throws ParseException {
+        if (!enabled || token == null) {
+            return delegate.parse(token);
+        }
+
+        String key = digest(token);
+        long now = System.currentTimeMillis();
+
+        CachedToken cached = cache.get(key);
+        if (cached != null) {
+            if (now < cached.expiresAtMillis()) {
+                recordHit();
+                return cached.jwt();
+            }
+            remove(key, cached);
+        }
+
+        recordMiss();
+
+        JsonWebToken jwt = delegate.parse(token);
+        long expiresAtMillis = jwt.getExpirationTime() * 1000L;
+        if (expiresAtMillis > now) {
+            store(key, new CachedToken(jwt, expiresAtMillis), now);
+        }
+        return jwt;
+    }
+
+    @Override
+    public JsonWebToken parse(String token, JWTAuthContextInfo context) throws ParseException {
+        return delegate.parse(token, context);
+    }
+
+    @Override
+    public JsonWebToken verify(String token, PublicKey key) throws ParseException {
+        return delegate.verify(token, key);
+    }
+
+    @Override
+    public JsonWebToken verify(String token, SecretKey key) throws ParseException {
+        return delegate.verify(token, key);
+    }
+
+    @Override
+    public JsonWebToken verify(String token, String secret) throws ParseException {
+        return delegate.verify(token, secret);
+    }
+
+    @Override
+    public JsonWebToken decrypt(String token, PrivateKey key) throws ParseException {
+        return delegate.decrypt(token, key);
+    }
+
+    @Override
+    public JsonWebToken decrypt(String token, SecretKey key) throws ParseException {
+        return delegate.decrypt(token, key);
+    }
+
+    @Override
+    public JsonWebToken decrypt(String token, String secret) throws ParseException {
+        return delegate.decrypt(token, secret);
+    }
+
+    @Override
+    public JsonWebToken parseOnly(String token) throws ParseException {
+        return delegate.parseOnly(token);
+    }
+
+    /**
+     * Remove entradas expiradas a cada minuto.
+     */
+    @Scheduled(every = "1m")
+    void cleanupExpiredTokens() {
+        int removed;
+        synchronized (this) {
+            removed = removeExpired(System.currentTimeMillis());
+        }
+        if (removed > 0) {
+            LOG.debugf("Cache JWT: %d tokens expirados removidos (ativos: %d)", removed, cache.size());
+        }
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * Armazena respeitando o limite de tamanho.
+     * Com o cache cheio, remove primeiro os expirados; se ainda nao houver
+     * espaco, descarta as entradas que expiram primeiro (as que menos tempo
+     * ainda seriam uteis). Ambos saem do inicio do indice.
+     */
+    private synchronized void store(String key, CachedToken value, long now) {
+        // Mesmo token verificado por duas requisicoes ao mesmo tempo: apenas substitui
+        if (!cache.containsKey(key) && cache.size() >= maxSize) {
+            removeExpired(now);
+            while (cache.size() >= maxSize) {
+                Expiry first = byExpiry.pollFirst();
+                if (first == null) {
+                    break;
+                }
+                cache.remove(first.key());
+            }
+        }
+        byExpiry.add(new Expiry(value.expiresAtMillis(), key));
+        cache.put(key, value);
+    }
+
+    private synchronized void remove(String key, CachedToken value) {
+        if (cache.remove(key, value)) {
+            byExpiry.remove(new Expiry(value.expiresAtMillis(), key));
+        }
+    }
+
+    /**
+     * Remove as entradas expiradas a partir do inicio do indice.
+     */
+    private int removeExpired(long now) {
+        int removed = 0;
+        Iterator<Expiry> entries = byExpiry.iterator();
+        while (entries.hasNext()) {
+            Expiry entry = entries.next();
+            if (entry.expiresAtMillis() > now) {
+                break;
+            }
+            entries.remove();
+            if (cache.remove(entry.key()) != null) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    private void recordHit() {
+        if (metricsService != null) {
+            metricsService.recordJwtCacheHit();
+        }
+    }
+
+    private void recordMiss() {
+        if (metricsService != null) {
+            metricsService.recordJwtCacheMiss();
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponivel", e);
+        }
+    }
+
+    /**
+     * Token verificado e o instante (epoch ms) em que deixa de valer.
+     */
+    private record CachedToken(JsonWebToken jwt, long expiresAtMillis) {}
+
+    /**
+     * Entrada do indice por expiracao (desempate pela chave).
+     */
+    private record Expiry(long expiresAtMillis, String key) implements Comparable<Expiry> {
+
+        private static final Comparator<Expiry> ORDER =
+            Comparator.comparingLong(Expiry::expiresAtMillis).thenComparing(Expiry::key);
+
+        @Override
+        public int compareTo(Expiry other) {
+            return ORDER.compare(this, other);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package br.gov.mt.seplag.infrastructure.security;
 import io.smallrye.jwt.build.Jwt;
 import jakarta.enterprise.context.ApplicationScoped;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.jwt.Claims;
 
 import java.time.Duration;
 import java.time.Instant;
@@ -12,17 +13,29 @@ import java.util.Set;
  * Servico para geracao de tokens JWT.
  * Gera access tokens (curta duracao) e refresh tokens (24h).
  *
+ * O algoritmo (RS256, ES256 ou EdDSA) e o kid do header vem de
+ * smallrye.jwt.new-token.signature-algorithm e smallrye.jwt.sign.key.id,
+ * aplicados pelo SmallRye JWT Build em todo sign().
+ *
  * @author Jean Paulo Sassi de Miranda
  */
 @ApplicationScoped
 public class JwtTokenService {
 
+    /**
+     * Claim com o identificador da familia do refresh token.
+     */
+    public static final String FAMILY_CLAIM = "fid";
+
     @ConfigProperty(name = "mp.jwt.verify.issuer")
     String issuer;
 
     @ConfigProperty(name = "smallrye.jwt.new-token.lifespan", defaultValue = "300")
     int tokenLifespan;
 
+    @ConfigProperty(name = "app.security.refresh-token.lifespan", defaultValue = "24H")
+    Duration refreshTokenLifespan;
+
     /**
      * Gera um token JWT para o usuario.
      *
@@ -44,21 +57,25 @@ public class JwtTokenService {
     }
 
     /**
-     * Gera um refresh token com duracao de 24 horas.
+     * Gera um refresh token (24 horas por padrao) pertencente a uma familia.
      *
      * @param username o username do usuario
      * @param role     o papel do usuario
+     * @param familyId familia de refresh tokens (aberta no login)
+     * @param tokenId  identificador unico do token (claim jti), rotacionado a cada uso
      * @return o refresh token assinado
      */
-    public String generateRefreshToken(String username, String role) {
+    public String generateRefreshToken(String username, String role, String familyId, String tokenId) {
         Instant now = Instant.now();
-        Instant expiry = now.plus(Duration.ofHours(24));
+        Instant expiry = now.plus(refreshTokenLifespan);
 
         return Jwt.issuer(issuer)
             .subject(username)
             .groups(Set.of(role))
             .claim("username", username)
             .claim("type", "refresh")
+            .claim(Claims.jti.name(), tokenId)
+            .claim(FAMILY_CLAIM, familyId)
             .issuedAt(now)
             .expiresAt(expiry)
             .sign();
@@ -1,6 +1,11 @@
 package br.gov.mt.seplag.infrastructure.security;
 
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
 import org.mindrot.jbcrypt.BCrypt;
 
 /**
@@ -11,17 +16,111 @@ import org.mindrot.jbcrypt.BCrypt;
  * - Gera salt automaticamente e o inclui no hash
  * - Eh resistente a ataques de forca bruta e rainbow tables
  *
+ * Calibracao do work factor:
+ * - Na inicializacao, mede o tempo do BCrypt no proprio host
+ * - Escolhe o maior custo que cabe no orcamento de latencia configurado
+ * - Nunca fica abaixo do piso configurado (seguranca minima)
+ *
+ * Rehash no login: sobe hashes abaixo do custo deste host e so desce hashes
+ * acima do teto configurado. O teto e o mesmo em todo o cluster, entao nos
+ * com calibracoes diferentes nao regeram o mesmo hash para cima e para baixo.
+ *
  * @author Jean Paulo Sassi de Miranda
  */
 @ApplicationScoped
 public class PasswordEncoder {
 
+    private static final Logger LOG = Logger.getLogger(PasswordEncoder.class);
+
+    /**
+     * Senha usada apenas para medir o custo do BCrypt na calibracao.
+     */
+    private static final String CALIBRATION_PASSWORD = "calibracao-bcrypt";
+
     /**
-     * Work factor do BCrypt.
+     * Maior custo aceito pelo jBCrypt.
+     */
+    private static final int MAX_BCRYPT_WORK_FACTOR = 31;
+
+    /**
+     * Work factor padrao, usado quando a calibracao esta desabilitada.
      * Valor 12 oferece bom equilibrio entre seguranca e performance.
      * Cada incremento dobra o tempo de calculo.
      */
-    private static final int BCRYPT_WORK_FACTOR = 12;
+    @ConfigProperty(name = "app.security.bcrypt.work-factor", defaultValue = "12")
+    int defaultWorkFactor;
+
+    /**
+     * Piso do work factor: a calibracao nunca escolhe um custo menor.
+     */
+    @ConfigProperty(name = "app.security.bcrypt.min-work-factor", defaultValue = "10")
+    int minWorkFactor;
+
+    /**
+     * Teto do work factor para a calibracao.
+     */
+    @ConfigProperty(name = "app.security.bcrypt.max-work-factor", defaultValue = "14")
+    int maxWorkFactor;
+
+    /**
+     * Orcamento de latencia (ms) para um hash BCrypt no host atual.
+     */
+    @ConfigProperty(name = "app.security.bcrypt.latency-budget-ms", defaultValue = "250")
+    long latencyBudgetMs;
+
+    @ConfigProperty(name = "app.security.bcrypt.calibrate-at-startup", defaultValue = "true")
+    boolean calibrateAtStartup;
+
+    /**
+     * Work factor efetivo (calibrado ou padrao).
+     */
+    private volatile int workFactor;
+
+    @PostConstruct
+    void init() {
+        // Valor configurado ate a calibracao terminar
+        workFactor = clamp(defaultWorkFactor);
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        if (!calibrateAtStartup) {
+            workFactor = clamp(defaultWorkFactor);
+            LOG.infof("Calibracao BCrypt desabilitada - work factor fixo: %d", workFactor);
+            return;
+        }
+        workFactor = calibrate();
+    }
+
+    /**
+     * Mede o BCrypt no host atual e retorna o maior custo dentro do orcamento.
+     *
+     * Comeca no piso e sobe enquanto o tempo medido couber no orcamento.
+     * Como cada incremento dobra o custo, a calibracao inteira leva
+     * aproximadamente 2x o orcamento configurado.
+     *
+     * @return work factor escolhido (nunca menor que o piso)
+     */
+    int calibrate() {
+        int floor = clamp(minWorkFactor);
+        int ceiling = Math.max(floor, clamp(maxWorkFactor));
+
+        // Aquecimento (JIT) para nao penalizar a primeira medicao
+        measureHashMillis(floor);
+
+        int chosen = floor;
+        for (int cost = floor; cost <= ceiling; cost++) {
+            long elapsed = measureHashMillis(cost);
+            LOG.debugf("Calibracao BCrypt - custo %d: %dms", cost, elapsed);
+            if (elapsed > latencyBudgetMs) {
+                break;
+            }
+            chosen = cost;
+        }
+
+        LOG.infof("Calibracao BCrypt concluida - work factor: %d (piso: %d, orcamento: %dms)",
+            chosen, floor, latencyBudgetMs);
+        return chosen;
+    }
 
     /**
      * Codifica uma senha usando BCrypt.
@@ -33,7 +132,7 @@ public class PasswordEncoder {
         if (rawPassword == null || rawPassword.isEmpty()) {
             throw new IllegalArgumentException("A senha nao pode ser nula ou vazia");
         }
-        return BCrypt.hashpw(rawPassword, BCrypt.gensalt(BCRYPT_WORK_FACTOR));
+        return BCrypt.hashpw(rawPassword, BCrypt.gensalt(workFactor));
     }
 
     /**
@@ -62,20 +161,61 @@ public class PasswordEncoder {
      * @return true se o hash deve ser regenerado
      */
     public boolean needsRehash(String encodedPassword) {
+        int currentWorkFactor = extractWorkFactor(encodedPassword);
+        return currentWorkFactor < 0 || currentWorkFactor < workFactor;
+    }
+
+    /**
+     * Verifica se o work factor do hash esta acima do teto configurado
+     * (app.security.bcrypt.max-work-factor), igual em todos os nos.
+     *
+     * Um hash acima do calibrado neste host, mas dentro do teto, e mantido:
+     * pode ter sido gerado por um no mais rapido.
+     *
+     * @param encodedPassword hash BCrypt atual
+     * @return true se o hash deve ser regenerado com um custo menor
+     */
+    public boolean exceedsMaxWorkFactor(String encodedPassword) {
+        int currentWorkFactor = extractWorkFactor(encodedPassword);
+        return currentWorkFactor > Math.max(clamp(minWorkFactor), clamp(maxWorkFactor));
+    }
+
+    /**
+     * Retorna o work factor efetivo.
+     */
+    public int getWorkFactor() {
+        return workFactor;
+    }
+
+    /**
+     * Extrai o work factor de um hash BCrypt ($2a$12$...).
+     *
+     * @return work factor ou -1 se o hash nao estiver no formato BCrypt
+     */
+    private int extractWorkFactor(String encodedPassword) {
         if (encodedPassword == null || !encodedPassword.startsWith("$2")) {
-            return true;
+            return -1;
         }
 
         try {
             String[] parts = encodedPassword.split("\\$");
             if (parts.length >= 3) {
-                int currentWorkFactor = Integer.parseInt(parts[2]);
-                return currentWorkFactor < BCRYPT_WORK_FACTOR;
+                return Integer.parseInt(parts[2]);
             }
         } catch (NumberFormatException e) {
-            return true;
+            return -1;
         }
 
-        return false;
+        return -1;
+    }
+
+    private long measureHashMillis(int cost) {
+        long start = System.nanoTime();
+        BCrypt.hashpw(CALIBRATION_PASSWORD, BCrypt.gensalt(cost));
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    private int clamp(int cost) {
+        return Math.max(4, Math.min(MAX_BCRYPT_WORK_FACTOR, cost));
     }
 }
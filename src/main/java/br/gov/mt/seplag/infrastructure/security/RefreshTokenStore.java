@@ -0,0 +1,326 @@
+package br.gov.mt.seplag.infrastructure.security;
+
+import br.gov.mt.seplag.domain.model.RefreshTokenFamily;
+import br.gov.mt.seplag.domain.repository.RefreshTokenFamilyRepository;
+import br.gov.mt.seplag.infrastructure.metrics.MetricsService;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Armazenamento de familias de refresh token.
+ *
+ * Cada login abre uma familia; a cada renovacao o refresh token e rotacionado
+ * e apenas o ultimo emitido continua valido. Apresentar um token anterior da
+ * mesma familia indica que ele vazou (reuso) e a familia inteira e revogada.
+ *
+ * Funcionamento:
+ * - O banco (refresh_token_family) e a fonte da verdade: a rotacao e um
+ *   UPDATE condicional no token atual (compare-and-set) e a revogacao e
+ *   gravada na hora, entao reuso e logout valem em todas as instancias
+ * - Familias novas sao gravadas em lote a cada flush-interval (write-behind);
+ *   antes de rotacionar ou revogar uma familia pendente, o lote e gravado
+ * - Indice em memoria (familyId -> familia) como cache: evita a leitura do
+ *   banco para familias ja conhecidas como revogadas ou de outro usuario.
+ *   Em um miss a familia e lida do banco (aberta em outra instancia ou
+ *   depois deste boot)
+ *
+ * Limitacao: familias abertas e ainda nao gravadas se perdem se o processo
+ * cair antes do flush; o cliente afetado precisa fazer login novamente.
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+@ApplicationScoped
+public class RefreshTokenStore {
+
+    private static final Logger LOG = Logger.getLogger(RefreshTokenStore.class);
+
+    @Inject
+    RefreshTokenFamilyRepository repository;
+
+    @Inject
+    MetricsService metricsService;
+
+    @ConfigProperty(name = "app.security.refresh-token.lifespan", defaultValue = "24H")
+    Duration lifespan;
+
+    private final Map<String, Family> families = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> familiesByUser = new ConcurrentHashMap<>();
+    private final Set<String> pendingWrites = ConcurrentHashMap.newKeySet();
+
+    void onStop(@Observes ShutdownEvent event) {
+        flush();
+    }
+
+    /**
+     * Abre uma nova familia (login).
+     *
+     * @return identificadores da familia e do primeiro refresh token
+     */
+    public Issued startFamily(String username) {
+        Instant now = Instant.now();
+        Family family = new Family(UUID.randomUUID().toString(), username, UUID.randomUUID().toString(),
+            now.plus(lifespan), now);
+        index(family);
+        pendingWrites.add(family.familyId);
+        return new Issued(family.familyId, family.currentTokenId);
+    }
+
+    /**
+     * Rotaciona o refresh token de uma familia.
+     *
+     * Se o token apresentado nao for o ultimo emitido (em qualquer instancia),
+     * trata como reuso e revoga a familia inteira (inclusive o token legitimo
+     * mais recente).
+     *
+     * @return id do novo refresh token, ou vazio se a familia for desconhecida,
+     *         estiver revogada/expirada ou o token tiver sido reutilizado
+     */
+    public Optional<String> rotate(String familyId, String tokenId, String username) {
+        Family family = families.get(familyId);
+        if (family == null) {
+            family = repository.buscar(familyId).map(Family::fromEntity).orElse(null);
+            if (family == null) {
+                return Optional.empty();
+            }
+            index(family);
+        }
+        if (!family.username.equals(username) || family.revoked) {
+            return Optional.empty();
+        }
+        flushIfPending(familyId);
+
+        Instant now = Instant.now();
+        String novoTokenId = UUID.randomUUID().toString();
+        Instant expiresAt = now.plus(lifespan);
+        if (repository.rotacionar(familyId, tokenId, novoTokenId, toLocal(expiresAt), toLocal(now))) {
+            family.currentTokenId = novoTokenId;
+            family.expiresAt = expiresAt;
+            return Optional.of(novoTokenId);
+        }
+
+        // Nao rotacionou: a familia sumiu, foi revogada, expirou ou o token ja foi usado
+        Optional<RefreshTokenFamily> atual = repository.buscar(familyId);
+        if (atual.isEmpty()) {
+            unindex(family);
+            return Optional.empty();
+        }
+        if (atual.get().getRevoked() || !atual.get().getExpiresAt().isAfter(toLocal(now))) {
+            family.revoked = atual.get().getRevoked();
+            return Optional.empty();
+        }
+
+        repository.revogar(familyId);
+        family.revoked = true;
+        metricsService.recordRefreshTokenReuse();
+        LOG.warnf("Reuso de refresh token detectado - familia %s revogada (usuario: %s)", familyId, username);
+        return Optional.empty();
+    }
+
+    /**
+     * Revoga uma familia (logout).
+     */
+    public void revokeFamily(String familyId) {
+        flushIfPending(familyId);
+        repository.revogar(familyId);
+        Family family = families.get(familyId);
+        if (family != null) {
+            family.revoked = true;
+        }
+        LOG.debugf("Familia de refresh token revogada: %s", familyId);
+    }
+
+    /**
+     * Revoga todas as familias de um usuario (ex: usuario desativado).
+     *
+     * @return quantidade de familias revogadas
+     */
+    public int revokeAllForUser(String username) {
+        Set<String> ids = familiesByUser.getOrDefault(username, Set.of());
+        if (ids.stream().anyMatch(pendingWrites::contains) && !flush()) {
+            throw new IllegalStateException("Nao foi possivel gravar as familias de refresh token de " + username);
+        }
+
+        int revogadas = repository.revogarDoUsuario(username);
+        for (String familyId : ids) {
+            Family family = families.get(familyId);
+            if (family != null) {
+                family.revoked = true;
+            }
+        }
+        if (revogadas > 0) {
+            LOG.infof("Refresh tokens revogados para usuario %s: %d familias", username, revogadas);
+        }
+        return revogadas;
+    }
+
+    @Scheduled(every = "${app.security.refresh-token.flush-interval:2s}")
+    void scheduledFlush() {
+        flush();
+    }
+
+    /**
+     * Grava no banco, em um unico statement, as familias abertas desde o ultimo flush.
+     * Em caso de falha, as familias voltam para a fila e sao tentadas no proximo ciclo.
+     *
+     * @return false se a gravacao falhou
+     */
+    synchronized boolean flush() {
+        if (pendingWrites.isEmpty()) {
+            return true;
+        }
+
+        List<String> ids = new ArrayList<>(pendingWrites);
+        pendingWrites.removeAll(ids);
+
+        List<RefreshTokenFamily> entities = new ArrayList<>(ids.size());
+        for (String familyId : ids) {
+            Family family = families.get(familyId);
+            if (family != null) {
+                entities.add(family.toEntity());
+            }
+        }
+
+        try {
+            repository.insertAll(entities);
+            LOG.debugf("Familias de refresh token gravadas: %d", entities.size());
+            return true;
+        } catch (Exception e) {
+            pendingWrites.addAll(ids);
+            LOG.warnf("Falha ao gravar familias de refresh token (%d pendentes): %s", ids.size(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * A familia precisa estar no banco antes de um UPDATE condicional.
+     */
+    private void flushIfPending(String familyId) {
+        if (pendingWrites.contains(familyId) && !flush()) {
+            throw new IllegalStateException("Nao foi possivel gravar a familia de refresh token " + familyId);
+        }
+    }
+
+    /**
+     * Remove familias expiradas da memoria e do banco. Remover do cache uma
+     * familia que foi renovada em outra instancia e inofensivo: o proximo
+     * acesso le de novo do banco.
+     */
+    @Scheduled(every = "10m")
+    void cleanupExpiredFamilies() {
+        Instant now = Instant.now();
+        int removidas = 0;
+        for (Family family : families.values()) {
+            if (family.isExpired(now) && !pendingWrites.contains(family.familyId)) {
+                unindex(family);
+                removidas++;
+            }
+        }
+
+        try {
+            repository.deleteExpiradas(LocalDateTime.now());
+        } catch (Exception e) {
+            LOG.warnf("Falha ao remover familias expiradas do banco: %s", e.getMessage());
+        }
+
+        if (removidas > 0) {
+            LOG.debugf("Familias de refresh token expiradas removidas: %d (ativas: %d)", removidas, families.size());
+        }
+    }
+
+    /**
+     * Retorna estatisticas do indice.
+     */
+    public Map<String, Object> getStatistics() {
+        Instant now = Instant.now();
+        long ativas = families.values().stream()
+            .filter(family -> !family.revoked && !family.isExpired(now))
+            .count();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("familias", families.size());
+        stats.put("familiasAtivas", ativas);
+        stats.put("usuarios", familiesByUser.size());
+        stats.put("gravacoesPendentes", pendingWrites.size());
+        return stats;
+    }
+
+    private static LocalDateTime toLocal(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+    }
+
+    private void index(Family family) {
+        families.put(family.familyId, family);
+        familiesByUser.computeIfAbsent(family.username, key -> ConcurrentHashMap.newKeySet()).add(family.familyId);
+    }
+
+    private void unindex(Family family) {
+        families.remove(family.familyId);
+        familiesByUser.computeIfPresent(family.username, (key, ids) -> {
+            ids.remove(family.familyId);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    /**
+     * Identificadores emitidos ao abrir uma familia.
+     */
+    public record Issued(String familyId, String tokenId) {}
+
+    /**
+     * Familia em cache. Apenas username e revoked=true sao confiaveis sem o
+     * banco (nao mudam de volta); token atual e expiracao podem estar defasados.
+     */
+    private static final class Family {
+        private final String familyId;
+        private final String username;
+        private final Instant createdAt;
+        private volatile String currentTokenId;
+        private volatile Instant expiresAt;
+        private volatile boolean revoked;
+
+        private Family(String familyId, String username, String currentTokenId, Instant expiresAt, Instant createdAt) {
+            this.familyId = familyId;
+            this.username = username;
+            this.currentTokenId = currentTokenId;
+            this.expiresAt = expiresAt;
+            this.createdAt = createdAt;
+        }
+
+        private boolean isExpired(Instant now) {
+            return !now.isBefore(expiresAt);
+        }
+
+        private static Family fromEntity(RefreshTokenFamily entity) {
+            ZoneId zone = ZoneId.systemDefault();
+            Family family = new Family(entity.getFamilyId(), entity.getUsername(), entity.getCurrentTokenId(),
+                entity.getExpiresAt().atZone(zone).toInstant(), entity.getCreatedAt().atZone(zone).toInstant());
+            family.revoked = entity.getRevoked();
+            return family;
+        }
+
+        private RefreshTokenFamily toEntity() {
+            ZoneId zone = ZoneId.systemDefault();
+            return new RefreshTokenFamily(familyId, username, currentTokenId, revoked,
+                LocalDateTime.ofInstant(expiresAt, zone), LocalDateTime.ofInstant(createdAt, zone),
+                LocalDateTime.now());
+        }
+    }
+}
@@ -1,14 +1,18 @@
 package br.gov.mt.seplag.infrastructure.security;
 
 import br.gov.mt.seplag.domain.model.WebSocketTicket;
+import br.gov.mt.seplag.infrastructure.security.WebSocketTicketSigner.SignedTicket;
 import io.quarkus.scheduler.Scheduled;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
 
+import java.time.Instant;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -20,6 +24,14 @@ import java.util.concurrent.atomic.AtomicLong;
  * 2. Cliente conecta ao WebSocket usando ticket na URL
  * 3. Ticket e validado e consumido (single-use, 30s TTL)
  *
+ * Modos (app.websocket.ticket.mode):
+ * - local: ticket e um UUID guardado em memoria; so o no que emitiu consegue
+ *   valida-lo (exige sticky session com mais de uma instancia)
+ * - signed: ticket e um token compacto assinado com HMAC contendo username,
+ *   roles e expiracao; qualquer no com o mesmo segredo valida sem estado
+ *   compartilhado. O uso unico e garantido por um conjunto local de ids ja
+ *   consumidos, mantidos apenas ate expirarem
+ *
  * @author Jean Paulo Sassi de Miranda
  */
 @ApplicationScoped
@@ -29,6 +41,11 @@ public class WebSocketTicketService {
 
     private final Map<String, WebSocketTicket> activeTickets = new ConcurrentHashMap<>();
 
+    /**
+     * Modo signed: ids de tickets ja consumidos -> expiracao (epoch s).
+     */
+    private final Map<String, Long> consumedTicketIds = new ConcurrentHashMap<>();
+
     private final AtomicLong ticketsCreated = new AtomicLong(0);
     private final AtomicLong ticketsConsumed = new AtomicLong(0);
     private final AtomicLong ticketsExpired = new AtomicLong(0);
@@ -37,10 +54,20 @@ public class WebSocketTicketService {
     @ConfigProperty(name = "app.websocket.ticket.ttl-seconds", defaultValue = "30")
     int ticketTtlSeconds;
 
+    @ConfigProperty(name = "app.websocket.ticket.mode", defaultValue = "local")
+    String mode;
+
+    @Inject
+    WebSocketTicketSigner signer;
+
     /**
      * Cria um novo ticket para o usuario autenticado.
      */
     public WebSocketTicket createTicket(String username, Set<String> roles) {
+        if (isSignedMode()) {
+            return createSignedTicket(username, roles);
+        }
+
         WebSocketTicket ticket = new WebSocketTicket(username, roles, ticketTtlSeconds);
         activeTickets.put(ticket.getTicket(), ticket);
         ticketsCreated.incrementAndGet();
@@ -62,6 +89,10 @@ public class WebSocketTicketService {
             return Optional.empty();
         }
 
+        if (isSignedMode()) {
+            return validateAndConsumeSigned(ticketId);
+        }
+
         WebSocketTicket ticket = activeTickets.get(ticketId);
 
         if (ticket == null) {
@@ -97,15 +128,77 @@ public class WebSocketTicketService {
         if (ticketId == null || ticketId.isBlank()) {
             return false;
         }
+        if (isSignedMode()) {
+            return signer.verify(ticketId)
+                .filter(signed -> Instant.now().isBefore(signed.expiresAt()))
+                .filter(signed -> !consumedTicketIds.containsKey(signed.id()))
+                .isPresent();
+        }
         WebSocketTicket ticket = activeTickets.get(ticketId);
         return ticket != null && ticket.isValid();
     }
 
+    /**
+     * Emite um ticket assinado (modo signed). Nada e guardado em memoria.
+     */
+    private WebSocketTicket createSignedTicket(String username, Set<String> roles) {
+        Instant now = Instant.now();
+        Instant expiresAt = now.plusSeconds(ticketTtlSeconds);
+        String token = signer.sign(UUID.randomUUID().toString(), username, roles, expiresAt);
+        ticketsCreated.incrementAndGet();
+
+        LOG.infof("Ticket WebSocket assinado criado - User: %s, Expira em: %ds", username, ticketTtlSeconds);
+
+        return new WebSocketTicket(token, username, roles, now, expiresAt);
+    }
+
+    /**
+     * Valida um ticket assinado: HMAC, expiracao e uso unico (replay set local).
+     */
+    private Optional<WebSocketTicket> validateAndConsumeSigned(String token) {
+        Optional<SignedTicket> verified = signer.verify(token);
+        if (verified.isEmpty()) {
+            LOG.warn("Ticket assinado rejeitado - assinatura ou formato invalido");
+            ticketsRejected.incrementAndGet();
+            return Optional.empty();
+        }
+
+        SignedTicket signed = verified.get();
+        if (!Instant.now().isBefore(signed.expiresAt())) {
+            LOG.warnf("Ticket assinado rejeitado (expirado) - User: %s", signed.username());
+            ticketsRejected.incrementAndGet();
+            return Optional.empty();
+        }
+
+        // putIfAbsent garante que apenas uma conexao consome o ticket
+        if (consumedTicketIds.putIfAbsent(signed.id(), signed.expiresAt().getEpochSecond()) != null) {
+            LOG.warnf("Ticket assinado rejeitado (ja utilizado) - User: %s", signed.username());
+            ticketsRejected.incrementAndGet();
+            return Optional.empty();
+        }
+
+        ticketsConsumed.incrementAndGet();
+        LOG.infof("Ticket WebSocket assinado consumido - User: %s", signed.username());
+
+        WebSocketTicket ticket = new WebSocketTicket(token, signed.username(), signed.roles(),
+            signed.expiresAt().minusSeconds(ticketTtlSeconds), signed.expiresAt());
+        ticket.markAsUsed();
+        return Optional.of(ticket);
+    }
+
+    private boolean isSignedMode() {
+        return "signed".equalsIgnoreCase(mode);
+    }
+
     /**
      * Remove tickets expirados. Executado a cada 30 segundos.
+     * No modo signed, remove do replay set os ids cujo ticket ja expirou.
      */
     @Scheduled(every = "30s")
     void cleanupExpiredTickets() {
+        long nowEpoch = Instant.now().getEpochSecond();
+        consumedTicketIds.values().removeIf(expiresAt -> expiresAt < nowEpoch);
+
         int initialSize = activeTickets.size();
         int removed = 0;
 
@@ -129,7 +222,9 @@ public class WebSocketTicketService {
      */
     public Map<String, Object> getStatistics() {
         return Map.of(
+            "mode", isSignedMode() ? "signed" : "local",
             "activeTickets", activeTickets.size(),
+            "consumedSignedTickets", consumedTicketIds.size(),
             "totalCreated", ticketsCreated.get(),
             "totalConsumed", ticketsConsumed.get(),
             "totalExpired", ticketsExpired.get(),
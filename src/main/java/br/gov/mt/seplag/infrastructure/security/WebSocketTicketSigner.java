@@ -0,0 +1,150 @@
+package br.gov.mt.seplag.infrastructure.security;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Assinatura HMAC-SHA256 de tickets WebSocket (modo signed).
+ *
+ * Formato: base64url(payload) + "." + base64url(hmac(payload))
+ * Payload: id|username|roles|expiraEm (username e roles em URL encoding)
+ *
+ * Qualquer no que conheca o segredo valida o ticket apenas recalculando o
+ * HMAC, sem armazenamento compartilhado.
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+@ApplicationScoped
+public class WebSocketTicketSigner {
+
+    private static final Logger LOG = Logger.getLogger(WebSocketTicketSigner.class);
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Segredo compartilhado entre os nos (minimo 32 bytes).
+     * Se ausente, um segredo aleatorio e gerado e os tickets so valem neste no.
+     */
+    @ConfigProperty(name = "app.websocket.ticket.secret")
+    Optional<String> secret;
+
+    private volatile SecretKeySpec key;
+
+    @PostConstruct
+    void init() {
+        byte[] keyBytes;
+        if (secret != null && secret.isPresent() && !secret.get().isBlank()) {
+            keyBytes = secret.get().getBytes(StandardCharsets.UTF_8);
+            if (keyBytes.length < 32) {
+                LOG.warn("app.websocket.ticket.secret tem menos de 32 bytes; use um segredo mais longo");
+            }
+        } else {
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+            LOG.warn("app.websocket.ticket.secret nao configurado - segredo aleatorio gerado, " +
+                "tickets assinados so serao aceitos por este no");
+        }
+        key = new SecretKeySpec(keyBytes, ALGORITHM);
+    }
+
+    /**
+     * Gera o ticket assinado.
+     */
+    public String sign(String id, String username, Set<String> roles, Instant expiresAt) {
+        String payload = String.join(SEPARATOR,
+            id,
+            encode(username),
+            encode(String.join(",", roles)),
+            Long.toString(expiresAt.getEpochSecond()));
+        byte[] payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString(payloadBytes) + "." + encoder.encodeToString(hmac(payloadBytes));
+    }
+
+    /**
+     * Verifica a assinatura e extrai os dados do ticket.
+     * Nao verifica expiracao nem uso anterior (responsabilidade do chamador).
+     *
+     * @return dados do ticket, ou vazio se o formato ou a assinatura forem invalidos
+     */
+    public Optional<SignedTicket> verify(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot == token.length() - 1) {
+            return Optional.empty();
+        }
+
+        try {
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            byte[] payloadBytes = decoder.decode(token.substring(0, dot));
+            byte[] signature = decoder.decode(token.substring(dot + 1));
+
+            if (!MessageDigest.isEqual(hmac(payloadBytes), signature)) {
+                return Optional.empty();
+            }
+
+            String[] parts = new String(payloadBytes, StandardCharsets.UTF_8).split("\\|", -1);
+            if (parts.length != 4) {
+                return Optional.empty();
+            }
+
+            String roles = decode(parts[2]);
+            Set<String> roleSet = roles.isEmpty()
+                ? Set.of()
+                : new LinkedHashSet<>(Arrays.asList(roles.split(",")));
+
+            return Optional.of(new SignedTicket(
+                parts[0],
+                decode(parts[1]),
+                Set.copyOf(roleSet),
+                Instant.ofEpochSecond(Long.parseLong(parts[3]))
+            ));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private byte[] hmac(byte[] data) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(data);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Falha ao calcular HMAC do ticket", e);
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static String decode(String value) {
+        return URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Conteudo de um ticket assinado valido.
+     */
+    public record SignedTicket(String id, String username, Set<String> roles, Instant expiresAt) {}
+}
@@ -15,6 +15,9 @@ import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequ
 
 import java.io.InputStream;
 import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -115,28 +118,8 @@ public class StorageService {
      * @return URL pre-assinada
      */
     public String getPresignedUrl(String objectKey) {
-        try {
-            S3Presigner presigner = S3Presigner.builder()
-                .endpointOverride(java.net.URI.create(endpoint))
-                .credentialsProvider(() -> software.amazon.awssdk.auth.credentials.AwsBasicCredentials.create(accessKey, secretKey))
-                .region(software.amazon.awssdk.regions.Region.of(region))
-                .build();
-
-            GetObjectRequest getObjectRequest = GetObjectRequest.builder()
-                .bucket(bucketName)
-                .key(objectKey)
-                .build();
-
-            GetObjectPresignRequest presignRequest = GetObjectPresignRequest.builder()
-                .signatureDuration(Duration.ofMinutes(presignedUrlExpirationMinutes))
-                .getObjectRequest(getObjectRequest)
-                .build();
-
-            PresignedGetObjectRequest presignedRequest = presigner.presignGetObject(presignRequest);
-            String url = presignedRequest.url().toString();
-
-            presigner.close();
-
+        try (S3Presigner presigner = criarPresigner()) {
+            String url = assinar(presigner, objectKey);
             LOG.debugf("URL pre-assinada gerada para object key: %s", objectKey);
             return url;
         } catch (Exception e) {
@@ -145,6 +128,63 @@ public class StorageService {
         }
     }
 
+    /**
+     * Janela atual de validade das URLs pre-assinadas: muda a cada metade da
+     * expiracao. Respostas com URLs usam a janela no ETag, entao um 304 nunca
+     * mantem no cliente URLs com menos de meia expiracao restante.
+     */
+    public long getJanelaPresignedUrls() {
+        return System.currentTimeMillis() / (presignedUrlExpirationMinutes * 30_000L);
+    }
+
+    /**
+     * Gera URLs pre-assinadas para varios arquivos com um unico presigner.
+     * A assinatura e local (sem chamada ao MinIO); o custo esta em montar o
+     * presigner (credenciais, regiao, endpoint), feito uma vez por lote.
+     *
+     * @param objectKeys chaves dos objetos no S3
+     * @return URL pre-assinada por chave, na ordem informada
+     */
+    public Map<String, String> getPresignedUrls(Collection<String> objectKeys) {
+        Map<String, String> urls = new LinkedHashMap<>();
+        if (objectKeys.isEmpty()) {
+            return urls;
+        }
+        try (S3Presigner presigner = criarPresigner()) {
+            for (String objectKey : objectKeys) {
+                urls.computeIfAbsent(objectKey, key -> assinar(presigner, key));
+            }
+            LOG.debugf("%d URLs pre-assinadas geradas em lote", urls.size());
+            return urls;
+        } catch (Exception e) {
+            LOG.error("Erro ao gerar URLs pre-assinadas", e);
+            throw new BusinessException("Erro ao gerar URL de download: " + e.getMessage(), e);
+        }
+    }
+
+    private S3Presigner criarPresigner() {
+        return S3Presigner.builder()
+            .endpointOverride(java.net.URI.create(endpoint))
+            .credentialsProvider(() -> software.amazon.awssdk.auth.credentials.AwsBasicCredentials.create(accessKey, secretKey))
+            .region(software.amazon.awssdk.regions.Region.of(region))
+            .build();
+    }
+
+    private String assinar(S3Presigner presigner, String objectKey) {
+        GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+            .bucket(bucketName)
+            .key(objectKey)
+            .build();
+
+        GetObjectPresignRequest presignRequest = GetObjectPresignRequest.builder()
+            .signatureDuration(Duration.ofMinutes(presignedUrlExpirationMinutes))
+            .getObjectRequest(getObjectRequest)
+            .build();
+
+        PresignedGetObjectRequest presignedRequest = presigner.presignGetObject(presignRequest);
+        return presignedRequest.url().toString();
+    }
+
     /**
      * Deleta um arquivo.
      *
@@ -1,19 +1,25 @@
 package br.gov.mt.seplag.presentation.dto.album;
 
 import br.gov.mt.seplag.domain.model.Album;
+import br.gov.mt.seplag.domain.model.Artista;
+import br.gov.mt.seplag.domain.repository.AlbumProjecao;
 import br.gov.mt.seplag.presentation.dto.artista.ArtistaSimpleResponse;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 
 import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 
 /**
  * DTO para resposta detalhada de album, incluindo imagens.
+ * Campos nulos sao omitidos: com ?fields= e ?expand= so aparece o que foi pedido.
  *
  * @author Jean Paulo Sassi de Miranda
  */
 @Schema(description = "Dados detalhados do album")
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class AlbumDetailResponse {
 
     @Schema(description = "ID do album", example = "1")
@@ -54,7 +60,35 @@ public class AlbumDetailResponse {
         response.setImagens(imagensComUrls);
 
         if (album.getArtistas() != null) {
+            // Ordem estavel (a mesma do fromProjecao): o ETag do detalhe e forte
             response.setArtistas(album.getArtistas().stream()
+                .sorted(Comparator.comparing(Artista::getNome))
+                .map(ArtistaSimpleResponse::fromEntity)
+                .collect(Collectors.toList()));
+        }
+
+        return response;
+    }
+
+    /**
+     * Monta a resposta a partir das colunas lidas (AlbumCampos).
+     *
+     * @param artistas artistas do album, ou null se nao expandidos
+     * @param imagensComUrls imagens com URLs, ou null se nao expandidas
+     */
+    public static AlbumDetailResponse fromProjecao(AlbumProjecao album, List<Artista> artistas,
+                                                   List<AlbumImagemResponse> imagensComUrls) {
+        AlbumDetailResponse response = new AlbumDetailResponse();
+        response.setId(album.id());
+        response.setTitulo(album.titulo());
+        response.setAnoLancamento(album.anoLancamento());
+        response.setDescricao(album.descricao());
+        response.setCreatedAt(album.createdAt());
+        response.setUpdatedAt(album.updatedAt());
+        response.setImagens(imagensComUrls);
+
+        if (artistas != null) {
+            response.setArtistas(artistas.stream()
                 .map(ArtistaSimpleResponse::fromEntity)
                 .collect(Collectors.toList()));
         }
@@ -1,7 +1,10 @@
 package br.gov.mt.seplag.presentation.dto.album;
 
 import br.gov.mt.seplag.domain.model.Album;
+import br.gov.mt.seplag.domain.model.Artista;
+import br.gov.mt.seplag.domain.repository.AlbumProjecao;
 import br.gov.mt.seplag.presentation.dto.artista.ArtistaSimpleResponse;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 
 import java.time.LocalDateTime;
@@ -10,10 +13,12 @@ import java.util.stream.Collectors;
 
 /**
  * DTO para resposta de album na listagem.
+ * Campos nulos sao omitidos: com ?fields= e ?expand= so aparece o que foi pedido.
  *
  * @author Jean Paulo Sassi de Miranda
  */
 @Schema(description = "Dados do album")
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class AlbumResponse {
 
     @Schema(description = "ID do album", example = "1")
@@ -62,6 +67,30 @@ public class AlbumResponse {
         return response;
     }
 
+    /**
+     * Monta a resposta a partir das colunas lidas (AlbumCampos).
+     *
+     * @param artistas artistas do album, ou null se nao expandidos
+     */
+    public static AlbumResponse fromProjecao(AlbumProjecao album, List<Artista> artistas) {
+        AlbumResponse response = new AlbumResponse();
+        response.setId(album.id());
+        response.setTitulo(album.titulo());
+        response.setAnoLancamento(album.anoLancamento());
+        response.setDescricao(album.descricao());
+        response.setQuantidadeImagens(album.quantidadeImagens() != null ? album.quantidadeImagens().intValue() : null);
+        response.setCreatedAt(album.createdAt());
+        response.setUpdatedAt(album.updatedAt());
+
+        if (artistas != null) {
+            response.setArtistas(artistas.stream()
+                .map(ArtistaSimpleResponse::fromEntity)
+                .collect(Collectors.toList()));
+        }
+
+        return response;
+    }
+
     public static List<AlbumResponse> fromEntities(List<Album> albuns) {
         return albuns.stream()
             .map(AlbumResponse::fromEntity)
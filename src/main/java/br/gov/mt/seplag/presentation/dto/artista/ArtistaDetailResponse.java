@@ -1,11 +1,13 @@
 package br.gov.mt.seplag.presentation.dto.artista;
 
+import br.gov.mt.seplag.domain.model.Album;
 import br.gov.mt.seplag.domain.model.Artista;
 import br.gov.mt.seplag.domain.model.TipoArtista;
 import br.gov.mt.seplag.presentation.dto.album.AlbumSimpleResponse;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 
 import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -51,7 +53,9 @@ public class ArtistaDetailResponse {
         response.setUpdatedAt(artista.getUpdatedAt());
 
         if (artista.getAlbuns() != null) {
+            // Ordem estavel (o Set nao tem): o ETag do detalhe e forte
             response.setAlbuns(artista.getAlbuns().stream()
+                .sorted(Comparator.comparing(Album::getTitulo).thenComparing(Album::getId))
                 .map(AlbumSimpleResponse::fromEntity)
                 .collect(Collectors.toList()));
         }
@@ -0,0 +1,70 @@
+package br.gov.mt.seplag.presentation.dto.common;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * DTO generico para resposta de busca em lote por ids.
+ * Os itens seguem a ordem dos ids pedidos; os ids sem registro vao em naoEncontrados.
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+@Schema(description = "Resposta de busca em lote por ids")
+public class LoteResponse<T> {
+
+    @Schema(description = "Itens encontrados, na ordem dos ids pedidos")
+    private List<T> itens;
+
+    @Schema(description = "Ids pedidos sem registro correspondente", example = "[42]")
+    private List<Long> naoEncontrados;
+
+    public LoteResponse() {
+    }
+
+    public LoteResponse(List<T> itens, List<Long> naoEncontrados) {
+        this.itens = itens;
+        this.naoEncontrados = naoEncontrados;
+    }
+
+    /**
+     * Monta a resposta na ordem dos ids pedidos.
+     *
+     * @param ids ids pedidos (sem repeticao)
+     * @param encontrados registros encontrados, por id
+     * @param conversor converte o registro no item da resposta
+     */
+    public static <E, T> LoteResponse<T> of(List<Long> ids, Map<Long, E> encontrados, Function<E, T> conversor) {
+        List<T> itens = new ArrayList<>(encontrados.size());
+        List<Long> naoEncontrados = new ArrayList<>();
+        for (Long id : ids) {
+            E registro = encontrados.get(id);
+            if (registro != null) {
+                itens.add(conversor.apply(registro));
+            } else {
+                naoEncontrados.add(id);
+            }
+        }
+        return new LoteResponse<>(itens, naoEncontrados);
+    }
+
+    // Getters e Setters
+    public List<T> getItens() {
+        return itens;
+    }
+
+    public void setItens(List<T> itens) {
+        this.itens = itens;
+    }
+
+    public List<Long> getNaoEncontrados() {
+        return naoEncontrados;
+    }
+
+    public void setNaoEncontrados(List<Long> naoEncontrados) {
+        this.naoEncontrados = naoEncontrados;
+    }
+}
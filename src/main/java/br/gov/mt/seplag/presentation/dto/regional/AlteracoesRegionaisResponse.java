@@ -0,0 +1,56 @@
+package br.gov.mt.seplag.presentation.dto.regional;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * DTO para uma pagina do historico de alteracoes de regionais.
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+@Schema(description = "Alteracoes de regionais posteriores ao cursor informado")
+public class AlteracoesRegionaisResponse {
+
+    @Schema(description = "Alteracoes em ordem de aplicacao")
+    private List<RegionalAlteracaoResponse> alteracoes;
+
+    @Schema(description = "Valor para o proximo since (seq da ultima alteracao entregue)", example = "128")
+    private long cursor;
+
+    @Schema(description = "Indica que ha mais alteracoes apos o cursor (repetir a consulta)", example = "false")
+    private boolean temMais;
+
+    public AlteracoesRegionaisResponse() {
+    }
+
+    public AlteracoesRegionaisResponse(List<RegionalAlteracaoResponse> alteracoes, long cursor, boolean temMais) {
+        this.alteracoes = alteracoes;
+        this.cursor = cursor;
+        this.temMais = temMais;
+    }
+
+    public List<RegionalAlteracaoResponse> getAlteracoes() {
+        return alteracoes;
+    }
+
+    public void setAlteracoes(List<RegionalAlteracaoResponse> alteracoes) {
+        this.alteracoes = alteracoes;
+    }
+
+    public long getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(long cursor) {
+        this.cursor = cursor;
+    }
+
+    public boolean isTemMais() {
+        return temMais;
+    }
+
+    public void setTemMais(boolean temMais) {
+        this.temMais = temMais;
+    }
+}
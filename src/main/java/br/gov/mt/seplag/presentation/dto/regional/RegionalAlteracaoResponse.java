@@ -0,0 +1,120 @@
+package br.gov.mt.seplag.presentation.dto.regional;
+
+import br.gov.mt.seplag.domain.model.RegionalAlteracao;
+import br.gov.mt.seplag.domain.model.TipoAlteracaoRegional;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO para uma alteracao de regional do historico de sincronizacoes.
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+@Schema(description = "Alteracao de regional aplicada por uma sincronizacao")
+public class RegionalAlteracaoResponse {
+
+    @Schema(description = "Posicao no historico (cursor para o proximo since)", example = "128")
+    private Long seq;
+
+    @Schema(description = "Id da sincronizacao que aplicou a alteracao (0 = carga inicial)", example = "42")
+    private Long sincronizacao;
+
+    @Schema(description = "ID da regional (conforme API externa)", example = "1")
+    private Integer id;
+
+    @Schema(description = "Tipo da alteracao", example = "RENOMEADA")
+    private TipoAlteracaoRegional tipo;
+
+    @Schema(description = "Nome da regional apos a alteracao", example = "Regional de Cuiaba")
+    private String nome;
+
+    @Schema(description = "Nome anterior (apenas RENOMEADA)", example = "Regional Cuiaba")
+    private String nomeAnterior;
+
+    @Schema(description = "Indica se a regional esta ativa apos a alteracao", example = "true")
+    private Boolean ativo;
+
+    @Schema(description = "Data e hora da alteracao")
+    private LocalDateTime alteradoEm;
+
+    public RegionalAlteracaoResponse() {
+    }
+
+    public static RegionalAlteracaoResponse fromEntity(RegionalAlteracao alteracao) {
+        RegionalAlteracaoResponse response = new RegionalAlteracaoResponse();
+        response.seq = alteracao.getSeq();
+        response.sincronizacao = alteracao.getSincronizacao();
+        response.id = alteracao.getRegionalId();
+        response.tipo = alteracao.getTipo();
+        response.nome = alteracao.getNome();
+        response.nomeAnterior = alteracao.getNomeAnterior();
+        response.ativo = alteracao.getAtivo();
+        response.alteradoEm = alteracao.getAlteradoEm();
+        return response;
+    }
+
+    public Long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(Long seq) {
+        this.seq = seq;
+    }
+
+    public Long getSincronizacao() {
+        return sincronizacao;
+    }
+
+    public void setSincronizacao(Long sincronizacao) {
+        this.sincronizacao = sincronizacao;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public TipoAlteracaoRegional getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(TipoAlteracaoRegional tipo) {
+        this.tipo = tipo;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public void setNome(String nome) {
+        this.nome = nome;
+    }
+
+    public String getNomeAnterior() {
+        return nomeAnterior;
+    }
+
+    public void setNomeAnterior(String nomeAnterior) {
+        this.nomeAnterior = nomeAnterior;
+    }
+
+    public Boolean getAtivo() {
+        return ativo;
+    }
+
+    public void setAtivo(Boolean ativo) {
+        this.ativo = ativo;
+    }
+
+    public LocalDateTime getAlteradoEm() {
+        return alteradoEm;
+    }
+
+    public void setAlteradoEm(LocalDateTime alteradoEm) {
+        this.alteradoEm = alteradoEm;
+    }
+}
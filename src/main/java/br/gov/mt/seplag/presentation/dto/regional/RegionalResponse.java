@@ -9,22 +9,22 @@ import java.util.stream.Collectors;
 /**
  * DTO para resposta de regional.
  *
+ * Imutavel: as instancias do RegionalSnapshot sao compartilhadas entre todas
+ * as requisicoes e threads, entao nenhum chamador pode altera-las.
+ *
  * @author Jean Paulo Sassi de Miranda
  */
 @Schema(description = "Dados da regional conforme estrutura do edital")
-public class RegionalResponse {
+public final class RegionalResponse {
 
     @Schema(description = "ID da regional (conforme API externa)", example = "1")
-    private Integer id;
+    private final Integer id;
 
     @Schema(description = "Nome da regional", example = "Regional de Cuiaba")
-    private String nome;
+    private final String nome;
 
     @Schema(description = "Indica se a regional esta ativa", example = "true")
-    private Boolean ativo;
-
-    public RegionalResponse() {
-    }
+    private final Boolean ativo;
 
     public RegionalResponse(Integer id, String nome, Boolean ativo) {
         this.id = id;
@@ -50,23 +50,11 @@ public class RegionalResponse {
         return id;
     }
 
-    public void setId(Integer id) {
-        this.id = id;
-    }
-
     public String getNome() {
         return nome;
     }
 
-    public void setNome(String nome) {
-        this.nome = nome;
-    }
-
     public Boolean getAtivo() {
         return ativo;
     }
-
-    public void setAtivo(Boolean ativo) {
-        this.ativo = ativo;
-    }
 }
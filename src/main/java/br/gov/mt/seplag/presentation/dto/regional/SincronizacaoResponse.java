@@ -19,6 +19,9 @@ public class SincronizacaoResponse {
     @Schema(description = "Regionais atualizadas", example = "1")
     private int atualizadas;
 
+    @Schema(description = "Regionais inativas reativadas sem alteracao de nome", example = "1")
+    private int reativadas;
+
     @Schema(description = "Regionais inativadas", example = "3")
     private int inativadas;
 
@@ -28,18 +31,35 @@ public class SincronizacaoResponse {
     @Schema(description = "Mensagem de status", example = "Sincronizacao concluida com sucesso")
     private String mensagem;
 
+    @Schema(description = "Id da sincronizacao no historico de alteracoes (nulo quando nada foi aplicado)",
+        example = "42")
+    private Long sincronizacao;
+
     public SincronizacaoResponse() {
     }
 
-    public SincronizacaoResponse(int totalProcessadas, int inseridas, int atualizadas, int inativadas, int semAlteracao) {
+    public SincronizacaoResponse(int totalProcessadas, int inseridas, int atualizadas, int reativadas,
+                                 int inativadas, int semAlteracao) {
         this.totalProcessadas = totalProcessadas;
         this.inseridas = inseridas;
         this.atualizadas = atualizadas;
+        this.reativadas = reativadas;
         this.inativadas = inativadas;
         this.semAlteracao = semAlteracao;
         this.mensagem = "Sincronizacao concluida com sucesso";
     }
 
+    /**
+     * Resposta de uma sincronizacao dispensada (API externa sem mudancas desde a ultima aplicada).
+     *
+     * @param totalProcessadas total de regionais da ultima sincronizacao aplicada
+     */
+    public static SincronizacaoResponse semMudancas(int totalProcessadas, String mensagem) {
+        SincronizacaoResponse response = new SincronizacaoResponse(totalProcessadas, 0, 0, 0, 0, totalProcessadas);
+        response.setMensagem(mensagem);
+        return response;
+    }
+
     public int getTotalProcessadas() {
         return totalProcessadas;
     }
@@ -64,6 +84,14 @@ public class SincronizacaoResponse {
         this.atualizadas = atualizadas;
     }
 
+    public int getReativadas() {
+        return reativadas;
+    }
+
+    public void setReativadas(int reativadas) {
+        this.reativadas = reativadas;
+    }
+
     public int getInativadas() {
         return inativadas;
     }
@@ -87,4 +115,12 @@ public class SincronizacaoResponse {
     public void setMensagem(String mensagem) {
         this.mensagem = mensagem;
     }
+
+    public Long getSincronizacao() {
+        return sincronizacao;
+    }
+
+    public void setSincronizacao(Long sincronizacao) {
+        this.sincronizacao = sincronizacao;
+    }
 }
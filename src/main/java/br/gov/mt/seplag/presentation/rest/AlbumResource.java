@@ -2,13 +2,17 @@ package br.gov.mt.seplag.presentation.rest;
 
 import br.gov.mt.seplag.application.service.AlbumImagemService;
 import br.gov.mt.seplag.application.service.AlbumService;
+import br.gov.mt.seplag.domain.repository.AlbumCampos;
 import br.gov.mt.seplag.presentation.dto.album.*;
 import br.gov.mt.seplag.presentation.dto.common.ErrorResponse;
+import br.gov.mt.seplag.presentation.dto.common.LoteResponse;
 import br.gov.mt.seplag.presentation.dto.common.PageResponse;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import org.eclipse.microprofile.openapi.annotations.Operation;
@@ -44,13 +48,25 @@ public class AlbumResource {
 
     @GET
     @RolesAllowed({"ADMIN", "USER"})
-    @Operation(summary = "Lista albuns", description = "Retorna lista paginada de albuns com filtros e ordenacao")
+    @Operation(summary = "Lista albuns", description = "Retorna lista paginada de albuns com filtros e ordenacao. " +
+        "Com ids (ex: ?ids=3,1,2), busca esses albuns em lote com detalhes e imagens, na ordem pedida, " +
+        "informando os ids nao encontrados; os demais filtros sao ignorados. " +
+        "fields e expand limitam as colunas lidas e as associacoes carregadas.")
     @APIResponses({
         @APIResponse(
             responseCode = "200",
-            description = "Lista de albuns retornada com sucesso",
+            description = "Lista de albuns retornada com sucesso (LoteResponse de AlbumDetailResponse quando ids e informado)",
             content = @Content(schema = @Schema(implementation = PageResponse.class))
         ),
+        @APIResponse(
+            responseCode = "304",
+            description = "Pagina nao modificada desde o ETag informado em If-None-Match"
+        ),
+        @APIResponse(
+            responseCode = "400",
+            description = "Parametro ids invalido ou com mais de " + IdsParam.MAXIMO + " ids",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+        ),
         @APIResponse(
             responseCode = "500",
             description = "Erro interno do servidor",
@@ -77,22 +93,56 @@ public class AlbumResource {
         @QueryParam("page") @DefaultValue("0") int page,
 
         @Parameter(description = "Tamanho da pagina", example = "10")
-        @QueryParam("size") @DefaultValue("10") int size
+        @QueryParam("size") @DefaultValue("10") int size,
+
+        @Parameter(description = "Busca em lote: IDs separados por virgula (maximo 100)", example = "3,1,2")
+        @QueryParam("ids") String ids,
+
+        @Parameter(description = "Campos da resposta separados por virgula (default: todos; id sempre incluido)",
+            example = "titulo,anoLancamento")
+        @QueryParam("fields") String fields,
+
+        @Parameter(description = "Associacoes a carregar: artistas (e imagens na busca em lote). " +
+            "Default: todas; vazio para nenhuma", example = "artistas")
+        @QueryParam("expand") String expand,
+
+        @Parameter(description = "ETag de uma resposta anterior; 304 se a pagina nao mudou (ignorado com ids)")
+        @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch
     ) {
-        PageResponse<AlbumResponse> response = albumService.listar(titulo, anoLancamento, artistaId, sortField, sortDir, page, size);
-        return Response.ok(response).build();
+        if (ids != null) {
+            LoteResponse<AlbumDetailResponse> lote = albumService.buscarPorIds(IdsParam.parse(ids),
+                AlbumCampos.parse(fields, expand, AlbumCampos.DETALHE));
+            return Response.ok(lote).build();
+        }
+        AlbumCampos campos = AlbumCampos.parse(fields, expand, AlbumCampos.LISTAGEM);
+
+        // Weak: totalPages etc. sao equivalentes, e a versao cobre todas as paginas do filtro
+        EntityTag tag = GetCondicional.fraca(albumService.versaoListagem(titulo, anoLancamento, artistaId,
+            sortField, sortDir, page, size, campos));
+        if (GetCondicional.corresponde(ifNoneMatch, tag)) {
+            return GetCondicional.naoModificado(tag);
+        }
+
+        PageResponse<AlbumResponse> response = albumService.listar(titulo, anoLancamento, artistaId, sortField, sortDir,
+            page, size, campos);
+        return GetCondicional.ok(response, tag);
     }
 
     @GET
     @Path("/{id}")
     @RolesAllowed({"ADMIN", "USER"})
-    @Operation(summary = "Busca album por ID", description = "Retorna detalhes do album incluindo artistas e imagens com URLs pre-assinadas")
+    @Operation(summary = "Busca album por ID", description = "Retorna detalhes do album incluindo artistas e imagens com URLs pre-assinadas. " +
+        "fields e expand limitam as colunas lidas e as associacoes carregadas; sem imagens, nenhuma URL e assinada.")
     @APIResponses({
         @APIResponse(
             responseCode = "200",
             description = "Album encontrado",
             content = @Content(schema = @Schema(implementation = AlbumDetailResponse.class))
         ),
+        @APIResponse(
+            responseCode = "304",
+            description = "Album nao modificado desde o ETag informado em If-None-Match"
+        ),
         @APIResponse(
             responseCode = "404",
             description = "Album nao encontrado",
@@ -101,10 +151,31 @@ public class AlbumResource {
     })
     public Response buscarPorId(
         @Parameter(description = "ID do album", required = true)
-        @PathParam("id") Long id
+        @PathParam("id") Long id,
+
+        @Parameter(description = "Campos da resposta separados por virgula (default: todos; id sempre incluido)",
+            example = "titulo,descricao")
+        @QueryParam("fields") String fields,
+
+        @Parameter(description = "Associacoes a carregar: artistas, imagens. Default: todas; vazio para nenhuma",
+            example = "artistas")
+        @QueryParam("expand") String expand,
+
+        @Parameter(description = "ETag de uma resposta anterior; 304 se o album nao mudou")
+        @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch
     ) {
-        AlbumDetailResponse response = albumService.buscarPorId(id);
-        return Response.ok(response).build();
+        AlbumCampos campos = AlbumCampos.parse(fields, expand, AlbumCampos.DETALHE);
+
+        // URLs pre-assinadas sao geradas de novo a cada resposta: com imagens o ETag e weak
+        String versao = albumService.versao(id, campos);
+        EntityTag tag = campos.expande(AlbumCampos.Expansao.IMAGENS)
+            ? GetCondicional.fraca(versao) : GetCondicional.forte(versao);
+        if (GetCondicional.corresponde(ifNoneMatch, tag)) {
+            return GetCondicional.naoModificado(tag);
+        }
+
+        AlbumDetailResponse response = albumService.buscarPorId(id, campos);
+        return GetCondicional.ok(response, tag);
     }
 
     @POST
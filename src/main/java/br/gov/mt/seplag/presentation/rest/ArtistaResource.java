@@ -6,11 +6,14 @@ import br.gov.mt.seplag.presentation.dto.artista.ArtistaDetailResponse;
 import br.gov.mt.seplag.presentation.dto.artista.ArtistaRequest;
 import br.gov.mt.seplag.presentation.dto.artista.ArtistaResponse;
 import br.gov.mt.seplag.presentation.dto.common.ErrorResponse;
+import br.gov.mt.seplag.presentation.dto.common.LoteResponse;
 import br.gov.mt.seplag.presentation.dto.common.PageResponse;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import org.eclipse.microprofile.openapi.annotations.Operation;
@@ -40,13 +43,24 @@ public class ArtistaResource {
 
     @GET
     @RolesAllowed({"ADMIN", "USER"})
-    @Operation(summary = "Lista artistas", description = "Retorna lista paginada de artistas com filtros e ordenacao")
+    @Operation(summary = "Lista artistas", description = "Retorna lista paginada de artistas com filtros e ordenacao. " +
+        "Com ids (ex: ?ids=3,1,2), busca esses artistas em lote com albuns, na ordem pedida, " +
+        "informando os ids nao encontrados; os demais filtros sao ignorados.")
     @APIResponses({
         @APIResponse(
             responseCode = "200",
-            description = "Lista de artistas retornada com sucesso",
+            description = "Lista de artistas retornada com sucesso (LoteResponse de ArtistaDetailResponse quando ids e informado)",
             content = @Content(schema = @Schema(implementation = PageResponse.class))
         ),
+        @APIResponse(
+            responseCode = "304",
+            description = "Pagina nao modificada desde o ETag informado em If-None-Match"
+        ),
+        @APIResponse(
+            responseCode = "400",
+            description = "Parametro ids invalido ou com mais de " + IdsParam.MAXIMO + " ids",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+        ),
         @APIResponse(
             responseCode = "500",
             description = "Erro interno do servidor",
@@ -70,10 +84,26 @@ public class ArtistaResource {
         @QueryParam("page") @DefaultValue("0") int page,
 
         @Parameter(description = "Tamanho da pagina", example = "10")
-        @QueryParam("size") @DefaultValue("10") int size
+        @QueryParam("size") @DefaultValue("10") int size,
+
+        @Parameter(description = "Busca em lote: IDs separados por virgula (maximo 100)", example = "3,1,2")
+        @QueryParam("ids") String ids,
+
+        @Parameter(description = "ETag de uma resposta anterior; 304 se a pagina nao mudou (ignorado com ids)")
+        @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch
     ) {
+        if (ids != null) {
+            LoteResponse<ArtistaDetailResponse> lote = artistaService.buscarPorIds(IdsParam.parse(ids));
+            return Response.ok(lote).build();
+        }
+
+        EntityTag tag = GetCondicional.fraca(artistaService.versaoListagem(nome, tipo, sortField, sortDir, page, size));
+        if (GetCondicional.corresponde(ifNoneMatch, tag)) {
+            return GetCondicional.naoModificado(tag);
+        }
+
         PageResponse<ArtistaResponse> response = artistaService.listar(nome, tipo, sortField, sortDir, page, size);
-        return Response.ok(response).build();
+        return GetCondicional.ok(response, tag);
     }
 
     @GET
@@ -86,6 +116,10 @@ public class ArtistaResource {
             description = "Artista encontrado",
             content = @Content(schema = @Schema(implementation = ArtistaDetailResponse.class))
         ),
+        @APIResponse(
+            responseCode = "304",
+            description = "Artista nao modificado desde o ETag informado em If-None-Match"
+        ),
         @APIResponse(
             responseCode = "404",
             description = "Artista nao encontrado",
@@ -94,10 +128,18 @@ public class ArtistaResource {
     })
     public Response buscarPorId(
         @Parameter(description = "ID do artista", required = true)
-        @PathParam("id") Long id
+        @PathParam("id") Long id,
+
+        @Parameter(description = "ETag de uma resposta anterior; 304 se o artista nao mudou")
+        @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch
     ) {
+        EntityTag tag = GetCondicional.forte(artistaService.versao(id));
+        if (GetCondicional.corresponde(ifNoneMatch, tag)) {
+            return GetCondicional.naoModificado(tag);
+        }
+
         ArtistaDetailResponse response = artistaService.buscarPorId(id);
-        return Response.ok(response).build();
+        return GetCondicional.ok(response, tag);
     }
 
     @POST
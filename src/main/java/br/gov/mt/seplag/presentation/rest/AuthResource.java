@@ -22,7 +22,7 @@ import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 
 /**
  * Resource para autenticacao.
- * Endpoints publicos (sem necessidade de token) para login e renovacao.
+ * Endpoints publicos (sem necessidade de token) para login, renovacao e logout.
  *
  * @author Jean Paulo Sassi de Miranda
  */
@@ -86,4 +86,29 @@ public class AuthResource {
         LoginResponse response = authService.refreshToken(request);
         return Response.ok(response).build();
     }
+
+    @POST
+    @Path("/logout")
+    @Operation(summary = "Encerra a sessao",
+               description = "Revoga o refresh token informado e todos os tokens rotacionados a partir do mesmo login. O access token atual continua valido ate expirar (5 minutos).")
+    @APIResponses({
+        @APIResponse(
+            responseCode = "204",
+            description = "Sessao encerrada"
+        ),
+        @APIResponse(
+            responseCode = "400",
+            description = "Dados de entrada invalidos",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+        ),
+        @APIResponse(
+            responseCode = "401",
+            description = "Refresh token invalido ou expirado",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+        )
+    })
+    public Response logout(@Valid RefreshTokenRequest request) {
+        authService.logout(request);
+        return Response.noContent().build();
+    }
 }
@@ -0,0 +1,105 @@
+package br.gov.mt.seplag.presentation.rest;
+
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * GET condicional (ETag / If-None-Match) das leituras do catalogo.
+ *
+ * O ETag e o hash da versao devolvida pelos servicos (consulta de agregados,
+ * sem carregar entidades). O resource compara com o If-None-Match antes de
+ * montar a resposta, entao um cliente atualizado recebe 304 sem hidratacao.
+ *
+ * A versao e lida antes do corpo: se o recurso mudar entre as duas leituras,
+ * o cliente guarda um ETag antigo com um corpo novo e so recebe 200 de novo
+ * na proxima requisicao; nunca um 304 com dados velhos.
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+final class GetCondicional {
+
+    /**
+     * Dados autenticados: so o cliente guarda, sempre revalidando.
+     */
+    static final String CACHE_CONTROL = "private, no-cache";
+
+    private GetCondicional() {
+    }
+
+    /**
+     * ETag forte: o corpo e o mesmo byte a byte enquanto a versao nao muda.
+     */
+    static EntityTag forte(String versao) {
+        return new EntityTag(hash(versao));
+    }
+
+    /**
+     * ETag fraco: representacao equivalente, mas nao identica (ex: URLs
+     * pre-assinadas geradas de novo, datas de geracao da pagina).
+     */
+    static EntityTag fraca(String versao) {
+        return new EntityTag(hash(versao), true);
+    }
+
+    /**
+     * Comparacao fraca do If-None-Match (RFC 9110, 13.1.2): o prefixo W/ e
+     * ignorado e "*" corresponde a qualquer representacao existente.
+     *
+     * @param ifNoneMatch valor do cabecalho (pode ser null ou uma lista)
+     */
+    static boolean corresponde(String ifNoneMatch, EntityTag tag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        String esperado = "\"" + tag.getValue() + "\"";
+        for (String parte : ifNoneMatch.split(",")) {
+            String valor = parte.trim();
+            if (valor.equals("*")) {
+                return true;
+            }
+            if (valor.startsWith("W/")) {
+                valor = valor.substring(2);
+            }
+            if (valor.equals(esperado)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 304 sem corpo, repetindo o ETag e o Cache-Control.
+     */
+    static Response naoModificado(EntityTag tag) {
+        return Response.notModified(tag)
+            .header(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL)
+            .build();
+    }
+
+    /**
+     * 200 com o corpo, o ETag e o Cache-Control.
+     */
+    static Response ok(Object corpo, EntityTag tag) {
+        return Response.ok(corpo)
+            .tag(tag)
+            .header(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL)
+            .build();
+    }
+
+    private static String hash(String versao) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(versao.getBytes(StandardCharsets.UTF_8));
+            // 16 bytes (128 bits) bastam para distinguir versoes
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponivel", e);
+        }
+    }
+}
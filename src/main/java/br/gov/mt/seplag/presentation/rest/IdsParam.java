@@ -0,0 +1,60 @@
+package br.gov.mt.seplag.presentation.rest;
+
+import br.gov.mt.seplag.domain.exception.BusinessException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Leitura do parametro ids das buscas em lote (ex: ?ids=3,1,2).
+ *
+ * Ids repetidos sao ignorados mantendo a primeira ocorrencia, entao a ordem
+ * do pedido e preservada. Erros viram BusinessException (HTTP 400).
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+final class IdsParam {
+
+    /**
+     * Maximo de ids distintos por requisicao.
+     */
+    static final int MAXIMO = 100;
+
+    private IdsParam() {
+    }
+
+    /**
+     * @return ids distintos na ordem informada
+     * @throws BusinessException parametro vazio, id invalido ou mais de MAXIMO ids
+     */
+    static List<Long> parse(String valor) {
+        if (valor == null || valor.isBlank()) {
+            throw new BusinessException("Parametro ids deve conter pelo menos um id");
+        }
+        Set<Long> ids = new LinkedHashSet<>();
+        for (String parte : valor.split(",")) {
+            String id = parte.trim();
+            if (id.isEmpty()) {
+                continue;
+            }
+            try {
+                long numero = Long.parseLong(id);
+                if (numero <= 0) {
+                    throw new NumberFormatException();
+                }
+                ids.add(numero);
+            } catch (NumberFormatException e) {
+                throw new BusinessException("Id invalido no parametro ids: " + id);
+            }
+            if (ids.size() > MAXIMO) {
+                throw new BusinessException("Parametro ids aceita no maximo " + MAXIMO + " ids");
+            }
+        }
+        if (ids.isEmpty()) {
+            throw new BusinessException("Parametro ids deve conter pelo menos um id");
+        }
+        return new ArrayList<>(ids);
+    }
+}
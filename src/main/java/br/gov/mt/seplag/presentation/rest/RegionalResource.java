@@ -2,6 +2,7 @@ package br.gov.mt.seplag.presentation.rest;
 
 import br.gov.mt.seplag.application.service.RegionalService;
 import br.gov.mt.seplag.presentation.dto.common.ErrorResponse;
+import br.gov.mt.seplag.presentation.dto.regional.AlteracoesRegionaisResponse;
 import br.gov.mt.seplag.presentation.dto.regional.RegionalResponse;
 import br.gov.mt.seplag.presentation.dto.regional.SincronizacaoResponse;
 import jakarta.annotation.security.RolesAllowed;
@@ -107,6 +108,51 @@ public class RegionalResource {
         return Response.ok(stats).build();
     }
 
+    @GET
+    @Path("/alteracoes")
+    @RolesAllowed({"ADMIN", "USER"})
+    @Operation(
+        summary = "Alteracoes de regionais (consumo incremental)",
+        description = "Retorna as alteracoes (INSERIDA, RENOMEADA, INATIVADA, REATIVADA) aplicadas pelas " +
+            "sincronizacoes apos o cursor informado, em ordem. Use since=0 na primeira chamada e, nas " +
+            "seguintes, o cursor da resposta anterior; com temMais=true, repita imediatamente."
+    )
+    @APIResponses({
+        @APIResponse(
+            responseCode = "200",
+            description = "Alteracoes posteriores ao cursor",
+            content = @Content(schema = @Schema(implementation = AlteracoesRegionaisResponse.class))
+        ),
+        @APIResponse(
+            responseCode = "400",
+            description = "Parametros invalidos",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+        )
+    })
+    public Response alteracoes(
+        @Parameter(description = "Seq da ultima alteracao ja consumida (default: 0 = historico completo)")
+        @QueryParam("since") @DefaultValue("0") long since,
+        @Parameter(description = "Maximo de alteracoes na resposta (default: 1000, maximo: 5000)")
+        @QueryParam("limite") @DefaultValue("1000") int limite
+    ) {
+        return Response.ok(regionalService.listarAlteracoes(since, limite)).build();
+    }
+
+    @GET
+    @Path("/sincronizacao/status")
+    @RolesAllowed({"ADMIN"})
+    @Operation(
+        summary = "Status da sincronizacao",
+        description = "Execucao em andamento, ultima execucao (modo, resultado, duracao) e ultimo sucesso nesta instancia"
+    )
+    @APIResponse(
+        responseCode = "200",
+        description = "Status da sincronizacao de regionais"
+    )
+    public Response statusSincronizacao() {
+        return Response.ok(regionalService.getStatusSincronizacao()).build();
+    }
+
     @POST
     @Path("/sincronizar")
     @RolesAllowed({"ADMIN"})
@@ -115,7 +161,10 @@ public class RegionalResource {
         description = "Sincroniza conforme edital: " +
             "1) Novo no endpoint -> INSERT; " +
             "2) Ausente no endpoint -> UPDATE ativo=false; " +
-            "3) Atributo alterado -> UPDATE nome."
+            "3) Atributo alterado -> UPDATE nome. " +
+            "Sem mudancas na API externa desde a ultima sincronizacao (HTTP 304 ou conteudo identico), " +
+            "nada e aplicado no banco. Chamadas simultaneas compartilham a mesma execucao e " +
+            "apenas uma instancia sincroniza por vez."
     )
     @APIResponses({
         @APIResponse(
@@ -134,8 +183,11 @@ public class RegionalResource {
             content = @Content(schema = @Schema(implementation = ErrorResponse.class))
         )
     })
-    public Response sincronizar() {
-        SincronizacaoResponse response = regionalService.sincronizar();
+    public Response sincronizar(
+        @Parameter(description = "Aplica o payload mesmo sem mudancas na API externa (default: false)")
+        @QueryParam("forcar") @DefaultValue("false") boolean forcar
+    ) {
+        SincronizacaoResponse response = regionalService.sincronizar(forcar);
         return Response.ok(response).build();
     }
 }
@@ -4,6 +4,9 @@ import br.gov.mt.seplag.domain.model.WebSocketTicket;
 import br.gov.mt.seplag.infrastructure.security.WebSocketTicketService;
 import br.gov.mt.seplag.presentation.dto.common.ErrorResponse;
 import br.gov.mt.seplag.presentation.dto.websocket.WebSocketTicketResponse;
+import br.gov.mt.seplag.presentation.websocket.AlbumBroadcaster;
+import br.gov.mt.seplag.presentation.websocket.AlbumEventLog;
+import br.gov.mt.seplag.presentation.websocket.SessionHeartbeat;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
@@ -22,6 +25,7 @@ import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 import org.jboss.logging.Logger;
 
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -52,6 +56,15 @@ public class WebSocketTicketResource {
     @Inject
     WebSocketTicketService ticketService;
 
+    @Inject
+    AlbumBroadcaster broadcaster;
+
+    @Inject
+    AlbumEventLog eventLog;
+
+    @Inject
+    SessionHeartbeat heartbeat;
+
     @Inject
     JsonWebToken jwt;
 
@@ -116,7 +129,8 @@ public class WebSocketTicketResource {
     @Operation(
         summary = "Estatisticas do sistema de tickets",
         description = "Retorna estatisticas do servico de tickets WebSocket: " +
-            "tickets ativos, criados, consumidos, expirados e rejeitados"
+            "tickets ativos, criados, consumidos, expirados e rejeitados, " +
+            "alem das filas de envio por sessao (profundidade e atraso) e do heartbeat"
     )
     @APIResponses({
         @APIResponse(
@@ -130,7 +144,10 @@ public class WebSocketTicketResource {
         )
     })
     public Response getStats() {
-        Map<String, Object> stats = ticketService.getStatistics();
+        Map<String, Object> stats = new LinkedHashMap<>(ticketService.getStatistics());
+        stats.put("outbound", broadcaster.getStatistics());
+        stats.put("eventLog", eventLog.getStatistics());
+        stats.put("heartbeat", heartbeat.getStatistics());
         return Response.ok(stats).build();
     }
 }
@@ -0,0 +1,336 @@
+package br.gov.mt.seplag.presentation.websocket;
+
+import br.gov.mt.seplag.infrastructure.metrics.MetricsService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.websocket.CloseReason;
+import jakarta.websocket.Session;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Distribuicao de mensagens para as sessoes WebSocket.
+ *
+ * Cada mensagem e serializada uma unica vez em um frame compartilhado e
+ * enfileirada na fila limitada (SessionOutbox) de cada sessao. O chamador
+ * (ex: AlbumService) apenas enfileira; o envio acontece de forma assincrona,
+ * entao um cliente lento nao atrasa a requisicao nem os demais clientes.
+ *
+ * Eventos de album sao roteados pelo indice de assinaturas (SubscriptionIndex):
+ * apenas as sessoes inscritas em algum topico do evento recebem o frame.
+ *
+ * Sessoes que escolheram CBOR (FrameEncoding) recebem frames binarios; a
+ * conversao acontece uma vez por frame, na primeira sessao CBOR que o envia.
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+@ApplicationScoped
+public class AlbumBroadcaster {
+
+    private static final Logger LOG = Logger.getLogger(AlbumBroadcaster.class);
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    MetricsService metricsService;
+
+    @ConfigProperty(name = "app.websocket.outbound.queue-capacity", defaultValue = "256")
+    int queueCapacity;
+
+    @ConfigProperty(name = "app.websocket.outbound.overflow-policy", defaultValue = "DROP_OLDEST")
+    OverflowPolicy overflowPolicy;
+
+    private final Map<String, SessionOutbox> outboxes = new ConcurrentHashMap<>();
+
+    private final SubscriptionIndex subscriptions = new SubscriptionIndex();
+
+    @PostConstruct
+    void init() {
+        metricsService.registerWebSocketConnectionsGauge(outboxes, Map::size);
+        metricsService.registerWebSocketQueuedFramesGauge(outboxes, AlbumBroadcaster::totalQueued);
+    }
+
+    /**
+     * Registra uma sessao autenticada com a codificacao escolhida na conexao.
+     */
+    public SessionOutbox register(Session session, String username, FrameEncoding encoding) {
+        return register(session.getId(), username, new SessionTransport(session, encoding, this::encodeBinary));
+    }
+
+    /**
+     * Registra uma sessao a partir de um canal de envio qualquer.
+     */
+    public SessionOutbox register(String sessionId, String username, SessionOutbox.Transport transport) {
+        SessionOutbox outbox = new SessionOutbox(sessionId, username, transport, queueCapacity,
+            overflowPolicy, this::resyncFrame, metricsService);
+        subscriptions.openSession(sessionId);
+        SessionOutbox previous = outboxes.put(sessionId, outbox);
+        if (previous != null) {
+            previous.close();
+        }
+        return outbox;
+    }
+
+    /**
+     * Remove a sessao e descarta os frames pendentes.
+     */
+    public void unregister(String sessionId) {
+        subscriptions.removeSession(sessionId);
+        SessionOutbox outbox = outboxes.remove(sessionId);
+        if (outbox != null) {
+            outbox.close();
+        }
+    }
+
+    /**
+     * Serializa a mensagem uma vez e enfileira para todas as sessoes.
+     *
+     * @param type tipo da mensagem (ex: NEW_ALBUM)
+     * @param data conteudo da mensagem
+     * @return quantidade de sessoes que receberam o frame
+     */
+    public int broadcast(String type, Object data) {
+        if (outboxes.isEmpty()) {
+            return 0;
+        }
+
+        OutboundFrame frame;
+        try {
+            frame = OutboundFrame.of(serialize(type, data));
+        } catch (JsonProcessingException e) {
+            LOG.error("Erro ao serializar mensagem WebSocket", e);
+            return 0;
+        }
+
+        int entregues = 0;
+        for (SessionOutbox outbox : outboxes.values()) {
+            if (publish(outbox, frame)) {
+                entregues++;
+            }
+        }
+        return entregues;
+    }
+
+    /**
+     * Serializa a mensagem uma vez e enfileira apenas para as sessoes
+     * inscritas em algum dos topicos.
+     *
+     * @return quantidade de sessoes que receberam o frame
+     */
+    public int publish(String type, Object data, Collection<String> topics) {
+        if (outboxes.isEmpty()) {
+            return 0;
+        }
+
+        OutboundFrame frame;
+        try {
+            frame = OutboundFrame.of(serialize(type, data));
+        } catch (JsonProcessingException e) {
+            LOG.error("Erro ao serializar mensagem WebSocket", e);
+            return 0;
+        }
+        return publishFrame(frame, topics);
+    }
+
+    /**
+     * Enfileira um frame ja serializado para as sessoes inscritas em algum dos topicos.
+     *
+     * @return quantidade de sessoes que receberam o frame
+     */
+    public int publishFrame(OutboundFrame frame, Collection<String> topics) {
+        Set<String> targets = subscriptions.match(topics);
+        int entregues = 0;
+        for (String sessionId : targets) {
+            SessionOutbox outbox = outboxes.get(sessionId);
+            if (outbox != null && publish(outbox, frame)) {
+                entregues++;
+            }
+        }
+        return entregues;
+    }
+
+    public SubscriptionIndex subscriptions() {
+        return subscriptions;
+    }
+
+    /**
+     * Enfileira uma mensagem ja serializada para uma unica sessao.
+     */
+    public boolean send(String sessionId, String payload) {
+        return sendFrame(sessionId, OutboundFrame.of(payload));
+    }
+
+    /**
+     * Enfileira um frame ja serializado para uma unica sessao.
+     */
+    public boolean sendFrame(String sessionId, OutboundFrame frame) {
+        SessionOutbox outbox = outboxes.get(sessionId);
+        return outbox != null && publish(outbox, frame);
+    }
+
+    /**
+     * Serializa uma mensagem no formato padrao {type, data}.
+     */
+    public String serialize(String type, Object data) throws JsonProcessingException {
+        return serialize(type, null, data);
+    }
+
+    /**
+     * Serializa uma mensagem sequenciada no formato {type, seq, data}.
+     */
+    public String serialize(String type, Long seq, Object data) throws JsonProcessingException {
+        long inicio = System.nanoTime();
+        String payload = objectMapper.writeValueAsString(new AlbumWebSocket.WebSocketMessage(type, seq, data));
+        metricsService.recordWebSocketFrameEncoded(FrameEncoding.JSON.value(), System.nanoTime() - inicio,
+            payload.getBytes(StandardCharsets.UTF_8).length);
+        return payload;
+    }
+
+    /**
+     * Versao CBOR do frame, gerada uma unica vez e compartilhada pelas sessoes CBOR.
+     */
+    public byte[] encodeBinary(OutboundFrame frame) {
+        return frame.binary(this::toCbor);
+    }
+
+    public int getSessionCount() {
+        return outboxes.size();
+    }
+
+    /**
+     * Estatisticas das filas de envio, incluindo atraso por sessao.
+     */
+    public Map<String, Object> getStatistics() {
+        List<Map<String, Object>> sessoes = new ArrayList<>();
+        for (SessionOutbox outbox : outboxes.values()) {
+            sessoes.add(outbox.getStatistics());
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("overflowPolicy", overflowPolicy.name());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("sessions", outboxes.size());
+        stats.put("queuedFrames", (long) totalQueued(outboxes));
+        stats.put("topics", subscriptions.topicCount());
+        stats.put("perSession", sessoes);
+        return stats;
+    }
+
+    private boolean publish(SessionOutbox outbox, OutboundFrame frame) {
+        SessionOutbox.Offer result = outbox.offer(frame);
+        if (result == SessionOutbox.Offer.OVERFLOW) {
+            if (outboxes.remove(outbox.getSessionId(), outbox)) {
+                subscriptions.removeSession(outbox.getSessionId());
+            }
+            metricsService.recordWebSocketSlowConsumerDisconnect();
+            LOG.warnf("Cliente WebSocket lento desconectado - User: %s, Session: %s",
+                outbox.getUsername(), outbox.getSessionId());
+            outbox.disconnect("Cliente nao acompanha o volume de mensagens. Reconecte.");
+            return false;
+        }
+        return result != SessionOutbox.Offer.CLOSED;
+    }
+
+    /**
+     * Aviso enviado a uma sessao depois de frames descartados por fila cheia.
+     * Mesmo tipo do replay indisponivel: o cliente recarrega o estado.
+     */
+    private OutboundFrame resyncFrame(int descartados) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("reason", "queue_overflow");
+        data.put("dropped", descartados);
+        try {
+            return OutboundFrame.of(serialize(AlbumEventLog.RESYNC_REQUIRED, data));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Erro ao serializar RESYNC_REQUIRED", e);
+        }
+    }
+
+    private byte[] toCbor(String json) {
+        long inicio = System.nanoTime();
+        try {
+            JsonNode tree = objectMapper.readTree(json);
+            byte[] encoded = CborEncoder.encode(tree);
+            metricsService.recordWebSocketFrameEncoded(FrameEncoding.CBOR.value(), System.nanoTime() - inicio,
+                encoded.length);
+            return encoded;
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Payload WebSocket invalido para CBOR", e);
+        }
+    }
+
+    private static double totalQueued(Map<String, SessionOutbox> outboxes) {
+        long total = 0;
+        for (SessionOutbox outbox : outboxes.values()) {
+            total += outbox.queued();
+        }
+        return total;
+    }
+
+    /**
+     * Canal de envio baseado na sessao Jakarta WebSocket.
+     */
+    private static final class SessionTransport implements SessionOutbox.Transport {
+
+        private final Session session;
+        private final FrameEncoding encoding;
+        private final Function<OutboundFrame, byte[]> binaryEncoder;
+
+        private SessionTransport(Session session, FrameEncoding encoding, Function<OutboundFrame, byte[]> binaryEncoder) {
+            this.session = session;
+            this.encoding = encoding;
+            this.binaryEncoder = binaryEncoder;
+        }
+
+        @Override
+        public void send(OutboundFrame frame, Consumer<Throwable> onComplete) {
+            if (encoding == FrameEncoding.JSON) {
+                send(frame.payload(), onComplete);
+                return;
+            }
+            if (!session.isOpen()) {
+                onComplete.accept(new IOException("Sessao fechada"));
+                return;
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(binaryEncoder.apply(frame));
+            session.getAsyncRemote().sendBinary(buffer, result -> onComplete.accept(result.getException()));
+        }
+
+        @Override
+        public void send(String payload, Consumer<Throwable> onComplete) {
+            if (!session.isOpen()) {
+                onComplete.accept(new IOException("Sessao fechada"));
+                return;
+            }
+            session.getAsyncRemote().sendText(payload, result -> onComplete.accept(result.getException()));
+        }
+
+        @Override
+        public void close(String reason) {
+            try {
+                session.close(new CloseReason(CloseReason.CloseCodes.TRY_AGAIN_LATER, reason));
+            } catch (IOException e) {
+                LOG.errorf("Erro ao fechar sessao WebSocket: %s", e.getMessage());
+            }
+        }
+    }
+}
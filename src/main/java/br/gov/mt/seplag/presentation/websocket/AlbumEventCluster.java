@@ -0,0 +1,291 @@
+package br.gov.mt.seplag.presentation.websocket;
+
+import br.gov.mt.seplag.domain.model.AlbumEvent;
+import br.gov.mt.seplag.domain.repository.AlbumEventRepository;
+import br.gov.mt.seplag.infrastructure.metrics.MetricsService;
+import io.quarkus.runtime.ShutdownEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Fan-out dos eventos de album entre nos via Postgres LISTEN/NOTIFY.
+ *
+ * Funcionamento (app.websocket.cluster.enabled=true):
+ * - O seq vem da sequencia album_event_seq, igual em todos os nos
+ * - Cada janela do AlbumEventCoalescer vira um lote: as linhas sao gravadas
+ *   em album_event e um NOTIFY "<no>:<seq>,<seq>,..." e enviado na mesma
+ *   transacao (o payload leva apenas os seqs, longe do limite de 8000 bytes)
+ * - Cada no mantem uma conexao JDBC dedicada (fora do pool) em LISTEN; ao
+ *   receber uma notificacao de outro no, busca as linhas e entrega ao log local
+ * - Notificacoes do proprio no sao descartadas (o evento ja foi entregue)
+ * - Apos reconectar, busca os eventos gravados enquanto estava desconectado
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+@ApplicationScoped
+public class AlbumEventCluster {
+
+    private static final Logger LOG = Logger.getLogger(AlbumEventCluster.class);
+
+    // Limite do Postgres e 8000 bytes; folga para o identificador do no
+    private static final int MAX_NOTIFY_BYTES = 7900;
+    private static final int POLL_TIMEOUT_MS = 5000;
+    private static final long MIN_RECONNECT_DELAY_MS = 1000;
+    private static final long MAX_RECONNECT_DELAY_MS = 30000;
+    private static final Pattern CHANNEL_PATTERN = Pattern.compile("[a-z_][a-z0-9_]{0,62}");
+
+    @Inject
+    AlbumEventLog eventLog;
+
+    @Inject
+    AlbumEventRepository repository;
+
+    @Inject
+    MetricsService metricsService;
+
+    @ConfigProperty(name = "app.websocket.cluster.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "app.websocket.cluster.channel", defaultValue = "album_events")
+    String channel;
+
+    @ConfigProperty(name = "quarkus.datasource.jdbc.url")
+    Optional<String> jdbcUrl;
+
+    @ConfigProperty(name = "quarkus.datasource.username")
+    Optional<String> username;
+
+    @ConfigProperty(name = "quarkus.datasource.password")
+    Optional<String> password;
+
+    final String nodeId = UUID.randomUUID().toString();
+
+    private volatile boolean running;
+    private volatile boolean listening;
+    private Thread listener;
+
+    private final AtomicLong notificationsSent = new AtomicLong();
+    private final AtomicLong notificationsReceived = new AtomicLong();
+    private final AtomicLong echoesDropped = new AtomicLong();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Inicia a thread de LISTEN. Chamado pelo AlbumEventLog apos carregar o log.
+     */
+    synchronized void start() {
+        if (!enabled || running) {
+            return;
+        }
+        if (!CHANNEL_PATTERN.matcher(channel).matches()) {
+            throw new IllegalStateException("app.websocket.cluster.channel invalido: " + channel);
+        }
+        if (jdbcUrl.isEmpty()) {
+            throw new IllegalStateException("quarkus.datasource.jdbc.url obrigatorio com app.websocket.cluster.enabled");
+        }
+
+        running = true;
+        listener = new Thread(this::listenLoop, "album-event-listener");
+        listener.setDaemon(true);
+        listener.start();
+        LOG.infof("Fan-out de eventos de album habilitado (canal %s, no %s)", channel, nodeId);
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        running = false;
+        Thread atual = listener;
+        if (atual != null) {
+            atual.interrupt();
+        }
+    }
+
+    /**
+     * Reserva os seqs de um lote na sequencia global.
+     */
+    List<Long> allocate(int quantidade) {
+        return repository.nextSeqs(quantidade);
+    }
+
+    /**
+     * Grava o lote e avisa os demais nos (uma notificacao por bloco de seqs).
+     */
+    void publish(List<AlbumEvent> eventos) {
+        if (eventos.isEmpty()) {
+            return;
+        }
+        List<String> notificacoes = notifications(eventos.stream().map(AlbumEvent::getSeq).toList());
+        repository.persistAndNotify(eventos, channel, notificacoes);
+        notificationsSent.addAndGet(notificacoes.size());
+        metricsService.recordWebSocketClusterEventsPublished(eventos.size());
+    }
+
+    /**
+     * Monta os payloads de NOTIFY ("<no>:<seq>,<seq>,...") respeitando o limite de tamanho.
+     */
+    List<String> notifications(Collection<Long> seqs) {
+        List<String> payloads = new ArrayList<>();
+        String prefixo = nodeId + ":";
+        StringBuilder atual = new StringBuilder(prefixo);
+
+        for (Long seq : seqs) {
+            String valor = Long.toString(seq);
+            boolean vazio = atual.length() == prefixo.length();
+            if (!vazio && atual.length() + 1 + valor.length() > MAX_NOTIFY_BYTES) {
+                payloads.add(atual.toString());
+                atual = new StringBuilder(prefixo);
+                vazio = true;
+            }
+            if (!vazio) {
+                atual.append(',');
+            }
+            atual.append(valor);
+        }
+        if (atual.length() > prefixo.length()) {
+            payloads.add(atual.toString());
+        }
+        return payloads;
+    }
+
+    /**
+     * Trata uma notificacao recebida do canal.
+     *
+     * @return quantidade de eventos entregues ao log local
+     */
+    int handle(String payload) {
+        int separador = payload.indexOf(':');
+        if (separador <= 0) {
+            LOG.warnf("Notificacao de evento de album invalida: %s", payload);
+            return 0;
+        }
+        notificationsReceived.incrementAndGet();
+
+        if (payload.substring(0, separador).equals(nodeId)) {
+            echoesDropped.incrementAndGet();
+            metricsService.recordWebSocketClusterEchoDropped();
+            return 0;
+        }
+
+        List<Long> seqs = new ArrayList<>();
+        for (String valor : payload.substring(separador + 1).split(",")) {
+            try {
+                seqs.add(Long.parseLong(valor));
+            } catch (NumberFormatException e) {
+                LOG.warnf("Seq invalido em notificacao de evento de album: %s", valor);
+            }
+        }
+        if (seqs.isEmpty()) {
+            return 0;
+        }
+        return deliver(repository.findBySeqs(seqs));
+    }
+
+    /**
+     * Busca os eventos gravados por outros nos enquanto este estava desconectado.
+     * Eventos ja presentes no log local sao ignorados pelo AlbumEventLog.
+     */
+    int catchUp(long desde) {
+        return deliver(repository.findPosteriores(desde, eventLog.capacity()));
+    }
+
+    /**
+     * Retorna estatisticas do fan-out.
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        if (enabled) {
+            stats.put("nodeId", nodeId);
+            stats.put("channel", channel);
+            stats.put("listening", listening);
+            stats.put("notificationsSent", notificationsSent.get());
+            stats.put("notificationsReceived", notificationsReceived.get());
+            stats.put("echoesDropped", echoesDropped.get());
+        }
+        return stats;
+    }
+
+    private int deliver(List<AlbumEvent> eventos) {
+        if (eventos.isEmpty()) {
+            return 0;
+        }
+        int entregues = eventLog.acceptRemote(eventos);
+        metricsService.recordWebSocketClusterEventsReceived(entregues);
+        return entregues;
+    }
+
+    private void listenLoop() {
+        long delay = MIN_RECONNECT_DELAY_MS;
+        long desde = eventLog.currentSeq();
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(
+                    jdbcUrl.get(), username.orElse(null), password.orElse(null))) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                listening = true;
+                delay = MIN_RECONNECT_DELAY_MS;
+                LOG.debugf("LISTEN %s ativo", channel);
+
+                int recuperados = catchUp(desde);
+                if (recuperados > 0) {
+                    LOG.infof("Eventos de album recuperados apos reconexao: %d", recuperados);
+                }
+
+                while (running) {
+                    PGNotification[] notificacoes = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notificacoes == null) {
+                        continue;
+                    }
+                    for (PGNotification notificacao : notificacoes) {
+                        handleSafely(notificacao.getParameter());
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                listening = false;
+                desde = eventLog.currentSeq();
+                if (!running) {
+                    break;
+                }
+                LOG.warnf("Conexao LISTEN %s perdida, nova tentativa em %dms: %s", channel, delay, e.getMessage());
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                delay = Math.min(delay * 2, MAX_RECONNECT_DELAY_MS);
+            }
+        }
+        listening = false;
+    }
+
+    private void handleSafely(String payload) {
+        try {
+            handle(payload);
+        } catch (RuntimeException e) {
+            LOG.warnf("Falha ao processar notificacao de evento de album: %s", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package br.gov.mt.seplag.presentation.websocket;
+
+import br.gov.mt.seplag.infrastructure.metrics.MetricsService;
+import br.gov.mt.seplag.presentation.dto.album.AlbumImagemResponse;
+import br.gov.mt.seplag.presentation.dto.album.AlbumResponse;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Agrupa eventos de album em janelas curtas antes de enviar pelo WebSocket.
+ *
+ * Eventos do mesmo album recebidos dentro da janela (flush-interval) viram
+ * uma unica mensagem por tipo, publicada em lote no AlbumEventLog (que atribui o seq):
+ * - NEW_ALBUM seguido de alteracoes: NEW_ALBUM com o estado final
+ * - NEW_ALBUM seguido de remocao: nada e enviado
+ * - Varios ALBUM_UPDATED: um ALBUM_UPDATED com os campos alterados mesclados
+ * - ALBUM_UPDATED seguido de remocao: apenas ALBUM_DELETED
+ * - Varios IMAGES_CHANGED: listas de adicionadas/removidas mescladas
+ *   (imagem adicionada e removida na mesma janela se anula)
+ *
+ * Payloads de ALBUM_UPDATED e IMAGES_CHANGED sao deltas, para o cliente
+ * aplicar no estado local sem recarregar a listagem.
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+@ApplicationScoped
+public class AlbumEventCoalescer {
+
+    private static final Logger LOG = Logger.getLogger(AlbumEventCoalescer.class);
+
+    public static final String NEW_ALBUM = "NEW_ALBUM";
+    public static final String ALBUM_UPDATED = "ALBUM_UPDATED";
+    public static final String ALBUM_DELETED = "ALBUM_DELETED";
+    public static final String IMAGES_CHANGED = "IMAGES_CHANGED";
+
+    @Inject
+    AlbumEventLog eventLog;
+
+    @Inject
+    MetricsService metricsService;
+
+    private final Map<Long, PendingAlbumEvents> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Album criado (payload completo).
+     */
+    public void created(AlbumResponse album) {
+        pending.compute(album.getId(), (id, events) -> {
+            PendingAlbumEvents target = events != null ? events : new PendingAlbumEvents();
+            target.created(album);
+            return target;
+        });
+    }
+
+    /**
+     * Album alterado.
+     *
+     * @param album estado apos a alteracao
+     * @param changes apenas os campos alterados (nome -> novo valor)
+     * @param topics topicos afetados (inclusive os anteriores a alteracao)
+     */
+    public void updated(AlbumResponse album, Map<String, Object> changes, Collection<String> topics) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        pending.compute(album.getId(), (id, events) -> {
+            PendingAlbumEvents target = events != null ? events : new PendingAlbumEvents();
+            target.updated(album, changes, topics);
+            return target;
+        });
+    }
+
+    /**
+     * Album removido.
+     */
+    public void deleted(Long albumId, Collection<String> topics) {
+        pending.compute(albumId, (id, events) -> {
+            PendingAlbumEvents target = events != null ? events : new PendingAlbumEvents();
+            target.deleted(topics);
+            return target;
+        });
+    }
+
+    /**
+     * Imagens adicionadas e/ou removidas de um album.
+     */
+    public void imagesChanged(Long albumId, List<AlbumImagemResponse> added, List<Long> removed,
+                              Collection<String> topics) {
+        if (added.isEmpty() && removed.isEmpty()) {
+            return;
+        }
+        pending.compute(albumId, (id, events) -> {
+            PendingAlbumEvents target = events != null ? events : new PendingAlbumEvents();
+            target.imagesChanged(added, removed, topics);
+            return target;
+        });
+    }
+
+    /**
+     * Envia os eventos acumulados na janela.
+     */
+    @Scheduled(every = "${app.websocket.events.flush-interval:250ms}",
+        concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<Message> lote = new ArrayList<>();
+        for (Long albumId : new ArrayList<>(pending.keySet())) {
+            PendingAlbumEvents events = pending.remove(albumId);
+            if (events == null) {
+                continue;
+            }
+
+            List<Message> messages = events.toMessages(albumId);
+            int agrupados = events.received - messages.size();
+            if (agrupados > 0) {
+                metricsService.recordWebSocketEventsCoalesced(agrupados);
+            }
+            lote.addAll(messages);
+        }
+
+        // Um lote por janela: em cluster, uma reserva de seqs e um NOTIFY
+        List<Long> seqs = eventLog.publishAll(lote);
+        LOG.debugf("Eventos de album publicados: %d de %d", seqs.size(), lote.size());
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Mensagem pronta para envio.
+     */
+    record Message(String type, Object data, Collection<String> topics) {}
+
+    /**
+     * Eventos acumulados de um album. Alterado apenas dentro de pending.compute.
+     */
+    private static final class PendingAlbumEvents {
+
+        private int received;
+        private AlbumResponse created;
+        private boolean deleted;
+        private final Map<String, Object> changes = new LinkedHashMap<>();
+        private final Map<Long, Map<String, Object>> imagesAdded = new LinkedHashMap<>();
+        private final Set<Long> imagesRemoved = new LinkedHashSet<>();
+        private final Set<String> topics = new LinkedHashSet<>();
+
+        private void created(AlbumResponse album) {
+            received++;
+            created = album;
+            topics.addAll(AlbumTopics.forAlbum(album));
+        }
+
+        private void updated(AlbumResponse album, Map<String, Object> albumChanges, Collection<String> albumTopics) {
+            received++;
+            topics.addAll(albumTopics);
+            if (created != null) {
+                created = album;
+            } else {
+                changes.putAll(albumChanges);
+            }
+        }
+
+        private void deleted(Collection<String> albumTopics) {
+            received++;
+            deleted = true;
+            topics.addAll(albumTopics);
+        }
+
+        private void imagesChanged(List<AlbumImagemResponse> added, List<Long> removed, Collection<String> albumTopics) {
+            received++;
+            topics.addAll(albumTopics);
+            for (AlbumImagemResponse imagem : added) {
+                imagesAdded.put(imagem.getId(), imageDelta(imagem));
+            }
+            for (Long imagemId : removed) {
+                if (imagesAdded.remove(imagemId) == null) {
+                    imagesRemoved.add(imagemId);
+                }
+            }
+        }
+
+        private List<Message> toMessages(Long albumId) {
+            List<Message> messages = new ArrayList<>();
+            List<String> targets = List.copyOf(topics);
+
+            if (deleted) {
+                // Criado e removido na mesma janela: os clientes nunca o viram
+                if (created == null) {
+                    messages.add(new Message(ALBUM_DELETED, Map.of("id", albumId), targets));
+                }
+                return messages;
+            }
+
+            if (created != null) {
+                messages.add(new Message(NEW_ALBUM, created, targets));
+            } else if (!changes.isEmpty()) {
+                Map<String, Object> data = new LinkedHashMap<>();
+                data.put("id", albumId);
+                data.put("changes", changes);
+                messages.add(new Message(ALBUM_UPDATED, data, targets));
+            }
+
+            if (!imagesAdded.isEmpty() || !imagesRemoved.isEmpty()) {
+                Map<String, Object> data = new LinkedHashMap<>();
+                data.put("albumId", albumId);
+                data.put("added", List.copyOf(imagesAdded.values()));
+                data.put("removed", List.copyOf(imagesRemoved));
+                messages.add(new Message(IMAGES_CHANGED, data, targets));
+            }
+            return messages;
+        }
+
+        private static Map<String, Object> imageDelta(AlbumImagemResponse imagem) {
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("id", imagem.getId());
+            data.put("nomeOriginal", imagem.getNomeOriginal());
+            data.put("contentType", imagem.getContentType());
+            data.put("tamanhoBytes", imagem.getTamanhoBytes());
+            return data;
+        }
+    }
+}
@@ -0,0 +1,505 @@
+package br.gov.mt.seplag.presentation.websocket;
+
+import br.gov.mt.seplag.domain.model.AlbumEvent;
+import br.gov.mt.seplag.domain.repository.AlbumEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Log sequenciado dos eventos de album enviados pelo WebSocket.
+ *
+ * Funcionamento:
+ * - Cada evento recebe um numero de sequencia crescente (seq) e e guardado,
+ *   ja serializado, em um buffer circular de tamanho fixo
+ * - Cliente que reconecta com ?since=<seq> recebe os eventos posteriores
+ *   (filtrados pelas suas assinaturas) antes dos eventos ao vivo
+ * - Se o seq informado ja saiu do buffer (ou e de uma execucao anterior),
+ *   o cliente recebe RESYNC_REQUIRED e deve recarregar a listagem
+ * - Opcionalmente (app.websocket.event-log.persist) os eventos sao gravados
+ *   em lote na tabela album_event e recarregados no boot
+ *
+ * Sem persistencia (ou com a tabela vazia), a sequencia comeca no instante
+ * do boot (epoch em ms), entao um seq de uma execucao anterior sempre cai
+ * fora do buffer. Com persistencia, continua a partir do maior seq gravado.
+ * Com app.websocket.cluster.enabled o seq vem da sequencia do banco e os
+ * eventos sao propagados aos demais nos pelo AlbumEventCluster.
+ *
+ * Ordem em cluster: eventos (locais ou de outros nos) so sao entregues em
+ * ordem de seq. Um evento que chega antes de um seq menor fica retido ate a
+ * lacuna ser preenchida; se ela persistir por app.websocket.event-log.gap-timeout,
+ * os seqs que faltam sao buscados em album_event e, os que nao existirem
+ * (reservados e nunca gravados), pulados. Assim o currentSeq, usado como
+ * cursor pelos clientes, nunca passa de um evento que ainda pode chegar.
+ *
+ * Publicacao e replay usam o mesmo monitor: uma sessao que conecta recebe o
+ * replay completo antes de qualquer evento ao vivo, sem duplicar nem inverter
+ * a ordem.
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+@ApplicationScoped
+public class AlbumEventLog {
+
+    private static final Logger LOG = Logger.getLogger(AlbumEventLog.class);
+
+    public static final String RESYNC_REQUIRED = "RESYNC_REQUIRED";
+    public static final String REPLAY_COMPLETE = "REPLAY_COMPLETE";
+
+    @Inject
+    AlbumBroadcaster broadcaster;
+
+    @Inject
+    AlbumEventRepository repository;
+
+    @Inject
+    AlbumEventCluster cluster;
+
+    @ConfigProperty(name = "app.websocket.event-log.capacity", defaultValue = "1000")
+    int capacity;
+
+    @ConfigProperty(name = "app.websocket.event-log.persist", defaultValue = "false")
+    boolean persist;
+
+    // Em cluster, tempo maximo que um evento espera por seqs menores
+    @ConfigProperty(name = "app.websocket.event-log.gap-timeout", defaultValue = "1s")
+    Duration gapTimeout;
+
+    // Estado protegido pelo monitor da instancia
+    private SequencedEvent[] ring;
+    private long lastSeq;
+    private long oldestSeq;
+
+    // Em cluster: eventos a frente de uma lacuna, por seq
+    private final TreeMap<Long, Retido> retidos = new TreeMap<>();
+    private long lacunasPuladas;
+
+    private final Queue<AlbumEvent> pendingWrites = new ConcurrentLinkedQueue<>();
+
+    @PostConstruct
+    void init() {
+        ring = new SequencedEvent[capacity];
+        lastSeq = System.currentTimeMillis();
+        oldestSeq = lastSeq + 1;
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        if (cluster.isEnabled()) {
+            long atual = repository.currentSeq();
+            synchronized (this) {
+                lastSeq = atual;
+                oldestSeq = atual + 1;
+            }
+            load();
+            cluster.start();
+        } else if (persist) {
+            load();
+        }
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        flush();
+    }
+
+    /**
+     * Atribui o proximo seq, guarda o evento e envia para as sessoes inscritas.
+     *
+     * @return seq atribuido, ou 0 se a mensagem nao pode ser publicada
+     */
+    public long publish(String type, Object data, Collection<String> topics) {
+        List<Long> seqs = publishAll(List.of(new AlbumEventCoalescer.Message(type, data, topics)));
+        return seqs.isEmpty() ? 0 : seqs.get(0);
+    }
+
+    /**
+     * Publica um lote de mensagens (uma janela do AlbumEventCoalescer).
+     * Em cluster, o lote reserva os seqs e notifica os demais nos de uma vez.
+     *
+     * @return seqs atribuidos as mensagens publicadas
+     */
+    public List<Long> publishAll(List<AlbumEventCoalescer.Message> messages) {
+        if (messages.isEmpty()) {
+            return List.of();
+        }
+        if (cluster.isEnabled()) {
+            return publishClustered(messages);
+        }
+
+        synchronized (this) {
+            List<Long> seqs = new ArrayList<>();
+            for (AlbumEventCoalescer.Message message : messages) {
+                SequencedEvent event = toEvent(lastSeq + 1, message);
+                if (event == null) {
+                    continue;
+                }
+                deliver(event);
+                if (persist) {
+                    pendingWrites.add(toEntity(event));
+                }
+                seqs.add(event.seq());
+            }
+            return seqs;
+        }
+    }
+
+    /**
+     * Entrega ao log local eventos publicados por outros nos, em ordem de seq.
+     * Eventos que ja estao no buffer ou retidos (ex: recuperados apos
+     * reconexao) sao ignorados.
+     *
+     * @return quantidade de eventos aceitos (entregues ou retidos ate a lacuna fechar)
+     */
+    public synchronized int acceptRemote(List<AlbumEvent> eventos) {
+        int aceitos = 0;
+        for (AlbumEvent evento : eventos) {
+            if (receive(fromEntity(evento))) {
+                aceitos++;
+            }
+        }
+        return aceitos;
+    }
+
+    /**
+     * Trata lacunas que passaram do gap-timeout (apenas em cluster): busca os
+     * seqs que faltam em album_event e pula os que nao existirem.
+     */
+    @Scheduled(every = "${app.websocket.event-log.gap-check-interval:250ms}")
+    void checkGaps() {
+        if (!cluster.isEnabled()) {
+            return;
+        }
+        long desde;
+        long primeiroRetido;
+        synchronized (this) {
+            if (!gapExpired()) {
+                return;
+            }
+            desde = lastSeq;
+            primeiroRetido = retidos.firstKey();
+        }
+
+        // Consulta fora do monitor: publicacao e replay nao esperam o banco
+        List<AlbumEvent> encontrados = List.of();
+        try {
+            encontrados = repository.findPosteriores(desde, (int) Math.min(primeiroRetido - desde - 1, capacity));
+        } catch (Exception e) {
+            LOG.warnf("Falha ao buscar eventos de album da lacuna %d-%d: %s", desde + 1, primeiroRetido - 1, e.getMessage());
+        }
+
+        synchronized (this) {
+            for (AlbumEvent evento : encontrados) {
+                if (evento.getSeq() < primeiroRetido) {
+                    receive(fromEntity(evento));
+                }
+            }
+            // O que ainda falta nao foi gravado por nenhum no: pula ate o proximo retido
+            // (lacunas seguintes sao consultadas nas proximas verificacoes)
+            if (gapExpired() && retidos.firstKey() <= primeiroRetido) {
+                long proximo = retidos.firstKey();
+                LOG.debugf("Lacuna de eventos de album pulada: seq %d a %d", lastSeq + 1, proximo - 1);
+                lacunasPuladas++;
+                lastSeq = proximo - 1;
+                oldestSeq = Math.max(oldestSeq, lastSeq - capacity + 1);
+                drainHeld();
+            }
+        }
+    }
+
+    /**
+     * Registra uma sessao e, se solicitado, reenvia os eventos perdidos.
+     *
+     * A registration (registro da sessao, assinaturas e boas-vindas) roda
+     * dentro do monitor, entao nenhum evento ao vivo e publicado entre o
+     * registro e o replay.
+     *
+     * @param since ultimo seq recebido pelo cliente, ou null para nao fazer replay
+     * @return quantidade de eventos reenviados, ou -1 se o cliente precisa ressincronizar
+     */
+    public synchronized int attach(String sessionId, Long since, Runnable registration) {
+        registration.run();
+        if (since == null) {
+            return 0;
+        }
+
+        if (since > lastSeq || since < oldestSeq - 1) {
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("since", since);
+            data.put("oldestSeq", oldestSeq);
+            data.put("currentSeq", lastSeq);
+            sendControl(sessionId, RESYNC_REQUIRED, data);
+            return -1;
+        }
+
+        Set<String> sessionTopics = broadcaster.subscriptions().topicsOf(sessionId);
+        int replayed = 0;
+        for (long seq = since + 1; seq <= lastSeq; seq++) {
+            SequencedEvent event = ring[index(seq)];
+            if (event != null && event.seq() == seq && matches(event, sessionTopics)) {
+                broadcaster.sendFrame(sessionId, OutboundFrame.of(event.payload()));
+                replayed++;
+            }
+        }
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("since", since);
+        data.put("replayed", replayed);
+        data.put("currentSeq", lastSeq);
+        sendControl(sessionId, REPLAY_COMPLETE, data);
+        return replayed;
+    }
+
+    public synchronized long currentSeq() {
+        return lastSeq;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Grava em lote os eventos pendentes (apenas com persistencia habilitada).
+     */
+    @Scheduled(every = "${app.websocket.event-log.flush-interval:2s}")
+    void flush() {
+        if (pendingWrites.isEmpty()) {
+            return;
+        }
+
+        List<AlbumEvent> lote = new ArrayList<>();
+        AlbumEvent evento;
+        while ((evento = pendingWrites.poll()) != null) {
+            lote.add(evento);
+        }
+
+        try {
+            repository.persistAll(lote);
+            LOG.debugf("Eventos de album gravados: %d", lote.size());
+        } catch (Exception e) {
+            pendingWrites.addAll(lote);
+            LOG.warnf("Falha ao gravar eventos de album (%d pendentes): %s", lote.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Remove do banco os eventos que ja sairam do buffer.
+     */
+    @Scheduled(every = "10m")
+    void cleanup() {
+        if (!persist && !cluster.isEnabled()) {
+            return;
+        }
+        long limite;
+        synchronized (this) {
+            limite = oldestSeq;
+        }
+        try {
+            long removidos = repository.deleteAnteriores(limite);
+            if (removidos > 0) {
+                LOG.debugf("Eventos de album antigos removidos: %d", removidos);
+            }
+        } catch (Exception e) {
+            LOG.warnf("Falha ao remover eventos de album antigos: %s", e.getMessage());
+        }
+    }
+
+    /**
+     * Retorna estatisticas do log.
+     */
+    public synchronized Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("currentSeq", lastSeq);
+        stats.put("oldestSeq", oldestSeq);
+        stats.put("bufferedEvents", lastSeq - oldestSeq + 1);
+        stats.put("capacity", capacity);
+        stats.put("persist", persist);
+        stats.put("pendingWrites", pendingWrites.size());
+        stats.put("heldBack", retidos.size());
+        stats.put("gapsSkipped", lacunasPuladas);
+        stats.put("cluster", cluster.getStatistics());
+        return stats;
+    }
+
+    private synchronized void load() {
+        List<AlbumEvent> recentes = repository.findRecentes(capacity);
+        if (recentes.isEmpty()) {
+            return;
+        }
+
+        // findRecentes retorna do mais novo para o mais antigo; a sequencia continua do banco
+        // (em cluster, a partir da sequencia global, que pode estar a frente da tabela)
+        long maiorGravado = recentes.get(0).getSeq();
+        lastSeq = cluster.isEnabled() ? Math.max(lastSeq, maiorGravado) : maiorGravado;
+        oldestSeq = lastSeq + 1;
+        Arrays.fill(ring, null);
+
+        for (int i = recentes.size() - 1; i >= 0; i--) {
+            AlbumEvent evento = recentes.get(i);
+            if (evento.getSeq() > lastSeq - capacity) {
+                append(fromEntity(evento));
+            }
+        }
+        LOG.infof("Eventos de album carregados: %d (seq %d a %d)", recentes.size(), oldestSeq, lastSeq);
+    }
+
+    private List<Long> publishClustered(List<AlbumEventCoalescer.Message> messages) {
+        List<Long> reservados;
+        try {
+            reservados = cluster.allocate(messages.size());
+        } catch (Exception e) {
+            LOG.errorf("Falha ao reservar seq para %d eventos de album (descartados): %s",
+                messages.size(), e.getMessage());
+            return List.of();
+        }
+
+        List<SequencedEvent> events = new ArrayList<>();
+        for (int i = 0; i < messages.size(); i++) {
+            SequencedEvent event = toEvent(reservados.get(i), messages.get(i));
+            if (event != null) {
+                events.add(event);
+            }
+        }
+
+        // Gravacao e NOTIFY fora do monitor: o replay local nao espera o banco
+        try {
+            cluster.publish(events.stream().map(this::toEntity).toList());
+        } catch (Exception e) {
+            LOG.warnf("Falha ao propagar %d eventos de album aos demais nos: %s", events.size(), e.getMessage());
+        }
+
+        synchronized (this) {
+            events.forEach(this::receive);
+        }
+        return events.stream().map(SequencedEvent::seq).toList();
+    }
+
+    private SequencedEvent toEvent(long seq, AlbumEventCoalescer.Message message) {
+        try {
+            String payload = broadcaster.serialize(message.type(), seq, message.data());
+            return new SequencedEvent(seq, message.type(), payload, List.copyOf(message.topics()));
+        } catch (JsonProcessingException e) {
+            LOG.error("Erro ao serializar evento WebSocket", e);
+            return null;
+        }
+    }
+
+    private AlbumEvent toEntity(SequencedEvent event) {
+        return new AlbumEvent(event.seq(), event.type(), String.join(",", event.topics()), event.payload(),
+            LocalDateTime.now());
+    }
+
+    private static SequencedEvent fromEntity(AlbumEvent evento) {
+        return new SequencedEvent(evento.getSeq(), evento.getType(), evento.getPayload(),
+            List.of(evento.getTopics().split(",")));
+    }
+
+    /**
+     * Guarda o evento no buffer (se ainda couber na janela) e envia as sessoes inscritas.
+     */
+    private void deliver(SequencedEvent event) {
+        if (event.seq() > lastSeq - capacity) {
+            append(event);
+        }
+        int entregues = broadcaster.publishFrame(OutboundFrame.of(event.payload()), event.topics());
+        LOG.debugf("Evento %s (seq %d) enfileirado para %d clientes", event.type(), event.seq(), entregues);
+    }
+
+    /**
+     * Em cluster: entrega o evento se for o proximo seq; se houver lacuna,
+     * retem ate ela fechar. Um evento atrasado (lacuna ja pulada) e entregue
+     * ao vivo e guardado na sua posicao do buffer.
+     *
+     * @return false se o evento ja estava no buffer ou retido
+     */
+    private boolean receive(SequencedEvent event) {
+        long seq = event.seq();
+        if (contains(seq) || retidos.containsKey(seq)) {
+            return false;
+        }
+        if (seq <= lastSeq) {
+            deliver(event);
+            return true;
+        }
+        retidos.put(seq, new Retido(event, System.nanoTime()));
+        drainHeld();
+        return true;
+    }
+
+    /**
+     * Entrega os retidos enquanto forem o proximo seq.
+     */
+    private void drainHeld() {
+        while (!retidos.isEmpty() && retidos.firstKey() == lastSeq + 1) {
+            deliver(retidos.pollFirstEntry().getValue().event());
+        }
+    }
+
+    private boolean gapExpired() {
+        return !retidos.isEmpty()
+            && System.nanoTime() - retidos.firstEntry().getValue().desde() >= gapTimeout.toNanos();
+    }
+
+    private boolean contains(long seq) {
+        SequencedEvent event = ring[index(seq)];
+        return event != null && event.seq() == seq;
+    }
+
+    private void append(SequencedEvent event) {
+        ring[index(event.seq())] = event;
+        if (oldestSeq > lastSeq || event.seq() < oldestSeq) {
+            oldestSeq = event.seq();
+        }
+        lastSeq = Math.max(lastSeq, event.seq());
+        oldestSeq = Math.max(oldestSeq, lastSeq - capacity + 1);
+    }
+
+    private int index(long seq) {
+        return (int) (seq % capacity);
+    }
+
+    private static boolean matches(SequencedEvent event, Set<String> sessionTopics) {
+        for (String topic : event.topics()) {
+            if (sessionTopics.contains(topic)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void sendControl(String sessionId, String type, Map<String, Object> data) {
+        try {
+            broadcaster.send(sessionId, broadcaster.serialize(type, data));
+        } catch (JsonProcessingException e) {
+            LOG.errorf("Erro ao serializar mensagem WebSocket: %s", e.getMessage());
+        }
+    }
+
+    /**
+     * Evento guardado no buffer (payload ja serializado com o seq).
+     */
+    record SequencedEvent(long seq, String type, String payload, List<String> topics) {}
+
+    /**
+     * Evento retido atras de uma lacuna e o instante (nanoTime) em que chegou.
+     */
+    private record Retido(SequencedEvent event, long desde) {}
+}
@@ -0,0 +1,110 @@
+package br.gov.mt.seplag.presentation.websocket;
+
+import br.gov.mt.seplag.domain.model.Album;
+import br.gov.mt.seplag.domain.model.Artista;
+import br.gov.mt.seplag.presentation.dto.album.AlbumResponse;
+import br.gov.mt.seplag.presentation.dto.artista.ArtistaSimpleResponse;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Topicos de assinatura do WebSocket de albuns.
+ *
+ * Formatos aceitos:
+ * - all: todos os eventos
+ * - artista:{id}: eventos de albuns do artista
+ * - ano:{anoLancamento}: eventos de albuns lancados no ano
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+public final class AlbumTopics {
+
+    public static final String ALL = "all";
+
+    private static final String ARTISTA_PREFIX = "artista:";
+    private static final String ANO_PREFIX = "ano:";
+
+    private AlbumTopics() {
+    }
+
+    public static String artista(Long artistaId) {
+        return ARTISTA_PREFIX + artistaId;
+    }
+
+    public static String ano(Integer anoLancamento) {
+        return ANO_PREFIX + anoLancamento;
+    }
+
+    /**
+     * Topicos que recebem um evento do album.
+     */
+    public static List<String> forAlbum(AlbumResponse album) {
+        List<Long> artistaIds = new ArrayList<>();
+        if (album.getArtistas() != null) {
+            for (ArtistaSimpleResponse artista : album.getArtistas()) {
+                artistaIds.add(artista.getId());
+            }
+        }
+        return of(album.getAnoLancamento(), artistaIds);
+    }
+
+    /**
+     * Topicos que recebem um evento do album (entidade carregada na transacao).
+     */
+    public static List<String> forAlbum(Album album) {
+        List<Long> artistaIds = new ArrayList<>();
+        if (album.getArtistas() != null) {
+            for (Artista artista : album.getArtistas()) {
+                artistaIds.add(artista.getId());
+            }
+        }
+        return of(album.getAnoLancamento(), artistaIds);
+    }
+
+    /**
+     * Topicos de um album a partir do ano e dos artistas.
+     */
+    public static List<String> of(Integer anoLancamento, Collection<Long> artistaIds) {
+        List<String> topics = new ArrayList<>();
+        topics.add(ALL);
+        if (anoLancamento != null) {
+            topics.add(ano(anoLancamento));
+        }
+        for (Long artistaId : artistaIds) {
+            topics.add(artista(artistaId));
+        }
+        return topics;
+    }
+
+    /**
+     * Valida e normaliza um topico informado pelo cliente.
+     *
+     * @return topico normalizado, ou vazio se o formato for invalido
+     */
+    public static Optional<String> normalize(String raw) {
+        if (raw == null) {
+            return Optional.empty();
+        }
+        String topic = raw.trim().toLowerCase(Locale.ROOT);
+        if (ALL.equals(topic)) {
+            return Optional.of(ALL);
+        }
+        try {
+            if (topic.startsWith(ARTISTA_PREFIX)) {
+                long id = Long.parseLong(topic.substring(ARTISTA_PREFIX.length()));
+                return id > 0 ? Optional.of(artista(id)) : Optional.empty();
+            }
+            if (topic.startsWith(ANO_PREFIX)) {
+                int ano = Integer.parseInt(topic.substring(ANO_PREFIX.length()));
+                return ano > 0 ? Optional.of(ano(ano)) : Optional.empty();
+            }
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+        return Optional.empty();
+    }
+}
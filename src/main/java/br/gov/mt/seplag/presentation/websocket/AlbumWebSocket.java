@@ -1,38 +1,88 @@
 package br.gov.mt.seplag.presentation.websocket;
 
 import br.gov.mt.seplag.domain.model.WebSocketTicket;
+import br.gov.mt.seplag.infrastructure.metrics.MetricsService;
 import br.gov.mt.seplag.infrastructure.security.WebSocketTicketService;
+import br.gov.mt.seplag.presentation.dto.album.AlbumImagemResponse;
 import br.gov.mt.seplag.presentation.dto.album.AlbumResponse;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.quarkus.arc.Arc;
+import io.quarkus.scheduler.Scheduled;
+import io.vertx.ext.web.handler.HttpException;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.websocket.*;
 import jakarta.websocket.server.ServerEndpoint;
 import jakarta.websocket.server.ServerEndpointConfig;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
 
 import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * WebSocket para notificacao de novos albuns em tempo real.
+ * WebSocket para notificacao de alteracoes em albuns em tempo real.
+ *
+ * Eventos: NEW_ALBUM, ALBUM_UPDATED, ALBUM_DELETED e IMAGES_CHANGED,
+ * agrupados por album em janelas curtas (ver AlbumEventCoalescer).
  *
  * AUTENTICACAO VIA TICKET SYSTEM:
  * 1. Cliente obtem ticket via POST /api/v1/ws/ticket (com JWT)
  * 2. Cliente conecta: ws://host/ws/albuns?ticket=xxx
- * 3. Ticket e validado e consumido (single-use, 30s TTL)
+ * 3. Ticket e validado e consumido no handshake (single-use, 30s TTL) e
+ *    entregue ao onOpen da mesma conexao
  *
  * Seguranca:
- * - Conexoes sem ticket ou com ticket invalido sao rejeitadas
+ * - Conexoes sem ticket (401) ou com ticket invalido (403) sao recusadas no
+ *   handshake: o upgrade falha e nenhuma sessao e criada
  * - Tickets sao UUIDs com 122 bits de entropia
  * - Single-use: nao podem ser reutilizados
  * - Curta duracao: expiram em 30 segundos
  *
+ * Envio: todas as mensagens passam pelo AlbumBroadcaster, que serializa uma
+ * vez e usa uma fila limitada por sessao (ver SessionOutbox).
+ *
+ * ASSINATURAS (mensagens do cliente):
+ * - {"action":"subscribe","topics":["artista:1","ano:2024"]}
+ * - {"action":"unsubscribe","topics":["ano:2024"]}
+ * - {"action":"subscriptions"} (lista as assinaturas atuais)
+ * Topicos: all, artista:{id}, ano:{anoLancamento} (ver AlbumTopics).
+ * Ao conectar a sessao fica inscrita em "all" (ou nos topicos de ?topics=);
+ * a primeira assinatura explicita substitui a assinatura implicita.
+ *
+ * RECONEXAO: eventos de album carregam seq. Conectando com ?since=<seq> o
+ * cliente recebe os eventos perdidos seguidos de REPLAY_COMPLETE, ou
+ * RESYNC_REQUIRED se o intervalo nao esta mais disponivel (ver AlbumEventLog).
+ *
+ * CODIFICACAO: ?encoding=cbor faz o servidor enviar frames binarios CBOR
+ * (padrao: JSON em frames de texto). Os comandos do cliente continuam em
+ * JSON. A compressao permessage-deflate e negociada no handshake quando o
+ * cliente a oferece (app.websocket.compression.enabled).
+ *
+ * CONEXOES: o servidor envia pings de protocolo e encerra sessoes sem
+ * resposta (ver SessionHeartbeat); cada usuario pode manter ate
+ * app.websocket.max-connections-per-user conexoes simultaneas. Toda saida
+ * (close, erro, inatividade) passa por release(), que limpa todos os indices.
+ *
+ * THREADS: os callbacks rodam na thread de IO (dispatch-to-worker=false) e
+ * nao bloqueiam: validacao do ticket, assinaturas e replay usam apenas
+ * memoria, e todo envio e assincrono pela fila da sessao. Conexoes ociosas
+ * nao ocupam threads de worker.
+ *
  * @author Jean Paulo Sassi de Miranda
  */
 @ServerEndpoint(value = "/ws/albuns", configurator = AlbumWebSocket.TicketConfigurator.class)
@@ -45,6 +95,7 @@ public class AlbumWebSocket {
     private static final String USER_PROPERTY_USERNAME = "username";
     private static final String USER_PROPERTY_ROLES = "roles";
     private static final String USER_PROPERTY_AUTHENTICATED = "authenticated";
+    private static final String USER_PROPERTY_IMPLICIT_ALL = "implicitAll";
 
     /**
      * Sessoes ativas indexadas por ID.
@@ -57,12 +108,39 @@ public class AlbumWebSocket {
      */
     private final Map<String, Set<String>> userSessions = new ConcurrentHashMap<>();
 
+    /**
+     * Tickets consumidos no handshake e ainda nao retirados pelo onOpen.
+     */
+    private final Map<String, WebSocketTicket> handshakeTickets = new ConcurrentHashMap<>();
+
     @Inject
     ObjectMapper objectMapper;
 
     @Inject
     WebSocketTicketService ticketService;
 
+    @Inject
+    AlbumBroadcaster broadcaster;
+
+    @Inject
+    AlbumEventCoalescer coalescer;
+
+    @Inject
+    AlbumEventLog eventLog;
+
+    @Inject
+    SessionHeartbeat heartbeat;
+
+    @Inject
+    MetricsService metricsService;
+
+    @ConfigProperty(name = "app.websocket.subscriptions.max-per-session", defaultValue = "100")
+    int maxTopicsPerSession;
+
+    // 0 = sem limite
+    @ConfigProperty(name = "app.websocket.max-connections-per-user", defaultValue = "5")
+    int maxConnectionsPerUser;
+
     // =========================================================================
     // Lifecycle Handlers
     // =========================================================================
@@ -71,40 +149,61 @@ public class AlbumWebSocket {
     public void onOpen(Session session, EndpointConfig config) {
         String sessionId = session.getId();
 
-        // Extrai ticket da query string
+        // Ticket validado e consumido no handshake (TicketConfigurator), que ja
+        // recusa o upgrade sem ticket valido; aqui e apenas uma defesa
         String ticket = extractTicketFromQuery(session);
-
-        if (ticket == null || ticket.isBlank()) {
-            LOG.warnf("Conexao WebSocket rejeitada - ticket ausente. Session: %s", sessionId);
-            closeWithReason(session, CloseReason.CloseCodes.VIOLATED_POLICY, "Ticket ausente. Use POST /api/v1/ws/ticket para obter um ticket.");
-            return;
-        }
-
-        // Valida e consome o ticket
-        Optional<WebSocketTicket> validTicket = ticketService.validateAndConsume(ticket);
+        Optional<WebSocketTicket> validTicket = Optional.ofNullable(ticket)
+            .map(handshakeTickets::remove);
 
         if (validTicket.isEmpty()) {
-            LOG.warnf("Conexao WebSocket rejeitada - ticket invalido. Session: %s, Ticket: %s...",
-                sessionId, ticket.substring(0, Math.min(8, ticket.length())));
+            LOG.warnf("Conexao WebSocket rejeitada - nenhum ticket aceito no handshake. Session: %s", sessionId);
             closeWithReason(session, CloseReason.CloseCodes.VIOLATED_POLICY, "Ticket invalido, expirado ou ja utilizado.");
             return;
         }
 
-        // Ticket valido - armazena informacoes do usuario na sessao
+        // Ticket valido - reserva a vaga do usuario antes de registrar a sessao
         WebSocketTicket wsTicket = validTicket.get();
+        if (!reserveUserSlot(wsTicket.getUsername(), sessionId)) {
+            metricsService.recordWebSocketUserLimitRejected();
+            LOG.warnf("Conexao WebSocket rejeitada - limite de %d conexoes atingido. User: %s, Session: %s",
+                maxConnectionsPerUser, wsTicket.getUsername(), sessionId);
+            closeWithReason(session, CloseReason.CloseCodes.TRY_AGAIN_LATER,
+                "Limite de conexoes simultaneas por usuario atingido.");
+            return;
+        }
+
         session.getUserProperties().put(USER_PROPERTY_USERNAME, wsTicket.getUsername());
         session.getUserProperties().put(USER_PROPERTY_ROLES, wsTicket.getRoles());
         session.getUserProperties().put(USER_PROPERTY_AUTHENTICATED, true);
 
-        // Registra sessao
-        sessions.put(sessionId, session);
-        userSessions.computeIfAbsent(wsTicket.getUsername(), k -> ConcurrentHashMap.newKeySet()).add(sessionId);
+        Long since = extractSince(session);
+        List<String> initialTopics = extractTopics(session);
+        FrameEncoding encoding = extractEncoding(session);
+
+        // Registro, assinaturas e boas-vindas acontecem antes do replay e de qualquer evento ao vivo
+        int replayed = eventLog.attach(sessionId, since, () -> {
+            sessions.put(sessionId, session);
+            broadcaster.register(session, wsTicket.getUsername(), encoding);
+            heartbeat.track(session, () -> release(sessionId, wsTicket.getUsername()));
+            if (initialTopics.isEmpty()) {
+                broadcaster.subscriptions().subscribe(sessionId, AlbumTopics.ALL);
+                session.getUserProperties().put(USER_PROPERTY_IMPLICIT_ALL, true);
+            } else {
+                initialTopics.forEach(topic -> broadcaster.subscriptions().subscribe(sessionId, topic));
+            }
+
+            // Envia mensagem de boas-vindas com info do usuario
+            sendMessage(session, createWelcomeMessage(wsTicket.getUsername(), wsTicket.getRoles(), encoding));
+        });
 
-        LOG.infof("WebSocket conectado - User: %s, Session: %s, Total conexoes: %d",
-            wsTicket.getUsername(), sessionId, sessions.size());
+        LOG.infof("WebSocket conectado - User: %s, Session: %s, Total conexoes: %d, Replay: %s",
+            wsTicket.getUsername(), sessionId, sessions.size(),
+            since == null ? "N/A" : (replayed < 0 ? "resync" : replayed + " eventos"));
 
-        // Envia mensagem de boas-vindas com info do usuario
-        sendMessage(session, createWelcomeMessage(wsTicket.getUsername(), wsTicket.getRoles()));
+        // Fechada durante o registro: @OnClose pode ter rodado antes dos indices existirem
+        if (!session.isOpen()) {
+            release(sessionId, wsTicket.getUsername());
+        }
     }
 
     @OnClose
@@ -112,18 +211,7 @@ public class AlbumWebSocket {
         String sessionId = session.getId();
         String username = getUsername(session);
 
-        sessions.remove(sessionId);
-
-        // Remove da lista de sessoes do usuario
-        if (username != null) {
-            Set<String> userSessionIds = userSessions.get(username);
-            if (userSessionIds != null) {
-                userSessionIds.remove(sessionId);
-                if (userSessionIds.isEmpty()) {
-                    userSessions.remove(username);
-                }
-            }
-        }
+        release(sessionId, username);
 
         LOG.infof("WebSocket desconectado - User: %s, Session: %s, Reason: %s, Total conexoes: %d",
             username != null ? username : "N/A",
@@ -141,52 +229,238 @@ public class AlbumWebSocket {
             username, sessionId, throwable.getMessage());
 
         if (session != null) {
-            sessions.remove(sessionId);
+            release(sessionId, username);
+            if (session.isOpen()) {
+                closeWithReason(session, CloseReason.CloseCodes.UNEXPECTED_CONDITION, "Erro na conexao.");
+            }
         }
     }
 
+    @OnMessage
+    public void onPong(PongMessage pong, Session session) {
+        heartbeat.touch(session.getId());
+    }
+
     @OnMessage
     public void onMessage(String message, Session session) {
         String username = getUsername(session);
         LOG.debugf("Mensagem recebida - User: %s, Mensagem: %s", username, message);
+        heartbeat.touch(session.getId());
 
         // Heartbeat
         if ("ping".equalsIgnoreCase(message)) {
             sendMessage(session, "{\"type\":\"pong\"}");
+            return;
         }
+
+        handleCommand(session, message);
     }
 
     // =========================================================================
-    // Notificacoes
+    // Handshake
     // =========================================================================
 
     /**
-     * Notifica todos os clientes autenticados sobre um novo album.
+     * Valida e consome o ticket durante o handshake. O ticket aceito fica
+     * disponivel para o onOpen da mesma conexao.
      *
-     * @param album dados do novo album
+     * @throws HttpException 401 sem ticket, 403 com ticket invalido, expirado ou
+     *         ja utilizado; o upgrade falha com esse status e nenhuma sessao e criada
      */
-    public void notifyNewAlbum(AlbumResponse album) {
-        if (sessions.isEmpty()) {
-            LOG.debug("Nenhum cliente WebSocket conectado para notificar");
-            return;
+    void acceptHandshake(String ticket) {
+        if (ticket == null || ticket.isBlank()) {
+            LOG.warn("Handshake WebSocket recusado - ticket ausente");
+            throw new HttpException(401, "Ticket ausente. Use POST /api/v1/ws/ticket para obter um ticket.");
         }
+        WebSocketTicket wsTicket = ticketService.validateAndConsume(ticket).orElseThrow(() -> {
+            LOG.warnf("Handshake WebSocket recusado - ticket invalido: %s...",
+                ticket.substring(0, Math.min(8, ticket.length())));
+            return new HttpException(403, "Ticket invalido, expirado ou ja utilizado.");
+        });
+        handshakeTickets.put(ticket, wsTicket);
+    }
 
-        try {
-            WebSocketMessage message = new WebSocketMessage("NEW_ALBUM", album);
-            String jsonMessage = objectMapper.writeValueAsString(message);
+    /**
+     * Remove tickets aceitos cujo upgrade nunca chegou ao onOpen.
+     */
+    @Scheduled(every = "60s")
+    void purgeHandshakeTickets() {
+        Instant limite = Instant.now().minusSeconds(60);
+        handshakeTickets.values().removeIf(wsTicket -> wsTicket.getExpiresAt().isBefore(limite));
+    }
+
+    // =========================================================================
+    // Indices de Sessao
+    // =========================================================================
+
+    /**
+     * Reserva uma conexao para o usuario, respeitando o limite por usuario.
+     * Verificacao e insercao sao atomicas (compute), entao conexoes simultaneas
+     * do mesmo usuario nao ultrapassam o limite.
+     */
+    boolean reserveUserSlot(String username, String sessionId) {
+        boolean[] reservado = {false};
+        userSessions.compute(username, (k, ids) -> {
+            Set<String> atuais = ids != null ? ids : ConcurrentHashMap.newKeySet();
+            if (maxConnectionsPerUser <= 0 || atuais.size() < maxConnectionsPerUser || atuais.contains(sessionId)) {
+                atuais.add(sessionId);
+                reservado[0] = true;
+            }
+            return atuais.isEmpty() ? null : atuais;
+        });
+        return reservado[0];
+    }
 
-            LOG.infof("Notificando %d clientes sobre novo album: %s", sessions.size(), album.getTitulo());
+    /**
+     * Remove a sessao de todos os indices (sessoes, usuario, filas, assinaturas
+     * e heartbeat). Idempotente: pode ser chamado por mais de um caminho de saida.
+     */
+    void release(String sessionId, String username) {
+        sessions.remove(sessionId);
+        broadcaster.unregister(sessionId);
+        heartbeat.untrack(sessionId);
 
-            sessions.values().forEach(session -> {
-                if (session.isOpen()) {
-                    sendMessage(session, jsonMessage);
-                }
+        if (username != null) {
+            userSessions.computeIfPresent(username, (k, ids) -> {
+                ids.remove(sessionId);
+                return ids.isEmpty() ? null : ids;
             });
+        }
+    }
+
+    // =========================================================================
+    // Assinaturas
+    // =========================================================================
+
+    /**
+     * Processa comandos de assinatura enviados pelo cliente.
+     */
+    void handleCommand(Session session, String message) {
+        SubscriptionCommand command;
+        try {
+            command = objectMapper.readValue(message, SubscriptionCommand.class);
+        } catch (Exception e) {
+            sendError(session, "Mensagem invalida. Use {\"action\":\"subscribe\",\"topics\":[...]}.");
+            return;
+        }
+
+        String action = command.action() != null ? command.action().toLowerCase(Locale.ROOT) : "";
+        List<String> topics = command.topics() != null ? command.topics() : List.of();
+
+        switch (action) {
+            case "subscribe" -> subscribe(session, topics);
+            case "unsubscribe" -> unsubscribe(session, topics);
+            case "subscriptions" -> sendSubscriptions(session, List.of());
+            default -> sendError(session, "Acao desconhecida: " + command.action());
+        }
+    }
+
+    private void subscribe(Session session, List<String> rawTopics) {
+        String sessionId = session.getId();
+        SubscriptionIndex index = broadcaster.subscriptions();
+
+        // A primeira assinatura explicita substitui o "all" implicito da conexao
+        if (session.getUserProperties().remove(USER_PROPERTY_IMPLICIT_ALL) != null) {
+            index.unsubscribe(sessionId, AlbumTopics.ALL);
+        }
+
+        List<String> rejected = new ArrayList<>();
+        for (String raw : rawTopics) {
+            Optional<String> topic = AlbumTopics.normalize(raw);
+            if (topic.isEmpty()) {
+                rejected.add(raw);
+            } else if (index.topicsOf(sessionId).size() >= maxTopicsPerSession
+                && !index.topicsOf(sessionId).contains(topic.get())) {
+                rejected.add(raw);
+            } else {
+                index.subscribe(sessionId, topic.get());
+            }
+        }
+
+        LOG.debugf("Assinaturas atualizadas - User: %s, Session: %s, Topicos: %s",
+            getUsername(session), sessionId, index.topicsOf(sessionId));
+        sendSubscriptions(session, rejected);
+    }
+
+    private void unsubscribe(Session session, List<String> rawTopics) {
+        String sessionId = session.getId();
+        session.getUserProperties().remove(USER_PROPERTY_IMPLICIT_ALL);
+
+        List<String> rejected = new ArrayList<>();
+        for (String raw : rawTopics) {
+            Optional<String> topic = AlbumTopics.normalize(raw);
+            if (topic.isEmpty()) {
+                rejected.add(raw);
+            } else {
+                broadcaster.subscriptions().unsubscribe(sessionId, topic.get());
+            }
+        }
+        sendSubscriptions(session, rejected);
+    }
+
+    private void sendSubscriptions(Session session, List<String> rejected) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("topics", new TreeSet<>(broadcaster.subscriptions().topicsOf(session.getId())));
+        if (!rejected.isEmpty()) {
+            data.put("rejected", rejected);
+        }
+        sendTyped(session, "SUBSCRIPTIONS", data);
+    }
+
+    private void sendError(Session session, String message) {
+        sendTyped(session, "ERROR", Map.of("message", message));
+    }
+
+    private void sendTyped(Session session, String type, Object data) {
+        try {
+            sendMessage(session, broadcaster.serialize(type, data));
         } catch (Exception e) {
-            LOG.error("Erro ao serializar mensagem WebSocket", e);
+            LOG.errorf("Erro ao serializar mensagem WebSocket: %s", e.getMessage());
         }
     }
 
+    // =========================================================================
+    // Notificacoes
+    // =========================================================================
+
+    /**
+     * Notifica os clientes inscritos sobre um novo album.
+     * Apenas registra o evento; o envio e assincrono. O evento e registrado
+     * mesmo sem clientes conectados, para o replay de quem reconectar.
+     *
+     * @param album dados do novo album
+     */
+    public void notifyNewAlbum(AlbumResponse album) {
+        coalescer.created(album);
+        LOG.debugf("Notificacao de novo album registrada: %s", album.getTitulo());
+    }
+
+    /**
+     * Notifica alteracao de album com apenas os campos alterados.
+     *
+     * @param album estado apos a alteracao
+     * @param changes campos alterados (nome -> novo valor)
+     * @param topics topicos afetados, incluindo ano/artistas anteriores a alteracao
+     */
+    public void notifyAlbumUpdated(AlbumResponse album, Map<String, Object> changes, Collection<String> topics) {
+        coalescer.updated(album, changes, topics);
+    }
+
+    /**
+     * Notifica remocao de album.
+     */
+    public void notifyAlbumDeleted(Long albumId, Collection<String> topics) {
+        coalescer.deleted(albumId, topics);
+    }
+
+    /**
+     * Notifica imagens adicionadas e/ou removidas de um album.
+     */
+    public void notifyImagesChanged(Long albumId, List<AlbumImagemResponse> added, List<Long> removed,
+                                    Collection<String> topics) {
+        coalescer.imagesChanged(albumId, added, removed, topics);
+    }
+
     // =========================================================================
     // Helper Methods
     // =========================================================================
@@ -203,6 +477,57 @@ public class AlbumWebSocket {
         return null;
     }
 
+    /**
+     * Extrai o ultimo seq recebido pelo cliente (?since=), se informado.
+     */
+    private Long extractSince(Session session) {
+        List<String> values = session.getRequestParameterMap().get("since");
+        if (values == null || values.isEmpty() || values.get(0).isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(values.get(0).trim());
+        } catch (NumberFormatException e) {
+            LOG.debugf("Parametro since invalido ignorado: %s", values.get(0));
+            return null;
+        }
+    }
+
+    /**
+     * Extrai a codificacao escolhida (?encoding=json|cbor); valores desconhecidos usam JSON.
+     */
+    private FrameEncoding extractEncoding(Session session) {
+        List<String> values = session.getRequestParameterMap().get("encoding");
+        if (values == null || values.isEmpty()) {
+            return FrameEncoding.JSON;
+        }
+        return FrameEncoding.parse(values.get(0)).orElseGet(() -> {
+            LOG.debugf("Parametro encoding invalido ignorado: %s", values.get(0));
+            return FrameEncoding.JSON;
+        });
+    }
+
+    /**
+     * Extrai as assinaturas iniciais (?topics=artista:1,ano:2024), ignorando topicos invalidos.
+     */
+    private List<String> extractTopics(Session session) {
+        List<String> values = session.getRequestParameterMap().get("topics");
+        if (values == null || values.isEmpty()) {
+            return List.of();
+        }
+        List<String> topics = new ArrayList<>();
+        for (String value : values) {
+            for (String raw : value.split(",")) {
+                AlbumTopics.normalize(raw).ifPresent(topic -> {
+                    if (!topics.contains(topic) && topics.size() < maxTopicsPerSession) {
+                        topics.add(topic);
+                    }
+                });
+            }
+        }
+        return topics;
+    }
+
     /**
      * Fecha a sessao com uma razao especifica.
      */
@@ -215,32 +540,25 @@ public class AlbumWebSocket {
     }
 
     /**
-     * Envia mensagem para um cliente especifico.
+     * Envia mensagem para um cliente especifico (via fila da sessao).
      */
     private void sendMessage(Session session, String message) {
-        try {
-            session.getAsyncRemote().sendText(message, result -> {
-                if (result.getException() != null) {
-                    LOG.errorf("Erro ao enviar mensagem WebSocket: %s", result.getException().getMessage());
-                }
-            });
-        } catch (Exception e) {
-            LOG.errorf("Erro ao enviar mensagem WebSocket: %s", e.getMessage());
-        }
+        broadcaster.send(session.getId(), message);
     }
 
     /**
      * Cria mensagem de boas-vindas com informacoes do usuario.
      */
-    private String createWelcomeMessage(String username, Set<String> roles) {
+    private String createWelcomeMessage(String username, Set<String> roles, FrameEncoding encoding) {
         try {
             Map<String, Object> data = Map.of(
                 "username", username,
                 "roles", roles,
-                "message", "Conectado ao WebSocket de albuns. Voce sera notificado sobre novos albuns cadastrados."
+                "currentSeq", eventLog.currentSeq(),
+                "encoding", encoding.value(),
+                "message", "Conectado ao WebSocket de albuns. Voce sera notificado sobre albuns criados, alterados e removidos."
             );
-            WebSocketMessage message = new WebSocketMessage("CONNECTED", data);
-            return objectMapper.writeValueAsString(message);
+            return broadcaster.serialize("CONNECTED", data);
         } catch (Exception e) {
             return "{\"type\":\"CONNECTED\",\"data\":{\"username\":\"" + username + "\",\"message\":\"Conectado com sucesso.\"}}";
         }
@@ -277,13 +595,48 @@ public class AlbumWebSocket {
      * Necessario para extrair o ticket da URL de conexao.
      */
     public static class TicketConfigurator extends ServerEndpointConfig.Configurator {
+
+        private static final String PERMESSAGE_DEFLATE = "permessage-deflate";
+
+        /**
+         * Consome o ticket no handshake. O ServerEndpointConfig e compartilhado
+         * entre conexoes, entao o resultado vai para o endpoint (chave = ticket)
+         * e nao para sec.getUserProperties().
+         *
+         * Sem ticket valido, a HttpException sobe ate o router HTTP antes do
+         * upgrade e o cliente recebe 401/403 em vez de uma sessao fechada.
+         */
         @Override
         public void modifyHandshake(ServerEndpointConfig sec, jakarta.websocket.server.HandshakeRequest request, HandshakeResponse response) {
-            // Parametros da query ja sao acessiveis via session.getRequestParameterMap()
-            // Este configurator garante que o handshake seja processado corretamente
+            List<String> tickets = request.getParameterMap().get("ticket");
+            Arc.container().instance(AlbumWebSocket.class).get()
+                .acceptHandshake(tickets != null && !tickets.isEmpty() ? tickets.get(0) : null);
             super.modifyHandshake(sec, request, response);
         }
 
+        /**
+         * Aceita permessage-deflate quando o cliente oferece e a compressao esta habilitada.
+         * Demais extensoes (ex: x-webkit-deflate-frame, obsoleta) sao recusadas.
+         */
+        @Override
+        public List<Extension> getNegotiatedExtensions(List<Extension> installed, List<Extension> requested) {
+            boolean enabled = ConfigProvider.getConfig()
+                .getOptionalValue("app.websocket.compression.enabled", Boolean.class)
+                .orElse(true);
+            if (!enabled) {
+                return List.of();
+            }
+            boolean installedDeflate = installed.stream().anyMatch(e -> PERMESSAGE_DEFLATE.equals(e.getName()));
+            if (!installedDeflate) {
+                return List.of();
+            }
+            // Primeira oferta de permessage-deflate (com os parametros pedidos pelo cliente)
+            return requested.stream()
+                .filter(e -> PERMESSAGE_DEFLATE.equals(e.getName()))
+                .limit(1)
+                .toList();
+        }
+
         @Override
         public <T> T getEndpointInstance(Class<T> endpointClass) throws InstantiationException {
             // Usa CDI para obter a instancia do endpoint (necessario para @Inject funcionar)
@@ -292,14 +645,24 @@ public class AlbumWebSocket {
     }
 
     // =========================================================================
-    // Message Class
+    // Message Classes
     // =========================================================================
 
+    /**
+     * Comando de assinatura enviado pelo cliente.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record SubscriptionCommand(String action, List<String> topics) {}
+
     /**
      * Classe para mensagens WebSocket.
+     * Eventos de album carregam seq (numero de sequencia do AlbumEventLog).
      */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonPropertyOrder({"type", "seq", "data"})
     public static class WebSocketMessage {
         private String type;
+        private Long seq;
         private Object data;
 
         public WebSocketMessage() {
@@ -310,6 +673,12 @@ public class AlbumWebSocket {
             this.data = data;
         }
 
+        public WebSocketMessage(String type, Long seq, Object data) {
+            this.type = type;
+            this.seq = seq;
+            this.data = data;
+        }
+
         public String getType() {
             return type;
         }
@@ -318,6 +687,14 @@ public class AlbumWebSocket {
             this.type = type;
         }
 
+        public Long getSeq() {
+            return seq;
+        }
+
+        public void setSeq(Long seq) {
+            this.seq = seq;
+        }
+
         public Object getData() {
             return data;
         }
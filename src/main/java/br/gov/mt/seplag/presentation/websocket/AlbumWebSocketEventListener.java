@@ -0,0 +1,35 @@
+package br.gov.mt.seplag.presentation.websocket;
+
+import br.gov.mt.seplag.application.event.AlbumDomainEvent;
+import br.gov.mt.seplag.application.event.DomainEventListener;
+import br.gov.mt.seplag.application.event.RecordedEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Encaminha os eventos de dominio de album (ja confirmados) ao WebSocket.
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+@ApplicationScoped
+public class AlbumWebSocketEventListener implements DomainEventListener {
+
+    @Inject
+    AlbumWebSocket albumWebSocket;
+
+    @Override
+    public void onEvent(RecordedEvent recorded) {
+        if (!(recorded.event() instanceof AlbumDomainEvent event)) {
+            return;
+        }
+        switch (event) {
+            case AlbumDomainEvent.Created created -> albumWebSocket.notifyNewAlbum(created.album());
+            case AlbumDomainEvent.Updated updated ->
+                albumWebSocket.notifyAlbumUpdated(updated.album(), updated.changes(), updated.topics());
+            case AlbumDomainEvent.Deleted deleted ->
+                albumWebSocket.notifyAlbumDeleted(deleted.albumId(), deleted.topics());
+            case AlbumDomainEvent.ImagesChanged images ->
+                albumWebSocket.notifyImagesChanged(images.albumId(), images.added(), images.removed(), images.topics());
+        }
+    }
+}
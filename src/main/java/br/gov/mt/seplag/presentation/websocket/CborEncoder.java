@@ -0,0 +1,152 @@
+package br.gov.mt.seplag.presentation.websocket;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Converte uma arvore Jackson (JsonNode) em CBOR (RFC 8949).
+ *
+ * Cobre o que as mensagens do WebSocket usam: objetos, arrays, strings,
+ * inteiros, numeros decimais, booleanos e null, sempre com tamanho
+ * definido. Decimais sao gravados como float32 quando a conversao e
+ * exata, senao como float64.
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+public final class CborEncoder {
+
+    private static final int MAJOR_UNSIGNED = 0;
+    private static final int MAJOR_NEGATIVE = 1;
+    private static final int MAJOR_BYTES = 2;
+    private static final int MAJOR_TEXT = 3;
+    private static final int MAJOR_ARRAY = 4;
+    private static final int MAJOR_MAP = 5;
+
+    private static final int FALSE = 0xf4;
+    private static final int TRUE = 0xf5;
+    private static final int NULL = 0xf6;
+    private static final int FLOAT32 = 0xfa;
+    private static final int FLOAT64 = 0xfb;
+
+    private static final BigInteger MAX_UNSIGNED = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+
+    private CborEncoder() {
+    }
+
+    public static byte[] encode(JsonNode node) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        write(node, out);
+        return out.toByteArray();
+    }
+
+    private static void write(JsonNode node, ByteArrayOutputStream out) {
+        switch (node.getNodeType()) {
+            case OBJECT -> {
+                writeHeader(MAJOR_MAP, node.size(), out);
+                Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    writeText(field.getKey(), out);
+                    write(field.getValue(), out);
+                }
+            }
+            case ARRAY -> {
+                writeHeader(MAJOR_ARRAY, node.size(), out);
+                for (JsonNode element : node) {
+                    write(element, out);
+                }
+            }
+            case STRING -> writeText(node.textValue(), out);
+            case NUMBER -> writeNumber(node, out);
+            case BOOLEAN -> out.write(node.booleanValue() ? TRUE : FALSE);
+            case BINARY -> {
+                byte[] bytes = binaryValue(node);
+                writeHeader(MAJOR_BYTES, bytes.length, out);
+                out.writeBytes(bytes);
+            }
+            default -> out.write(NULL);
+        }
+    }
+
+    private static void writeNumber(JsonNode node, ByteArrayOutputStream out) {
+        if (node.isIntegralNumber()) {
+            if (node.canConvertToLong()) {
+                long value = node.longValue();
+                if (value >= 0) {
+                    writeHeader(MAJOR_UNSIGNED, value, out);
+                } else {
+                    writeHeader(MAJOR_NEGATIVE, -1 - value, out);
+                }
+                return;
+            }
+            BigInteger value = node.bigIntegerValue();
+            if (value.signum() > 0 && value.compareTo(MAX_UNSIGNED) <= 0) {
+                // Cabe em 64 bits sem sinal (acima de Long.MAX_VALUE)
+                writeHeader(MAJOR_UNSIGNED, value.longValue(), out);
+                return;
+            }
+            // Fora do alcance de 64 bits: mantem a precisao como texto
+            writeText(value.toString(), out);
+            return;
+        }
+
+        double value = node.doubleValue();
+        float asFloat = (float) value;
+        if (asFloat == value || Double.isNaN(value)) {
+            out.write(FLOAT32);
+            writeLong(Float.floatToIntBits(asFloat) & 0xffffffffL, 4, out);
+        } else {
+            out.write(FLOAT64);
+            writeLong(Double.doubleToLongBits(value), 8, out);
+        }
+    }
+
+    private static void writeText(String value, ByteArrayOutputStream out) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeHeader(MAJOR_TEXT, bytes.length, out);
+        out.writeBytes(bytes);
+    }
+
+    /**
+     * Cabecalho: tipo maior nos 3 bits altos e o valor (ou tamanho) no menor numero de bytes.
+     * O valor e tratado como sem sinal.
+     */
+    private static void writeHeader(int major, long value, ByteArrayOutputStream out) {
+        int type = major << 5;
+        if (value >= 0 && value < 24) {
+            out.write(type | (int) value);
+        } else if (value >= 0 && value <= 0xffL) {
+            out.write(type | 24);
+            out.write((int) value);
+        } else if (value >= 0 && value <= 0xffffL) {
+            out.write(type | 25);
+            writeLong(value, 2, out);
+        } else if (value >= 0 && value <= 0xffffffffL) {
+            out.write(type | 26);
+            writeLong(value, 4, out);
+        } else {
+            out.write(type | 27);
+            writeLong(value, 8, out);
+        }
+    }
+
+    private static void writeLong(long value, int bytes, ByteArrayOutputStream out) {
+        for (int shift = (bytes - 1) * 8; shift >= 0; shift -= 8) {
+            out.write((int) (value >>> shift) & 0xff);
+        }
+    }
+
+    private static byte[] binaryValue(JsonNode node) {
+        try {
+            return node.binaryValue();
+        } catch (IOException e) {
+            throw new IllegalStateException("Valor binario invalido", e);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package br.gov.mt.seplag.presentation.websocket;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Codificacao das mensagens enviadas a uma sessao, escolhida na conexao
+ * (?encoding=json|cbor).
+ *
+ * - JSON: frames de texto (padrao)
+ * - CBOR: frames binarios (RFC 8949) com a mesma estrutura {type, seq, data},
+ *   menores e mais baratos de decodificar em clientes moveis
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+public enum FrameEncoding {
+
+    JSON("json"),
+    CBOR("cbor");
+
+    private final String value;
+
+    FrameEncoding(String value) {
+        this.value = value;
+    }
+
+    public String value() {
+        return value;
+    }
+
+    /**
+     * Converte o valor informado pelo cliente; vazio se desconhecido.
+     */
+    public static Optional<FrameEncoding> parse(String raw) {
+        if (raw == null || raw.isBlank()) {
+            return Optional.empty();
+        }
+        String normalized = raw.trim().toLowerCase(Locale.ROOT);
+        for (FrameEncoding encoding : values()) {
+            if (encoding.value.equals(normalized)) {
+                return Optional.of(encoding);
+            }
+        }
+        return Optional.empty();
+    }
+}
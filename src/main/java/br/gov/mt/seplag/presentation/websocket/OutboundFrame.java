@@ -0,0 +1,59 @@
+package br.gov.mt.seplag.presentation.websocket;
+
+import java.util.function.Function;
+
+/**
+ * Mensagem ja serializada, compartilhada por todas as sessoes de um broadcast.
+ *
+ * O payload JSON e gerado uma unica vez; a versao binaria (CBOR) e gerada
+ * na primeira sessao que a pede e reutilizada pelas demais.
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+public final class OutboundFrame {
+
+    private final String payload;
+    private final long enqueuedAtNanos;
+
+    private volatile byte[] binary;
+
+    /**
+     * @param payload JSON serializado uma unica vez
+     * @param enqueuedAtNanos instante (System.nanoTime) em que o frame foi criado, usado no calculo de atraso
+     */
+    public OutboundFrame(String payload, long enqueuedAtNanos) {
+        this.payload = payload;
+        this.enqueuedAtNanos = enqueuedAtNanos;
+    }
+
+    public static OutboundFrame of(String payload) {
+        return new OutboundFrame(payload, System.nanoTime());
+    }
+
+    public String payload() {
+        return payload;
+    }
+
+    public long enqueuedAtNanos() {
+        return enqueuedAtNanos;
+    }
+
+    /**
+     * Payload binario, codificado uma unica vez por frame.
+     *
+     * @param encoder converte o payload JSON na representacao binaria
+     */
+    public byte[] binary(Function<String, byte[]> encoder) {
+        byte[] encoded = binary;
+        if (encoded == null) {
+            synchronized (this) {
+                encoded = binary;
+                if (encoded == null) {
+                    encoded = encoder.apply(payload);
+                    binary = encoded;
+                }
+            }
+        }
+        return encoded;
+    }
+}
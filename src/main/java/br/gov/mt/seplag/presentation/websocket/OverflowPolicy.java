@@ -0,0 +1,20 @@
+package br.gov.mt.seplag.presentation.websocket;
+
+/**
+ * Politica aplicada quando a fila de envio de uma sessao WebSocket esta cheia.
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+public enum OverflowPolicy {
+
+    /**
+     * Descarta o frame mais antigo da fila para abrir espaco e avisa o
+     * cliente com RESYNC_REQUIRED antes dos frames seguintes.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Desconecta o cliente lento; ele deve reconectar e recarregar o estado.
+     */
+    DISCONNECT
+}
@@ -0,0 +1,201 @@
+package br.gov.mt.seplag.presentation.websocket;
+
+import br.gov.mt.seplag.infrastructure.metrics.MetricsService;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.websocket.CloseReason;
+import jakarta.websocket.Session;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Heartbeat do servidor e remocao de sessoes inativas.
+ *
+ * Funcionamento (roda de tempo):
+ * - A roda tem interval / tick posicoes; cada sessao ocupa uma posicao fixa
+ * - A cada tick o cursor avanca uma posicao e apenas as sessoes dela sao
+ *   visitadas, entao cada sessao recebe um ping de protocolo (frame 0x9) por
+ *   intervalo e o custo fica espalhado ao longo do intervalo
+ * - Pong, ou qualquer mensagem do cliente, atualiza o ultimo contato (touch)
+ * - Sessao sem contato ha mais de idle-timeout, fechada ou com falha no ping
+ *   e encerrada e o callback de remocao limpa os indices do endpoint
+ *
+ * Conexoes TCP meio abertas (cliente sumiu sem fechar) nunca respondem ao
+ * ping e sao removidas em ate idle-timeout + interval.
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+@ApplicationScoped
+public class SessionHeartbeat {
+
+    private static final Logger LOG = Logger.getLogger(SessionHeartbeat.class);
+
+    private static final byte[] PING_PAYLOAD = "hb".getBytes(StandardCharsets.US_ASCII);
+
+    @Inject
+    MetricsService metricsService;
+
+    @ConfigProperty(name = "app.websocket.heartbeat.interval", defaultValue = "30s")
+    Duration interval;
+
+    @ConfigProperty(name = "app.websocket.heartbeat.idle-timeout", defaultValue = "90s")
+    Duration idleTimeout;
+
+    @ConfigProperty(name = "app.websocket.heartbeat.tick", defaultValue = "1s")
+    Duration tick;
+
+    LongSupplier clock = System::nanoTime;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private List<Set<Entry>> wheel;
+
+    private volatile int cursor;
+
+    @PostConstruct
+    void init() {
+        int slots = (int) Math.max(1, interval.toMillis() / Math.max(1, tick.toMillis()));
+        List<Set<Entry>> posicoes = new ArrayList<>(slots);
+        for (int i = 0; i < slots; i++) {
+            posicoes.add(ConcurrentHashMap.newKeySet());
+        }
+        wheel = posicoes;
+        LOG.debugf("Heartbeat WebSocket: intervalo %s, inatividade %s, %d posicoes", interval, idleTimeout, slots);
+    }
+
+    /**
+     * Passa a monitorar a sessao. O primeiro ping sai cerca de um intervalo depois.
+     *
+     * @param onExpired chamado quando a sessao e encerrada por inatividade ou falha no ping
+     */
+    public void track(Session session, Runnable onExpired) {
+        // Posicao imediatamente anterior ao cursor: a ultima a ser visitada
+        int slot = Math.floorMod(cursor - 1, wheel.size());
+        Entry entry = new Entry(session, onExpired, slot, clock.getAsLong());
+        Entry previous = entries.put(session.getId(), entry);
+        if (previous != null) {
+            wheel.get(previous.slot).remove(previous);
+        }
+        wheel.get(slot).add(entry);
+    }
+
+    /**
+     * Registra contato do cliente (pong ou mensagem).
+     */
+    public void touch(String sessionId) {
+        Entry entry = entries.get(sessionId);
+        if (entry != null) {
+            entry.lastSeen = clock.getAsLong();
+        }
+    }
+
+    /**
+     * Deixa de monitorar a sessao (sem chamar o callback).
+     */
+    public void untrack(String sessionId) {
+        Entry entry = entries.remove(sessionId);
+        if (entry != null) {
+            wheel.get(entry.slot).remove(entry);
+        }
+    }
+
+    /**
+     * Avanca a roda uma posicao: pinga as sessoes ativas e encerra as inativas.
+     */
+    @Scheduled(every = "${app.websocket.heartbeat.tick:1s}",
+        concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void advance() {
+        int slot = cursor;
+        cursor = (slot + 1) % wheel.size();
+
+        long agora = clock.getAsLong();
+        long limite = idleTimeout.toNanos();
+        for (Entry entry : wheel.get(slot)) {
+            if (!entry.session.isOpen()) {
+                expire(entry, "closed");
+            } else if (agora - entry.lastSeen > limite) {
+                expire(entry, "idle");
+            } else {
+                ping(entry);
+            }
+        }
+    }
+
+    public int trackedCount() {
+        return entries.size();
+    }
+
+    /**
+     * Retorna estatisticas do heartbeat.
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("interval", interval.toString());
+        stats.put("idleTimeout", idleTimeout.toString());
+        stats.put("slots", wheel.size());
+        stats.put("tracked", entries.size());
+        return stats;
+    }
+
+    private void ping(Entry entry) {
+        try {
+            entry.session.getAsyncRemote().sendPing(ByteBuffer.wrap(PING_PAYLOAD));
+            metricsService.recordWebSocketPingSent();
+        } catch (IOException | RuntimeException e) {
+            LOG.debugf("Falha no ping WebSocket - Session: %s: %s", entry.session.getId(), e.getMessage());
+            expire(entry, "ping_failed");
+        }
+    }
+
+    private void expire(Entry entry, String reason) {
+        if (!entries.remove(entry.session.getId(), entry)) {
+            return;
+        }
+        wheel.get(entry.slot).remove(entry);
+        metricsService.recordWebSocketSessionReaped(reason);
+        LOG.infof("Sessao WebSocket encerrada pelo heartbeat - Session: %s, Motivo: %s",
+            entry.session.getId(), reason);
+
+        if (entry.session.isOpen()) {
+            try {
+                entry.session.close(new CloseReason(CloseReason.CloseCodes.GOING_AWAY, "Sessao inativa"));
+            } catch (IOException | RuntimeException e) {
+                LOG.debugf("Erro ao fechar sessao inativa %s: %s", entry.session.getId(), e.getMessage());
+            }
+        }
+        // Nem sempre o container chama @OnClose para conexoes meio abertas
+        entry.onExpired.run();
+    }
+
+    /**
+     * Sessao monitorada. lastSeen e atualizado pela thread do WebSocket e lido pelo tick.
+     */
+    private static final class Entry {
+
+        private final Session session;
+        private final Runnable onExpired;
+        private final int slot;
+        private volatile long lastSeen;
+
+        private Entry(Session session, Runnable onExpired, int slot, long lastSeen) {
+            this.session = session;
+            this.onExpired = onExpired;
+            this.slot = slot;
+            this.lastSeen = lastSeen;
+        }
+    }
+}
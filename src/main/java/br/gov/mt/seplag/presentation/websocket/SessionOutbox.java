@@ -0,0 +1,266 @@
+package br.gov.mt.seplag.presentation.websocket;
+
+import br.gov.mt.seplag.infrastructure.metrics.MetricsService;
+import org.jboss.logging.Logger;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * Fila de envio limitada de uma sessao WebSocket.
+ *
+ * Funcionamento:
+ * - Buffer circular de tamanho fixo com os frames pendentes
+ * - Um unico envio em andamento por sessao: o callback de conclusao do envio
+ *   assincrono dispara o proximo frame (writer encadeado, sem thread dedicada)
+ * - Fila cheia: aplica a OverflowPolicy em vez de acumular frames sem limite
+ * - Frames descartados (DROP_OLDEST) nunca somem em silencio: antes do proximo
+ *   frame a sessao recebe um RESYNC_REQUIRED com a quantidade descartada, e o
+ *   cliente recarrega o estado (ou reconecta com ?since=<ultimo seq recebido>)
+ *
+ * Os frames saem sempre na ordem em que entraram, entao o seq dos eventos
+ * recebidos por uma sessao e crescente e pode ser usado como cursor do replay.
+ *
+ * O atraso (lag) de cada frame e medido do momento em que foi criado ate a
+ * conclusao do envio para esta sessao.
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+public class SessionOutbox {
+
+    private static final Logger LOG = Logger.getLogger(SessionOutbox.class);
+
+    /**
+     * Resultado de uma tentativa de enfileirar um frame.
+     */
+    public enum Offer {
+        ENQUEUED,
+        DROPPED_OLDEST,
+        OVERFLOW,
+        CLOSED
+    }
+
+    /**
+     * Canal de envio da sessao (desacopla a fila da API de WebSocket).
+     */
+    public interface Transport {
+
+        /**
+         * Envia o payload de forma assincrona; onComplete recebe null em caso de sucesso.
+         */
+        void send(String payload, Consumer<Throwable> onComplete);
+
+        /**
+         * Envia o frame na codificacao da sessao. Por padrao, o payload JSON.
+         */
+        default void send(OutboundFrame frame, Consumer<Throwable> onComplete) {
+            send(frame.payload(), onComplete);
+        }
+
+        /**
+         * Fecha a conexao informando o motivo ao cliente.
+         */
+        void close(String reason);
+    }
+
+    private final String sessionId;
+    private final String username;
+    private final Transport transport;
+    private final OverflowPolicy policy;
+    private final IntFunction<OutboundFrame> resyncFrame;
+    private final MetricsService metricsService;
+
+    // Estado protegido pelo monitor da instancia
+    private final OutboundFrame[] ring;
+    private int head;
+    private int count;
+    private boolean sending;
+    private boolean closed;
+    private long sent;
+    private long dropped;
+    private int droppedSinceResync;
+    private long resyncs;
+    private long failed;
+    private long lastLagNanos;
+
+    /**
+     * @param resyncFrame cria o aviso RESYNC_REQUIRED a partir da quantidade de frames descartados
+     */
+    public SessionOutbox(String sessionId, String username, Transport transport, int capacity,
+                         OverflowPolicy policy, IntFunction<OutboundFrame> resyncFrame,
+                         MetricsService metricsService) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacidade da fila deve ser maior que zero");
+        }
+        this.sessionId = sessionId;
+        this.username = username;
+        this.transport = transport;
+        this.policy = policy;
+        this.resyncFrame = resyncFrame;
+        this.metricsService = metricsService;
+        this.ring = new OutboundFrame[capacity];
+    }
+
+    /**
+     * Enfileira um frame e inicia o envio se nao houver outro em andamento.
+     */
+    public Offer offer(OutboundFrame frame) {
+        Offer result;
+        synchronized (this) {
+            if (closed) {
+                return Offer.CLOSED;
+            }
+
+            if (count == ring.length) {
+                if (policy == OverflowPolicy.DISCONNECT) {
+                    closed = true;
+                    clear();
+                    return Offer.OVERFLOW;
+                }
+                removeHead();
+                dropped++;
+                droppedSinceResync++;
+                append(frame);
+                result = Offer.DROPPED_OLDEST;
+            } else {
+                append(frame);
+                result = Offer.ENQUEUED;
+            }
+        }
+
+        if (result == Offer.DROPPED_OLDEST) {
+            metricsService.recordWebSocketFrameDropped();
+        }
+
+        drainNext();
+        return result;
+    }
+
+    /**
+     * Descarta os frames pendentes e recusa novos.
+     */
+    public synchronized void close() {
+        closed = true;
+        clear();
+    }
+
+    /**
+     * Fecha a conexao do cliente (ex: cliente lento com politica DISCONNECT).
+     */
+    public void disconnect(String reason) {
+        close();
+        try {
+            transport.close(reason);
+        } catch (Exception e) {
+            LOG.debugf("Erro ao fechar sessao %s: %s", sessionId, e.getMessage());
+        }
+    }
+
+    public synchronized int queued() {
+        return count;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * Estatisticas da sessao (profundidade da fila e atraso).
+     */
+    public synchronized Map<String, Object> getStatistics() {
+        long oldestAgeNanos = count > 0 ? System.nanoTime() - ring[head].enqueuedAtNanos() : 0;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("sessionId", sessionId);
+        stats.put("username", username);
+        stats.put("queued", count);
+        stats.put("oldestQueuedMs", TimeUnit.NANOSECONDS.toMillis(oldestAgeNanos));
+        stats.put("lastLagMs", TimeUnit.NANOSECONDS.toMillis(lastLagNanos));
+        stats.put("sent", sent);
+        stats.put("dropped", dropped);
+        stats.put("resyncs", resyncs);
+        stats.put("failed", failed);
+        return stats;
+    }
+
+    private void drainNext() {
+        OutboundFrame next = null;
+        int descartados;
+        synchronized (this) {
+            if (sending || closed || (count == 0 && droppedSinceResync == 0)) {
+                return;
+            }
+            // Os descartados eram os mais antigos: o aviso vai antes de tudo o que ficou na fila
+            descartados = droppedSinceResync;
+            if (descartados > 0) {
+                droppedSinceResync = 0;
+                resyncs++;
+            } else {
+                next = removeHead();
+            }
+            sending = true;
+        }
+
+        if (descartados > 0) {
+            metricsService.recordWebSocketResync();
+        }
+
+        // O aviso e serializado fora do lock, so quando chega a vez dele
+        OutboundFrame frame = next != null ? next : resyncFrame.apply(descartados);
+        try {
+            transport.send(frame, error -> onComplete(frame, error));
+        } catch (Exception e) {
+            onComplete(frame, e);
+        }
+    }
+
+    private void onComplete(OutboundFrame frame, Throwable error) {
+        long lagNanos = System.nanoTime() - frame.enqueuedAtNanos();
+        synchronized (this) {
+            sending = false;
+            if (error == null) {
+                sent++;
+                lastLagNanos = lagNanos;
+            } else {
+                failed++;
+            }
+        }
+
+        if (error == null) {
+            metricsService.recordWebSocketFrameSent(lagNanos);
+        } else {
+            metricsService.recordWebSocketFrameFailed();
+            LOG.debugf("Erro ao enviar mensagem WebSocket - Session: %s, Erro: %s", sessionId, error.getMessage());
+        }
+
+        drainNext();
+    }
+
+    private void append(OutboundFrame frame) {
+        ring[(head + count) % ring.length] = frame;
+        count++;
+    }
+
+    private OutboundFrame removeHead() {
+        OutboundFrame frame = ring[head];
+        ring[head] = null;
+        head = (head + 1) % ring.length;
+        count--;
+        return frame;
+    }
+
+    private void clear() {
+        while (count > 0) {
+            removeHead();
+        }
+        head = 0;
+        droppedSinceResync = 0;
+    }
+}
@@ -0,0 +1,143 @@
+package br.gov.mt.seplag.presentation.websocket;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Indice invertido de assinaturas: topico -> sessoes.
+ *
+ * O despacho de um evento consulta apenas os topicos do evento, com custo
+ * proporcional as sessoes interessadas e nao ao total de conexoes. O indice
+ * reverso (sessao -> topicos) permite remover a sessao de todos os topicos
+ * ao desconectar.
+ *
+ * Uma sessao precisa ser aberta (openSession) antes de assinar. Depois de
+ * removeSession ela fica fechada: uma assinatura concorrente com a remocao
+ * (ex.: onOpen e o reaper do heartbeat) nao deixa a sessao em nenhum topico
+ * nem recria a sua entrada.
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+public class SubscriptionIndex {
+
+    private final Map<String, Set<String>> sessionsByTopic = new ConcurrentHashMap<>();
+    private final Map<String, SessionTopics> topicsBySession = new ConcurrentHashMap<>();
+
+    /**
+     * Abre a sessao no indice (ao registrar a conexao). Apenas sessoes
+     * abertas aceitam assinaturas.
+     */
+    public void openSession(String sessionId) {
+        topicsBySession.putIfAbsent(sessionId, new SessionTopics());
+    }
+
+    /**
+     * Inscreve a sessao no topico.
+     *
+     * @return true se a assinatura nao existia; false tambem quando a sessao
+     *         nao esta aberta (nunca registrada ou ja removida)
+     */
+    public boolean subscribe(String sessionId, String topic) {
+        SessionTopics session = topicsBySession.get(sessionId);
+        if (session == null) {
+            return false;
+        }
+        synchronized (session) {
+            // removeSession concorrente: nada pode ficar em sessionsByTopic depois dele
+            if (session.closed) {
+                return false;
+            }
+            boolean added = session.topics.add(topic);
+            sessionsByTopic.compute(topic, (key, sessions) -> {
+                Set<String> target = sessions != null ? sessions : ConcurrentHashMap.newKeySet();
+                target.add(sessionId);
+                return target;
+            });
+            return added;
+        }
+    }
+
+    /**
+     * Remove a assinatura da sessao no topico.
+     *
+     * @return true se a assinatura existia
+     */
+    public boolean unsubscribe(String sessionId, String topic) {
+        SessionTopics session = topicsBySession.get(sessionId);
+        if (session == null) {
+            return false;
+        }
+        synchronized (session) {
+            if (session.closed) {
+                return false;
+            }
+            boolean removed = session.topics.remove(topic);
+            removeFromTopic(sessionId, topic);
+            return removed;
+        }
+    }
+
+    /**
+     * Remove a sessao de todos os topicos (onClose/onError). Assinaturas
+     * posteriores da mesma sessao sao ignoradas.
+     */
+    public void removeSession(String sessionId) {
+        SessionTopics session = topicsBySession.remove(sessionId);
+        if (session == null) {
+            return;
+        }
+        synchronized (session) {
+            session.closed = true;
+            for (String topic : session.topics) {
+                removeFromTopic(sessionId, topic);
+            }
+        }
+    }
+
+    /**
+     * Sessoes inscritas em pelo menos um dos topicos, sem repeticao.
+     */
+    public Set<String> match(Collection<String> topics) {
+        Set<String> sessionIds = new HashSet<>();
+        for (String topic : topics) {
+            Set<String> sessions = sessionsByTopic.get(topic);
+            if (sessions != null) {
+                sessionIds.addAll(sessions);
+            }
+        }
+        return sessionIds;
+    }
+
+    public Set<String> topicsOf(String sessionId) {
+        SessionTopics session = topicsBySession.get(sessionId);
+        return session != null ? Set.copyOf(session.topics) : Set.of();
+    }
+
+    public int topicCount() {
+        return sessionsByTopic.size();
+    }
+
+    public int subscriberCount(String topic) {
+        Set<String> sessions = sessionsByTopic.get(topic);
+        return sessions != null ? sessions.size() : 0;
+    }
+
+    private void removeFromTopic(String sessionId, String topic) {
+        sessionsByTopic.computeIfPresent(topic, (key, sessions) -> {
+            sessions.remove(sessionId);
+            return sessions.isEmpty() ? null : sessions;
+        });
+    }
+
+    /**
+     * Topicos de uma sessao. Assinar, cancelar e remover a sessao acontecem
+     * sob o lock do proprio objeto (sem disputa entre sessoes diferentes).
+     */
+    private static final class SessionTopics {
+        private final Set<String> topics = ConcurrentHashMap.newKeySet();
+        private boolean closed;
+    }
+}
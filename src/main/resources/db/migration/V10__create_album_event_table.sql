@@ -0,0 +1,23 @@
+-- =============================================================================
+-- V10: Criacao da tabela de eventos de album (log sequenciado do WebSocket)
+-- PSS Backend MT - Processo Seletivo Simplificado 2026
+-- Autor: Jean Paulo Sassi de Miranda
+-- =============================================================================
+-- Cada evento enviado pelo WebSocket de albuns recebe um numero de sequencia.
+-- Clientes que reconectam com ?since=<seq> recebem os eventos perdidos a
+-- partir do log em memoria; esta tabela (opcional, app.websocket.event-log.persist)
+-- permite recarregar o log apos reinicio. Apenas os eventos mais recentes
+-- sao mantidos.
+-- =============================================================================
+
+CREATE TABLE album_event (
+    seq BIGINT PRIMARY KEY,
+    type VARCHAR(30) NOT NULL,
+    topics VARCHAR(2000) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+COMMENT ON TABLE album_event IS 'Log sequenciado de eventos de album enviados via WebSocket';
+COMMENT ON COLUMN album_event.topics IS 'Topicos do evento separados por virgula (all, artista:{id}, ano:{ano})';
+COMMENT ON COLUMN album_event.payload IS 'Mensagem JSON ja serializada, reenviada sem alteracao no replay';
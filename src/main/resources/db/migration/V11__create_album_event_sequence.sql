@@ -0,0 +1,20 @@
+-- =============================================================================
+-- V11: Sequencia global de eventos de album (fan-out entre nos)
+-- PSS Backend MT - Processo Seletivo Simplificado 2026
+-- Autor: Jean Paulo Sassi de Miranda
+-- =============================================================================
+-- Com app.websocket.cluster.enabled=true o seq dos eventos do WebSocket vem
+-- desta sequencia, para ser o mesmo em todos os nos: um cliente pode
+-- reconectar em outra replica informando ?since=<seq>. Os eventos sao
+-- gravados em album_event e os demais nos sao avisados por NOTIFY.
+-- =============================================================================
+
+CREATE SEQUENCE album_event_seq;
+
+-- Continua a partir de eventos ja gravados (app.websocket.event-log.persist)
+SELECT setval('album_event_seq', COALESCE((SELECT MAX(seq) FROM album_event), 0) + 1, false);
+
+-- Chave de coalescencia do frame (ex: album:{id}) para a fila de envio dos demais nos
+ALTER TABLE album_event ADD COLUMN frame_key VARCHAR(60);
+
+COMMENT ON COLUMN album_event.frame_key IS 'Chave de coalescencia do frame na fila por sessao (nula para deltas)';
@@ -0,0 +1,41 @@
+-- =============================================================================
+-- V12: Historico de alteracoes de regionais (consumo incremental)
+-- PSS Backend MT - Processo Seletivo Simplificado 2026
+-- Autor: Jean Paulo Sassi de Miranda
+-- =============================================================================
+-- Cada sincronizacao aplicada grava uma linha por regional alterada
+-- (inserida, renomeada, inativada ou reativada) com o id da sincronizacao.
+-- Sistemas que espelham as regionais consultam
+-- GET /api/v1/regionais/alteracoes?since=<seq> e recebem apenas o delta,
+-- em vez de reler a lista completa a cada ciclo.
+--
+-- As sincronizacoes sao serializadas pelo advisory lock (regional-sync),
+-- entao o seq cresce na ordem de commit e um cursor nunca pula linhas.
+-- =============================================================================
+
+CREATE SEQUENCE regional_sincronizacao_seq;
+
+CREATE TABLE regional_alteracao (
+    seq BIGSERIAL PRIMARY KEY,
+    sincronizacao BIGINT NOT NULL,
+    regional_id INTEGER NOT NULL,
+    tipo VARCHAR(20) NOT NULL,
+    nome VARCHAR(200) NOT NULL,
+    nome_anterior VARCHAR(200),
+    ativo BOOLEAN NOT NULL,
+    alterado_em TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_regional_alteracao_sincronizacao ON regional_alteracao(sincronizacao);
+
+-- Estado atual como ponto de partida: since=0 reconstroi a tabela inteira
+INSERT INTO regional_alteracao (sincronizacao, regional_id, tipo, nome, ativo)
+SELECT 0, id, 'INSERIDA', nome, ativo FROM regional ORDER BY id;
+
+COMMENT ON TABLE regional_alteracao IS 'Alteracoes de regionais por sincronizacao (consumo incremental por seq)';
+COMMENT ON COLUMN regional_alteracao.seq IS 'Cursor de consumo: crescente na ordem de commit das sincronizacoes';
+COMMENT ON COLUMN regional_alteracao.sincronizacao IS 'Id da sincronizacao (regional_sincronizacao_seq; 0 = carga inicial)';
+COMMENT ON COLUMN regional_alteracao.tipo IS 'INSERIDA, RENOMEADA, INATIVADA ou REATIVADA';
+COMMENT ON COLUMN regional_alteracao.nome IS 'Nome da regional apos a alteracao';
+COMMENT ON COLUMN regional_alteracao.nome_anterior IS 'Nome antes da alteracao (apenas RENOMEADA)';
+COMMENT ON COLUMN regional_alteracao.ativo IS 'Situacao da regional apos a alteracao';
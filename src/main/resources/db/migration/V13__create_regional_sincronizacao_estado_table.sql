@@ -0,0 +1,27 @@
+-- =============================================================================
+-- V13: Impressao digital do ultimo payload de regionais aplicado
+-- PSS Backend MT - Processo Seletivo Simplificado 2026
+-- Autor: Jean Paulo Sassi de Miranda
+-- =============================================================================
+-- Linha unica com os validadores (ETag, Last-Modified) e o SHA-256 do ultimo
+-- payload aplicado. Lida e gravada sob o advisory lock (regional-sync), na
+-- mesma transacao do upsert: qualquer instancia decide se o payload mudou
+-- comparando com o que esta de fato no banco, nao com o que ela mesma aplicou.
+-- =============================================================================
+
+CREATE TABLE regional_sincronizacao_estado (
+    id SMALLINT PRIMARY KEY DEFAULT 1 CHECK (id = 1),
+    etag VARCHAR(500),
+    last_modified VARCHAR(100),
+    hash VARCHAR(64) NOT NULL,
+    total INTEGER NOT NULL,
+    sincronizacao BIGINT NOT NULL,
+    aplicada_em TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+COMMENT ON TABLE regional_sincronizacao_estado IS 'Impressao digital do ultimo payload de regionais aplicado (linha unica)';
+COMMENT ON COLUMN regional_sincronizacao_estado.etag IS 'ETag da resposta da API externa (null se a API nao enviar)';
+COMMENT ON COLUMN regional_sincronizacao_estado.last_modified IS 'Last-Modified da resposta da API externa (null se a API nao enviar)';
+COMMENT ON COLUMN regional_sincronizacao_estado.hash IS 'SHA-256 (base64url) do corpo aplicado';
+COMMENT ON COLUMN regional_sincronizacao_estado.total IS 'Regionais distintas no payload aplicado';
+COMMENT ON COLUMN regional_sincronizacao_estado.sincronizacao IS 'Id da sincronizacao que aplicou o payload (regional_alteracao)';
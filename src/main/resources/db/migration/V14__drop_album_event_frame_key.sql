@@ -0,0 +1,12 @@
+-- =============================================================================
+-- V14: Remove a chave de coalescencia dos eventos de album
+-- PSS Backend MT - Processo Seletivo Simplificado 2026
+-- Autor: Jean Paulo Sassi de Miranda
+-- =============================================================================
+-- A politica COALESCE da fila por sessao foi removida: substituir um frame
+-- pendente por um mais novo reordenava o seq e perdia deltas. Com DROP_OLDEST
+-- a sessao recebe RESYNC_REQUIRED no lugar dos frames descartados, entao a
+-- chave gravada em album_event nao e mais usada.
+-- =============================================================================
+
+ALTER TABLE album_event DROP COLUMN frame_key;
@@ -0,0 +1,32 @@
+-- =============================================================================
+-- V9: Criacao da tabela de familias de refresh token
+-- PSS Backend MT - Processo Seletivo Simplificado 2026
+-- Autor: Jean Paulo Sassi de Miranda
+-- =============================================================================
+-- Cada login abre uma familia; a cada renovacao o refresh token e rotacionado
+-- e apenas o ultimo emitido (current_token_id) continua valido. Apresentar um
+-- token anterior da mesma familia indica reuso e revoga a familia inteira.
+--
+-- A tabela e a fonte da verdade: cada rotacao e um UPDATE condicional no
+-- current_token_id e cada revogacao e gravada na hora. O indice em memoria e
+-- apenas cache (nada e carregado no boot); uma familia fora dele e lida do
+-- banco. So a insercao de familias novas e feita em lote, antes da primeira
+-- rotacao ou revogacao delas.
+-- =============================================================================
+
+CREATE TABLE refresh_token_family (
+    family_id VARCHAR(36) PRIMARY KEY,
+    username VARCHAR(100) NOT NULL,
+    current_token_id VARCHAR(36) NOT NULL,
+    revoked BOOLEAN NOT NULL DEFAULT FALSE,
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_refresh_token_family_username ON refresh_token_family(username);
+CREATE INDEX idx_refresh_token_family_expires_at ON refresh_token_family(expires_at);
+
+COMMENT ON TABLE refresh_token_family IS 'Familias de refresh token (rotacao e deteccao de reuso)';
+COMMENT ON COLUMN refresh_token_family.current_token_id IS 'jti do unico refresh token valido da familia';
+COMMENT ON COLUMN refresh_token_family.revoked IS 'Familia revogada por logout, reuso ou usuario inativo';
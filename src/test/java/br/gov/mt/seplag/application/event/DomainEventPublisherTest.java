@@ -0,0 +1,154 @@
+package br.gov.mt.seplag.application.event;
+
+import br.gov.mt.seplag.infrastructure.metrics.MetricsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes unitarios para DomainEventPublisher (entrega apos o commit).
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+class DomainEventPublisherTest {
+
+    private DomainEventPublisher publisher;
+    private TransactionSynchronizationRegistry transactionRegistry;
+    private SimpleMeterRegistry registry;
+    private final List<String> recebidos = new CopyOnWriteArrayList<>();
+    private final Map<Object, Object> recursos = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        transactionRegistry = mock(TransactionSynchronizationRegistry.class);
+        when(transactionRegistry.getResource(any())).thenAnswer(inv -> recursos.get(inv.getArgument(0)));
+        doAnswer(inv -> recursos.put(inv.getArgument(0), inv.getArgument(1)))
+            .when(transactionRegistry).putResource(any(), any());
+
+        publisher = new DomainEventPublisher();
+        publisher.transactionRegistry = transactionRegistry;
+        publisher.metricsService = new MetricsService(registry);
+        publisher.lanes = 2;
+        publisher.init();
+        publisher.listeners = List.of(recorded -> recebidos.add(recorded.event().aggregateId() + "#"
+            + ((AlbumDomainEvent.Deleted) recorded.event()).topics().iterator().next()));
+    }
+
+    @Test
+    void publishShouldWaitForCommit() {
+        Synchronization sync = inTransaction(() -> {
+            publisher.publish(deleted(1L, "a"));
+            publisher.publish(deleted(1L, "b"));
+        });
+        assertThat(recebidos).isEmpty();
+
+        sync.afterCompletion(Status.STATUS_COMMITTED);
+        drain();
+
+        assertThat(recebidos).containsExactly("album:1#a", "album:1#b");
+        assertThat(registry.get("domain_events_total").tag("result", "dispatched").counter().count())
+            .isEqualTo(2.0);
+    }
+
+    @Test
+    void publishShouldDiscardEventsOnRollback() {
+        Synchronization sync = inTransaction(() -> publisher.publish(deleted(1L, "a")));
+
+        sync.afterCompletion(Status.STATUS_ROLLEDBACK);
+        drain();
+
+        assertThat(recebidos).isEmpty();
+        assertThat(registry.get("domain_events_total").tag("result", "discarded").counter().count())
+            .isEqualTo(1.0);
+    }
+
+    @Test
+    void publishWithoutTransactionShouldDispatchImmediately() {
+        when(transactionRegistry.getTransactionStatus()).thenReturn(Status.STATUS_NO_TRANSACTION);
+
+        publisher.publish(deleted(2L, "a"));
+        drain();
+
+        assertThat(recebidos).containsExactly("album:2#a");
+    }
+
+    @Test
+    void publishInTransactionMarkedForRollbackShouldDiscard() {
+        when(transactionRegistry.getTransactionStatus()).thenReturn(Status.STATUS_MARKED_ROLLBACK);
+
+        publisher.publish(deleted(3L, "a"));
+        drain();
+
+        assertThat(recebidos).isEmpty();
+        verify(transactionRegistry, times(0)).registerInterposedSynchronization(any());
+        assertThat(registry.get("domain_events_total").tag("result", "discarded").counter().count())
+            .isEqualTo(1.0);
+    }
+
+    @Test
+    void eventsOfSameAggregateShouldKeepOrderAcrossTransactions() {
+        when(transactionRegistry.getTransactionStatus()).thenReturn(Status.STATUS_NO_TRANSACTION);
+
+        for (int i = 0; i < 50; i++) {
+            publisher.publish(deleted(1L, "e" + i));
+            publisher.publish(deleted(2L, "e" + i));
+        }
+        drain();
+
+        List<String> album1 = recebidos.stream().filter(r -> r.startsWith("album:1#")).toList();
+        assertThat(album1).hasSize(50);
+        for (int i = 0; i < 50; i++) {
+            assertThat(album1.get(i)).isEqualTo("album:1#e" + i);
+        }
+    }
+
+    @Test
+    void failingListenerShouldNotAffectOthers() {
+        when(transactionRegistry.getTransactionStatus()).thenReturn(Status.STATUS_NO_TRANSACTION);
+        publisher.listeners = List.of(
+            recorded -> {
+                throw new IllegalStateException("falha");
+            },
+            recorded -> recebidos.add(recorded.username()));
+
+        publisher.publish(deleted(1L, "a"));
+        drain();
+
+        assertThat(recebidos).containsExactly("anonymous");
+        assertThat(registry.get("domain_event_listener_failures_total").counter().count()).isEqualTo(1.0);
+    }
+
+    private Synchronization inTransaction(Runnable acao) {
+        when(transactionRegistry.getTransactionStatus()).thenReturn(Status.STATUS_ACTIVE);
+        acao.run();
+        ArgumentCaptor<Synchronization> captor = ArgumentCaptor.forClass(Synchronization.class);
+        verify(transactionRegistry, times(1)).registerInterposedSynchronization(captor.capture());
+        return captor.getValue();
+    }
+
+    private void drain() {
+        publisher.onStop(null);
+    }
+
+    private static AlbumDomainEvent.Deleted deleted(Long albumId, String topic) {
+        return new AlbumDomainEvent.Deleted(albumId, List.of(topic));
+    }
+}
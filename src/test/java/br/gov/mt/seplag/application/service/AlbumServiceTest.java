@@ -1,19 +1,24 @@
 package br.gov.mt.seplag.application.service;
 
+import br.gov.mt.seplag.application.event.AlbumDomainEvent;
+import br.gov.mt.seplag.application.event.DomainEventPublisher;
 import br.gov.mt.seplag.domain.exception.BusinessException;
 import br.gov.mt.seplag.domain.exception.ResourceNotFoundException;
 import br.gov.mt.seplag.domain.model.Album;
 import br.gov.mt.seplag.domain.model.AlbumImagem;
 import br.gov.mt.seplag.domain.model.Artista;
 import br.gov.mt.seplag.domain.model.TipoArtista;
+import br.gov.mt.seplag.domain.repository.AlbumCampos;
+import br.gov.mt.seplag.domain.repository.AlbumImagemRepository;
+import br.gov.mt.seplag.domain.repository.AlbumProjecao;
 import br.gov.mt.seplag.domain.repository.AlbumRepository;
 import br.gov.mt.seplag.domain.repository.ArtistaRepository;
 import br.gov.mt.seplag.infrastructure.storage.StorageService;
 import br.gov.mt.seplag.presentation.dto.album.AlbumDetailResponse;
 import br.gov.mt.seplag.presentation.dto.album.AlbumRequest;
 import br.gov.mt.seplag.presentation.dto.album.AlbumResponse;
+import br.gov.mt.seplag.presentation.dto.common.LoteResponse;
 import br.gov.mt.seplag.presentation.dto.common.PageResponse;
-import br.gov.mt.seplag.presentation.websocket.AlbumWebSocket;
 import io.quarkus.test.InjectMock;
 import io.quarkus.test.junit.QuarkusTest;
 import jakarta.inject.Inject;
@@ -48,11 +53,14 @@ class AlbumServiceTest {
     @InjectMock
     ArtistaRepository artistaRepository;
 
+    @InjectMock
+    AlbumImagemRepository albumImagemRepository;
+
     @InjectMock
     StorageService storageService;
 
     @InjectMock
-    AlbumWebSocket albumWebSocket;
+    DomainEventPublisher eventPublisher;
 
     private Album criarAlbum(Long id, String titulo, Integer anoLancamento) {
         Album album = new Album();
@@ -67,6 +75,15 @@ class AlbumServiceTest {
         return album;
     }
 
+    private AlbumProjecao projecao(Album album) {
+        return new AlbumProjecao(album.getId(), album.getTitulo(), album.getAnoLancamento(), album.getDescricao(),
+            (long) album.getImagens().size(), album.getCreatedAt(), album.getUpdatedAt());
+    }
+
+    private List<AlbumProjecao> projecoes(Album... albuns) {
+        return Arrays.stream(albuns).map(this::projecao).toList();
+    }
+
     private Artista criarArtista(Long id, String nome) {
         Artista artista = new Artista();
         artista.setId(id);
@@ -97,11 +114,11 @@ class AlbumServiceTest {
         @DisplayName("Deve listar albuns com paginacao")
         void shouldListAlbunsWithPagination() {
             // Arrange
-            List<Album> albuns = List.of(
+            List<AlbumProjecao> albuns = projecoes(
                 criarAlbum(1L, "Album A", 2020),
                 criarAlbum(2L, "Album B", 2021)
             );
-            when(albumRepository.findWithFilters(any(), any(), any(), anyString(), anyString(), anyInt(), anyInt()))
+            when(albumRepository.findProjetados(any(), any(), any(), anyString(), anyString(), anyInt(), anyInt(), any()))
                 .thenReturn(albuns);
             when(albumRepository.countWithFilters(any(), any(), any())).thenReturn(2L);
 
@@ -119,8 +136,8 @@ class AlbumServiceTest {
         void shouldFilterAlbunsByTitulo() {
             // Arrange
             Album album = criarAlbum(1L, "Abbey Road", 1969);
-            when(albumRepository.findWithFilters(eq("Abbey"), any(), any(), anyString(), anyString(), anyInt(), anyInt()))
-                .thenReturn(List.of(album));
+            when(albumRepository.findProjetados(eq("Abbey"), any(), any(), anyString(), anyString(), anyInt(), anyInt(), any()))
+                .thenReturn(projecoes(album));
             when(albumRepository.countWithFilters(eq("Abbey"), any(), any())).thenReturn(1L);
 
             // Act
@@ -136,8 +153,8 @@ class AlbumServiceTest {
         void shouldFilterAlbunsByAnoLancamento() {
             // Arrange
             Album album = criarAlbum(1L, "Album 2020", 2020);
-            when(albumRepository.findWithFilters(any(), eq(2020), any(), anyString(), anyString(), anyInt(), anyInt()))
-                .thenReturn(List.of(album));
+            when(albumRepository.findProjetados(any(), eq(2020), any(), anyString(), anyString(), anyInt(), anyInt(), any()))
+                .thenReturn(projecoes(album));
             when(albumRepository.countWithFilters(any(), eq(2020), any())).thenReturn(1L);
 
             // Act
@@ -152,7 +169,7 @@ class AlbumServiceTest {
         @DisplayName("Deve retornar lista vazia quando nao ha albuns")
         void shouldReturnEmptyListWhenNoAlbuns() {
             // Arrange
-            when(albumRepository.findWithFilters(any(), any(), any(), anyString(), anyString(), anyInt(), anyInt()))
+            when(albumRepository.findProjetados(any(), any(), any(), anyString(), anyString(), anyInt(), anyInt(), any()))
                 .thenReturn(Collections.emptyList());
             when(albumRepository.countWithFilters(any(), any(), any())).thenReturn(0L);
 
@@ -225,6 +242,234 @@ class AlbumServiceTest {
         }
     }
 
+    // ====================
+    // TESTES DE BUSCA EM LOTE
+    // ====================
+
+    @Nested
+    @DisplayName("Busca em Lote")
+    class BuscaEmLoteTests {
+
+        private AlbumImagem criarImagem(Long id, Album album, String objectKey) {
+            AlbumImagem imagem = new AlbumImagem();
+            imagem.setId(id);
+            imagem.setAlbum(album);
+            imagem.setObjectKey(objectKey);
+            return imagem;
+        }
+
+        @Test
+        @DisplayName("Deve retornar albuns na ordem pedida e informar ids nao encontrados")
+        void shouldReturnAlbunsInRequestOrderAndReportMissing() {
+            // Arrange
+            Album album1 = criarAlbum(1L, "Album A", 2020);
+            Album album3 = criarAlbum(3L, "Album C", 2022);
+            when(albumRepository.findProjetadosByIds(eq(List.of(3L, 2L, 1L)), any())).thenReturn(projecoes(album1, album3));
+            when(albumImagemRepository.findByAlbumIds(any())).thenReturn(List.of());
+            when(storageService.getPresignedUrls(any())).thenReturn(Map.of());
+
+            // Act
+            LoteResponse<AlbumDetailResponse> result = albumService.buscarPorIds(List.of(3L, 2L, 1L));
+
+            // Assert
+            assertThat(result.getItens()).extracting(AlbumDetailResponse::getId).containsExactly(3L, 1L);
+            assertThat(result.getNaoEncontrados()).containsExactly(2L);
+        }
+
+        @Test
+        @DisplayName("Deve carregar imagens e gerar URLs em lote")
+        void shouldLoadImagesAndPresignUrlsInBatch() {
+            // Arrange
+            Album album1 = criarAlbum(1L, "Album A", 2020);
+            Album album2 = criarAlbum(2L, "Album B", 2021);
+            when(albumRepository.findProjetadosByIds(any(), any())).thenReturn(projecoes(album1, album2));
+            when(albumImagemRepository.findByAlbumIds(any())).thenReturn(List.of(
+                criarImagem(10L, album1, "capas/a1.jpg"),
+                criarImagem(11L, album2, "capas/b1.jpg"),
+                criarImagem(12L, album1, "capas/a2.jpg")));
+            when(storageService.getPresignedUrls(any())).thenReturn(Map.of(
+                "capas/a1.jpg", "http://presigned/a1",
+                "capas/a2.jpg", "http://presigned/a2",
+                "capas/b1.jpg", "http://presigned/b1"));
+
+            // Act
+            LoteResponse<AlbumDetailResponse> result = albumService.buscarPorIds(List.of(1L, 2L));
+
+            // Assert
+            assertThat(result.getItens().get(0).getImagens())
+                .extracting(imagem -> imagem.getUrl())
+                .containsExactly("http://presigned/a1", "http://presigned/a2");
+            assertThat(result.getItens().get(1).getImagens()).hasSize(1);
+            assertThat(result.getNaoEncontrados()).isEmpty();
+
+            verify(albumImagemRepository, times(1)).findByAlbumIds(any());
+            verify(storageService, times(1)).getPresignedUrls(any());
+            verify(storageService, never()).getPresignedUrl(anyString());
+            verify(albumRepository, never()).findByIdWithDetails(anyLong());
+        }
+
+        @Test
+        @DisplayName("Nao deve buscar imagens quando nenhum album e encontrado")
+        void shouldSkipImagesWhenNoAlbumFound() {
+            // Arrange
+            when(albumRepository.findProjetadosByIds(any(), any())).thenReturn(List.of());
+            when(storageService.getPresignedUrls(any())).thenReturn(Map.of());
+
+            // Act
+            LoteResponse<AlbumDetailResponse> result = albumService.buscarPorIds(List.of(7L, 8L));
+
+            // Assert
+            assertThat(result.getItens()).isEmpty();
+            assertThat(result.getNaoEncontrados()).containsExactly(7L, 8L);
+            verify(albumImagemRepository, never()).findByAlbumIds(any());
+        }
+    }
+
+    // ====================
+    // TESTES DE CAMPOS E EXPANSOES
+    // ====================
+
+    @Nested
+    @DisplayName("Campos e Expansoes (?fields= e ?expand=)")
+    class CamposTests {
+
+        @Test
+        @DisplayName("Listagem deve carregar artistas da pagina em uma unica query")
+        void listingShouldLoadArtistsOfPageInOneQuery() {
+            // Arrange
+            Album album1 = criarAlbum(1L, "Album A", 2020);
+            Album album2 = criarAlbum(2L, "Album B", 2021);
+            when(albumRepository.findProjetados(any(), any(), any(), anyString(), anyString(), anyInt(), anyInt(), any()))
+                .thenReturn(projecoes(album1, album2));
+            when(albumRepository.findArtistasByAlbumIds(List.of(1L, 2L)))
+                .thenReturn(Map.of(1L, List.of(criarArtista(5L, "Artista X"))));
+
+            // Act
+            PageResponse<AlbumResponse> result = albumService.listar(null, null, null, "titulo", "asc", 0, 10);
+
+            // Assert
+            assertThat(result.getContent().get(0).getArtistas()).extracting(a -> a.getNome()).containsExactly("Artista X");
+            assertThat(result.getContent().get(1).getArtistas()).isEmpty();
+            verify(albumRepository, times(1)).findArtistasByAlbumIds(any());
+        }
+
+        @Test
+        @DisplayName("Listagem sem expand nao deve carregar artistas")
+        void listingWithoutExpandShouldNotLoadArtists() {
+            // Arrange
+            AlbumCampos campos = AlbumCampos.parse("titulo", "", AlbumCampos.LISTAGEM);
+            when(albumRepository.findProjetados(any(), any(), any(), anyString(), anyString(), anyInt(), anyInt(), eq(campos)))
+                .thenReturn(List.of(new AlbumProjecao(1L, "Album A", null, null, null, null, null)));
+
+            // Act
+            PageResponse<AlbumResponse> result = albumService.listar(null, null, null, "titulo", "asc", 0, 10, campos);
+
+            // Assert
+            AlbumResponse album = result.getContent().get(0);
+            assertThat(album.getTitulo()).isEqualTo("Album A");
+            assertThat(album.getDescricao()).isNull();
+            assertThat(album.getArtistas()).isNull();
+            assertThat(album.getQuantidadeImagens()).isNull();
+            verify(albumRepository, never()).findArtistasByAlbumIds(any());
+        }
+
+        @Test
+        @DisplayName("Detalhe sem imagens nao deve carregar imagens nem assinar URLs")
+        void detailWithoutImagesShouldNotPresign() {
+            // Arrange
+            AlbumCampos campos = AlbumCampos.parse("titulo", "artistas", AlbumCampos.DETALHE);
+            when(albumRepository.findProjetadoById(1L, campos))
+                .thenReturn(Optional.of(new AlbumProjecao(1L, "Album A", null, null, null, null, null)));
+            when(albumRepository.findArtistasByAlbumIds(List.of(1L)))
+                .thenReturn(Map.of(1L, List.of(criarArtista(5L, "Artista X"))));
+
+            // Act
+            AlbumDetailResponse result = albumService.buscarPorId(1L, campos);
+
+            // Assert
+            assertThat(result.getTitulo()).isEqualTo("Album A");
+            assertThat(result.getArtistas()).hasSize(1);
+            assertThat(result.getImagens()).isNull();
+            verify(albumRepository, never()).findByIdWithDetails(anyLong());
+            verifyNoInteractions(albumImagemRepository, storageService);
+        }
+
+        @Test
+        @DisplayName("Detalhe parcial deve lancar ResourceNotFoundException quando album nao encontrado")
+        void partialDetailShouldThrowWhenAlbumNotFound() {
+            // Arrange
+            AlbumCampos campos = AlbumCampos.parse("titulo", "", AlbumCampos.DETALHE);
+            when(albumRepository.findProjetadoById(999L, campos)).thenReturn(Optional.empty());
+
+            // Act & Assert
+            assertThatThrownBy(() -> albumService.buscarPorId(999L, campos))
+                .isInstanceOf(ResourceNotFoundException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Versao para GET condicional")
+    class VersaoTests {
+
+        @Test
+        @DisplayName("Versao do detalhe deve mudar com os campos pedidos, sem carregar o album")
+        void detailVersionShouldDependOnFieldsWithoutLoadingAlbum() {
+            // Arrange
+            when(albumRepository.findVersao(1L)).thenReturn(Optional.of("2026-01-01T10:00|1|5|2026-01-01T09:00|0|0"));
+
+            // Act
+            String completa = albumService.versao(1L, AlbumCampos.parse(null, "artistas", AlbumCampos.DETALHE));
+            String titulo = albumService.versao(1L, AlbumCampos.parse("titulo", "", AlbumCampos.DETALHE));
+
+            // Assert
+            assertThat(completa).isNotEqualTo(titulo);
+            verify(albumRepository, never()).findByIdWithDetails(anyLong());
+            verify(albumRepository, never()).findProjetadoById(anyLong(), any());
+            verify(storageService, never()).getJanelaPresignedUrls();
+        }
+
+        @Test
+        @DisplayName("Versao do detalhe com imagens deve incluir a janela das URLs pre-assinadas")
+        void detailVersionWithImagesShouldIncludePresignWindow() {
+            // Arrange
+            when(albumRepository.findVersao(1L)).thenReturn(Optional.of("v"));
+            when(storageService.getJanelaPresignedUrls()).thenReturn(10L, 11L);
+
+            // Act
+            String antes = albumService.versao(1L, AlbumCampos.DETALHE);
+            String depois = albumService.versao(1L, AlbumCampos.DETALHE);
+
+            // Assert
+            assertThat(antes).isNotEqualTo(depois);
+        }
+
+        @Test
+        @DisplayName("Versao do detalhe deve lancar ResourceNotFoundException quando album nao existe")
+        void detailVersionShouldThrowWhenAlbumNotFound() {
+            // Arrange
+            when(albumRepository.findVersao(99L)).thenReturn(Optional.empty());
+
+            // Act & Assert
+            assertThatThrownBy(() -> albumService.versao(99L, AlbumCampos.DETALHE))
+                .isInstanceOf(ResourceNotFoundException.class);
+        }
+
+        @Test
+        @DisplayName("Versao da listagem deve distinguir paginas do mesmo filtro")
+        void listingVersionShouldDistinguishPages() {
+            // Arrange
+            when(albumRepository.findVersaoListagem(any(), any(), any(), any())).thenReturn("3|6|2026-01-01T10:00");
+
+            // Act
+            String pagina0 = albumService.versaoListagem("a", null, null, "titulo", "asc", 0, 10, AlbumCampos.LISTAGEM);
+            String pagina1 = albumService.versaoListagem("a", null, null, "titulo", "asc", 1, 10, AlbumCampos.LISTAGEM);
+
+            // Assert
+            assertThat(pagina0).isNotEqualTo(pagina1);
+            verify(albumRepository, never()).findProjetados(any(), any(), any(), any(), any(), anyInt(), anyInt(), any());
+        }
+    }
+
     // ====================
     // TESTES DE CRIACAO
     // ====================
@@ -242,7 +487,6 @@ class AlbumServiceTest {
 
             when(artistaRepository.findById(1L)).thenReturn(artista);
             doNothing().when(albumRepository).persist(any(Album.class));
-            doNothing().when(albumWebSocket).notifyNewAlbum(any(AlbumResponse.class));
 
             // Act
             AlbumResponse result = albumService.criar(request);
@@ -252,7 +496,7 @@ class AlbumServiceTest {
             assertThat(result.getTitulo()).isEqualTo("Novo Album");
             assertThat(result.getAnoLancamento()).isEqualTo(2024);
 
-            verify(albumWebSocket).notifyNewAlbum(any(AlbumResponse.class));
+            verify(eventPublisher).publish(any(AlbumDomainEvent.Created.class));
         }
 
         @Test
@@ -266,7 +510,6 @@ class AlbumServiceTest {
             when(artistaRepository.findById(1L)).thenReturn(artista1);
             when(artistaRepository.findById(2L)).thenReturn(artista2);
             doNothing().when(albumRepository).persist(any(Album.class));
-            doNothing().when(albumWebSocket).notifyNewAlbum(any(AlbumResponse.class));
 
             // Act
             AlbumResponse result = albumService.criar(request);
@@ -289,27 +532,26 @@ class AlbumServiceTest {
                 .hasMessageContaining("Artista com ID 999 nao encontrado");
 
             verify(albumRepository, never()).persist(any(Album.class));
-            verify(albumWebSocket, never()).notifyNewAlbum(any(AlbumResponse.class));
+            verify(eventPublisher, never()).publish(any());
         }
 
         @Test
-        @DisplayName("Deve notificar WebSocket apos criar album")
-        void shouldNotifyWebSocketAfterCreatingAlbum() {
+        @DisplayName("Deve registrar evento de criacao do album")
+        void shouldPublishCreatedEventAfterCreatingAlbum() {
             // Arrange
             AlbumRequest request = criarRequest("Album Notificado", 2024, List.of(1L));
             Artista artista = criarArtista(1L, "Artista");
 
             when(artistaRepository.findById(1L)).thenReturn(artista);
             doNothing().when(albumRepository).persist(any(Album.class));
-            doNothing().when(albumWebSocket).notifyNewAlbum(any(AlbumResponse.class));
 
             // Act
             albumService.criar(request);
 
             // Assert
-            ArgumentCaptor<AlbumResponse> captor = ArgumentCaptor.forClass(AlbumResponse.class);
-            verify(albumWebSocket).notifyNewAlbum(captor.capture());
-            assertThat(captor.getValue().getTitulo()).isEqualTo("Album Notificado");
+            ArgumentCaptor<AlbumDomainEvent.Created> captor = ArgumentCaptor.forClass(AlbumDomainEvent.Created.class);
+            verify(eventPublisher).publish(captor.capture());
+            assertThat(captor.getValue().album().getTitulo()).isEqualTo("Album Notificado");
         }
     }
 
@@ -375,6 +617,32 @@ class AlbumServiceTest {
             // Assert
             verify(artistaRepository).findById(2L);
         }
+
+        @Test
+        @DisplayName("Deve registrar evento apenas com os campos alterados")
+        void shouldNotifyOnlyChangedFields() {
+            // Arrange
+            Artista artista = criarArtista(1L, "Artista");
+            Album album = criarAlbum(1L, "Titulo Antigo", 2020);
+            album.getArtistas().add(artista);
+            artista.getAlbuns().add(album);
+            AlbumRequest request = criarRequest("Titulo Novo", 2020, List.of(1L));
+            request.setDescricao(album.getDescricao());
+
+            when(albumRepository.findByIdWithDetails(1L)).thenReturn(Optional.of(album));
+            when(artistaRepository.findById(1L)).thenReturn(artista);
+            doNothing().when(albumRepository).persist(any(Album.class));
+
+            // Act
+            albumService.atualizar(1L, request);
+
+            // Assert
+            ArgumentCaptor<AlbumDomainEvent.Updated> captor = ArgumentCaptor.forClass(AlbumDomainEvent.Updated.class);
+            verify(eventPublisher).publish(captor.capture());
+            assertThat(captor.getValue().changes()).containsOnlyKeys("titulo");
+            assertThat(captor.getValue().changes()).containsEntry("titulo", "Titulo Novo");
+            assertThat(captor.getValue().topics()).contains("all", "ano:2020", "artista:1");
+        }
     }
 
     // ====================
@@ -400,6 +668,7 @@ class AlbumServiceTest {
             // Assert
             verify(albumRepository).delete(album);
             verify(storageService, never()).delete(anyString());
+            verify(eventPublisher).publish(new AlbumDomainEvent.Deleted(1L, List.of("all", "ano:2020")));
         }
 
         @Test
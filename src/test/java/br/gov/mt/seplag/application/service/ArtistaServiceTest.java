@@ -9,6 +9,7 @@ import br.gov.mt.seplag.domain.repository.ArtistaRepository;
 import br.gov.mt.seplag.presentation.dto.artista.ArtistaDetailResponse;
 import br.gov.mt.seplag.presentation.dto.artista.ArtistaRequest;
 import br.gov.mt.seplag.presentation.dto.artista.ArtistaResponse;
+import br.gov.mt.seplag.presentation.dto.common.LoteResponse;
 import br.gov.mt.seplag.presentation.dto.common.PageResponse;
 import io.quarkus.test.InjectMock;
 import io.quarkus.test.junit.QuarkusTest;
@@ -180,6 +181,78 @@ class ArtistaServiceTest {
         }
     }
 
+    // ====================
+    // TESTES DE BUSCA EM LOTE
+    // ====================
+
+    @Nested
+    @DisplayName("Busca em Lote")
+    class BuscaEmLoteTests {
+
+        @Test
+        @DisplayName("Deve retornar artistas na ordem pedida com uma unica query")
+        void shouldReturnArtistasInRequestOrderWithSingleQuery() {
+            // Arrange
+            when(artistaRepository.findByIdsWithAlbuns(List.of(2L, 9L, 1L))).thenReturn(List.of(
+                criarArtista(1L, "Artista A", TipoArtista.CANTOR),
+                criarArtista(2L, "Banda B", TipoArtista.BANDA)));
+
+            // Act
+            LoteResponse<ArtistaDetailResponse> result = artistaService.buscarPorIds(List.of(2L, 9L, 1L));
+
+            // Assert
+            assertThat(result.getItens()).extracting(ArtistaDetailResponse::getId).containsExactly(2L, 1L);
+            assertThat(result.getNaoEncontrados()).containsExactly(9L);
+            verify(artistaRepository, times(1)).findByIdsWithAlbuns(any());
+            verify(artistaRepository, never()).findByIdWithAlbuns(anyLong());
+        }
+    }
+
+    @Nested
+    @DisplayName("Versao para GET condicional")
+    class VersaoTests {
+
+        @Test
+        @DisplayName("Versao do detalhe deve vir da consulta de agregados, sem carregar o artista")
+        void detailVersionShouldNotLoadArtista() {
+            // Arrange
+            when(artistaRepository.findVersao(1L)).thenReturn(Optional.of("2026-01-01T10:00|2|3|2026-01-01T09:00"));
+
+            // Act
+            String versao = artistaService.versao(1L);
+
+            // Assert
+            assertThat(versao).isEqualTo("2026-01-01T10:00|2|3|2026-01-01T09:00");
+            verify(artistaRepository, never()).findByIdWithAlbuns(anyLong());
+        }
+
+        @Test
+        @DisplayName("Versao do detalhe deve lancar ResourceNotFoundException quando artista nao existe")
+        void detailVersionShouldThrowWhenArtistaNotFound() {
+            // Arrange
+            when(artistaRepository.findVersao(99L)).thenReturn(Optional.empty());
+
+            // Act & Assert
+            assertThatThrownBy(() -> artistaService.versao(99L))
+                .isInstanceOf(ResourceNotFoundException.class);
+        }
+
+        @Test
+        @DisplayName("Versao da listagem deve distinguir filtros e ordenacao")
+        void listingVersionShouldDistinguishFiltersAndSort() {
+            // Arrange
+            when(artistaRepository.findVersaoListagem(any(), any())).thenReturn("2|3|2026-01-01T10:00|4|5|6");
+
+            // Act
+            String asc = artistaService.versaoListagem(null, TipoArtista.BANDA, "nome", "asc", 0, 10);
+            String desc = artistaService.versaoListagem(null, TipoArtista.BANDA, "nome", "desc", 0, 10);
+
+            // Assert
+            assertThat(asc).isNotEqualTo(desc);
+            verify(artistaRepository, never()).findWithFilters(any(), any(), any(), any(), anyInt(), anyInt());
+        }
+    }
+
     // ====================
     // TESTES DE CRIACAO
     // ====================
@@ -3,8 +3,11 @@ package br.gov.mt.seplag.application.service;
 import br.gov.mt.seplag.domain.exception.AuthenticationException;
 import br.gov.mt.seplag.domain.model.Usuario;
 import br.gov.mt.seplag.domain.repository.UsuarioRepository;
+import br.gov.mt.seplag.infrastructure.security.ActiveUserSnapshot;
+import br.gov.mt.seplag.infrastructure.security.ActiveUserSnapshot.ActiveUser;
 import br.gov.mt.seplag.infrastructure.security.JwtTokenService;
 import br.gov.mt.seplag.infrastructure.security.PasswordEncoder;
+import br.gov.mt.seplag.infrastructure.security.RefreshTokenStore;
 import br.gov.mt.seplag.presentation.dto.auth.LoginRequest;
 import br.gov.mt.seplag.presentation.dto.auth.LoginResponse;
 import br.gov.mt.seplag.presentation.dto.auth.RefreshTokenRequest;
@@ -14,6 +17,7 @@ import io.smallrye.jwt.auth.principal.JWTParser;
 import io.smallrye.jwt.auth.principal.ParseException;
 import jakarta.inject.Inject;
 import org.eclipse.microprofile.jwt.JsonWebToken;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -23,6 +27,7 @@ import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -50,6 +55,18 @@ class AuthServiceTest {
     @InjectMock
     JWTParser jwtParser;
 
+    @InjectMock
+    RefreshTokenStore refreshTokenStore;
+
+    @InjectMock
+    ActiveUserSnapshot activeUserSnapshot;
+
+    @BeforeEach
+    void setUp() {
+        when(refreshTokenStore.startFamily(anyString()))
+            .thenReturn(new RefreshTokenStore.Issued("familia-1", "token-1"));
+    }
+
     private Usuario criarUsuario(String username, String password, String role) {
         Usuario usuario = new Usuario();
         usuario.setId(1L);
@@ -89,7 +106,7 @@ class AuthServiceTest {
             when(usuarioRepository.findByUsernameAndAtivo(username)).thenReturn(Optional.of(usuario));
             when(passwordEncoder.matches(password, hashedPassword)).thenReturn(true);
             when(jwtTokenService.generateToken(username, "ADMIN")).thenReturn("access_token");
-            when(jwtTokenService.generateRefreshToken(username, "ADMIN")).thenReturn("refresh_token");
+            when(jwtTokenService.generateRefreshToken(username, "ADMIN", "familia-1", "token-1")).thenReturn("refresh_token");
             when(jwtTokenService.getTokenLifespan()).thenReturn(300);
 
             // Act
@@ -150,7 +167,7 @@ class AuthServiceTest {
             when(usuarioRepository.findByUsernameAndAtivo(username)).thenReturn(Optional.of(usuario));
             when(passwordEncoder.matches(password, "$2a$12$hash")).thenReturn(true);
             when(jwtTokenService.generateToken(username, "USER")).thenReturn("user_token");
-            when(jwtTokenService.generateRefreshToken(username, "USER")).thenReturn("user_refresh");
+            when(jwtTokenService.generateRefreshToken(username, "USER", "familia-1", "token-1")).thenReturn("user_refresh");
             when(jwtTokenService.getTokenLifespan()).thenReturn(300);
 
             // Act
@@ -160,6 +177,96 @@ class AuthServiceTest {
             assertThat(response.getRole()).isEqualTo("USER");
             verify(jwtTokenService).generateToken(username, "USER");
         }
+
+        @Test
+        @DisplayName("Deve regenerar hash quando work factor esta abaixo do calibrado")
+        void shouldRehashPasswordWhenWorkFactorIsOutdated() {
+            // Arrange
+            String username = "admin";
+            String password = "senha123";
+            String hashAntigo = "$2a$10$hashantigo";
+            Usuario usuario = criarUsuario(username, hashAntigo, "ADMIN");
+            LoginRequest request = criarLoginRequest(username, password);
+
+            when(usuarioRepository.findByUsernameAndAtivo(username)).thenReturn(Optional.of(usuario));
+            when(passwordEncoder.matches(password, hashAntigo)).thenReturn(true);
+            when(passwordEncoder.needsRehash(hashAntigo)).thenReturn(true);
+            when(passwordEncoder.encode(password)).thenReturn("$2a$12$hashnovo");
+            when(jwtTokenService.generateToken(username, "ADMIN")).thenReturn("access_token");
+            when(jwtTokenService.generateRefreshToken(username, "ADMIN", "familia-1", "token-1")).thenReturn("refresh_token");
+
+            // Act
+            LoginResponse response = authService.login(request);
+
+            // Assert
+            assertThat(response.getAccessToken()).isEqualTo("access_token");
+            verify(usuarioRepository).atualizarSenha(1L, "$2a$12$hashnovo");
+        }
+
+        @Test
+        @DisplayName("Deve regenerar hash quando custo excede o teto configurado")
+        void shouldRehashPasswordWhenHashExceedsMaxWorkFactor() {
+            // Arrange
+            String username = "admin";
+            String password = "senha123";
+            String hashCaro = "$2a$15$hashcaro";
+            Usuario usuario = criarUsuario(username, hashCaro, "ADMIN");
+            LoginRequest request = criarLoginRequest(username, password);
+
+            when(usuarioRepository.findByUsernameAndAtivo(username)).thenReturn(Optional.of(usuario));
+            when(passwordEncoder.matches(password, hashCaro)).thenReturn(true);
+            when(passwordEncoder.exceedsMaxWorkFactor(hashCaro)).thenReturn(true);
+            when(passwordEncoder.encode(password)).thenReturn("$2a$12$hashnovo");
+
+            // Act
+            authService.login(request);
+
+            // Assert
+            verify(usuarioRepository).atualizarSenha(1L, "$2a$12$hashnovo");
+        }
+
+        @Test
+        @DisplayName("Nao deve regenerar hash quando work factor esta atualizado")
+        void shouldNotRehashPasswordWhenWorkFactorIsCurrent() {
+            // Arrange
+            String username = "admin";
+            String password = "senha123";
+            Usuario usuario = criarUsuario(username, "$2a$12$hash", "ADMIN");
+            LoginRequest request = criarLoginRequest(username, password);
+
+            when(usuarioRepository.findByUsernameAndAtivo(username)).thenReturn(Optional.of(usuario));
+            when(passwordEncoder.matches(password, "$2a$12$hash")).thenReturn(true);
+
+            // Act
+            authService.login(request);
+
+            // Assert
+            verify(passwordEncoder, never()).encode(anyString());
+            verify(usuarioRepository, never()).atualizarSenha(anyLong(), anyString());
+        }
+
+        @Test
+        @DisplayName("Nao deve falhar o login quando o rehash falha")
+        void shouldLoginEvenWhenRehashFails() {
+            // Arrange
+            String username = "admin";
+            String password = "senha123";
+            Usuario usuario = criarUsuario(username, "$2a$10$hash", "ADMIN");
+            LoginRequest request = criarLoginRequest(username, password);
+
+            when(usuarioRepository.findByUsernameAndAtivo(username)).thenReturn(Optional.of(usuario));
+            when(passwordEncoder.matches(password, "$2a$10$hash")).thenReturn(true);
+            when(passwordEncoder.needsRehash("$2a$10$hash")).thenReturn(true);
+            when(passwordEncoder.encode(password)).thenReturn("$2a$12$hashnovo");
+            when(usuarioRepository.atualizarSenha(anyLong(), anyString())).thenThrow(new RuntimeException("db down"));
+            when(jwtTokenService.generateToken(username, "ADMIN")).thenReturn("access_token");
+
+            // Act
+            LoginResponse response = authService.login(request);
+
+            // Assert
+            assertThat(response.getAccessToken()).isEqualTo("access_token");
+        }
     }
 
     // ====================
@@ -175,18 +282,17 @@ class AuthServiceTest {
         void shouldRefreshTokenSuccessfully() throws ParseException {
             // Arrange
             String username = "admin";
-            Usuario usuario = criarUsuario(username, "$2a$12$hash", "ADMIN");
             RefreshTokenRequest request = new RefreshTokenRequest();
             request.setRefreshToken("valid_refresh_token");
 
-            JsonWebToken jwt = mock(JsonWebToken.class);
-            when(jwt.getClaim("type")).thenReturn("refresh");
-            when(jwt.getSubject()).thenReturn(username);
+            JsonWebToken jwt = criarRefreshJwt(username, "familia-1", "token-1");
 
             when(jwtParser.parse("valid_refresh_token")).thenReturn(jwt);
-            when(usuarioRepository.findByUsernameAndAtivo(username)).thenReturn(Optional.of(usuario));
+            when(activeUserSnapshot.find(username)).thenReturn(Optional.of(new ActiveUser(username, "ADMIN")));
+            when(refreshTokenStore.rotate("familia-1", "token-1", username)).thenReturn(Optional.of("token-2"));
             when(jwtTokenService.generateToken(username, "ADMIN")).thenReturn("new_access_token");
-            when(jwtTokenService.generateRefreshToken(username, "ADMIN")).thenReturn("new_refresh_token");
+            when(jwtTokenService.generateRefreshToken(username, "ADMIN", "familia-1", "token-2"))
+                .thenReturn("new_refresh_token");
             when(jwtTokenService.getTokenLifespan()).thenReturn(300);
 
             // Act
@@ -196,6 +302,47 @@ class AuthServiceTest {
             assertThat(response).isNotNull();
             assertThat(response.getAccessToken()).isEqualTo("new_access_token");
             assertThat(response.getRefreshToken()).isEqualTo("new_refresh_token");
+            verify(usuarioRepository, never()).findByUsernameAndAtivo(anyString());
+        }
+
+        @Test
+        @DisplayName("Deve rejeitar refresh token reutilizado")
+        void shouldRejectReusedRefreshToken() throws ParseException {
+            // Arrange
+            String username = "admin";
+            RefreshTokenRequest request = new RefreshTokenRequest();
+            request.setRefreshToken("old_refresh_token");
+
+            JsonWebToken jwt = criarRefreshJwt(username, "familia-1", "token-antigo");
+
+            when(jwtParser.parse("old_refresh_token")).thenReturn(jwt);
+            when(activeUserSnapshot.find(username)).thenReturn(Optional.of(new ActiveUser(username, "ADMIN")));
+            when(refreshTokenStore.rotate("familia-1", "token-antigo", username)).thenReturn(Optional.empty());
+
+            // Act & Assert
+            assertThatThrownBy(() -> authService.refreshToken(request))
+                .isInstanceOf(AuthenticationException.class)
+                .hasMessageContaining("Refresh token invalido ou revogado");
+
+            verify(jwtTokenService, never()).generateToken(anyString(), anyString());
+        }
+
+        @Test
+        @DisplayName("Deve rejeitar refresh token sem familia")
+        void shouldRejectRefreshTokenWithoutFamily() throws ParseException {
+            // Arrange
+            RefreshTokenRequest request = new RefreshTokenRequest();
+            request.setRefreshToken("legacy_refresh_token");
+
+            JsonWebToken jwt = criarRefreshJwt("admin", null, null);
+            when(jwtParser.parse("legacy_refresh_token")).thenReturn(jwt);
+
+            // Act & Assert
+            assertThatThrownBy(() -> authService.refreshToken(request))
+                .isInstanceOf(AuthenticationException.class)
+                .hasMessageContaining("Refresh token invalido ou revogado");
+
+            verify(refreshTokenStore, never()).rotate(anyString(), anyString(), anyString());
         }
 
         @Test
@@ -224,17 +371,17 @@ class AuthServiceTest {
             RefreshTokenRequest request = new RefreshTokenRequest();
             request.setRefreshToken("valid_refresh_token");
 
-            JsonWebToken jwt = mock(JsonWebToken.class);
-            when(jwt.getClaim("type")).thenReturn("refresh");
-            when(jwt.getSubject()).thenReturn(username);
+            JsonWebToken jwt = criarRefreshJwt(username, "familia-1", "token-1");
 
             when(jwtParser.parse("valid_refresh_token")).thenReturn(jwt);
-            when(usuarioRepository.findByUsernameAndAtivo(username)).thenReturn(Optional.empty());
+            when(activeUserSnapshot.find(username)).thenReturn(Optional.empty());
 
             // Act & Assert
             assertThatThrownBy(() -> authService.refreshToken(request))
                 .isInstanceOf(AuthenticationException.class)
                 .hasMessageContaining("Usuario nao encontrado ou inativo");
+
+            verify(refreshTokenStore).revokeFamily("familia-1");
         }
 
         @Test
@@ -267,4 +414,55 @@ class AuthServiceTest {
                 .hasMessageContaining("Refresh token invalido ou expirado");
         }
     }
+
+    // ====================
+    // TESTES DE LOGOUT
+    // ====================
+
+    @Nested
+    @DisplayName("Logout")
+    class LogoutTests {
+
+        @Test
+        @DisplayName("Deve revogar a familia do refresh token no logout")
+        void shouldRevokeFamilyOnLogout() throws ParseException {
+            // Arrange
+            RefreshTokenRequest request = new RefreshTokenRequest();
+            request.setRefreshToken("valid_refresh_token");
+
+            JsonWebToken jwt = criarRefreshJwt("admin", "familia-1", "token-1");
+            when(jwtParser.parse("valid_refresh_token")).thenReturn(jwt);
+
+            // Act
+            authService.logout(request);
+
+            // Assert
+            verify(refreshTokenStore).revokeFamily("familia-1");
+        }
+
+        @Test
+        @DisplayName("Deve lancar AuthenticationException no logout com token invalido")
+        void shouldThrowAuthenticationExceptionOnLogoutWithInvalidToken() throws ParseException {
+            // Arrange
+            RefreshTokenRequest request = new RefreshTokenRequest();
+            request.setRefreshToken("invalid_token");
+
+            when(jwtParser.parse("invalid_token")).thenThrow(new ParseException("Invalid token"));
+
+            // Act & Assert
+            assertThatThrownBy(() -> authService.logout(request))
+                .isInstanceOf(AuthenticationException.class);
+
+            verify(refreshTokenStore, never()).revokeFamily(anyString());
+        }
+    }
+
+    private JsonWebToken criarRefreshJwt(String username, String familyId, String tokenId) {
+        JsonWebToken jwt = mock(JsonWebToken.class);
+        when(jwt.getClaim("type")).thenReturn("refresh");
+        when(jwt.getClaim(JwtTokenService.FAMILY_CLAIM)).thenReturn(familyId);
+        when(jwt.getTokenID()).thenReturn(tokenId);
+        when(jwt.getSubject()).thenReturn(username);
+        return jwt;
+    }
 }
@@ -2,22 +2,47 @@ package br.gov.mt.seplag.application.service;
 
 import br.gov.mt.seplag.domain.exception.BusinessException;
 import br.gov.mt.seplag.domain.model.Regional;
+import br.gov.mt.seplag.domain.model.RegionalAlteracao;
+import br.gov.mt.seplag.domain.model.TipoAlteracaoRegional;
+import br.gov.mt.seplag.domain.repository.RegionalAlteracaoRepository;
 import br.gov.mt.seplag.domain.repository.RegionalRepository;
-import br.gov.mt.seplag.infrastructure.client.RegionaisClient;
+import br.gov.mt.seplag.domain.repository.RegionalRepository.ImpressaoDigital;
+import br.gov.mt.seplag.domain.repository.RegionalRepository.OrigemLotes;
+import br.gov.mt.seplag.domain.repository.RegionalRepository.ResultadoSincronizacao;
 import br.gov.mt.seplag.infrastructure.client.RegionaisClient.RegionalExterna;
+import br.gov.mt.seplag.infrastructure.client.RegionaisGateway;
+import br.gov.mt.seplag.infrastructure.client.RegionaisGateway.RegionaisPayload;
+import br.gov.mt.seplag.infrastructure.lock.AdvisoryLockService;
 import br.gov.mt.seplag.infrastructure.metrics.MetricsService;
+import br.gov.mt.seplag.presentation.dto.regional.AlteracoesRegionaisResponse;
 import br.gov.mt.seplag.presentation.dto.regional.RegionalResponse;
 import br.gov.mt.seplag.presentation.dto.regional.SincronizacaoResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.quarkus.test.InjectMock;
 import io.quarkus.test.junit.QuarkusTest;
+import io.smallrye.faulttolerance.api.CircuitBreakerState;
+import io.smallrye.mutiny.Uni;
 import jakarta.inject.Inject;
-import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
-import org.mockito.ArgumentCaptor;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -47,12 +72,34 @@ class RegionalServiceTest {
     RegionalRepository regionalRepository;
 
     @InjectMock
-    @RestClient
-    RegionaisClient regionaisClient;
+    RegionalAlteracaoRepository alteracaoRepository;
+
+    @InjectMock
+    RegionaisGateway regionaisGateway;
 
     @InjectMock
     MetricsService metricsService;
 
+    @InjectMock
+    AdvisoryLockService advisoryLock;
+
+    @Inject
+    RegionalReadModel readModel;
+
+    /**
+     * Linha de regional_sincronizacao_estado: gravada pelo sincronizar e lida sob o lock.
+     */
+    private final AtomicReference<ImpressaoDigital> impressaoBanco = new AtomicReference<>();
+
+    @BeforeEach
+    void setUp() {
+        when(regionalRepository.findImpressaoDigital()).thenAnswer(invocation -> Optional.ofNullable(impressaoBanco.get()));
+        // Lock sempre obtido: a tarefa roda na thread do chamador
+        when(advisoryLock.runExclusive(anyString(), any())).thenAnswer(
+            invocation -> Optional.ofNullable(invocation.<Supplier<?>>getArgument(1).get()));
+        when(regionaisGateway.estadoCircuito()).thenReturn(CircuitBreakerState.CLOSED);
+    }
+
     private Regional criarRegional(Integer id, String nome, boolean ativo) {
         Regional r = new Regional();
         r.setId(id);
@@ -68,6 +115,39 @@ class RegionalServiceTest {
         return r;
     }
 
+    private void carregarSnapshot(Regional... regionais) {
+        when(regionalRepository.findAllOrdenadas()).thenReturn(List.of(regionais));
+        readModel.refresh();
+    }
+
+    private Uni<RegionaisPayload> respostaApi(int status, String corpo, String etag) {
+        return Uni.createFrom().item(new RegionaisPayload(status, arquivo(corpo), etag, null, Instant.now(), false));
+    }
+
+    /**
+     * Corpo em arquivo temporario, como o gateway entrega.
+     */
+    private Path arquivo(String corpo) {
+        if (corpo == null) {
+            return null;
+        }
+        try {
+            Path arquivo = Files.createTempFile("regionais", ".json");
+            arquivo.toFile().deleteOnExit();
+            return Files.writeString(arquivo, corpo);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String json(RegionalExterna... externas) throws JsonProcessingException {
+        return new ObjectMapper().writeValueAsString(List.of(externas));
+    }
+
+    private void apiRetorna(RegionalExterna... externas) throws JsonProcessingException {
+        when(regionaisGateway.buscar(any(), any())).thenReturn(respostaApi(200, json(externas), null));
+    }
+
     // ====================
     // TESTES DE LISTAGEM
     // ====================
@@ -81,7 +161,8 @@ class RegionalServiceTest {
         void shouldListOnlyActiveRegionaisWhenFilterEnabled() {
             // Arrange
             Regional ativa = criarRegional(100, "Regional Ativa", true);
-            when(regionalRepository.findAllAtivas()).thenReturn(List.of(ativa));
+            Regional inativa = criarRegional(101, "Regional Inativa", false);
+            carregarSnapshot(ativa, inativa);
 
             // Act
             List<RegionalResponse> result = regionalService.listar(true);
@@ -90,7 +171,6 @@ class RegionalServiceTest {
             assertThat(result).hasSize(1);
             assertThat(result.get(0).getNome()).isEqualTo("Regional Ativa");
             assertThat(result.get(0).getId()).isEqualTo(100);
-            verify(regionalRepository).findAllAtivas();
         }
 
         @Test
@@ -99,21 +179,20 @@ class RegionalServiceTest {
             // Arrange
             Regional ativa = criarRegional(100, "Regional Ativa", true);
             Regional inativa = criarRegional(101, "Regional Inativa", false);
-            when(regionalRepository.findAllOrdenadas()).thenReturn(List.of(ativa, inativa));
+            carregarSnapshot(ativa, inativa);
 
             // Act
             List<RegionalResponse> result = regionalService.listar(false);
 
             // Assert
-            assertThat(result).hasSize(2);
-            verify(regionalRepository).findAllOrdenadas();
+            assertThat(result).extracting(RegionalResponse::getId).containsExactly(100, 101);
         }
 
         @Test
         @DisplayName("Deve retornar lista vazia quando nao existem regionais")
         void shouldReturnEmptyListWhenNoRegionais() {
             // Arrange
-            when(regionalRepository.findAllAtivas()).thenReturn(Collections.emptyList());
+            carregarSnapshot();
 
             // Act
             List<RegionalResponse> result = regionalService.listar(true);
@@ -121,65 +200,103 @@ class RegionalServiceTest {
             // Assert
             assertThat(result).isEmpty();
         }
-    }
 
-    // ====================
-    // TESTES DE SINCRONIZACAO - CASO 1: NOVA REGIONAL
-    // ====================
+        @Test
+        @DisplayName("Leituras devem ser atendidas pelo snapshot, sem consultar o banco")
+        void readsShouldNotTouchDatabase() {
+            // Arrange
+            carregarSnapshot(criarRegional(100, "Regional Ativa", true));
 
-    @Nested
-    @DisplayName("Sincronizacao - Caso 1: Nova Regional (INSERT)")
-    class SincronizacaoCaso1Tests {
+            // Act
+            regionalService.listar(true);
+            regionalService.listar(false);
+            RegionalResponse encontrada = regionalService.buscarPorId(100);
+            regionalService.getEstatisticas();
+
+            // Assert
+            assertThat(encontrada.getNome()).isEqualTo("Regional Ativa");
+            verify(regionalRepository, times(1)).findAllOrdenadas();
+            verify(regionalRepository, never()).findByIdOptional(any());
+            verify(regionalRepository, never()).count();
+        }
 
         @Test
-        @DisplayName("Deve inserir nova regional quando nao existe localmente")
-        void shouldInsertNewRegionalWhenNotExistsLocally() {
+        @DisplayName("Deve lancar BusinessException para ID inexistente")
+        void shouldThrowWhenIdNotFound() {
             // Arrange
-            RegionalExterna externa = criarRegionalExterna(100, "Nova Regional");
-            when(regionaisClient.getRegionais()).thenReturn(List.of(externa));
-            when(regionalRepository.findAllAsMap()).thenReturn(new HashMap<>());
-            when(regionalRepository.inativarAusentes(anySet())).thenReturn(0);
+            carregarSnapshot(criarRegional(100, "Regional Ativa", true));
+
+            // Act & Assert
+            assertThatThrownBy(() -> regionalService.buscarPorId(999))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("Regional nao encontrada");
+        }
 
-            doNothing().when(regionalRepository).persist(any(Regional.class));
+        @Test
+        @DisplayName("Deve manter o snapshot anterior quando a recarga falha")
+        void shouldKeepPreviousSnapshotWhenRefreshFails() {
+            // Arrange
+            carregarSnapshot(criarRegional(100, "Regional Ativa", true));
+            when(regionalRepository.findAllOrdenadas()).thenThrow(new RuntimeException("banco indisponivel"));
 
             // Act
-            SincronizacaoResponse result = regionalService.sincronizar();
+            readModel.scheduledRefresh();
 
             // Assert
-            assertThat(result.getInseridas()).isEqualTo(1);
-            assertThat(result.getAtualizadas()).isEqualTo(0);
-            assertThat(result.getInativadas()).isEqualTo(0);
+            assertThat(regionalService.listar(true)).hasSize(1);
+        }
+    }
 
-            ArgumentCaptor<Regional> captor = ArgumentCaptor.forClass(Regional.class);
-            verify(regionalRepository).persist(captor.capture());
+    private static final long SINCRONIZACAO = 7L;
+
+    private final List<Integer> idsEnviados = new ArrayList<>();
+    private final List<String> nomesEnviados = new ArrayList<>();
+
+    /**
+     * Repositorio le os lotes da origem (como dentro da transacao) e devolve os contadores.
+     */
+    private void resultadoBanco(int recebidas, int inseridas, int atualizadas, int reativadas, int inativadas) {
+        when(regionalRepository.sincronizar(any(), any(), any(), any())).thenAnswer(invocation -> {
+            invocation.<OrigemLotes>getArgument(0).enviar((ids, nomes) -> {
+                idsEnviados.addAll(Arrays.asList(ids));
+                nomesEnviados.addAll(Arrays.asList(nomes));
+            });
+            impressaoBanco.set(new ImpressaoDigital(invocation.getArgument(1), invocation.getArgument(2),
+                invocation.getArgument(3), recebidas));
+            return new ResultadoSincronizacao(SINCRONIZACAO, recebidas, inseridas, atualizadas, reativadas, inativadas);
+        });
+    }
 
-            Regional inserted = captor.getValue();
-            assertThat(inserted.getId()).isEqualTo(100);
-            assertThat(inserted.getNome()).isEqualTo("Nova Regional");
-            assertThat(inserted.getAtivo()).isTrue();
-        }
+    // ====================
+    // TESTES DE SINCRONIZACAO - CASO 1: NOVA REGIONAL
+    // ====================
+
+    @Nested
+    @DisplayName("Sincronizacao - Caso 1: Nova Regional (INSERT)")
+    class SincronizacaoCaso1Tests {
 
         @Test
-        @DisplayName("Deve inserir multiplas novas regionais")
-        void shouldInsertMultipleNewRegionais() {
+        @DisplayName("Deve enviar o payload externo ao banco como arrays paralelos")
+        void shouldSendExternalPayloadAsParallelArrays() throws Exception {
             // Arrange
-            List<RegionalExterna> externas = List.of(
+            apiRetorna(
                 criarRegionalExterna(100, "Regional 1"),
-                criarRegionalExterna(101, "Regional 2"),
-                criarRegionalExterna(102, "Regional 3")
-            );
-            when(regionaisClient.getRegionais()).thenReturn(externas);
-            when(regionalRepository.findAllAsMap()).thenReturn(new HashMap<>());
-            when(regionalRepository.inativarAusentes(anySet())).thenReturn(0);
-
-            doNothing().when(regionalRepository).persist(any(Regional.class));
+                criarRegionalExterna(101, "Regional 2"));
+            resultadoBanco(2, 2, 0, 0, 0);
 
             // Act
             SincronizacaoResponse result = regionalService.sincronizar();
 
             // Assert
-            assertThat(result.getInseridas()).isEqualTo(3);
-            verify(regionalRepository, times(3)).persist(any(Regional.class));
+            assertThat(result.getInseridas()).isEqualTo(2);
+            assertThat(result.getTotalProcessadas()).isEqualTo(2);
+
+            assertThat(idsEnviados).containsExactly(100, 101);
+            assertThat(nomesEnviados).containsExactly("Regional 1", "Regional 2");
+
+            // Nenhuma entidade e carregada ou persistida pela aplicacao
+            verify(regionalRepository, never()).persist(any(Regional.class));
+            verify(regionalRepository, never()).listAll();
         }
     }
 
@@ -192,16 +309,11 @@ class RegionalServiceTest {
     class SincronizacaoCaso2Tests {
 
         @Test
-        @DisplayName("Deve inativar regionais ausentes no endpoint externo via batch")
-        void shouldInactivateRegionaisAbsentFromEndpoint() {
+        @DisplayName("Deve enviar payload vazio quando o endpoint nao retorna regionais")
+        void shouldSendEmptyPayloadWhenEndpointIsEmpty() throws Exception {
             // Arrange
-            when(regionaisClient.getRegionais()).thenReturn(Collections.emptyList());
-
-            Regional localAtiva = criarRegional(100, "Regional Local", true);
-            Map<Integer, Regional> locaisMap = new HashMap<>();
-            locaisMap.put(100, localAtiva);
-            when(regionalRepository.findAllAsMap()).thenReturn(locaisMap);
-            when(regionalRepository.inativarAusentes(anySet())).thenReturn(1);
+            apiRetorna();
+            resultadoBanco(0, 0, 0, 0, 1);
 
             // Act
             SincronizacaoResponse result = regionalService.sincronizar();
@@ -210,112 +322,347 @@ class RegionalServiceTest {
             assertThat(result.getInativadas()).isEqualTo(1);
             assertThat(result.getInseridas()).isEqualTo(0);
 
-            // Verifica que inativarAusentes foi chamado com Set vazio (nenhum ID externo)
-            ArgumentCaptor<Set<Integer>> captor = ArgumentCaptor.forClass(Set.class);
-            verify(regionalRepository).inativarAusentes(captor.capture());
-            assertThat(captor.getValue()).isEmpty();
+            verify(regionalRepository).sincronizar(any(), any(), any(), any());
+            assertThat(idsEnviados).isEmpty();
         }
     }
 
     // ====================
-    // TESTES DE SINCRONIZACAO - CASO 3: ATRIBUTO ALTERADO
+    // TESTES DE SINCRONIZACAO - CONTADORES
     // ====================
 
     @Nested
-    @DisplayName("Sincronizacao - Caso 3: Atributo Alterado (UPDATE nome)")
-    class SincronizacaoCaso3Tests {
+    @DisplayName("Sincronizacao - Contadores")
+    class SincronizacaoContadoresTests {
 
         @Test
-        @DisplayName("Deve atualizar nome quando alterado na API externa")
-        void shouldUpdateNameWhenChangedInExternalApi() {
+        @DisplayName("Deve repassar os contadores do banco e calcular sem alteracao")
+        void shouldMapDatabaseCountersToResponse() throws Exception {
             // Arrange
-            RegionalExterna externa = criarRegionalExterna(100, "Nome Atualizado");
-            when(regionaisClient.getRegionais()).thenReturn(List.of(externa));
-
-            Regional localAtiva = criarRegional(100, "Nome Antigo", true);
-            Map<Integer, Regional> locaisMap = new HashMap<>();
-            locaisMap.put(100, localAtiva);
-            when(regionalRepository.findAllAsMap()).thenReturn(locaisMap);
-            when(regionalRepository.inativarAusentes(anySet())).thenReturn(0);
+            apiRetorna(
+                criarRegionalExterna(1, "A"),
+                criarRegionalExterna(2, "B"),
+                criarRegionalExterna(3, "C"),
+                criarRegionalExterna(4, "D"),
+                criarRegionalExterna(5, "E"));
+            resultadoBanco(5, 1, 1, 1, 2);
 
             // Act
             SincronizacaoResponse result = regionalService.sincronizar();
 
             // Assert
+            assertThat(result.getTotalProcessadas()).isEqualTo(5);
+            assertThat(result.getInseridas()).isEqualTo(1);
             assertThat(result.getAtualizadas()).isEqualTo(1);
-            assertThat(result.getInseridas()).isEqualTo(0);
-            assertThat(result.getInativadas()).isEqualTo(0);
+            assertThat(result.getReativadas()).isEqualTo(1);
+            assertThat(result.getInativadas()).isEqualTo(2);
+            assertThat(result.getSemAlteracao()).isEqualTo(2);
+            assertThat(result.getSincronizacao()).isEqualTo(SINCRONIZACAO);
+        }
+
+        @Test
+        @DisplayName("Deve recarregar o snapshot apos sincronizacao aplicada")
+        void shouldRefreshSnapshotAfterAppliedSync() throws Exception {
+            // Arrange
+            carregarSnapshot();
+            apiRetorna(criarRegionalExterna(1, "A"));
+            resultadoBanco(1, 1, 0, 0, 0);
+            when(regionalRepository.findAllOrdenadas()).thenReturn(List.of(criarRegional(1, "A", true)));
+
+            // Act
+            regionalService.sincronizar();
 
-            // Verifica que o nome foi atualizado no objeto
-            assertThat(localAtiva.getNome()).isEqualTo("Nome Atualizado");
+            // Assert
+            assertThat(regionalService.buscarPorId(1).getNome()).isEqualTo("A");
+            assertThat(regionalService.getEstatisticas()).containsEntry("ativas", 1L);
+        }
+
+        @Test
+        @DisplayName("Deve falhar sem aplicar quando o payload esta fora do formato")
+        void shouldFailWhenPayloadIsNotAnArray() {
+            // Arrange
+            when(regionaisGateway.buscar(any(), any())).thenReturn(respostaApi(200, "{\"id\":1}", null));
+            resultadoBanco(0, 0, 0, 0, 0);
+
+            // Act & Assert
+            assertThatThrownBy(() -> regionalService.sincronizar())
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("Payload de regionais invalido");
+            assertThat(idsEnviados).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Deve encapsular falha do banco em BusinessException")
+        void shouldWrapDatabaseFailure() throws Exception {
+            // Arrange
+            apiRetorna(criarRegionalExterna(1, "A"));
+            when(regionalRepository.sincronizar(any(), any(), any(), any())).thenThrow(new RuntimeException("deadlock"));
+
+            // Act & Assert
+            assertThatThrownBy(() -> regionalService.sincronizar())
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("Erro ao sincronizar regionais");
         }
     }
 
     // ====================
-    // TESTES DE SINCRONIZACAO - SEM ALTERACAO
+    // TESTES DE SINCRONIZACAO - DETECCAO DE MUDANCA
     // ====================
 
     @Nested
-    @DisplayName("Sincronizacao - Sem Alteracao")
-    class SincronizacaoSemAlteracaoTests {
+    @DisplayName("Sincronizacao - Deteccao de Mudanca")
+    class SincronizacaoDeteccaoMudancaTests {
 
         @Test
-        @DisplayName("Nao deve alterar regional quando dados sao identicos")
-        void shouldNotChangeRegionalWhenDataIsIdentical() {
+        @DisplayName("Deve enviar ETag da ultima sincronizacao e dispensar o banco com HTTP 304")
+        void shouldSkipDatabaseWhenApiReturnsNotModified() throws Exception {
             // Arrange
-            RegionalExterna externa = criarRegionalExterna(100, "Mesma Regional");
-            when(regionaisClient.getRegionais()).thenReturn(List.of(externa));
+            Uni<RegionaisPayload> primeira = respostaApi(200, json(criarRegionalExterna(1, "A"), criarRegionalExterna(2, "B")), "\"v1\"");
+            Uni<RegionaisPayload> naoModificada = respostaApi(304, null, "\"v1\"");
+            when(regionaisGateway.buscar(isNull(), isNull())).thenReturn(primeira);
+            when(regionaisGateway.buscar(eq("\"v1\""), isNull())).thenReturn(naoModificada);
+            resultadoBanco(2, 2, 0, 0, 0);
+            regionalService.sincronizar();
 
-            Regional localAtiva = criarRegional(100, "Mesma Regional", true);
-            Map<Integer, Regional> locaisMap = new HashMap<>();
-            locaisMap.put(100, localAtiva);
-            when(regionalRepository.findAllAsMap()).thenReturn(locaisMap);
-            when(regionalRepository.inativarAusentes(anySet())).thenReturn(0);
+            // Act
+            SincronizacaoResponse result = regionalService.sincronizar();
+
+            // Assert
+            assertThat(result.getTotalProcessadas()).isEqualTo(2);
+            assertThat(result.getSemAlteracao()).isEqualTo(2);
+            assertThat(result.getInseridas()).isZero();
+            assertThat(result.getMensagem()).contains("HTTP 304");
+            verify(regionalRepository, times(1)).sincronizar(any(), any(), any(), any());
+            verify(metricsService).recordRegionalSyncSkipped("not_modified");
+        }
+
+        @Test
+        @DisplayName("Deve dispensar o banco quando o corpo e identico ao ultimo aplicado")
+        void shouldSkipDatabaseWhenBodyIsUnchanged() throws Exception {
+            // Arrange - API sem ETag: sempre 200 com o mesmo corpo
+            String corpo = json(criarRegionalExterna(1, "A"));
+            when(regionaisGateway.buscar(any(), any()))
+                .thenReturn(respostaApi(200, corpo, null), respostaApi(200, corpo, null));
+            resultadoBanco(1, 1, 0, 0, 0);
+            regionalService.sincronizar();
 
             // Act
             SincronizacaoResponse result = regionalService.sincronizar();
 
             // Assert
             assertThat(result.getSemAlteracao()).isEqualTo(1);
-            assertThat(result.getInseridas()).isEqualTo(0);
-            assertThat(result.getAtualizadas()).isEqualTo(0);
-            assertThat(result.getInativadas()).isEqualTo(0);
+            assertThat(result.getMensagem()).contains("conteudo identico");
+            verify(regionalRepository, times(1)).sincronizar(any(), any(), any(), any());
+            verify(metricsService).recordRegionalSyncSkipped("unchanged");
+        }
 
-            // Nao deve ter persistido nenhum registro
-            verify(regionalRepository, never()).persist(any(Regional.class));
+        @Test
+        @DisplayName("Deve aplicar novamente quando o corpo muda")
+        void shouldApplyWhenBodyChanges() throws Exception {
+            // Arrange
+            when(regionaisGateway.buscar(any(), any())).thenReturn(
+                respostaApi(200, json(criarRegionalExterna(1, "A")), null),
+                respostaApi(200, json(criarRegionalExterna(1, "A2")), null));
+            resultadoBanco(1, 0, 1, 0, 0);
+            regionalService.sincronizar();
+
+            // Act
+            SincronizacaoResponse result = regionalService.sincronizar();
+
+            // Assert
+            assertThat(result.getAtualizadas()).isEqualTo(1);
+            verify(regionalRepository, times(2)).sincronizar(any(), any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Deve aplicar quando outra instancia aplicou um payload diferente desde a ultima vez")
+        void shouldApplyWhenAnotherInstanceAppliedDifferentPayload() throws Exception {
+            // Arrange - Este no aplica X; outra instancia aplica Y; a API volta a X
+            String corpoX = json(criarRegionalExterna(1, "A"));
+            when(regionaisGateway.buscar(any(), any()))
+                .thenReturn(respostaApi(200, corpoX, "\"x\""), respostaApi(200, corpoX, "\"x\""));
+            resultadoBanco(1, 0, 1, 0, 0);
+            regionalService.sincronizar();
+            impressaoBanco.set(new ImpressaoDigital("\"y\"", null, "hash-de-y", 1));
+
+            // Act
+            SincronizacaoResponse result = regionalService.sincronizar();
+
+            // Assert - A busca e condicional no ETag de Y e X e reaplicado
+            assertThat(result.getAtualizadas()).isEqualTo(1);
+            verify(regionaisGateway).buscar(eq("\"y\""), isNull());
+            verify(regionalRepository, times(2)).sincronizar(any(), any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Deve ignorar a impressao digital quando forcado")
+        void shouldIgnoreFingerprintWhenForced() throws Exception {
+            // Arrange
+            String corpo = json(criarRegionalExterna(1, "A"));
+            when(regionaisGateway.buscar(any(), any()))
+                .thenReturn(respostaApi(200, corpo, "\"v1\""), respostaApi(200, corpo, "\"v1\""));
+            resultadoBanco(1, 0, 0, 0, 0);
+            regionalService.sincronizar();
+
+            // Act
+            regionalService.sincronizar(true);
+
+            // Assert - Busca sem cabecalhos condicionais e payload aplicado de novo
+            verify(regionaisGateway, times(2)).buscar(isNull(), isNull());
+            verify(regionalRepository, times(2)).sincronizar(any(), any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Deve dispensar sem erro quando a API cai e o ultimo payload ja foi aplicado")
+        void shouldSkipWhenApiIsDownAndStalePayloadWasApplied() throws Exception {
+            // Arrange - Segunda busca atendida pelo fallback do gateway
+            String corpo = json(criarRegionalExterna(1, "A"));
+            RegionaisPayload stale = new RegionaisPayload(200, arquivo(corpo), null, null,
+                Instant.now().minusSeconds(90), true);
+            when(regionaisGateway.buscar(any(), any()))
+                .thenReturn(respostaApi(200, corpo, null), Uni.createFrom().item(stale));
+            resultadoBanco(1, 1, 0, 0, 0);
+            regionalService.sincronizar();
+
+            // Act
+            SincronizacaoResponse result = regionalService.sincronizar();
+
+            // Assert
+            assertThat(result.getSemAlteracao()).isEqualTo(1);
+            assertThat(result.getMensagem()).contains("indisponivel").contains("ha 9");
+            verify(regionalRepository, times(1)).sincronizar(any(), any(), any(), any());
+            verify(metricsService).recordRegionalSyncSkipped("stale");
+            Map<?, ?> ultima = (Map<?, ?>) regionalService.getStatusSincronizacao().get("ultimaExecucao");
+            assertThat(ultima.get("resultado")).isEqualTo("stale");
+        }
+
+        @Test
+        @DisplayName("Deve tentar de novo na proxima execucao quando o banco falha")
+        void shouldRetryAfterDatabaseFailure() throws Exception {
+            // Arrange
+            String corpo = json(criarRegionalExterna(1, "A"));
+            when(regionaisGateway.buscar(any(), any()))
+                .thenReturn(respostaApi(200, corpo, null), respostaApi(200, corpo, null));
+            when(regionalRepository.sincronizar(any(), any(), any(), any()))
+                .thenThrow(new RuntimeException("deadlock"))
+                .thenReturn(new ResultadoSincronizacao(SINCRONIZACAO, 1, 1, 0, 0, 0));
+            assertThatThrownBy(() -> regionalService.sincronizar()).isInstanceOf(BusinessException.class);
+
+            // Act
+            SincronizacaoResponse result = regionalService.sincronizar();
+
+            // Assert
+            assertThat(result.getInseridas()).isEqualTo(1);
         }
     }
 
     // ====================
-    // TESTES DE SINCRONIZACAO - REATIVACAO
+    // TESTES DE SINCRONIZACAO - CONCORRENCIA
     // ====================
 
     @Nested
-    @DisplayName("Sincronizacao - Reativacao de Regional Inativa")
-    class SincronizacaoReativacaoTests {
+    @DisplayName("Sincronizacao - Single-flight e Lock entre Nos")
+    class SincronizacaoConcorrenciaTests {
 
         @Test
-        @DisplayName("Deve reativar regional inativa quando volta na API")
-        void shouldReactivateInactiveRegionalWhenReturnsInApi() {
-            // Arrange
-            RegionalExterna externa = criarRegionalExterna(100, "Regional Reativada");
-            when(regionaisClient.getRegionais()).thenReturn(List.of(externa));
+        @DisplayName("Chamadas simultaneas devem compartilhar uma unica execucao")
+        void concurrentCallsShouldShareOneExecution() throws Exception {
+            // Arrange - A API so responde depois que a segunda chamada chega
+            CountDownLatch liberarApi = new CountDownLatch(1);
+            String corpo = json(criarRegionalExterna(1, "A"));
+            when(regionaisGateway.buscar(any(), any())).thenAnswer(invocation -> {
+                liberarApi.await(5, TimeUnit.SECONDS);
+                return respostaApi(200, corpo, null);
+            });
+            resultadoBanco(1, 1, 0, 0, 0);
 
-            Regional localInativa = criarRegional(100, "Regional Reativada", false);
-            Map<Integer, Regional> locaisMap = new HashMap<>();
-            locaisMap.put(100, localInativa);
-            when(regionalRepository.findAllAsMap()).thenReturn(locaisMap);
-            when(regionalRepository.inativarAusentes(anySet())).thenReturn(0);
+            // Act
+            ExecutorService executor = Executors.newFixedThreadPool(2);
+            try {
+                Future<SincronizacaoResponse> primeira = executor.submit(() -> regionalService.sincronizar());
+                verify(regionaisGateway, timeout(5000)).buscar(any(), any());
+                Future<SincronizacaoResponse> segunda = executor.submit(() -> regionalService.sincronizar());
+                verify(metricsService, timeout(5000)).recordRegionalSyncShared();
+                liberarApi.countDown();
+
+                // Assert
+                assertThat(segunda.get(5, TimeUnit.SECONDS)).isSameAs(primeira.get(5, TimeUnit.SECONDS));
+            } finally {
+                executor.shutdownNow();
+            }
+            verify(regionaisGateway, times(1)).buscar(any(), any());
+            verify(regionalRepository, times(1)).sincronizar(any(), any(), any(), any());
+        }
 
-            doNothing().when(regionalRepository).persist(any(Regional.class));
+        @Test
+        @DisplayName("Chamada forcada deve rodar depois da execucao comum em andamento")
+        void forcedCallShouldRunAfterOngoingExecution() throws Exception {
+            // Arrange - A primeira busca so responde quando liberada
+            CountDownLatch liberarApi = new CountDownLatch(1);
+            String corpo = json(criarRegionalExterna(1, "A"));
+            when(regionaisGateway.buscar(any(), any())).thenAnswer(invocation -> {
+                liberarApi.await(5, TimeUnit.SECONDS);
+                return respostaApi(200, corpo, null);
+            });
+            resultadoBanco(1, 1, 0, 0, 0);
+
+            // Act
+            ExecutorService executor = Executors.newFixedThreadPool(2);
+            try {
+                Future<SincronizacaoResponse> comum = executor.submit(() -> regionalService.sincronizar());
+                verify(regionaisGateway, timeout(5000)).buscar(any(), any());
+                Future<SincronizacaoResponse> forcada = executor.submit(() -> regionalService.sincronizar(true));
+
+                // A forcada nao disputa o lock com a execucao deste no: espera a vez
+                verify(regionaisGateway, after(300).times(1)).buscar(any(), any());
+                liberarApi.countDown();
+
+                // Assert
+                assertThat(forcada.get(5, TimeUnit.SECONDS)).isNotSameAs(comum.get(5, TimeUnit.SECONDS));
+            } finally {
+                executor.shutdownNow();
+            }
+            verify(regionaisGateway, times(2)).buscar(any(), any());
+            verify(regionalRepository, times(2)).sincronizar(any(), any(), any(), any());
+            verify(metricsService, never()).recordRegionalSyncShared();
+            verify(metricsService, never()).recordRegionalSyncSkipped("locked");
+        }
+
+        @Test
+        @DisplayName("Nao deve chamar a API quando outro no detem o lock")
+        void shouldNotCallApiWhenAnotherNodeHoldsTheLock() {
+            // Arrange
+            when(advisoryLock.runExclusive(anyString(), any())).thenReturn(Optional.empty());
 
             // Act
             SincronizacaoResponse result = regionalService.sincronizar();
 
-            // Assert - Verifica que a regional foi reativada (o serviço contabiliza internamente)
-            // Nota: reativadas nao e exposta no DTO, mas podemos verificar que a regional foi modificada
-            assertThat(localInativa.getAtivo()).isTrue();
-            verify(regionalRepository).persist(localInativa);
+            // Assert
+            assertThat(result.getMensagem()).contains("outra instancia");
+            verify(regionaisGateway, never()).buscar(any(), any());
+            verify(regionalRepository, never()).sincronizar(any(), any(), any(), any());
+            verify(metricsService).recordRegionalSyncSkipped("locked");
+            Map<?, ?> ultima = (Map<?, ?>) regionalService.getStatusSincronizacao().get("ultimaExecucao");
+            assertThat(ultima.get("resultado")).isEqualTo("locked");
+        }
+
+        @Test
+        @DisplayName("Status deve registrar a ultima execucao e o ultimo sucesso")
+        void statusShouldExposeLastRun() throws Exception {
+            // Arrange
+            apiRetorna(criarRegionalExterna(1, "A"));
+            resultadoBanco(1, 1, 0, 0, 0);
+
+            // Act
+            regionalService.sincronizar();
+            Map<String, Object> status = regionalService.getStatusSincronizacao();
+
+            // Assert
+            assertThat(status).containsEntry("emAndamento", false);
+            assertThat(status.get("ultimoSucesso")).isNotNull();
+            Map<?, ?> ultima = (Map<?, ?>) status.get("ultimaExecucao");
+            assertThat(ultima.get("modo")).isEqualTo("MANUAL");
+            assertThat(ultima.get("resultado")).isEqualTo("applied");
         }
     }
 
@@ -331,7 +678,8 @@ class RegionalServiceTest {
         @DisplayName("Deve lancar BusinessException quando API externa falha")
         void shouldThrowBusinessExceptionWhenExternalApiFails() {
             // Arrange
-            when(regionaisClient.getRegionais()).thenThrow(new RuntimeException("Erro de conexao"));
+            when(regionaisGateway.buscar(any(), any()))
+                .thenReturn(Uni.createFrom().failure(new RuntimeException("Erro de conexao")));
 
             // Act & Assert
             assertThatThrownBy(() -> regionalService.sincronizar())
@@ -340,6 +688,79 @@ class RegionalServiceTest {
         }
     }
 
+    // ====================
+    // TESTES DE HISTORICO DE ALTERACOES
+    // ====================
+
+    @Nested
+    @DisplayName("Historico de Alteracoes")
+    class AlteracoesTests {
+
+        private RegionalAlteracao alteracao(long seq, TipoAlteracaoRegional tipo) {
+            return new RegionalAlteracao(seq, SINCRONIZACAO, (int) seq, tipo, "Regional " + seq,
+                null, tipo != TipoAlteracaoRegional.INATIVADA, LocalDateTime.now());
+        }
+
+        @Test
+        @DisplayName("Deve retornar o delta apos o cursor e o proximo cursor")
+        void shouldReturnDeltaAfterCursor() {
+            // Arrange
+            when(alteracaoRepository.findPosteriores(10L, 3)).thenReturn(List.of(
+                alteracao(11, TipoAlteracaoRegional.RENOMEADA),
+                alteracao(12, TipoAlteracaoRegional.INATIVADA)));
+
+            // Act
+            AlteracoesRegionaisResponse result = regionalService.listarAlteracoes(10L, 2);
+
+            // Assert
+            assertThat(result.getAlteracoes()).extracting(a -> a.getSeq()).containsExactly(11L, 12L);
+            assertThat(result.getAlteracoes().get(1).getAtivo()).isFalse();
+            assertThat(result.getCursor()).isEqualTo(12L);
+            assertThat(result.isTemMais()).isFalse();
+        }
+
+        @Test
+        @DisplayName("Deve indicar mais paginas quando o limite e atingido")
+        void shouldSignalMorePagesWhenLimitReached() {
+            // Arrange
+            when(alteracaoRepository.findPosteriores(0L, 3)).thenReturn(List.of(
+                alteracao(1, TipoAlteracaoRegional.INSERIDA),
+                alteracao(2, TipoAlteracaoRegional.INSERIDA),
+                alteracao(3, TipoAlteracaoRegional.INSERIDA)));
+
+            // Act
+            AlteracoesRegionaisResponse result = regionalService.listarAlteracoes(0L, 2);
+
+            // Assert
+            assertThat(result.getAlteracoes()).hasSize(2);
+            assertThat(result.getCursor()).isEqualTo(2L);
+            assertThat(result.isTemMais()).isTrue();
+        }
+
+        @Test
+        @DisplayName("Deve manter o cursor quando nao ha alteracoes e limitar o tamanho da pagina")
+        void shouldKeepCursorWhenEmptyAndCapLimit() {
+            // Arrange
+            when(alteracaoRepository.findPosteriores(anyLong(), anyInt())).thenReturn(List.of());
+
+            // Act
+            AlteracoesRegionaisResponse result = regionalService.listarAlteracoes(42L, 1_000_000);
+
+            // Assert
+            assertThat(result.getAlteracoes()).isEmpty();
+            assertThat(result.getCursor()).isEqualTo(42L);
+            verify(alteracaoRepository).findPosteriores(42L, RegionalService.LIMITE_ALTERACOES_MAXIMO + 1);
+        }
+
+        @Test
+        @DisplayName("Deve rejeitar cursor negativo")
+        void shouldRejectNegativeCursor() {
+            assertThatThrownBy(() -> regionalService.listarAlteracoes(-1L, 10))
+                .isInstanceOf(BusinessException.class);
+            verifyNoInteractions(alteracaoRepository);
+        }
+    }
+
     // ====================
     // TESTES DE ESTATISTICAS
     // ====================
@@ -352,9 +773,11 @@ class RegionalServiceTest {
         @DisplayName("Deve retornar estatisticas corretas")
         void shouldReturnCorrectStatistics() {
             // Arrange
-            when(regionalRepository.count()).thenReturn(10L);
-            when(regionalRepository.countAtivas()).thenReturn(8L);
-            when(regionalRepository.countInativas()).thenReturn(2L);
+            List<Regional> regionais = new ArrayList<>();
+            for (int i = 1; i <= 10; i++) {
+                regionais.add(criarRegional(i, "Regional " + i, i <= 8));
+            }
+            carregarSnapshot(regionais.toArray(Regional[]::new));
 
             // Act
             Map<String, Long> stats = regionalService.getEstatisticas();
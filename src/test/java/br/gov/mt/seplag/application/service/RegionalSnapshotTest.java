@@ -0,0 +1,85 @@
+package br.gov.mt.seplag.application.service;
+
+import br.gov.mt.seplag.domain.model.Regional;
+import br.gov.mt.seplag.presentation.dto.regional.RegionalResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Testes unitarios para RegionalSnapshot.
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+class RegionalSnapshotTest {
+
+    @Test
+    void shouldKeepDatabaseOrderAndSplitActive() {
+        RegionalSnapshot snapshot = snapshot(
+            regional(3, "Alta Floresta", true),
+            regional(1, "Barra do Garcas", false),
+            regional(2, "Cuiaba", true));
+
+        assertThat(snapshot.todas()).extracting(RegionalResponse::getId).containsExactly(3, 1, 2);
+        assertThat(snapshot.ativas()).extracting(RegionalResponse::getId).containsExactly(3, 2);
+        assertThat(snapshot.estatisticas())
+            .containsEntry("total", 3L)
+            .containsEntry("ativas", 2L)
+            .containsEntry("inativas", 1L);
+    }
+
+    @Test
+    void findShouldResolveEveryIdIncludingCollisions() {
+        List<Regional> regionais = new ArrayList<>();
+        // IDs esparsos e multiplos da capacidade forcam sondagem
+        for (int i = 0; i < 500; i++) {
+            regionais.add(regional(i * 1024 - 7, "Regional " + i, i % 3 != 0));
+        }
+        RegionalSnapshot snapshot = new RegionalSnapshot(regionais, Instant.now());
+
+        for (Regional regional : regionais) {
+            assertThat(snapshot.find(regional.getId()))
+                .get()
+                .extracting(RegionalResponse::getNome)
+                .isEqualTo(regional.getNome());
+        }
+        assertThat(snapshot.find(1)).isEmpty();
+        assertThat(snapshot.find(Integer.MIN_VALUE)).isEmpty();
+    }
+
+    @Test
+    void emptySnapshotShouldAnswerEverything() {
+        RegionalSnapshot snapshot = snapshot();
+
+        assertThat(snapshot.todas()).isEmpty();
+        assertThat(snapshot.ativas()).isEmpty();
+        assertThat(snapshot.find(0)).isEmpty();
+        assertThat(snapshot.estatisticas()).containsEntry("total", 0L);
+    }
+
+    @Test
+    void listsShouldBeImmutable() {
+        RegionalSnapshot snapshot = snapshot(regional(1, "Cuiaba", true));
+
+        assertThatThrownBy(() -> snapshot.todas().clear()).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> snapshot.ativas().clear()).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> snapshot.estatisticas().clear()).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    private static RegionalSnapshot snapshot(Regional... regionais) {
+        return new RegionalSnapshot(List.of(regionais), Instant.now());
+    }
+
+    private static Regional regional(int id, String nome, boolean ativo) {
+        Regional regional = new Regional();
+        regional.setId(id);
+        regional.setNome(nome);
+        regional.setAtivo(ativo);
+        return regional;
+    }
+}
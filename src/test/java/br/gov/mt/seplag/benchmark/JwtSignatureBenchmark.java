@@ -0,0 +1,102 @@
+package br.gov.mt.seplag.benchmark;
+
+import io.smallrye.jwt.algorithm.SignatureAlgorithm;
+import io.smallrye.jwt.auth.principal.DefaultJWTParser;
+import io.smallrye.jwt.auth.principal.JWTAuthContextInfo;
+import io.smallrye.jwt.build.Jwt;
+import io.smallrye.jwt.util.KeyUtils;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.security.KeyPair;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark JMH de assinatura e verificacao de JWT por algoritmo.
+ *
+ * Compara RS256 (padrao atual), ES256 e EdDSA usando o mesmo formato de
+ * token emitido pelo JwtTokenService. Tambem reporta o tamanho do token
+ * gerado, ja que ele trafega no header Authorization de toda requisicao.
+ *
+ * Execucao:
+ *   ./mvnw test-compile exec:exec -Pbenchmark -Dbenchmark.includes=JwtSignatureBenchmark
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtSignatureBenchmark {
+
+    private static final String ISSUER = "https://pss-backend-mt.seplag.mt.gov.br";
+
+    @Param({"RS256", "ES256", "EdDSA"})
+    public String algorithm;
+
+    private SignatureAlgorithm signatureAlgorithm;
+    private KeyPair keyPair;
+    private DefaultJWTParser parser;
+    private String token;
+
+    @Setup
+    public void setup() throws Exception {
+        signatureAlgorithm = SignatureAlgorithm.fromAlgorithm(algorithm);
+        keyPair = KeyUtils.generateKeyPair(keySize(signatureAlgorithm), signatureAlgorithm);
+
+        JWTAuthContextInfo contextInfo = new JWTAuthContextInfo(keyPair.getPublic(), ISSUER);
+        contextInfo.setSignatureAlgorithm(Set.of(signatureAlgorithm));
+        parser = new DefaultJWTParser(contextInfo);
+
+        token = sign();
+        System.out.printf("%n%s - tamanho do token: %d bytes%n", algorithm, token.length());
+    }
+
+    @Benchmark
+    public String signToken() {
+        return sign();
+    }
+
+    @Benchmark
+    public void verifyToken(Blackhole blackhole) throws Exception {
+        JsonWebToken jwt = parser.parse(token);
+        blackhole.consume(jwt);
+    }
+
+    private String sign() {
+        Instant now = Instant.now();
+        return Jwt.issuer(ISSUER)
+            .subject("admin")
+            .groups(Set.of("ADMIN"))
+            .claim("username", "admin")
+            .issuedAt(now)
+            .expiresAt(now.plusSeconds(300))
+            .jws()
+            .algorithm(signatureAlgorithm)
+            .keyId("benchmark")
+            .sign(keyPair.getPrivate());
+    }
+
+    private static int keySize(SignatureAlgorithm algorithm) {
+        return switch (algorithm) {
+            case ES256 -> 256;
+            case EDDSA -> 255;
+            default -> 2048;
+        };
+    }
+}
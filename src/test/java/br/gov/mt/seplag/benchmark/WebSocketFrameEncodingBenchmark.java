@@ -0,0 +1,114 @@
+package br.gov.mt.seplag.benchmark;
+
+import br.gov.mt.seplag.presentation.websocket.CborEncoder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+/**
+ * Benchmark JMH da codificacao dos frames de WebSocket.
+ *
+ * Compara o frame JSON atual com o CBOR (?encoding=cbor) e com o JSON
+ * comprimido por permessage-deflate, usando um NEW_ALBUM com o mesmo
+ * formato do AlbumResponse. Tambem reporta o tamanho de cada variante.
+ *
+ * Execucao:
+ *   ./mvnw test-compile exec:exec -Pbenchmark -Dbenchmark.includes=WebSocketFrameEncodingBenchmark
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WebSocketFrameEncodingBenchmark {
+
+    @Param({"1", "10"})
+    public int artistas;
+
+    private ObjectMapper objectMapper;
+    private Map<String, Object> frame;
+    private String json;
+
+    @Setup
+    public void setup() throws Exception {
+        objectMapper = new ObjectMapper();
+        frame = newAlbumFrame(artistas);
+        json = encodeJson();
+
+        int jsonBytes = json.getBytes(StandardCharsets.UTF_8).length;
+        System.out.printf("%n%d artista(s) - json: %d bytes, cbor: %d bytes, json+deflate: %d bytes%n",
+            artistas, jsonBytes, encodeCbor().length, deflateJson());
+    }
+
+    @Benchmark
+    public String encodeJson() throws Exception {
+        return objectMapper.writeValueAsString(frame);
+    }
+
+    @Benchmark
+    public byte[] encodeCbor() throws Exception {
+        JsonNode tree = objectMapper.readTree(json);
+        return CborEncoder.encode(tree);
+    }
+
+    @Benchmark
+    public int deflateJson() {
+        byte[] entrada = json.getBytes(StandardCharsets.UTF_8);
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            deflater.setInput(entrada);
+            byte[] saida = new byte[entrada.length + 64];
+            return deflater.deflate(saida, 0, saida.length, Deflater.SYNC_FLUSH);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static Map<String, Object> newAlbumFrame(int quantidadeArtistas) {
+        List<Map<String, Object>> lista = new ArrayList<>();
+        for (int i = 1; i <= quantidadeArtistas; i++) {
+            Map<String, Object> artista = new LinkedHashMap<>();
+            artista.put("id", i);
+            artista.put("nome", "Artista " + i);
+            artista.put("tipo", i % 2 == 0 ? "BANDA" : "CANTOR");
+            lista.add(artista);
+        }
+
+        Map<String, Object> album = new LinkedHashMap<>();
+        album.put("id", 1042);
+        album.put("titulo", "Harakiri");
+        album.put("anoLancamento", 2012);
+        album.put("descricao", "Album de estudio lancado pela gravadora Victory Records");
+        album.put("artistas", lista);
+        album.put("quantidadeImagens", 3);
+        album.put("createdAt", "2026-01-15T10:30:00");
+        album.put("updatedAt", "2026-01-15T10:30:00");
+
+        Map<String, Object> frame = new LinkedHashMap<>();
+        frame.put("type", "NEW_ALBUM");
+        frame.put("seq", 123456);
+        frame.put("data", album);
+        return frame;
+    }
+}
@@ -0,0 +1,60 @@
+package br.gov.mt.seplag.domain.repository;
+
+import br.gov.mt.seplag.domain.exception.BusinessException;
+import br.gov.mt.seplag.domain.repository.AlbumCampos.Campo;
+import br.gov.mt.seplag.domain.repository.AlbumCampos.Expansao;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Testes unitarios para AlbumCampos (parametros ?fields= e ?expand=).
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+class AlbumCamposTest {
+
+    @Test
+    void absentParametersShouldKeepDefault() {
+        assertThat(AlbumCampos.parse(null, null, AlbumCampos.LISTAGEM)).isEqualTo(AlbumCampos.LISTAGEM);
+        assertThat(AlbumCampos.parse(null, null, AlbumCampos.DETALHE)).isEqualTo(AlbumCampos.DETALHE);
+    }
+
+    @Test
+    void fieldsShouldAlwaysIncludeId() {
+        AlbumCampos campos = AlbumCampos.parse(" titulo,anoLancamento ", null, AlbumCampos.LISTAGEM);
+
+        assertThat(campos.campos()).containsExactlyInAnyOrder(Campo.ID, Campo.TITULO, Campo.ANO_LANCAMENTO);
+        assertThat(campos.expande(Expansao.ARTISTAS)).isTrue();
+    }
+
+    @Test
+    void emptyExpandShouldLoadNoAssociation() {
+        AlbumCampos campos = AlbumCampos.parse(null, "", AlbumCampos.DETALHE);
+
+        assertThat(campos.expansoes()).isEmpty();
+        assertThat(campos.inclui(Campo.DESCRICAO)).isTrue();
+    }
+
+    @Test
+    void shouldRejectUnknownOrUnavailableNames() {
+        assertThatThrownBy(() -> AlbumCampos.parse("senha", null, AlbumCampos.LISTAGEM))
+            .isInstanceOf(BusinessException.class)
+            .hasMessageContaining("senha")
+            .hasMessageContaining("titulo");
+        assertThatThrownBy(() -> AlbumCampos.parse(null, "imagens", AlbumCampos.LISTAGEM))
+            .isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> AlbumCampos.parse("quantidadeImagens", null, AlbumCampos.DETALHE))
+            .isInstanceOf(BusinessException.class);
+    }
+
+    @Test
+    void chaveShouldNotDependOnRequestOrder() {
+        AlbumCampos campos = AlbumCampos.parse("anoLancamento,titulo", "artistas", AlbumCampos.LISTAGEM);
+
+        assertThat(campos.chave()).isEqualTo("fields=id,titulo,anoLancamento;expand=artistas");
+        assertThat(AlbumCampos.parse("titulo,anoLancamento", "artistas", AlbumCampos.LISTAGEM).chave())
+            .isEqualTo(campos.chave());
+    }
+}
@@ -0,0 +1,122 @@
+package br.gov.mt.seplag.infrastructure.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.quarkus.test.common.QuarkusTestResourceLifecycleManager;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stub local da API de regionais (HttpServer do JDK), no estilo do WireMock.
+ *
+ * Rotas:
+ * - GET  /v1/regionais: responde conforme o cenario atual; com If-None-Match
+ *   igual ao ETag do cenario, 304 sem corpo
+ * - PUT  /__admin/regionais: define o cenario (corpo = payload; cabecalhos
+ *   X-Stub-Status, X-Stub-ETag e X-Stub-Delay-Ms opcionais)
+ * - GET  /__admin/requisicoes: total de GET /v1/regionais recebidos
+ * - POST /__admin/reset: volta ao cenario padrao e zera o contador
+ *
+ * O controle e por HTTP porque a aplicacao de teste roda em outro
+ * classloader (estado estatico nao seria compartilhado).
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+public class RegionaisApiStub implements QuarkusTestResourceLifecycleManager {
+
+    static final String PAYLOAD_PADRAO = "[{\"id\":1,\"nome\":\"Regional Stub\"}]";
+
+    private HttpServer server;
+
+    private volatile Cenario cenario = Cenario.padrao();
+    private final AtomicInteger requisicoes = new AtomicInteger();
+
+    private record Cenario(int status, String corpo, String etag, long atrasoMs) {
+        static Cenario padrao() {
+            return new Cenario(200, PAYLOAD_PADRAO, "\"stub-1\"", 0);
+        }
+    }
+
+    @Override
+    public Map<String, String> start() {
+        try {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        } catch (IOException e) {
+            throw new IllegalStateException("Falha ao iniciar o stub da API de regionais", e);
+        }
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/v1/regionais", this::regionais);
+        server.createContext("/__admin/regionais", exchange -> {
+            String status = exchange.getRequestHeaders().getFirst("X-Stub-Status");
+            String atraso = exchange.getRequestHeaders().getFirst("X-Stub-Delay-Ms");
+            cenario = new Cenario(
+                status != null ? Integer.parseInt(status) : 200,
+                new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8),
+                exchange.getRequestHeaders().getFirst("X-Stub-ETag"),
+                atraso != null ? Long.parseLong(atraso) : 0);
+            responder(exchange, 204, null);
+        });
+        server.createContext("/__admin/requisicoes",
+            exchange -> responder(exchange, 200, String.valueOf(requisicoes.get())));
+        server.createContext("/__admin/reset", exchange -> {
+            cenario = Cenario.padrao();
+            requisicoes.set(0);
+            responder(exchange, 204, null);
+        });
+        server.start();
+
+        return Map.of("quarkus.rest-client.\"regionais-api\".url",
+            "http://localhost:" + server.getAddress().getPort());
+    }
+
+    @Override
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    private void regionais(HttpExchange exchange) throws IOException {
+        requisicoes.incrementAndGet();
+        Cenario atual = cenario;
+        if (atual.atrasoMs() > 0) {
+            try {
+                Thread.sleep(atual.atrasoMs());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (atual.status() != 200) {
+            responder(exchange, atual.status(), "{\"erro\":\"stub\"}");
+            return;
+        }
+        if (atual.etag() != null) {
+            exchange.getResponseHeaders().set("ETag", atual.etag());
+            if (atual.etag().equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                responder(exchange, 304, null);
+                return;
+            }
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        responder(exchange, 200, atual.corpo());
+    }
+
+    private static void responder(HttpExchange exchange, int status, String corpo) throws IOException {
+        if (corpo == null) {
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+            return;
+        }
+        byte[] bytes = corpo.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write(bytes);
+        }
+    }
+}
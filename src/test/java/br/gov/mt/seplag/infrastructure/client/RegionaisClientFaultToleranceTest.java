@@ -1,29 +1,29 @@
 package br.gov.mt.seplag.infrastructure.client;
 
 import br.gov.mt.seplag.domain.exception.BusinessException;
-import br.gov.mt.seplag.domain.model.Regional;
 import br.gov.mt.seplag.domain.repository.RegionalRepository;
 import br.gov.mt.seplag.application.service.RegionalService;
-import br.gov.mt.seplag.infrastructure.client.RegionaisClient.RegionalExterna;
-import io.quarkus.hibernate.orm.panache.PanacheQuery;
 import io.quarkus.test.InjectMock;
 import io.quarkus.test.junit.QuarkusTest;
+import io.smallrye.mutiny.Uni;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.ProcessingException;
 import jakarta.ws.rs.WebApplicationException;
 import org.eclipse.microprofile.faulttolerance.exceptions.CircuitBreakerOpenException;
 import org.eclipse.microprofile.faulttolerance.exceptions.TimeoutException;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.jboss.resteasy.reactive.RestResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.ConnectException;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Optional;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -59,7 +59,16 @@ class RegionaisClientFaultToleranceTest {
     @BeforeEach
     void setUp() {
         // Configura repository mock para evitar NPE
-        when(regionalRepository.findAllAsMap()).thenReturn(new HashMap<>());
+        when(regionalRepository.sincronizar(any(), any(), any(), any()))
+            .thenReturn(new RegionalRepository.ResultadoSincronizacao(0L, 0, 0, 0, 0, 0));
+    }
+
+    private static RestResponse<Path> ok(String json) {
+        try {
+            return RestResponse.ok(Files.writeString(Files.createTempFile("regionais", ".json"), json));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     // ====================
@@ -76,7 +85,7 @@ class RegionaisClientFaultToleranceTest {
             // Arrange - Simula Connection Refused
             ConnectException connectException = new ConnectException("Connection refused");
             ProcessingException processingException = new ProcessingException(connectException);
-            when(regionaisClient.getRegionais()).thenThrow(processingException);
+            when(regionaisClient.getRegionaisCondicional(any(), any())).thenThrow(processingException);
 
             // Act & Assert
             assertThatThrownBy(() -> regionalService.sincronizar())
@@ -84,7 +93,7 @@ class RegionaisClientFaultToleranceTest {
                 .hasMessageContaining("Erro ao sincronizar regionais")
                 .hasCauseInstanceOf(ProcessingException.class);
 
-            verify(regionaisClient).getRegionais();
+            verify(regionaisClient).getRegionaisCondicional(any(), any());
         }
 
         @Test
@@ -94,7 +103,7 @@ class RegionaisClientFaultToleranceTest {
             String originalMessage = "Connection refused: connect";
             ConnectException connectException = new ConnectException(originalMessage);
             ProcessingException processingException = new ProcessingException(connectException);
-            when(regionaisClient.getRegionais()).thenThrow(processingException);
+            when(regionaisClient.getRegionaisCondicional(any(), any())).thenThrow(processingException);
 
             // Act & Assert
             assertThatThrownBy(() -> regionalService.sincronizar())
@@ -113,7 +122,7 @@ class RegionaisClientFaultToleranceTest {
             java.net.UnknownHostException unknownHostException =
                 new java.net.UnknownHostException("integrador-argus-api.geia.vip");
             ProcessingException processingException = new ProcessingException(unknownHostException);
-            when(regionaisClient.getRegionais()).thenThrow(processingException);
+            when(regionaisClient.getRegionaisCondicional(any(), any())).thenThrow(processingException);
 
             // Act & Assert
             assertThatThrownBy(() -> regionalService.sincronizar())
@@ -135,7 +144,7 @@ class RegionaisClientFaultToleranceTest {
         void shouldThrowBusinessExceptionWhenTimeoutExceeded() {
             // Arrange - Simula timeout
             TimeoutException timeoutException = new TimeoutException("Timeout exceeded");
-            when(regionaisClient.getRegionais()).thenThrow(timeoutException);
+            when(regionaisClient.getRegionaisCondicional(any(), any())).thenThrow(timeoutException);
 
             // Act & Assert
             assertThatThrownBy(() -> regionalService.sincronizar())
@@ -150,7 +159,7 @@ class RegionaisClientFaultToleranceTest {
             java.net.SocketTimeoutException socketTimeout =
                 new java.net.SocketTimeoutException("Read timed out");
             ProcessingException processingException = new ProcessingException(socketTimeout);
-            when(regionaisClient.getRegionais()).thenThrow(processingException);
+            when(regionaisClient.getRegionaisCondicional(any(), any())).thenThrow(processingException);
 
             // Act & Assert
             assertThatThrownBy(() -> regionalService.sincronizar())
@@ -173,7 +182,7 @@ class RegionaisClientFaultToleranceTest {
             // Arrange
             WebApplicationException serverError =
                 new WebApplicationException("Internal Server Error", 500);
-            when(regionaisClient.getRegionais()).thenThrow(serverError);
+            when(regionaisClient.getRegionaisCondicional(any(), any())).thenThrow(serverError);
 
             // Act & Assert
             assertThatThrownBy(() -> regionalService.sincronizar())
@@ -187,7 +196,7 @@ class RegionaisClientFaultToleranceTest {
             // Arrange
             WebApplicationException serviceUnavailable =
                 new WebApplicationException("Service Unavailable", 503);
-            when(regionaisClient.getRegionais()).thenThrow(serviceUnavailable);
+            when(regionaisClient.getRegionaisCondicional(any(), any())).thenThrow(serviceUnavailable);
 
             // Act & Assert
             assertThatThrownBy(() -> regionalService.sincronizar())
@@ -201,7 +210,7 @@ class RegionaisClientFaultToleranceTest {
             // Arrange
             WebApplicationException badGateway =
                 new WebApplicationException("Bad Gateway", 502);
-            when(regionaisClient.getRegionais()).thenThrow(badGateway);
+            when(regionaisClient.getRegionaisCondicional(any(), any())).thenThrow(badGateway);
 
             // Act & Assert
             assertThatThrownBy(() -> regionalService.sincronizar())
@@ -215,7 +224,7 @@ class RegionaisClientFaultToleranceTest {
             // Arrange
             WebApplicationException gatewayTimeout =
                 new WebApplicationException("Gateway Timeout", 504);
-            when(regionaisClient.getRegionais()).thenThrow(gatewayTimeout);
+            when(regionaisClient.getRegionaisCondicional(any(), any())).thenThrow(gatewayTimeout);
 
             // Act & Assert
             assertThatThrownBy(() -> regionalService.sincronizar())
@@ -238,7 +247,7 @@ class RegionaisClientFaultToleranceTest {
             // Arrange - Simula Circuit Breaker aberto
             CircuitBreakerOpenException circuitBreakerOpen =
                 new CircuitBreakerOpenException("Circuit breaker is open");
-            when(regionaisClient.getRegionais()).thenThrow(circuitBreakerOpen);
+            when(regionaisClient.getRegionaisCondicional(any(), any())).thenThrow(circuitBreakerOpen);
 
             // Act & Assert
             assertThatThrownBy(() -> regionalService.sincronizar())
@@ -252,7 +261,7 @@ class RegionaisClientFaultToleranceTest {
             // Arrange
             CircuitBreakerOpenException circuitBreakerOpen =
                 new CircuitBreakerOpenException("Circuit breaker is open for getRegionais");
-            when(regionaisClient.getRegionais()).thenThrow(circuitBreakerOpen);
+            when(regionaisClient.getRegionaisCondicional(any(), any())).thenThrow(circuitBreakerOpen);
 
             // Act & Assert
             assertThatThrownBy(() -> regionalService.sincronizar())
@@ -275,20 +284,12 @@ class RegionaisClientFaultToleranceTest {
         @Test
         @DisplayName("Deve sincronizar com sucesso apos API se recuperar")
         void shouldSyncSuccessfullyAfterApiRecovers() {
-            // Arrange - Primeira chamada falha, setup para segunda bem-sucedida
-            RegionalExterna externa = new RegionalExterna();
-            externa.setId(100);
-            externa.setNome("Regional Teste");
-
-            // Primeira chamada falha
-            when(regionaisClient.getRegionais())
+            // Arrange - Primeira chamada falha, segunda retorna uma regional
+            when(regionaisClient.getRegionaisCondicional(any(), any()))
                 .thenThrow(new ProcessingException(new ConnectException("Connection refused")))
-                .thenReturn(List.of(externa));
-
-            PanacheQuery mockQuery = mock(PanacheQuery.class);
-            when(mockQuery.firstResultOptional()).thenReturn(Optional.empty());
-            when(regionalRepository.find(eq("idExterno = ?1 AND ativo = false"), anyInt())).thenReturn(mockQuery);
-            doNothing().when(regionalRepository).persist(any(Regional.class));
+                .thenReturn(Uni.createFrom().item(ok("[{\"id\":100,\"nome\":\"Regional Teste\"}]")));
+            when(regionalRepository.sincronizar(any(), any(), any(), any()))
+                .thenReturn(new RegionalRepository.ResultadoSincronizacao(1L, 1, 1, 0, 0, 0));
 
             // Act - Primeira tentativa falha
             assertThatThrownBy(() -> regionalService.sincronizar())
@@ -315,7 +316,8 @@ class RegionaisClientFaultToleranceTest {
         @DisplayName("Deve processar lista vazia sem erros")
         void shouldProcessEmptyListWithoutErrors() {
             // Arrange - API retorna lista vazia (valido)
-            when(regionaisClient.getRegionais()).thenReturn(List.of());
+            when(regionaisClient.getRegionaisCondicional(any(), any()))
+                .thenReturn(Uni.createFrom().item(ok("[]")));
 
             // Act
             var result = regionalService.sincronizar();
@@ -329,8 +331,9 @@ class RegionaisClientFaultToleranceTest {
         @Test
         @DisplayName("Deve lancar BusinessException quando API retorna null")
         void shouldThrowBusinessExceptionWhenApiReturnsNull() {
-            // Arrange - API retorna null (situacao de erro)
-            when(regionaisClient.getRegionais()).thenReturn(null);
+            // Arrange - API retorna corpo null (situacao de erro)
+            when(regionaisClient.getRegionaisCondicional(any(), any()))
+                .thenReturn(Uni.createFrom().item(ok("null")));
 
             // Act & Assert
             assertThatThrownBy(() -> regionalService.sincronizar())
@@ -351,7 +354,7 @@ class RegionaisClientFaultToleranceTest {
         void shouldFailGracefullyAfterMultipleAttempts() {
             // Arrange - Todas as tentativas falham
             RuntimeException persistentError = new RuntimeException("Erro persistente na API");
-            when(regionaisClient.getRegionais()).thenThrow(persistentError);
+            when(regionaisClient.getRegionaisCondicional(any(), any())).thenThrow(persistentError);
 
             // Act & Assert - Cada tentativa deve resultar em BusinessException
             for (int i = 0; i < 3; i++) {
@@ -361,7 +364,7 @@ class RegionaisClientFaultToleranceTest {
             }
 
             // Verifica que o client foi chamado 3 vezes
-            verify(regionaisClient, times(3)).getRegionais();
+            verify(regionaisClient, times(3)).getRegionaisCondicional(any(), any());
         }
     }
 }
@@ -0,0 +1,151 @@
+package br.gov.mt.seplag.infrastructure.client;
+
+import br.gov.mt.seplag.infrastructure.client.RegionaisGateway.RegionaisPayload;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.smallrye.faulttolerance.api.CircuitBreakerMaintenance;
+import io.smallrye.faulttolerance.api.CircuitBreakerState;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Testes de integracao do RegionaisGateway contra o stub local da API
+ * (RegionaisApiStub): cliente nao bloqueante, requisicao condicional, retry,
+ * fallback com o ultimo payload e circuit breaker.
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+@QuarkusTest
+@TestProfile(RegionaisGatewayStubTest.StubProfile.class)
+@DisplayName("RegionaisGateway - Stub da API")
+class RegionaisGatewayStubTest {
+
+    public static class StubProfile implements QuarkusTestProfile {
+        @Override
+        public List<TestResourceEntry> testResources() {
+            return List.of(new TestResourceEntry(RegionaisApiStub.class));
+        }
+    }
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @Inject
+    RegionaisGateway gateway;
+
+    @Inject
+    CircuitBreakerMaintenance circuitBreakers;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "quarkus.rest-client.\"regionais-api\".url")
+    String stubUrl;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        admin("POST", "/__admin/reset", null, null);
+        circuitBreakers.resetAll();
+        gateway.limpar();
+    }
+
+    private String admin(String metodo, String path, String corpo, String[] cabecalhos)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(stubUrl + path))
+            .method(metodo, corpo != null ? HttpRequest.BodyPublishers.ofString(corpo) : HttpRequest.BodyPublishers.noBody());
+        if (cabecalhos != null) {
+            request.headers(cabecalhos);
+        }
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    private void apiFalha(int status) throws Exception {
+        admin("PUT", "/__admin/regionais", "", new String[] {"X-Stub-Status", String.valueOf(status)});
+    }
+
+    private int requisicoes() throws Exception {
+        return Integer.parseInt(admin("GET", "/__admin/requisicoes", null, null));
+    }
+
+    private RegionaisPayload buscar(String etag) {
+        return gateway.buscar(etag, null).await().atMost(Duration.ofSeconds(30));
+    }
+
+    @Test
+    @DisplayName("Deve obter o payload e o ETag da API")
+    void shouldFetchPayloadAndEtag() throws Exception {
+        RegionaisPayload payload = buscar(null);
+
+        assertThat(payload.status()).isEqualTo(200);
+        assertThat(Files.readString(payload.corpo())).isEqualTo(RegionaisApiStub.PAYLOAD_PADRAO);
+        assertThat(payload.etag()).isEqualTo("\"stub-1\"");
+        assertThat(payload.stale()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve receber 304 com If-None-Match igual ao ETag atual")
+    void shouldReceiveNotModifiedForCurrentEtag() {
+        RegionaisPayload payload = buscar("\"stub-1\"");
+
+        assertThat(payload.naoModificado()).isTrue();
+        assertThat(payload.corpo()).isNull();
+    }
+
+    @Test
+    @DisplayName("Deve repetir e entregar o ultimo payload com a idade quando a API falha")
+    void shouldRetryAndServeStalePayloadWhenApiFails() throws Exception {
+        buscar(null);
+        apiFalha(503);
+        int antes = requisicoes();
+
+        RegionaisPayload payload = buscar(null);
+
+        assertThat(requisicoes() - antes).isEqualTo(3);
+        assertThat(payload.stale()).isTrue();
+        assertThat(Files.readString(payload.corpo())).isEqualTo(RegionaisApiStub.PAYLOAD_PADRAO);
+        assertThat(payload.idade().isNegative()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve propagar a falha quando nao ha payload anterior")
+    void shouldFailWithoutPreviousPayload() throws Exception {
+        apiFalha(500);
+
+        assertThatThrownBy(() -> buscar(null)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Deve abrir o circuito e expor o estado como metrica")
+    void shouldOpenCircuitAndExposeState() throws Exception {
+        assertThat(meterRegistry.find("regional_api_circuit_breaker_state").gauge().value()).isZero();
+        buscar(null);
+        apiFalha(500);
+
+        for (int i = 0; i < 4; i++) {
+            buscar(null);
+        }
+        int antes = requisicoes();
+        RegionaisPayload payload = buscar(null);
+
+        assertThat(gateway.estadoCircuito()).isEqualTo(CircuitBreakerState.OPEN);
+        assertThat(meterRegistry.find("regional_api_circuit_breaker_state").gauge().value()).isEqualTo(2.0);
+        assertThat(requisicoes()).isEqualTo(antes);
+        assertThat(payload.stale()).isTrue();
+    }
+}
@@ -0,0 +1,148 @@
+package br.gov.mt.seplag.infrastructure.client;
+
+import br.gov.mt.seplag.infrastructure.client.RegionaisGateway.RegionaisPayload;
+import br.gov.mt.seplag.infrastructure.metrics.MetricsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.mutiny.Uni;
+import jakarta.ws.rs.core.HttpHeaders;
+import org.jboss.resteasy.reactive.RestResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes unitarios para RegionaisGateway (sem as anotacoes de resiliencia,
+ * que so atuam no container; ver RegionaisGatewayStubTest).
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+class RegionaisGatewayTest {
+
+    private MeterRegistry meterRegistry;
+    private RegionaisClient client;
+    private RegionaisGateway gateway;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        client = mock(RegionaisClient.class);
+        gateway = new RegionaisGateway();
+        gateway.regionaisClient = client;
+        gateway.metricsService = new MetricsService(meterRegistry);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Path apiResponde(int status, String corpo, String etag) throws IOException {
+        // O cliente REST grava o corpo em arquivo temporario, inclusive vazio em 304
+        Path arquivo = Files.writeString(Files.createTempFile("regionais", ".json"), corpo != null ? corpo : "");
+        RestResponse<Path> response = mock(RestResponse.class);
+        when(response.getStatus()).thenReturn(status);
+        when(response.getEntity()).thenReturn(arquivo);
+        when(response.getHeaderString(HttpHeaders.ETAG)).thenReturn(etag);
+        when(client.getRegionaisCondicional(any(), any())).thenReturn(Uni.createFrom().item(response));
+        return arquivo;
+    }
+
+    @Test
+    void buscarShouldKeepLastSuccessfulPayload() throws Exception {
+        apiResponde(200, "[{\"id\":1,\"nome\":\"A\"}]", "\"v1\"");
+
+        RegionaisPayload payload = gateway.buscar(null, null).await().indefinitely();
+
+        assertThat(payload.stale()).isFalse();
+        assertThat(payload.etag()).isEqualTo("\"v1\"");
+        assertThat(gateway.ultimoPayload()).contains(payload);
+    }
+
+    @Test
+    void notModifiedShouldRevalidateMatchingPayload() throws Exception {
+        apiResponde(200, "[]", "\"v1\"");
+        RegionaisPayload primeiro = gateway.buscar(null, null).await().indefinitely();
+        Thread.sleep(5);
+        apiResponde(304, null, null);
+
+        RegionaisPayload payload = gateway.buscar("\"v1\"", null).await().indefinitely();
+
+        assertThat(payload.naoModificado()).isTrue();
+        assertThat(gateway.ultimoPayload().orElseThrow().obtidoEm()).isAfter(primeiro.obtidoEm());
+        assertThat(Files.readString(gateway.ultimoPayload().orElseThrow().corpo())).isEqualTo("[]");
+    }
+
+    @Test
+    void newPayloadShouldDeletePreviousBodyFile() throws Exception {
+        Path primeiro = apiResponde(200, "[]", "\"v1\"");
+        gateway.buscar(null, null).await().indefinitely();
+        Path vazio = apiResponde(304, null, null);
+        gateway.buscar("\"v1\"", null).await().indefinitely();
+
+        // O 304 nao tem corpo util; o payload guardado continua o mesmo arquivo
+        assertThat(vazio).doesNotExist();
+        assertThat(primeiro).exists();
+
+        Path segundo = apiResponde(200, "[{\"id\":1,\"nome\":\"A\"}]", "\"v2\"");
+        gateway.buscar("\"v1\"", null).await().indefinitely();
+
+        assertThat(primeiro).doesNotExist();
+        assertThat(gateway.ultimoPayload().orElseThrow().corpo()).isEqualTo(segundo);
+
+        gateway.limpar();
+        assertThat(segundo).doesNotExist();
+    }
+
+    @Test
+    void notModifiedShouldRecordLastSuccessWithoutStoredPayload() throws Exception {
+        apiResponde(304, null, null);
+
+        gateway.buscar("\"v0\"", null).await().indefinitely();
+
+        assertThat(gateway.ultimoPayload()).isEmpty();
+        assertThat(gateway.ultimoSucesso()).isPresent();
+    }
+
+    @Test
+    void unexpectedStatusShouldFail() throws Exception {
+        Path arquivo = apiResponde(302, null, null);
+
+        assertThatThrownBy(() -> gateway.buscar(null, null).await().indefinitely())
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("HTTP 302");
+        assertThat(gateway.ultimoSucesso()).isEmpty();
+        assertThat(arquivo).doesNotExist();
+    }
+
+    @Test
+    void fallbackWithoutPreviousPayloadShouldPropagateFailure() {
+        ConnectException falha = new ConnectException("Connection refused");
+
+        assertThatThrownBy(() -> gateway.ultimoPayloadValido(null, null, falha).await().indefinitely())
+            .hasCause(falha);
+        assertThat(meterRegistry.find("regional_api_fallback_total").counter().count()).isZero();
+    }
+
+    @Test
+    void fallbackShouldServeLastPayloadAsStale() throws Exception {
+        apiResponde(200, "[{\"id\":1,\"nome\":\"A\"}]", "\"v1\"");
+        RegionaisPayload original = gateway.buscar(null, null).await().indefinitely();
+
+        RegionaisPayload payload = gateway.ultimoPayloadValido("\"v1\"", null, new ConnectException("Connection refused"))
+            .await().indefinitely();
+
+        assertThat(payload.stale()).isTrue();
+        assertThat(payload.corpo()).isEqualTo(original.corpo());
+        assertThat(payload.obtidoEm()).isEqualTo(original.obtidoEm());
+        assertThat(payload.idade().isNegative()).isFalse();
+        assertThat(gateway.ultimoPayload().orElseThrow().stale()).isFalse();
+        assertThat(meterRegistry.find("regional_api_fallback_total").counter().count()).isEqualTo(1.0);
+    }
+}
@@ -0,0 +1,84 @@
+package br.gov.mt.seplag.infrastructure.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Testes unitarios para RegionaisPayloadReader.
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+class RegionaisPayloadReaderTest {
+
+    private final JsonFactory factory = new JsonFactory();
+    private final List<List<Integer>> lotesIds = new ArrayList<>();
+    private final List<List<String>> lotesNomes = new ArrayList<>();
+
+    private int ler(String json, int tamanhoLote) throws Exception {
+        return RegionaisPayloadReader.lerEmLotes(factory,
+            new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), tamanhoLote, (ids, nomes) -> {
+            // Copia: os arrays sao reutilizados no proximo lote
+            lotesIds.add(List.copyOf(Arrays.asList(ids)));
+            lotesNomes.add(Arrays.asList(nomes.clone()));
+        });
+    }
+
+    @Test
+    void shouldDeliverFixedSizeBatchesInOrder() throws Exception {
+        int lidas = ler("""
+            [{"id":1,"nome":"A"},{"id":2,"nome":"B"},{"id":3,"nome":"C"},
+             {"id":4,"nome":"D"},{"id":5,"nome":"E"}]
+            """, 2);
+
+        assertThat(lotesIds).containsExactly(List.of(1, 2), List.of(3, 4), List.of(5));
+        assertThat(lotesNomes.get(2)).containsExactly("E");
+        assertThat(lidas).isEqualTo(5);
+    }
+
+    @Test
+    void shouldIgnoreUnknownFieldsAndAcceptNumericTextIds() throws Exception {
+        ler("""
+            [{"extra":{"a":[1,2]},"id":"7","nome":"Sete","ativo":true}]
+            """, 10);
+
+        assertThat(lotesIds).containsExactly(List.of(7));
+        assertThat(lotesNomes).containsExactly(List.of("Sete"));
+    }
+
+    @Test
+    void shouldDeliverDuplicatedIdsAndCountEveryOccurrence() throws Exception {
+        int lidas = ler("[{\"id\":1,\"nome\":\"A\"},{\"id\":1,\"nome\":\"A2\"},{\"id\":0,\"nome\":\"Z\"}]", 10);
+
+        // Deduplicacao e contagem dos distintos ficam no banco
+        assertThat(lidas).isEqualTo(3);
+        assertThat(lotesNomes).containsExactly(List.of("A", "A2", "Z"));
+    }
+
+    @Test
+    void emptyArrayShouldDeliverNoBatch() throws Exception {
+        int lidas = ler("[]", 10);
+
+        assertThat(lotesIds).isEmpty();
+        assertThat(lidas).isZero();
+    }
+
+    @Test
+    void shouldRejectPayloadOutOfFormat() {
+        assertThatThrownBy(() -> ler("{\"id\":1}", 10)).isInstanceOf(JsonParseException.class);
+        assertThatThrownBy(() -> ler("[{\"nome\":\"Sem id\"}]", 10))
+            .isInstanceOf(JsonParseException.class)
+            .hasMessageContaining("sem id");
+        assertThatThrownBy(() -> ler("[{\"id\":\"x\",\"nome\":\"A\"}]", 10))
+            .isInstanceOf(JsonParseException.class);
+    }
+}
@@ -1,10 +1,22 @@
 package br.gov.mt.seplag.infrastructure.health;
 
+import io.smallrye.jwt.algorithm.SignatureAlgorithm;
+import io.smallrye.jwt.util.KeyUtils;
 import org.eclipse.microprofile.health.HealthCheckResponse;
+import org.jose4j.jwk.JsonWebKey;
+import org.jose4j.jwk.JsonWebKeySet;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.PublicKey;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -24,6 +36,9 @@ class JwtHealthCheckTest {
         // Configura campos via reflection (simula injecao de ConfigProperty)
         setField(healthCheck, "publicKeyLocation", "publicKey.pem");
         setField(healthCheck, "privateKeyLocation", "privateKey.pem");
+        setField(healthCheck, "signatureAlgorithm", "RS256");
+        setField(healthCheck, "signingKeyId", Optional.empty());
+        setField(healthCheck, "verifyAlgorithms", List.of("RS256"));
     }
 
     @Test
@@ -61,6 +76,88 @@ class JwtHealthCheckTest {
         assertThat(response.getData().get().get("privateKey")).isEqualTo("MISSING");
     }
 
+    @Test
+    void callShouldReturnDownWhenKeyTypeDoesNotMatchAlgorithm() throws Exception {
+        // Chaves do classpath sao RSA; ES256 exige chave EC
+        setField(healthCheck, "signatureAlgorithm", "ES256");
+        setField(healthCheck, "verifyAlgorithms", List.of("ES256"));
+
+        HealthCheckResponse response = healthCheck.call();
+
+        assertThat(response.getStatus()).isEqualTo(HealthCheckResponse.Status.DOWN);
+        assertThat(response.getData().get().get("privateKey")).isEqualTo("INVALID");
+        assertThat(response.getData().get().get("publicKey")).isEqualTo("INVALID");
+    }
+
+    @Test
+    void callShouldReturnDownWhenSigningAlgorithmNotAcceptedOnVerification() throws Exception {
+        setField(healthCheck, "signatureAlgorithm", "ES256");
+
+        HealthCheckResponse response = healthCheck.call();
+
+        assertThat(response.getStatus()).isEqualTo(HealthCheckResponse.Status.DOWN);
+    }
+
+    @Test
+    void callShouldReturnUpWithEs256Keys(@TempDir Path dir) throws Exception {
+        KeyPair keyPair = KeyUtils.generateKeyPair(256, SignatureAlgorithm.ES256);
+        Path privateKey = writePem(dir.resolve("es256-private.pem"), "PRIVATE KEY", keyPair.getPrivate().getEncoded());
+        Path publicKey = writePem(dir.resolve("es256-public.pem"), "PUBLIC KEY", keyPair.getPublic().getEncoded());
+
+        setField(healthCheck, "privateKeyLocation", privateKey.toString());
+        setField(healthCheck, "publicKeyLocation", publicKey.toString());
+        setField(healthCheck, "signatureAlgorithm", "ES256");
+        setField(healthCheck, "verifyAlgorithms", List.of("ES256"));
+
+        HealthCheckResponse response = healthCheck.call();
+
+        assertThat(response.getStatus()).isEqualTo(HealthCheckResponse.Status.UP);
+        assertThat(response.getData().get().get("algorithm")).isEqualTo("ES256");
+    }
+
+    @Test
+    void callShouldAcceptJwkSetContainingSigningKid(@TempDir Path dir) throws Exception {
+        Path jwks = writeJwkSet(dir.resolve("publicKeys.jwks"), "chave-antiga", "chave-nova");
+
+        setField(healthCheck, "publicKeyLocation", jwks.toString());
+        setField(healthCheck, "signingKeyId", Optional.of("chave-nova"));
+
+        HealthCheckResponse response = healthCheck.call();
+
+        assertThat(response.getStatus()).isEqualTo(HealthCheckResponse.Status.UP);
+        assertThat(response.getData().get().get("verificationKeys")).isEqualTo(2L);
+        assertThat(response.getData().get().get("keyId")).isEqualTo("chave-nova");
+    }
+
+    @Test
+    void callShouldReturnDownWhenSigningKidMissingFromJwkSet(@TempDir Path dir) throws Exception {
+        Path jwks = writeJwkSet(dir.resolve("publicKeys.jwks"), "chave-antiga");
+
+        setField(healthCheck, "publicKeyLocation", jwks.toString());
+        setField(healthCheck, "signingKeyId", Optional.of("chave-nova"));
+
+        HealthCheckResponse response = healthCheck.call();
+
+        assertThat(response.getStatus()).isEqualTo(HealthCheckResponse.Status.DOWN);
+        assertThat(response.getData().get().get("publicKey")).isEqualTo("KID_NOT_FOUND");
+    }
+
+    private Path writeJwkSet(Path file, String... kids) throws Exception {
+        PublicKey publicKey = KeyUtils.readPublicKey("publicKey.pem");
+        JsonWebKeySet keySet = new JsonWebKeySet();
+        for (String kid : kids) {
+            JsonWebKey jwk = JsonWebKey.Factory.newJwk(publicKey);
+            jwk.setKeyId(kid);
+            keySet.addJsonWebKey(jwk);
+        }
+        return Files.writeString(file, keySet.toJson());
+    }
+
+    private Path writePem(Path file, String type, byte[] encoded) throws Exception {
+        String body = Base64.getMimeEncoder(64, "\n".getBytes()).encodeToString(encoded);
+        return Files.writeString(file, "-----BEGIN " + type + "-----\n" + body + "\n-----END " + type + "-----\n");
+    }
+
     private void setField(Object target, String fieldName, Object value) throws Exception {
         Field field = target.getClass().getDeclaredField(fieldName);
         field.setAccessible(true);
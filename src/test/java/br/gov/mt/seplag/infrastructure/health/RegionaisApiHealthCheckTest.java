@@ -0,0 +1,74 @@
+package br.gov.mt.seplag.infrastructure.health;
+
+import br.gov.mt.seplag.infrastructure.client.RegionaisGateway;
+import io.smallrye.faulttolerance.api.CircuitBreakerState;
+import org.eclipse.microprofile.health.HealthCheckResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes unitarios para RegionaisApiHealthCheck (sem chamada a API).
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+class RegionaisApiHealthCheckTest {
+
+    private RegionaisApiHealthCheck healthCheck;
+    private RegionaisGateway gateway;
+
+    @BeforeEach
+    void setUp() {
+        gateway = mock(RegionaisGateway.class);
+        healthCheck = new RegionaisApiHealthCheck();
+        healthCheck.regionaisGateway = gateway;
+        healthCheck.apiUrl = "http://regionais";
+    }
+
+    @Test
+    void callShouldReturnUpWithLastSuccessWhenCircuitClosed() {
+        Instant sucesso = Instant.now().minusSeconds(30);
+        when(gateway.estadoCircuito()).thenReturn(CircuitBreakerState.CLOSED);
+        when(gateway.ultimoSucesso()).thenReturn(Optional.of(sucesso));
+
+        HealthCheckResponse response = healthCheck.call();
+
+        assertThat(response.getStatus()).isEqualTo(HealthCheckResponse.Status.UP);
+        assertThat(response.getData().orElseThrow())
+            .containsEntry("circuitBreaker", "CLOSED")
+            .containsEntry("ultimoSucesso", sucesso.toString());
+        verify(gateway, never()).buscar(any(), any());
+    }
+
+    @Test
+    void callShouldReturnUpBeforeFirstCall() {
+        when(gateway.estadoCircuito()).thenReturn(CircuitBreakerState.CLOSED);
+        when(gateway.ultimoSucesso()).thenReturn(Optional.empty());
+
+        HealthCheckResponse response = healthCheck.call();
+
+        assertThat(response.getStatus()).isEqualTo(HealthCheckResponse.Status.UP);
+        assertThat(response.getData().orElseThrow()).doesNotContainKey("ultimoSucesso");
+    }
+
+    @Test
+    void callShouldReturnDownWhenCircuitOpen() {
+        when(gateway.estadoCircuito()).thenReturn(CircuitBreakerState.OPEN);
+        when(gateway.ultimoSucesso()).thenReturn(Optional.of(Instant.now().minusSeconds(120)));
+
+        HealthCheckResponse response = healthCheck.call();
+
+        assertThat(response.getStatus()).isEqualTo(HealthCheckResponse.Status.DOWN);
+        assertThat(response.getData().orElseThrow()).containsEntry("circuitBreaker", "OPEN");
+        verify(gateway, never()).buscar(any(), any());
+    }
+}
@@ -0,0 +1,105 @@
+package br.gov.mt.seplag.infrastructure.lock;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes unitarios para AdvisoryLockService.
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+class AdvisoryLockServiceTest {
+
+    private AdvisoryLockService service;
+    private Connection connection;
+    private PreparedStatement tryLock;
+    private PreparedStatement unlock;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        connection = mock(Connection.class);
+        tryLock = mock(PreparedStatement.class);
+        unlock = mock(PreparedStatement.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement("SELECT pg_try_advisory_lock(?, ?)")).thenReturn(tryLock);
+        when(connection.prepareStatement("SELECT pg_advisory_unlock(?, ?)")).thenReturn(unlock);
+        stubResult(unlock, true);
+
+        service = new AdvisoryLockService();
+        service.dataSource = dataSource;
+    }
+
+    @Test
+    void runExclusiveShouldRunTaskAndReleaseLock() throws SQLException {
+        stubResult(tryLock, true);
+
+        Optional<String> resultado = service.runExclusive("regional-sync", () -> "ok");
+
+        assertThat(resultado).contains("ok");
+        verify(tryLock).setInt(1, AdvisoryLockService.NAMESPACE);
+        verify(tryLock).setInt(2, "regional-sync".hashCode());
+        verify(unlock).executeQuery();
+        verify(connection).close();
+    }
+
+    @Test
+    void runExclusiveShouldSkipTaskWhenLockIsTaken() throws SQLException {
+        stubResult(tryLock, false);
+        AtomicBoolean executou = new AtomicBoolean();
+
+        Optional<Object> resultado = service.runExclusive("regional-sync", () -> {
+            executou.set(true);
+            return "ok";
+        });
+
+        assertThat(resultado).isEmpty();
+        assertThat(executou).isFalse();
+        verify(connection, never()).prepareStatement("SELECT pg_advisory_unlock(?, ?)");
+        verify(connection).close();
+    }
+
+    @Test
+    void runExclusiveShouldReleaseLockWhenTaskFails() throws SQLException {
+        stubResult(tryLock, true);
+
+        assertThatThrownBy(() -> service.runExclusive("regional-sync", () -> {
+            throw new IllegalArgumentException("falha");
+        })).isInstanceOf(IllegalArgumentException.class);
+
+        verify(unlock).executeQuery();
+        verify(connection).close();
+    }
+
+    @Test
+    void runExclusiveShouldWrapConnectionFailure() throws SQLException {
+        when(connection.prepareStatement(anyString())).thenThrow(new SQLException("conexao recusada"));
+
+        assertThatThrownBy(() -> service.runExclusive("regional-sync", () -> "ok"))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("regional-sync");
+    }
+
+    private static void stubResult(PreparedStatement statement, boolean valor) throws SQLException {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getBoolean(1)).thenReturn(valor);
+        when(statement.executeQuery()).thenReturn(resultSet);
+    }
+}
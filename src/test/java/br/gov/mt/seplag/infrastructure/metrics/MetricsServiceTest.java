@@ -102,6 +102,28 @@ class MetricsServiceTest {
         assertThat(counter.count()).isEqualTo(1.0);
     }
 
+    @Test
+    void recordRegionalSyncSkippedShouldIncrementCounterByReason() {
+        metricsService.recordRegionalSyncSkipped("not_modified");
+        metricsService.recordRegionalSyncSkipped("unchanged");
+        metricsService.recordRegionalSyncSkipped("unchanged");
+
+        assertThat(meterRegistry.find("regional_sync_skipped_total").tag("reason", "not_modified").counter().count())
+            .isEqualTo(1.0);
+        assertThat(meterRegistry.find("regional_sync_skipped_total").tag("reason", "unchanged").counter().count())
+            .isEqualTo(2.0);
+    }
+
+    @Test
+    void recordRegionalApiFallbackShouldIncrementCounters() {
+        metricsService.recordRegionalApiFallback();
+        metricsService.recordRegionalSyncSkipped("stale");
+
+        assertThat(meterRegistry.find("regional_api_fallback_total").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.find("regional_sync_skipped_total").tag("reason", "stale").counter().count())
+            .isEqualTo(1.0);
+    }
+
     @Test
     void recordRateLimitExceededShouldIncrementCounter() {
         metricsService.recordRateLimitExceeded();
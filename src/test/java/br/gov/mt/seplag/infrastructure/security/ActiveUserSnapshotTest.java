@@ -0,0 +1,95 @@
+package br.gov.mt.seplag.infrastructure.security;
+
+import br.gov.mt.seplag.domain.model.Usuario;
+import br.gov.mt.seplag.domain.repository.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes unitarios para ActiveUserSnapshot.
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+class ActiveUserSnapshotTest {
+
+    private ActiveUserSnapshot snapshot;
+    private UsuarioRepository usuarioRepository;
+    private RefreshTokenStore refreshTokenStore;
+
+    @BeforeEach
+    void setUp() {
+        usuarioRepository = mock(UsuarioRepository.class);
+        refreshTokenStore = mock(RefreshTokenStore.class);
+
+        snapshot = new ActiveUserSnapshot();
+        snapshot.usuarioRepository = usuarioRepository;
+        snapshot.refreshTokenStore = refreshTokenStore;
+    }
+
+    private Usuario usuario(String username) {
+        Usuario usuario = new Usuario();
+        usuario.setUsername(username);
+        usuario.setRole("USER");
+        return usuario;
+    }
+
+    @Test
+    void refreshShouldRevokeUsersNoLongerActive() {
+        when(usuarioRepository.findAllAtivos()).thenReturn(List.of(usuario("ana"), usuario("bia")));
+        snapshot.refresh();
+
+        when(usuarioRepository.findAllAtivos()).thenReturn(List.of(usuario("ana")));
+        snapshot.refresh();
+
+        assertThat(snapshot.find("bia")).isEmpty();
+        verify(refreshTokenStore).revokeAllForUser("bia");
+        verify(refreshTokenStore, never()).revokeAllForUser("ana");
+    }
+
+    @Test
+    void failedRevocationShouldNotBlockOthersAndShouldBeRetried() {
+        when(usuarioRepository.findAllAtivos()).thenReturn(List.of(usuario("ana"), usuario("bia"), usuario("caio")));
+        snapshot.refresh();
+        doThrow(new IllegalStateException("banco indisponivel")).when(refreshTokenStore).revokeAllForUser("bia");
+
+        when(usuarioRepository.findAllAtivos()).thenReturn(List.of(usuario("ana")));
+        snapshot.refresh();
+
+        assertThat(snapshot.find("bia")).isEmpty();
+        verify(refreshTokenStore).revokeAllForUser("caio");
+
+        // Na recarga seguinte so a revogacao que falhou e repetida
+        doThrow(new IllegalStateException("banco indisponivel")).doReturn(1)
+            .when(refreshTokenStore).revokeAllForUser("bia");
+        snapshot.refresh();
+        snapshot.refresh();
+
+        verify(refreshTokenStore, times(3)).revokeAllForUser("bia");
+        verify(refreshTokenStore, times(1)).revokeAllForUser("caio");
+    }
+
+    @Test
+    void reactivatedUserShouldNotBeRevokedOnRetry() {
+        when(usuarioRepository.findAllAtivos()).thenReturn(List.of(usuario("ana"), usuario("bia")));
+        snapshot.refresh();
+        doThrow(new IllegalStateException("banco indisponivel")).when(refreshTokenStore).revokeAllForUser("bia");
+
+        when(usuarioRepository.findAllAtivos()).thenReturn(List.of(usuario("ana")));
+        snapshot.refresh();
+        when(usuarioRepository.findAllAtivos()).thenReturn(List.of(usuario("ana"), usuario("bia")));
+        snapshot.refresh();
+
+        assertThat(snapshot.find("bia")).isPresent();
+        verify(refreshTokenStore, times(1)).revokeAllForUser("bia");
+    }
+}
@@ -0,0 +1,163 @@
+package br.gov.mt.seplag.infrastructure.security;
+
+import br.gov.mt.seplag.infrastructure.metrics.MetricsService;
+import io.smallrye.jwt.auth.principal.DefaultJWTParser;
+import io.smallrye.jwt.auth.principal.ParseException;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes unitarios para CachingJwtParser.
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+class CachingJwtParserTest {
+
+    private CachingJwtParser parser;
+    private DefaultJWTParser delegate;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(DefaultJWTParser.class);
+
+        parser = new CachingJwtParser();
+        parser.delegate = delegate;
+        parser.enabled = true;
+        parser.maxSize = 100;
+    }
+
+    @Test
+    void parseShouldVerifyOnlyOnceForSameToken() throws Exception {
+        JsonWebToken jwt = tokenExpiringIn(300);
+        when(delegate.parse("token-a")).thenReturn(jwt);
+
+        JsonWebToken first = parser.parse("token-a");
+        JsonWebToken second = parser.parse("token-a");
+
+        assertThat(first).isSameAs(jwt);
+        assertThat(second).isSameAs(jwt);
+        verify(delegate, times(1)).parse("token-a");
+    }
+
+    @Test
+    void parseShouldVerifyAgainWhenCachedTokenExpired() throws Exception {
+        JsonWebToken jwt = tokenExpiringIn(-1);
+        when(delegate.parse("token-expirado")).thenReturn(jwt);
+
+        parser.parse("token-expirado");
+        parser.parse("token-expirado");
+
+        verify(delegate, times(2)).parse("token-expirado");
+        assertThat(parser.size()).isZero();
+    }
+
+    @Test
+    void parseShouldNotCacheInvalidToken() throws Exception {
+        when(delegate.parse("invalido")).thenThrow(new ParseException("assinatura invalida"));
+
+        assertThatThrownBy(() -> parser.parse("invalido")).isInstanceOf(ParseException.class);
+        assertThatThrownBy(() -> parser.parse("invalido")).isInstanceOf(ParseException.class);
+
+        verify(delegate, times(2)).parse("invalido");
+        assertThat(parser.size()).isZero();
+    }
+
+    @Test
+    void parseShouldDelegateWhenDisabled() throws Exception {
+        parser.enabled = false;
+        JsonWebToken jwt = tokenExpiringIn(300);
+        when(delegate.parse("token-a")).thenReturn(jwt);
+
+        parser.parse("token-a");
+        parser.parse("token-a");
+
+        verify(delegate, times(2)).parse("token-a");
+        assertThat(parser.size()).isZero();
+    }
+
+    @Test
+    void cacheShouldNotExceedMaxSize() throws Exception {
+        parser.maxSize = 3;
+        for (int i = 0; i < 10; i++) {
+            JsonWebToken jwt = tokenExpiringIn(300);
+            when(delegate.parse("token-" + i)).thenReturn(jwt);
+            parser.parse("token-" + i);
+        }
+
+        assertThat(parser.size()).isEqualTo(3);
+    }
+
+    @Test
+    void fullCacheShouldEvictTokenExpiringFirst() throws Exception {
+        parser.maxSize = 2;
+        JsonWebToken longo = tokenExpiringIn(600);
+        JsonWebToken curto = tokenExpiringIn(60);
+        JsonWebToken novo = tokenExpiringIn(300);
+        when(delegate.parse("token-longo")).thenReturn(longo);
+        when(delegate.parse("token-curto")).thenReturn(curto);
+        when(delegate.parse("token-novo")).thenReturn(novo);
+
+        parser.parse("token-longo");
+        parser.parse("token-curto");
+        parser.parse("token-novo");
+        parser.parse("token-longo");
+        parser.parse("token-curto");
+
+        assertThat(parser.size()).isEqualTo(2);
+        verify(delegate, times(1)).parse("token-longo");
+        verify(delegate, times(2)).parse("token-curto");
+    }
+
+    @Test
+    void cleanupShouldKeepValidTokensAndEvictionOrder() throws Exception {
+        parser.maxSize = 2;
+        JsonWebToken longo = tokenExpiringIn(600);
+        JsonWebToken curto = tokenExpiringIn(60);
+        JsonWebToken novo = tokenExpiringIn(300);
+        when(delegate.parse("token-longo")).thenReturn(longo);
+        when(delegate.parse("token-curto")).thenReturn(curto);
+        when(delegate.parse("token-novo")).thenReturn(novo);
+        parser.parse("token-longo");
+        parser.parse("token-curto");
+
+        parser.cleanupExpiredTokens();
+        assertThat(parser.size()).isEqualTo(2);
+
+        // O indice continua alinhado ao cache apos a limpeza
+        parser.parse("token-novo");
+        parser.parse("token-longo");
+        parser.parse("token-curto");
+
+        verify(delegate, times(1)).parse("token-longo");
+        verify(delegate, times(2)).parse("token-curto");
+    }
+
+    @Test
+    void parseShouldRecordHitsAndMisses() throws Exception {
+        MetricsService metricsService = mock(MetricsService.class);
+        parser.metricsService = metricsService;
+        JsonWebToken jwt = tokenExpiringIn(300);
+        when(delegate.parse("token-a")).thenReturn(jwt);
+
+        parser.parse("token-a");
+        parser.parse("token-a");
+        parser.parse("token-a");
+
+        verify(metricsService, times(1)).recordJwtCacheMiss();
+        verify(metricsService, times(2)).recordJwtCacheHit();
+    }
+
+    private JsonWebToken tokenExpiringIn(long seconds) {
+        JsonWebToken jwt = mock(JsonWebToken.class);
+        when(jwt.getExpirationTime()).thenReturn(System.currentTimeMillis() / 1000 + seconds);
+        return jwt;
+    }
+}
@@ -45,7 +45,7 @@ class JwtTokenServiceTest {
         String username = "testuser";
         String role = "ADMIN";
 
-        String refreshToken = jwtTokenService.generateRefreshToken(username, role);
+        String refreshToken = jwtTokenService.generateRefreshToken(username, role, "familia-1", "token-1");
 
         assertNotNull(refreshToken, "Refresh token nao deve ser nulo");
         assertFalse(refreshToken.isEmpty(), "Refresh token nao deve ser vazio");
@@ -84,7 +84,7 @@ class JwtTokenServiceTest {
         String role = "USER";
 
         String accessToken = jwtTokenService.generateToken(username, role);
-        String refreshToken = jwtTokenService.generateRefreshToken(username, role);
+        String refreshToken = jwtTokenService.generateRefreshToken(username, role, "familia-1", "token-1");
 
         assertNotEquals(accessToken, refreshToken,
             "Access token e refresh token devem ser diferentes");
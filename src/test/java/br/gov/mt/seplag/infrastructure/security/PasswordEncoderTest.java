@@ -181,4 +181,56 @@ class PasswordEncoderTest {
         assertTrue(passwordEncoder.matches("admin123", adminHash));
         assertTrue(passwordEncoder.matches("user123", userHash));
     }
+
+    @Test
+    void shouldRequireRehashForLowerWorkFactor() {
+        String hashCusto4 = org.mindrot.jbcrypt.BCrypt.hashpw("admin123", org.mindrot.jbcrypt.BCrypt.gensalt(4));
+
+        assertTrue(passwordEncoder.needsRehash(hashCusto4),
+            "Hash com work factor abaixo do configurado deve ser regenerado");
+        assertFalse(passwordEncoder.exceedsMaxWorkFactor(hashCusto4),
+            "Hash barato nao deve exceder o teto");
+    }
+
+    @Test
+    void shouldNotRequireRehashForCurrentWorkFactor() {
+        String encodedPassword = passwordEncoder.encode("admin123");
+
+        assertFalse(passwordEncoder.needsRehash(encodedPassword),
+            "Hash gerado com o work factor atual nao deve ser regenerado");
+        assertFalse(passwordEncoder.exceedsMaxWorkFactor(encodedPassword),
+            "Hash gerado com o work factor atual cabe no teto");
+    }
+
+    @Test
+    void shouldDetectHashAboveMaxWorkFactor() {
+        String hashCusto31 = "$2a$31$abcdefghijklmnopqrstuuP0e6qR2rJ7b5b8lS6Xo1u8Yb1r5m0pG";
+
+        assertTrue(passwordEncoder.exceedsMaxWorkFactor(hashCusto31),
+            "Hash com work factor acima do teto deve ser regenerado");
+        assertFalse(passwordEncoder.needsRehash(hashCusto31));
+    }
+
+    @Test
+    void shouldKeepHashAboveCalibratedButWithinMaxWorkFactor() {
+        // Gerado por um no mais rapido: acima do custo deste host, dentro do teto (14)
+        String hashCusto14 = "$2a$14$abcdefghijklmnopqrstuuP0e6qR2rJ7b5b8lS6Xo1u8Yb1r5m0pG";
+
+        assertFalse(passwordEncoder.exceedsMaxWorkFactor(hashCusto14),
+            "Hash dentro do teto nao deve ser rebaixado");
+        assertFalse(passwordEncoder.needsRehash(hashCusto14));
+    }
+
+    @Test
+    void shouldRequireRehashForNonBCryptHash() {
+        assertTrue(passwordEncoder.needsRehash("plaintext"));
+        assertTrue(passwordEncoder.needsRehash(null));
+    }
+
+    @Test
+    void shouldUseConfiguredWorkFactorWhenCalibrationDisabled() {
+        // application.properties de teste desabilita a calibracao
+        assertEquals(12, passwordEncoder.getWorkFactor());
+        assertTrue(passwordEncoder.encode("admin123").startsWith("$2a$12$"));
+    }
 }
@@ -0,0 +1,178 @@
+package br.gov.mt.seplag.infrastructure.security;
+
+import br.gov.mt.seplag.domain.model.RefreshTokenFamily;
+import br.gov.mt.seplag.domain.repository.RefreshTokenFamilyRepository;
+import br.gov.mt.seplag.infrastructure.metrics.MetricsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes unitarios para RefreshTokenStore.
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+class RefreshTokenStoreTest {
+
+    private RefreshTokenStore store;
+    private RefreshTokenFamilyRepository repository;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(RefreshTokenFamilyRepository.class);
+        registry = new SimpleMeterRegistry();
+
+        store = new RefreshTokenStore();
+        store.repository = repository;
+        store.metricsService = new MetricsService(registry);
+        store.lifespan = Duration.ofHours(24);
+    }
+
+    private RefreshTokenFamily familia(String familyId, String username, String tokenId, boolean revoked) {
+        LocalDateTime agora = LocalDateTime.now();
+        return new RefreshTokenFamily(familyId, username, tokenId, revoked, agora.plusHours(1), agora, agora);
+    }
+
+    @Test
+    void rotateShouldPersistNewFamilyThenCompareAndSet() {
+        RefreshTokenStore.Issued issued = store.startFamily("admin");
+        when(repository.rotacionar(eq(issued.familyId()), eq(issued.tokenId()), anyString(), any(), any()))
+            .thenReturn(true);
+
+        Optional<String> novo = store.rotate(issued.familyId(), issued.tokenId(), "admin");
+
+        assertThat(novo).isPresent();
+        assertThat(novo.get()).isNotEqualTo(issued.tokenId());
+        InOrder ordem = inOrder(repository);
+        ordem.verify(repository).insertAll(any());
+        ordem.verify(repository).rotacionar(eq(issued.familyId()), eq(issued.tokenId()), eq(novo.get()), any(), any());
+    }
+
+    @Test
+    void rotateShouldLoadFamilyOpenedOnAnotherNode() {
+        when(repository.buscar("f1")).thenReturn(Optional.of(familia("f1", "admin", "t1", false)));
+        when(repository.rotacionar(eq("f1"), eq("t1"), anyString(), any(), any())).thenReturn(true);
+
+        assertThat(store.rotate("f1", "t1", "admin")).isPresent();
+        verify(repository, never()).insertAll(any());
+    }
+
+    @Test
+    void rotateShouldRevokeFamilyWhenOldTokenIsReused() {
+        // Outra instancia ja rotacionou: o atual no banco e t2
+        when(repository.buscar("f1")).thenReturn(Optional.of(familia("f1", "admin", "t2", false)));
+        when(repository.rotacionar(eq("f1"), eq("t1"), anyString(), any(), any())).thenReturn(false);
+
+        Optional<String> reuso = store.rotate("f1", "t1", "admin");
+
+        assertThat(reuso).isEmpty();
+        verify(repository).revogar("f1");
+        assertThat(registry.get("auth_refresh_token_reuse_total").counter().count()).isEqualTo(1.0);
+        // O token legitimo mais recente tambem deixa de valer, sem nova ida ao banco
+        assertThat(store.rotate("f1", "t2", "admin")).isEmpty();
+        verify(repository, times(1)).rotacionar(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void rotateShouldRejectFamilyRevokedElsewhereWithoutReportingReuse() {
+        when(repository.buscar("f1"))
+            .thenReturn(Optional.of(familia("f1", "admin", "t1", false)))
+            .thenReturn(Optional.of(familia("f1", "admin", "t1", true)));
+        when(repository.rotacionar(eq("f1"), eq("t1"), anyString(), any(), any())).thenReturn(false);
+
+        assertThat(store.rotate("f1", "t1", "admin")).isEmpty();
+        verify(repository, never()).revogar(any());
+        assertThat(registry.get("auth_refresh_token_reuse_total").counter().count()).isZero();
+    }
+
+    @Test
+    void rotateShouldRejectUnknownFamily() {
+        when(repository.buscar("familia-inexistente")).thenReturn(Optional.empty());
+
+        assertThat(store.rotate("familia-inexistente", "token", "admin")).isEmpty();
+    }
+
+    @Test
+    void rotateShouldRejectFamilyOfAnotherUser() {
+        RefreshTokenStore.Issued issued = store.startFamily("admin");
+
+        assertThat(store.rotate(issued.familyId(), issued.tokenId(), "user")).isEmpty();
+        verify(repository, never()).rotacionar(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void revokeFamilyShouldPersistAndBlockRotation() {
+        RefreshTokenStore.Issued issued = store.startFamily("admin");
+
+        store.revokeFamily(issued.familyId());
+
+        InOrder ordem = inOrder(repository);
+        ordem.verify(repository).insertAll(any());
+        ordem.verify(repository).revogar(issued.familyId());
+        assertThat(store.rotate(issued.familyId(), issued.tokenId(), "admin")).isEmpty();
+        verify(repository, never()).rotacionar(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void revokeAllForUserShouldRevokeInDatabase() {
+        RefreshTokenStore.Issued sessao = store.startFamily("admin");
+        when(repository.revogarDoUsuario("admin")).thenReturn(3);
+
+        int revogadas = store.revokeAllForUser("admin");
+
+        assertThat(revogadas).isEqualTo(3);
+        verify(repository).insertAll(any());
+        assertThat(store.rotate(sessao.familyId(), sessao.tokenId(), "admin")).isEmpty();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flushShouldInsertNewFamiliesOnceInBatch() {
+        store.startFamily("admin");
+        store.startFamily("user");
+
+        store.flush();
+        store.flush();
+
+        ArgumentCaptor<Collection<RefreshTokenFamily>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(repository, times(1)).insertAll(captor.capture());
+        assertThat(captor.getValue()).hasSize(2);
+    }
+
+    @Test
+    void flushShouldRetryAfterFailure() {
+        store.startFamily("admin");
+        doThrow(new RuntimeException("db down")).when(repository).insertAll(any());
+
+        assertThat(store.flush()).isFalse();
+
+        assertThat(store.getStatistics().get("gravacoesPendentes")).isEqualTo(1);
+    }
+
+    @Test
+    void flushShouldDoNothingWithoutChanges() {
+        store.flush();
+
+        verify(repository, never()).insertAll(any());
+    }
+}
@@ -0,0 +1,119 @@
+package br.gov.mt.seplag.infrastructure.security;
+
+import br.gov.mt.seplag.domain.model.WebSocketTicket;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes unitarios para WebSocketTicketSigner e o modo signed do WebSocketTicketService.
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+class WebSocketTicketSignerTest {
+
+    private static final String SECRET = "segredo-de-teste-com-pelo-menos-32-bytes";
+
+    private WebSocketTicketSigner signer;
+
+    @BeforeEach
+    void setUp() {
+        signer = newSigner(SECRET);
+    }
+
+    @Test
+    void verifyShouldReturnSignedContent() {
+        Instant expiresAt = Instant.ofEpochSecond(Instant.now().getEpochSecond() + 30);
+
+        String token = signer.sign("id-1", "joao.silva", Set.of("USER", "ADMIN"), expiresAt);
+        Optional<WebSocketTicketSigner.SignedTicket> verified = signer.verify(token);
+
+        assertThat(verified).isPresent();
+        assertThat(verified.get().id()).isEqualTo("id-1");
+        assertThat(verified.get().username()).isEqualTo("joao.silva");
+        assertThat(verified.get().roles()).containsExactlyInAnyOrder("USER", "ADMIN");
+        assertThat(verified.get().expiresAt()).isEqualTo(expiresAt);
+    }
+
+    @Test
+    void verifyShouldRejectTamperedPayload() {
+        String token = signer.sign("id-1", "user", Set.of("USER"), Instant.now().plusSeconds(30));
+        String forged = signer.sign("id-1", "user", Set.of("ADMIN"), Instant.now().plusSeconds(30));
+
+        // Payload de um token com a assinatura de outro
+        String tampered = forged.substring(0, forged.indexOf('.')) + token.substring(token.indexOf('.'));
+
+        assertThat(signer.verify(tampered)).isEmpty();
+    }
+
+    @Test
+    void verifyShouldRejectTokenSignedWithAnotherSecret() {
+        String token = newSigner("outro-segredo-com-pelo-menos-32-bytes!!")
+            .sign("id-1", "user", Set.of("USER"), Instant.now().plusSeconds(30));
+
+        assertThat(signer.verify(token)).isEmpty();
+    }
+
+    @Test
+    void verifyShouldRejectMalformedTokens() {
+        assertThat(signer.verify(null)).isEmpty();
+        assertThat(signer.verify("")).isEmpty();
+        assertThat(signer.verify("sem-ponto")).isEmpty();
+        assertThat(signer.verify("abc.")).isEmpty();
+        assertThat(signer.verify("@@@.###")).isEmpty();
+    }
+
+    @Test
+    void signedTicketShouldBeAcceptedByAnotherNodeWithSameSecret() {
+        WebSocketTicketService emissor = newSignedService(newSigner(SECRET));
+        WebSocketTicketService outroNo = newSignedService(newSigner(SECRET));
+
+        WebSocketTicket ticket = emissor.createTicket("user", Set.of("USER"));
+        Optional<WebSocketTicket> consumed = outroNo.validateAndConsume(ticket.getTicket());
+
+        assertThat(consumed).isPresent();
+        assertThat(consumed.get().getUsername()).isEqualTo("user");
+        assertThat(consumed.get().getRoles()).containsExactly("USER");
+        assertThat(emissor.getActiveTicketsCount()).isZero();
+    }
+
+    @Test
+    void signedTicketShouldBeSingleUsePerNode() {
+        WebSocketTicketService service = newSignedService(signer);
+        WebSocketTicket ticket = service.createTicket("user", Set.of("USER"));
+
+        assertThat(service.isValid(ticket.getTicket())).isTrue();
+        assertThat(service.validateAndConsume(ticket.getTicket())).isPresent();
+        assertThat(service.validateAndConsume(ticket.getTicket())).isEmpty();
+        assertThat(service.isValid(ticket.getTicket())).isFalse();
+    }
+
+    @Test
+    void expiredSignedTicketShouldBeRejected() {
+        WebSocketTicketService service = newSignedService(signer);
+        String token = signer.sign("id-1", "user", Set.of("USER"), Instant.now().minusSeconds(1));
+
+        assertThat(service.validateAndConsume(token)).isEmpty();
+        assertThat(service.getStatistics().get("totalRejected")).isEqualTo(1L);
+    }
+
+    private static WebSocketTicketSigner newSigner(String secret) {
+        WebSocketTicketSigner signer = new WebSocketTicketSigner();
+        signer.secret = Optional.of(secret);
+        signer.init();
+        return signer;
+    }
+
+    private static WebSocketTicketService newSignedService(WebSocketTicketSigner signer) {
+        WebSocketTicketService service = new WebSocketTicketService();
+        service.signer = signer;
+        service.mode = "signed";
+        service.ticketTtlSeconds = 30;
+        return service;
+    }
+}
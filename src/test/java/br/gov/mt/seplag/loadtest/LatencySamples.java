@@ -0,0 +1,65 @@
+package br.gov.mt.seplag.loadtest;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Amostras de latencia (nanossegundos) com resumo em percentis.
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+final class LatencySamples {
+
+    private long[] samples = new long[1024];
+    private int count;
+
+    synchronized void add(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+    }
+
+    synchronized int count() {
+        return count;
+    }
+
+    synchronized Summary summarize() {
+        if (count == 0) {
+            return new Summary(0, 0, 0, 0, 0, 0);
+        }
+        long[] ordenadas = Arrays.copyOf(samples, count);
+        Arrays.sort(ordenadas);
+        long soma = 0;
+        for (long valor : ordenadas) {
+            soma += valor;
+        }
+        return new Summary(count,
+            millis(soma / (double) count),
+            millis(percentile(ordenadas, 0.50)),
+            millis(percentile(ordenadas, 0.90)),
+            millis(percentile(ordenadas, 0.99)),
+            millis(ordenadas[count - 1]));
+    }
+
+    private static long percentile(long[] ordenadas, double quantil) {
+        int indice = (int) Math.ceil(quantil * ordenadas.length) - 1;
+        return ordenadas[Math.max(0, Math.min(indice, ordenadas.length - 1))];
+    }
+
+    private static double millis(double nanos) {
+        return Math.round(nanos / 1_000) / 1_000.0;
+    }
+
+    /**
+     * Resumo em milissegundos.
+     */
+    record Summary(int count, double meanMs, double p50Ms, double p90Ms, double p99Ms, double maxMs) {
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "n=%d media=%.1fms p50=%.1fms p90=%.1fms p99=%.1fms max=%.1fms",
+                count, meanMs, p50Ms, p90Ms, p99Ms, maxMs);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package br.gov.mt.seplag.loadtest;
+
+import io.quarkus.test.common.QuarkusTestResourceLifecycleManager;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.Map;
+
+/**
+ * MinIO em container (Testcontainers) para os testes que sobem a aplicacao
+ * completa. O bucket e criado pelo StorageService na inicializacao.
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+public class MinioTestResource implements QuarkusTestResourceLifecycleManager {
+
+    private static final DockerImageName IMAGE = DockerImageName.parse("minio/minio:latest");
+    private static final int PORT = 9000;
+    private static final String ACCESS_KEY = "minioadmin";
+    private static final String SECRET_KEY = "minioadmin";
+
+    private GenericContainer<?> minio;
+
+    @Override
+    public Map<String, String> start() {
+        minio = new GenericContainer<>(IMAGE)
+            .withEnv("MINIO_ROOT_USER", ACCESS_KEY)
+            .withEnv("MINIO_ROOT_PASSWORD", SECRET_KEY)
+            .withCommand("server", "/data")
+            .withExposedPorts(PORT)
+            .waitingFor(Wait.forHttp("/minio/health/ready").forPort(PORT));
+        minio.start();
+
+        return Map.of(
+            "quarkus.s3.devservices.enabled", "false",
+            "quarkus.s3.endpoint-override", "http://" + minio.getHost() + ":" + minio.getMappedPort(PORT),
+            "quarkus.s3.path-style-access", "true",
+            "quarkus.s3.aws.region", "us-east-1",
+            "quarkus.s3.aws.credentials.type", "static",
+            "quarkus.s3.aws.credentials.static-provider.access-key-id", ACCESS_KEY,
+            "quarkus.s3.aws.credentials.static-provider.secret-access-key", SECRET_KEY
+        );
+    }
+
+    @Override
+    public void stop() {
+        if (minio != null) {
+            minio.stop();
+        }
+    }
+}
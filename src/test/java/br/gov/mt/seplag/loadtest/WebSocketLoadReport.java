@@ -0,0 +1,74 @@
+package br.gov.mt.seplag.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * Resultado de uma execucao do teste de carga do WebSocket.
+ *
+ * Gravado em JSON (um arquivo por execucao) para comparar versoes. O heap e
+ * medido no processo do teste, que tambem hospeda os clientes: o valor por
+ * conexao e um limite superior, comparavel entre execucoes no mesmo ambiente.
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+public record WebSocketLoadReport(
+    String executedAt,
+    String applicationVersion,
+    String javaVersion,
+    WebSocketLoadRunner.Settings settings,
+    int connected,
+    int connectFailures,
+    LatencySamples.Summary ticketLatency,
+    LatencySamples.Summary connectLatency,
+    long deliveriesExpected,
+    long deliveriesReceived,
+    LatencySamples.Summary deliveryLatency,
+    LatencySamples.Summary fanOutCompletion,
+    long heapBeforeBytes,
+    long heapAfterBytes,
+    long heapPerConnectionBytes
+) {
+
+    private static final DateTimeFormatter FILE_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    /**
+     * Grava o relatorio em dir/websocket-load-{versao}-{data}.json.
+     */
+    public Path write(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        Path arquivo = dir.resolve(String.format("websocket-load-%s-%s.json",
+            applicationVersion, LocalDateTime.now().format(FILE_SUFFIX)));
+        new ObjectMapper()
+            .enable(SerializationFeature.INDENT_OUTPUT)
+            .writeValue(arquivo.toFile(), this);
+        return arquivo;
+    }
+
+    /**
+     * Resumo legivel para o log do teste.
+     */
+    public String summary() {
+        return String.format(Locale.ROOT, """
+            WebSocket load test - versao %s (Java %s)
+              Conexoes:  %d de %d (%d falhas)
+              Ticket:    %s
+              Conexao:   %s
+              Entrega:   %d de %d -> %s
+              Fan-out:   %s
+              Heap:      %d -> %d bytes (%d bytes/conexao)""",
+            applicationVersion, javaVersion,
+            connected, settings.clients(), connectFailures,
+            ticketLatency, connectLatency,
+            deliveriesReceived, deliveriesExpected, deliveryLatency,
+            fanOutCompletion,
+            heapBeforeBytes, heapAfterBytes, heapPerConnectionBytes);
+    }
+}
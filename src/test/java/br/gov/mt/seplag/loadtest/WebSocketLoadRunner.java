@@ -0,0 +1,304 @@
+package br.gov.mt.seplag.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.microprofile.config.ConfigProvider;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.WebSocket;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cenario de carga do WebSocket /ws/albuns.
+ *
+ * Etapas:
+ * 1. Login (admin) e medicao do heap de referencia
+ * 2. Conexao de N clientes: cada um obtem um ticket em POST /api/v1/ws/ticket
+ *    e conecta; a latencia vai ate a mensagem CONNECTED
+ * 3. Heap apos as conexoes (bytes por conexao)
+ * 4. Criacao de albuns via POST /api/v1/albuns; cada cliente registra quando
+ *    recebe o NEW_ALBUM correspondente (latencia desde o inicio do POST,
+ *    inclui a janela do AlbumEventCoalescer)
+ * 5. Espera todas as entregas (ou o timeout) e fecha os clientes
+ *
+ * Usa apenas o java.net.http do JDK, entao tambem pode apontar para uma
+ * instancia externa.
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+public class WebSocketLoadRunner {
+
+    private static final String USERNAME = "admin";
+    private static final String PASSWORD = "admin123";
+
+    private final URI baseUri;
+    private final HttpClient http;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Map<Long, Long> albumStartNanos = new ConcurrentHashMap<>();
+    private final Map<Long, Queue<Long>> albumReceipts = new ConcurrentHashMap<>();
+    private final AtomicLong deliveries = new AtomicLong();
+
+    public WebSocketLoadRunner(URI baseUri) {
+        this.baseUri = baseUri;
+        this.http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    }
+
+    /**
+     * Parametros da execucao (system properties loadtest.*).
+     */
+    public record Settings(int clients, int albums, int connectConcurrency,
+                           long albumIntervalMs, long deliveryTimeoutMs) {
+
+        public static Settings fromSystemProperties() {
+            return new Settings(
+                Integer.getInteger("loadtest.clients", 500),
+                Integer.getInteger("loadtest.albums", 20),
+                Integer.getInteger("loadtest.connect-concurrency", 64),
+                Long.getLong("loadtest.album-interval-ms", 100),
+                Long.getLong("loadtest.delivery-timeout-ms", 30_000));
+        }
+    }
+
+    public WebSocketLoadReport run(Settings settings) throws Exception {
+        String token = login();
+        long heapBefore = usedHeap();
+
+        LatencySamples ticketLatency = new LatencySamples();
+        LatencySamples connectLatency = new LatencySamples();
+        AtomicInteger failures = new AtomicInteger();
+        List<WebSocket> clients = connectAll(settings, token, ticketLatency, connectLatency, failures);
+
+        long heapAfter = usedHeap();
+
+        createAlbums(settings, token);
+        long expected = (long) clients.size() * settings.albums();
+        awaitDeliveries(expected, settings.deliveryTimeoutMs());
+
+        LatencySamples deliveryLatency = new LatencySamples();
+        LatencySamples fanOut = new LatencySamples();
+        albumStartNanos.forEach((albumId, inicio) -> {
+            Queue<Long> recebidos = albumReceipts.getOrDefault(albumId, new ConcurrentLinkedQueue<>());
+            long ultimo = 0;
+            for (long recebido : recebidos) {
+                deliveryLatency.add(recebido - inicio);
+                ultimo = Math.max(ultimo, recebido);
+            }
+            if (ultimo > 0) {
+                fanOut.add(ultimo - inicio);
+            }
+        });
+
+        for (WebSocket client : clients) {
+            client.sendClose(WebSocket.NORMAL_CLOSURE, "fim do teste de carga");
+        }
+
+        int connected = clients.size();
+        return new WebSocketLoadReport(
+            LocalDateTime.now().toString(),
+            ConfigProvider.getConfig().getOptionalValue("quarkus.application.version", String.class).orElse("dev"),
+            Runtime.version().toString(),
+            settings,
+            connected,
+            failures.get(),
+            ticketLatency.summarize(),
+            connectLatency.summarize(),
+            expected,
+            deliveries.get(),
+            deliveryLatency.summarize(),
+            fanOut.summarize(),
+            heapBefore,
+            heapAfter,
+            connected > 0 ? Math.max(0, heapAfter - heapBefore) / connected : 0);
+    }
+
+    // =========================================================================
+    // Conexoes
+    // =========================================================================
+
+    private List<WebSocket> connectAll(Settings settings, String token, LatencySamples ticketLatency,
+                                       LatencySamples connectLatency, AtomicInteger failures) throws Exception {
+        Semaphore simultaneas = new Semaphore(settings.connectConcurrency());
+        List<Future<WebSocket>> pendentes = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < settings.clients(); i++) {
+                pendentes.add(executor.submit(() -> {
+                    simultaneas.acquire();
+                    try {
+                        return connect(token, ticketLatency, connectLatency);
+                    } finally {
+                        simultaneas.release();
+                    }
+                }));
+            }
+        }
+
+        List<WebSocket> clients = new ArrayList<>();
+        for (Future<WebSocket> pendente : pendentes) {
+            try {
+                clients.add(pendente.get());
+            } catch (Exception e) {
+                failures.incrementAndGet();
+            }
+        }
+        return clients;
+    }
+
+    private WebSocket connect(String token, LatencySamples ticketLatency, LatencySamples connectLatency)
+            throws Exception {
+        long inicio = System.nanoTime();
+        JsonNode ticket = postJson("/api/v1/ws/ticket", token, "{}");
+        long handshake = System.nanoTime();
+        ticketLatency.add(handshake - inicio);
+
+        URI uri = URI.create(baseUri.toString().replaceFirst("^http", "ws").replaceFirst("/?$", "/")
+            + "ws/albuns?ticket=" + ticket.get("ticket").asText());
+        ClientListener listener = new ClientListener();
+        WebSocket webSocket = http.newWebSocketBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .buildAsync(uri, listener)
+            .get(10, TimeUnit.SECONDS);
+
+        listener.connected.get(10, TimeUnit.SECONDS);
+        connectLatency.add(System.nanoTime() - handshake);
+        return webSocket;
+    }
+
+    // =========================================================================
+    // Fan-out
+    // =========================================================================
+
+    private void createAlbums(Settings settings, String token) throws Exception {
+        for (int i = 0; i < settings.albums(); i++) {
+            long inicio = System.nanoTime();
+            JsonNode album = postJson("/api/v1/albuns", token,
+                "{\"titulo\":\"Load Test " + i + "\",\"anoLancamento\":2024}");
+            long albumId = album.get("id").asLong();
+            albumStartNanos.put(albumId, inicio);
+            Thread.sleep(settings.albumIntervalMs());
+        }
+    }
+
+    private void awaitDeliveries(long expected, long timeoutMs) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        while (deliveries.get() < expected && System.nanoTime() < limite) {
+            Thread.sleep(50);
+        }
+    }
+
+    /**
+     * Guarda o instante de recebimento; a latencia e calculada no fim, entao
+     * nao importa se o NEW_ALBUM chega antes da resposta do POST.
+     */
+    private void onNewAlbum(long albumId, long recebidoNanos) {
+        albumReceipts.computeIfAbsent(albumId, id -> new ConcurrentLinkedQueue<>()).add(recebidoNanos);
+        deliveries.incrementAndGet();
+    }
+
+    /**
+     * Cliente WebSocket: sinaliza CONNECTED e registra cada NEW_ALBUM.
+     */
+    private final class ClientListener implements WebSocket.Listener {
+
+        private final CompletableFuture<Void> connected = new CompletableFuture<>();
+        private final StringBuilder parcial = new StringBuilder();
+
+        @Override
+        public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+            long recebido = System.nanoTime();
+            parcial.append(data);
+            if (last) {
+                String mensagem = parcial.toString();
+                parcial.setLength(0);
+                handle(mensagem, recebido);
+            }
+            webSocket.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+            connected.completeExceptionally(new IOException("Conexao fechada: " + statusCode + " " + reason));
+            return null;
+        }
+
+        @Override
+        public void onError(WebSocket webSocket, Throwable error) {
+            connected.completeExceptionally(error);
+        }
+
+        private void handle(String mensagem, long recebido) {
+            try {
+                JsonNode node = objectMapper.readTree(mensagem);
+                String type = node.path("type").asText();
+                if ("CONNECTED".equals(type)) {
+                    connected.complete(null);
+                } else if ("NEW_ALBUM".equals(type)) {
+                    onNewAlbum(node.path("data").path("id").asLong(), recebido);
+                }
+            } catch (IOException e) {
+                // Mensagem fora do formato JSON: ignorada pela medicao
+            }
+        }
+    }
+
+    // =========================================================================
+    // HTTP
+    // =========================================================================
+
+    private String login() throws Exception {
+        JsonNode response = postJson("/api/v1/auth/login", null,
+            "{\"username\":\"" + USERNAME + "\",\"password\":\"" + PASSWORD + "\"}");
+        return response.get("accessToken").asText();
+    }
+
+    private JsonNode postJson(String path, String token, String body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(baseUri.resolve(path))
+            .timeout(Duration.ofSeconds(30))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        HttpResponse<String> response = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("POST " + path + " retornou " + response.statusCode() + ": " + response.body());
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    /**
+     * Heap usado apos GC. No teste a aplicacao roda no mesmo processo.
+     */
+    private static long usedHeap() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(200);
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,46 @@
+package br.gov.mt.seplag.loadtest;
+
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Teste de carga do WebSocket de albuns contra a aplicacao local
+ * (Postgres via DevServices, MinIO via Testcontainers).
+ *
+ * Fora da suite padrao (tag "load"). Execucao:
+ *   ./mvnw test -Pload-test -Dloadtest.clients=2000 -Dloadtest.albums=50
+ *
+ * O relatorio JSON fica em target/load-test (ou -Dloadtest.report-dir).
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+@QuarkusTest
+@TestProfile(WebSocketLoadTestProfile.class)
+@Tag("load")
+class WebSocketLoadTest {
+
+    @TestHTTPResource("/")
+    URI baseUri;
+
+    @Test
+    void shouldHoldConnectionsAndDeliverEveryNewAlbum() throws Exception {
+        WebSocketLoadRunner.Settings settings = WebSocketLoadRunner.Settings.fromSystemProperties();
+
+        WebSocketLoadReport report = new WebSocketLoadRunner(baseUri).run(settings);
+        Path arquivo = report.write(Path.of(System.getProperty("loadtest.report-dir", "target/load-test")));
+
+        System.out.println(report.summary());
+        System.out.println("Relatorio: " + arquivo.toAbsolutePath());
+
+        assertThat(report.connected()).isEqualTo(settings.clients());
+        assertThat(report.deliveriesReceived()).isEqualTo(report.deliveriesExpected());
+    }
+}
@@ -0,0 +1,32 @@
+package br.gov.mt.seplag.loadtest;
+
+import io.quarkus.test.junit.QuarkusTestProfile;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Perfil do teste de carga: Postgres via DevServices, MinIO via
+ * Testcontainers e limites por usuario/rate limit desligados, ja que todos os
+ * clientes usam o mesmo usuario. O restante segue a configuracao de producao
+ * (callbacks na thread de IO, janela de agrupamento, filas por sessao).
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+public class WebSocketLoadTestProfile implements QuarkusTestProfile {
+
+    @Override
+    public Map<String, String> getConfigOverrides() {
+        return Map.of(
+            "app.rate-limit.max-requests", "1000000",
+            "app.websocket.max-connections-per-user", "0",
+            // Um log por ticket/conexao distorceria a medicao
+            "quarkus.log.category.\"br.gov.mt.seplag\".level", "WARN"
+        );
+    }
+
+    @Override
+    public List<TestResourceEntry> testResources() {
+        return List.of(new TestResourceEntry(MinioTestResource.class));
+    }
+}
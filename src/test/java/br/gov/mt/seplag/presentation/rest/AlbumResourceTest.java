@@ -416,4 +416,75 @@ class AlbumResourceTest {
                 .statusCode(404);
         }
     }
+
+    // ====================
+    // TESTES DE GET CONDICIONAL
+    // ====================
+
+    @Nested
+    @DisplayName("GET condicional (ETag)")
+    class GetCondicionalTests {
+
+        @Test
+        @TestSecurity(user = "etagAdmin", roles = {"ADMIN"})
+        @DisplayName("Trocar artistas {1,4} por {2,3} deve mudar o ETag (mesma quantidade e soma dos ids)")
+        void shouldChangeEtagWhenArtistasAreSwappedWithSameCountAndSum() {
+            String titulo = "Album ETag %d".formatted(System.currentTimeMillis());
+            String json = """
+                {
+                    "titulo": "%s",
+                    "anoLancamento": 2024,
+                    "artistaIds": %s
+                }
+                """;
+            Integer id = given()
+                .contentType(ContentType.JSON)
+                .body(json.formatted(titulo, "[1, 4]"))
+                .when()
+                .post("/api/v1/albuns")
+                .then()
+                .statusCode(201)
+                .extract().path("id");
+
+            String etagDetalhe = given()
+                .when()
+                .get("/api/v1/albuns/" + id)
+                .then()
+                .statusCode(200)
+                .extract().header("ETag");
+            String etagListagem = given()
+                .queryParam("titulo", titulo)
+                .when()
+                .get("/api/v1/albuns")
+                .then()
+                .statusCode(200)
+                .extract().header("ETag");
+
+            // Apenas os vinculos mudam: a linha do album fica igual
+            given()
+                .contentType(ContentType.JSON)
+                .body(json.formatted(titulo, "[2, 3]"))
+                .when()
+                .put("/api/v1/albuns/" + id)
+                .then()
+                .statusCode(200);
+
+            given()
+                .header("If-None-Match", etagDetalhe)
+                .when()
+                .get("/api/v1/albuns/" + id)
+                .then()
+                .statusCode(200)
+                .header("ETag", not(equalTo(etagDetalhe)))
+                .body("artistas.id", containsInAnyOrder(2, 3));
+            given()
+                .header("If-None-Match", etagListagem)
+                .queryParam("titulo", titulo)
+                .when()
+                .get("/api/v1/albuns")
+                .then()
+                .statusCode(200)
+                .header("ETag", not(equalTo(etagListagem)));
+        }
+    }
 }
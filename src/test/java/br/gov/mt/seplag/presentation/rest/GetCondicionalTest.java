@@ -0,0 +1,53 @@
+package br.gov.mt.seplag.presentation.rest;
+
+import jakarta.ws.rs.core.EntityTag;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes unitarios para GetCondicional (ETag e If-None-Match).
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+class GetCondicionalTest {
+
+    @Test
+    void tagShouldBeStableAndChangeWithVersion() {
+        EntityTag tag = GetCondicional.forte("2026-01-01T10:00|1|5");
+
+        assertThat(GetCondicional.forte("2026-01-01T10:00|1|5")).isEqualTo(tag);
+        assertThat(GetCondicional.forte("2026-01-01T10:00|2|7")).isNotEqualTo(tag);
+        assertThat(tag.isWeak()).isFalse();
+        assertThat(tag.getValue()).matches("[A-Za-z0-9_-]{22}");
+        assertThat(GetCondicional.fraca("2026-01-01T10:00|1|5").isWeak()).isTrue();
+    }
+
+    @Test
+    void correspondeShouldUseWeakComparison() {
+        EntityTag forte = GetCondicional.forte("v1");
+        EntityTag fraca = GetCondicional.fraca("v1");
+
+        assertThat(GetCondicional.corresponde("\"" + forte.getValue() + "\"", forte)).isTrue();
+        assertThat(GetCondicional.corresponde("W/\"" + fraca.getValue() + "\"", fraca)).isTrue();
+        assertThat(GetCondicional.corresponde("W/\"" + forte.getValue() + "\"", forte)).isTrue();
+    }
+
+    @Test
+    void correspondeShouldAcceptListAndWildcard() {
+        EntityTag tag = GetCondicional.forte("v1");
+
+        assertThat(GetCondicional.corresponde("\"outro\", \"" + tag.getValue() + "\"", tag)).isTrue();
+        assertThat(GetCondicional.corresponde("*", tag)).isTrue();
+    }
+
+    @Test
+    void correspondeShouldRejectMissingOrDifferentTag() {
+        EntityTag tag = GetCondicional.forte("v1");
+
+        assertThat(GetCondicional.corresponde(null, tag)).isFalse();
+        assertThat(GetCondicional.corresponde(" ", tag)).isFalse();
+        assertThat(GetCondicional.corresponde("\"" + GetCondicional.forte("v2").getValue() + "\"", tag)).isFalse();
+        assertThat(GetCondicional.corresponde(tag.getValue(), tag)).isFalse();
+    }
+}
@@ -0,0 +1,51 @@
+package br.gov.mt.seplag.presentation.rest;
+
+import br.gov.mt.seplag.domain.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Testes unitarios para IdsParam (parametro ids das buscas em lote).
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+class IdsParamTest {
+
+    @Test
+    void parseShouldKeepRequestOrderAndDropDuplicates() {
+        assertThat(IdsParam.parse("3, 1,2,3,,1")).containsExactly(3L, 1L, 2L);
+    }
+
+    @Test
+    void parseShouldRejectInvalidIds() {
+        assertThatThrownBy(() -> IdsParam.parse("1,abc"))
+            .isInstanceOf(BusinessException.class)
+            .hasMessageContaining("abc");
+        assertThatThrownBy(() -> IdsParam.parse("0"))
+            .isInstanceOf(BusinessException.class);
+    }
+
+    @Test
+    void parseShouldRejectEmptyParameter() {
+        assertThatThrownBy(() -> IdsParam.parse(" "))
+            .isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> IdsParam.parse(",,"))
+            .isInstanceOf(BusinessException.class);
+    }
+
+    @Test
+    void parseShouldLimitDistinctIds() {
+        String maximo = LongStream.rangeClosed(1, IdsParam.MAXIMO)
+            .mapToObj(String::valueOf).collect(Collectors.joining(","));
+
+        assertThat(IdsParam.parse(maximo + ",1")).hasSize(IdsParam.MAXIMO);
+        assertThatThrownBy(() -> IdsParam.parse(maximo + "," + (IdsParam.MAXIMO + 1)))
+            .isInstanceOf(BusinessException.class)
+            .hasMessageContaining(String.valueOf(IdsParam.MAXIMO));
+    }
+}
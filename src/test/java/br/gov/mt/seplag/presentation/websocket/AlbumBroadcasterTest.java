@@ -0,0 +1,221 @@
+package br.gov.mt.seplag.presentation.websocket;
+
+import br.gov.mt.seplag.infrastructure.metrics.MetricsService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes unitarios para AlbumBroadcaster e SessionOutbox.
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+class AlbumBroadcasterTest {
+
+    private AlbumBroadcaster broadcaster;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        broadcaster = newBroadcaster(OverflowPolicy.DROP_OLDEST, 2);
+    }
+
+    @Test
+    void broadcastShouldShareSerializedFrameAcrossSessions() {
+        FakeTransport cliente1 = new FakeTransport(true);
+        FakeTransport cliente2 = new FakeTransport(true);
+        broadcaster.register("s1", "user1", cliente1);
+        broadcaster.register("s2", "user2", cliente2);
+
+        int entregues = broadcaster.broadcast("NEW_ALBUM", Map.of("id", 1));
+
+        assertThat(entregues).isEqualTo(2);
+        assertThat(cliente1.sent).containsExactly("{\"type\":\"NEW_ALBUM\",\"data\":{\"id\":1}}");
+        assertThat(cliente2.sent.get(0)).isSameAs(cliente1.sent.get(0));
+        assertThat(registry.get("websocket_outbound_frames_total").tag("result", "sent").counter().count())
+            .isEqualTo(2.0);
+    }
+
+    @Test
+    void outboxShouldKeepSingleSendInFlight() {
+        FakeTransport lento = new FakeTransport(false);
+        SessionOutbox outbox = broadcaster.register("s1", "user", lento);
+
+        broadcaster.broadcast("NEW_ALBUM", Map.of("id", 1));
+        broadcaster.broadcast("NEW_ALBUM", Map.of("id", 2));
+
+        assertThat(lento.sent).hasSize(1);
+        assertThat(outbox.queued()).isEqualTo(1);
+
+        lento.completeNext();
+
+        assertThat(lento.sent).hasSize(2);
+        assertThat(outbox.queued()).isZero();
+    }
+
+    @Test
+    void dropOldestPolicyShouldBoundQueue() {
+        FakeTransport lento = new FakeTransport(false);
+        SessionOutbox outbox = broadcaster.register("s1", "user", lento);
+
+        for (int i = 1; i <= 5; i++) {
+            broadcaster.broadcast("NEW_ALBUM", Map.of("id", i));
+        }
+
+        // 1 em envio + 2 na fila; album 2 e 3 descartados
+        assertThat(outbox.queued()).isEqualTo(2);
+        lento.completeNext();
+        lento.completeNext();
+        lento.completeNext();
+        assertThat(lento.sent).hasSize(4);
+        assertThat(lento.sent.get(2)).contains("\"id\":4");
+        assertThat(lento.sent.get(3)).contains("\"id\":5");
+        assertThat(registry.get("websocket_outbound_frames_total").tag("result", "dropped").counter().count())
+            .isEqualTo(2.0);
+    }
+
+    @Test
+    void dropOldestPolicyShouldSendResyncBeforeRemainingFrames() {
+        FakeTransport lento = new FakeTransport(false);
+        SessionOutbox outbox = broadcaster.register("s1", "user", lento);
+
+        for (int i = 1; i <= 5; i++) {
+            broadcaster.broadcast("NEW_ALBUM", Map.of("id", i));
+        }
+        lento.completeNext();
+
+        // O aviso ocupa o lugar dos descartados, antes dos frames que ficaram na fila
+        assertThat(lento.sent.get(1))
+            .isEqualTo("{\"type\":\"RESYNC_REQUIRED\",\"data\":{\"reason\":\"queue_overflow\",\"dropped\":2}}");
+        assertThat(outbox.queued()).isEqualTo(2);
+        assertThat(outbox.getStatistics().get("resyncs")).isEqualTo(1L);
+        assertThat(registry.get("websocket_outbound_resyncs_total").counter().count()).isEqualTo(1.0);
+
+        lento.completeNext();
+        lento.completeNext();
+        lento.completeNext();
+        assertThat(lento.sent).hasSize(4);
+        assertThat(outbox.getStatistics().get("resyncs")).isEqualTo(1L);
+    }
+
+    @Test
+    void disconnectPolicyShouldCloseSlowConsumer() {
+        broadcaster = newBroadcaster(OverflowPolicy.DISCONNECT, 1);
+        FakeTransport lento = new FakeTransport(false);
+        FakeTransport rapido = new FakeTransport(true);
+        broadcaster.register("s1", "lento", lento);
+        broadcaster.register("s2", "rapido", rapido);
+
+        broadcaster.broadcast("NEW_ALBUM", Map.of("id", 1));
+        broadcaster.broadcast("NEW_ALBUM", Map.of("id", 2));
+        int entregues = broadcaster.broadcast("NEW_ALBUM", Map.of("id", 3));
+
+        assertThat(entregues).isEqualTo(1);
+        assertThat(lento.closeReason).isNotNull();
+        assertThat(rapido.sent).hasSize(3);
+        assertThat(broadcaster.getSessionCount()).isEqualTo(1);
+        assertThat(registry.get("websocket_slow_consumer_disconnects_total").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void unregisterShouldDiscardPendingFrames() {
+        FakeTransport lento = new FakeTransport(false);
+        SessionOutbox outbox = broadcaster.register("s1", "user", lento);
+        broadcaster.broadcast("NEW_ALBUM", Map.of("id", 1));
+        broadcaster.broadcast("NEW_ALBUM", Map.of("id", 2));
+
+        broadcaster.unregister("s1");
+        lento.completeNext();
+
+        assertThat(outbox.queued()).isZero();
+        assertThat(lento.sent).hasSize(1);
+        assertThat(broadcaster.send("s1", "{}")).isFalse();
+    }
+
+    @Test
+    void binarySessionsShouldShareSingleCborEncodingPerFrame() {
+        List<byte[]> binarios = new ArrayList<>();
+        SessionOutbox.Transport cbor = new SessionOutbox.Transport() {
+            @Override
+            public void send(OutboundFrame frame, Consumer<Throwable> onComplete) {
+                binarios.add(broadcaster.encodeBinary(frame));
+                onComplete.accept(null);
+            }
+
+            @Override
+            public void send(String payload, Consumer<Throwable> onComplete) {
+                throw new AssertionError("Sessao CBOR nao recebe texto");
+            }
+
+            @Override
+            public void close(String reason) {
+            }
+        };
+        FakeTransport json = new FakeTransport(true);
+        broadcaster.register("s1", "user1", cbor);
+        broadcaster.register("s2", "user2", cbor);
+        broadcaster.register("s3", "user3", json);
+
+        broadcaster.broadcast("NEW_ALBUM", Map.of("id", 1));
+
+        assertThat(binarios).hasSize(2);
+        assertThat(binarios.get(1)).isSameAs(binarios.get(0));
+        assertThat(binarios.get(0).length).isLessThan(json.sent.get(0).length());
+        assertThat(registry.get("websocket_frame_encode_seconds").tag("encoding", "cbor").timer().count())
+            .isEqualTo(1);
+        assertThat(registry.get("websocket_frame_size_bytes").tag("encoding", "json").summary().count())
+            .isEqualTo(1);
+    }
+
+    private AlbumBroadcaster newBroadcaster(OverflowPolicy policy, int capacity) {
+        AlbumBroadcaster novo = new AlbumBroadcaster();
+        novo.objectMapper = new ObjectMapper();
+        novo.metricsService = new MetricsService(registry);
+        novo.overflowPolicy = policy;
+        novo.queueCapacity = capacity;
+        return novo;
+    }
+
+    /**
+     * Canal de envio em memoria; com autoComplete=false simula um cliente lento.
+     */
+    private static final class FakeTransport implements SessionOutbox.Transport {
+
+        private final boolean autoComplete;
+        private final List<String> sent = new ArrayList<>();
+        private final List<Consumer<Throwable>> pending = new ArrayList<>();
+        private String closeReason;
+
+        private FakeTransport(boolean autoComplete) {
+            this.autoComplete = autoComplete;
+        }
+
+        @Override
+        public void send(String payload, Consumer<Throwable> onComplete) {
+            sent.add(payload);
+            if (autoComplete) {
+                onComplete.accept(null);
+            } else {
+                pending.add(onComplete);
+            }
+        }
+
+        @Override
+        public void close(String reason) {
+            closeReason = reason;
+        }
+
+        private void completeNext() {
+            pending.remove(0).accept(null);
+        }
+    }
+}
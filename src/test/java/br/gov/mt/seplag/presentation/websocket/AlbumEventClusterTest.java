@@ -0,0 +1,207 @@
+package br.gov.mt.seplag.presentation.websocket;
+
+import br.gov.mt.seplag.domain.model.AlbumEvent;
+import br.gov.mt.seplag.domain.repository.AlbumEventRepository;
+import br.gov.mt.seplag.infrastructure.metrics.MetricsService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes unitarios para AlbumEventCluster (fan-out via LISTEN/NOTIFY).
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+class AlbumEventClusterTest {
+
+    private AlbumEventCluster cluster;
+    private AlbumEventLog eventLog;
+    private AlbumEventRepository repository;
+    private SimpleMeterRegistry registry;
+    private final List<String> recebidas = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        MetricsService metricsService = new MetricsService(registry);
+        repository = mock(AlbumEventRepository.class);
+
+        AlbumBroadcaster broadcaster = new AlbumBroadcaster();
+        broadcaster.objectMapper = new ObjectMapper();
+        broadcaster.metricsService = metricsService;
+        broadcaster.overflowPolicy = OverflowPolicy.DROP_OLDEST;
+        broadcaster.queueCapacity = 64;
+        broadcaster.register("s1", "user", new SessionOutbox.Transport() {
+            @Override
+            public void send(String payload, Consumer<Throwable> onComplete) {
+                recebidas.add(payload);
+                onComplete.accept(null);
+            }
+
+            @Override
+            public void close(String reason) {
+            }
+        });
+        broadcaster.subscriptions().subscribe("s1", AlbumTopics.ALL);
+
+        cluster = new AlbumEventCluster();
+        cluster.enabled = true;
+        cluster.channel = "album_events";
+        cluster.repository = repository;
+        cluster.metricsService = metricsService;
+
+        eventLog = new AlbumEventLog();
+        eventLog.broadcaster = broadcaster;
+        eventLog.repository = repository;
+        eventLog.cluster = cluster;
+        eventLog.capacity = 10;
+        eventLog.gapTimeout = Duration.ofSeconds(1);
+        eventLog.init();
+        cluster.eventLog = eventLog;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void publishAllShouldReserveSeqsAndNotifyOnceForTheBatch() {
+        when(repository.nextSeqs(2)).thenReturn(List.of(41L, 42L));
+
+        List<Long> seqs = eventLog.publishAll(List.of(
+            new AlbumEventCoalescer.Message("ALBUM_DELETED", Map.of("id", 1), List.of("all")),
+            new AlbumEventCoalescer.Message("NEW_ALBUM", Map.of("id", 2), List.of("all", "ano:2020"))));
+
+        assertThat(seqs).containsExactly(41L, 42L);
+        ArgumentCaptor<Collection<AlbumEvent>> eventos = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<List<String>> notificacoes = ArgumentCaptor.forClass(List.class);
+        verify(repository).persistAndNotify(eventos.capture(), eq("album_events"), notificacoes.capture());
+        assertThat(eventos.getValue()).extracting(AlbumEvent::getType).containsExactly("ALBUM_DELETED", "NEW_ALBUM");
+        assertThat(notificacoes.getValue()).containsExactly(cluster.nodeId + ":41,42");
+        // Entregue localmente sem esperar o proprio NOTIFY
+        assertThat(recebidas).hasSize(2);
+        assertThat(recebidas.get(1)).startsWith("{\"type\":\"NEW_ALBUM\",\"seq\":42");
+    }
+
+    @Test
+    void handleShouldDropOwnEcho() {
+        int entregues = cluster.handle(cluster.nodeId + ":41,42");
+
+        assertThat(entregues).isZero();
+        verify(repository, never()).findBySeqs(any());
+        assertThat(registry.get("websocket_cluster_echoes_dropped_total").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void handleShouldFetchAndBroadcastEventsFromOtherNode() {
+        when(repository.findBySeqs(any(Collection.class))).thenReturn(List.of(
+            evento(eventLog.currentSeq() + 1, "{\"type\":\"ALBUM_DELETED\",\"seq\":1,\"data\":{\"id\":7}}")));
+
+        int entregues = cluster.handle("outro-no:" + (eventLog.currentSeq() + 1));
+
+        assertThat(entregues).isEqualTo(1);
+        assertThat(recebidas).singleElement().asString().contains("\"id\":7");
+        assertThat(registry.get("websocket_cluster_events_total").tag("direction", "received").counter().count())
+            .isEqualTo(1.0);
+    }
+
+    @Test
+    void acceptRemoteShouldIgnoreEventsAlreadyInBuffer() {
+        AlbumEvent evento = evento(eventLog.currentSeq() + 1, "{\"type\":\"ALBUM_DELETED\"}");
+
+        assertThat(eventLog.acceptRemote(List.of(evento))).isEqualTo(1);
+        assertThat(eventLog.acceptRemote(List.of(evento))).isZero();
+        assertThat(recebidas).hasSize(1);
+    }
+
+    @Test
+    void acceptRemoteShouldHoldEventsUntilGapFills() {
+        long base = eventLog.currentSeq();
+
+        eventLog.acceptRemote(List.of(evento(base + 2, "{\"id\":2}")));
+
+        assertThat(recebidas).isEmpty();
+        assertThat(eventLog.currentSeq()).isEqualTo(base);
+
+        eventLog.acceptRemote(List.of(evento(base + 1, "{\"id\":1}")));
+
+        assertThat(recebidas).containsExactly("{\"id\":1}", "{\"id\":2}");
+        assertThat(eventLog.currentSeq()).isEqualTo(base + 2);
+    }
+
+    @Test
+    void checkGapsShouldFillFromDatabaseAndSkipMissingSeqs() {
+        eventLog.gapTimeout = Duration.ZERO;
+        long base = eventLog.currentSeq();
+        when(repository.findPosteriores(base, 2)).thenReturn(List.of(
+            evento(base + 1, "{\"id\":1}"), evento(base + 3, "{\"id\":3}")));
+        eventLog.acceptRemote(List.of(evento(base + 3, "{\"id\":3}")));
+
+        eventLog.checkGaps();
+
+        // base + 2 foi reservado e nunca gravado: pulado
+        assertThat(recebidas).containsExactly("{\"id\":1}", "{\"id\":3}");
+        assertThat(eventLog.currentSeq()).isEqualTo(base + 3);
+        assertThat(eventLog.getStatistics()).containsEntry("gapsSkipped", 1L).containsEntry("heldBack", 0);
+    }
+
+    @Test
+    void checkGapsShouldWaitForGapTimeout() {
+        long base = eventLog.currentSeq();
+        eventLog.acceptRemote(List.of(evento(base + 2, "{\"id\":2}")));
+
+        eventLog.checkGaps();
+
+        verify(repository, never()).findPosteriores(anyLong(), anyInt());
+        assertThat(recebidas).isEmpty();
+        assertThat(eventLog.currentSeq()).isEqualTo(base);
+    }
+
+    @Test
+    void notificationsShouldBeSplitBelowPayloadLimit() {
+        List<Long> seqs = LongStream.rangeClosed(1_000_000_000_000L, 1_000_000_002_000L).boxed().toList();
+
+        List<String> payloads = cluster.notifications(seqs);
+
+        assertThat(payloads).hasSizeGreaterThan(1);
+        assertThat(payloads).allSatisfy(payload -> {
+            assertThat(payload).startsWith(cluster.nodeId + ":");
+            assertThat(payload.length()).isLessThan(8000);
+        });
+        long total = payloads.stream()
+            .mapToLong(payload -> payload.substring(payload.indexOf(':') + 1).split(",").length)
+            .sum();
+        assertThat(total).isEqualTo(seqs.size());
+    }
+
+    @Test
+    void handleShouldIgnoreMalformedPayload() {
+        assertThat(cluster.handle("sem-separador")).isZero();
+        verify(repository, never()).findBySeqs(any());
+        verify(repository, never()).persistAndNotify(any(), anyString(), any());
+    }
+
+    private static AlbumEvent evento(long seq, String payload) {
+        return new AlbumEvent(seq, "ALBUM_DELETED", "all", payload, LocalDateTime.now());
+    }
+}
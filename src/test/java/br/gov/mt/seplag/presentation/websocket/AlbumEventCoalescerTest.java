@@ -0,0 +1,150 @@
+package br.gov.mt.seplag.presentation.websocket;
+
+import br.gov.mt.seplag.infrastructure.metrics.MetricsService;
+import br.gov.mt.seplag.presentation.dto.album.AlbumImagemResponse;
+import br.gov.mt.seplag.presentation.dto.album.AlbumResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes unitarios para AlbumEventCoalescer.
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+class AlbumEventCoalescerTest {
+
+    private static final List<String> TOPICOS = List.of("all", "ano:2020");
+
+    private AlbumEventCoalescer coalescer;
+    private SimpleMeterRegistry registry;
+    private final List<String> recebidas = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        MetricsService metricsService = new MetricsService(registry);
+
+        AlbumBroadcaster broadcaster = new AlbumBroadcaster();
+        broadcaster.objectMapper = new ObjectMapper().findAndRegisterModules();
+        broadcaster.metricsService = metricsService;
+        broadcaster.overflowPolicy = OverflowPolicy.DROP_OLDEST;
+        broadcaster.queueCapacity = 16;
+        broadcaster.register("s1", "user", new SessionOutbox.Transport() {
+            @Override
+            public void send(String payload, Consumer<Throwable> onComplete) {
+                // O seq depende do instante de inicializacao do log
+                recebidas.add(payload.replaceFirst("\"seq\":\\d+,", ""));
+                onComplete.accept(null);
+            }
+
+            @Override
+            public void close(String reason) {
+            }
+        });
+        broadcaster.subscriptions().subscribe("s1", AlbumTopics.ALL);
+
+        AlbumEventLog eventLog = new AlbumEventLog();
+        eventLog.broadcaster = broadcaster;
+        eventLog.cluster = new AlbumEventCluster();
+        eventLog.capacity = 100;
+        eventLog.init();
+
+        coalescer = new AlbumEventCoalescer();
+        coalescer.eventLog = eventLog;
+        coalescer.metricsService = metricsService;
+    }
+
+    @Test
+    void updatesInSameWindowShouldBeMergedIntoOneDelta() {
+        coalescer.updated(album(1L, "A"), Map.of("titulo", "A"), TOPICOS);
+        coalescer.updated(album(1L, "B"), Map.of("titulo", "B"), TOPICOS);
+        coalescer.updated(album(1L, "B"), Map.of("descricao", "nova"), TOPICOS);
+
+        coalescer.flush();
+
+        assertThat(recebidas).containsExactly(
+            "{\"type\":\"ALBUM_UPDATED\",\"data\":{\"id\":1,\"changes\":{\"titulo\":\"B\",\"descricao\":\"nova\"}}}");
+        assertThat(registry.get("websocket_events_coalesced_total").counter().count()).isEqualTo(2.0);
+        assertThat(coalescer.pendingCount()).isZero();
+    }
+
+    @Test
+    void createdThenUpdatedShouldSendOnlyNewAlbumWithFinalState() {
+        coalescer.created(album(1L, "Rascunho"));
+        coalescer.updated(album(1L, "Final"), Map.of("titulo", "Final"), TOPICOS);
+
+        coalescer.flush();
+
+        assertThat(recebidas).hasSize(1);
+        assertThat(recebidas.get(0)).startsWith("{\"type\":\"NEW_ALBUM\"").contains("\"titulo\":\"Final\"");
+    }
+
+    @Test
+    void createdThenDeletedShouldSendNothing() {
+        coalescer.created(album(1L, "Efemero"));
+        coalescer.deleted(1L, TOPICOS);
+
+        coalescer.flush();
+
+        assertThat(recebidas).isEmpty();
+    }
+
+    @Test
+    void updatedThenDeletedShouldSendOnlyDeleted() {
+        coalescer.updated(album(1L, "A"), Map.of("titulo", "A"), TOPICOS);
+        coalescer.deleted(1L, TOPICOS);
+
+        coalescer.flush();
+
+        assertThat(recebidas).containsExactly("{\"type\":\"ALBUM_DELETED\",\"data\":{\"id\":1}}");
+    }
+
+    @Test
+    void imageAddedAndRemovedInSameWindowShouldCancelOut() {
+        coalescer.imagesChanged(1L, List.of(imagem(10L), imagem(11L)), List.of(), TOPICOS);
+        coalescer.imagesChanged(1L, List.of(), List.of(10L, 5L), TOPICOS);
+
+        coalescer.flush();
+
+        assertThat(recebidas).hasSize(1);
+        assertThat(recebidas.get(0))
+            .startsWith("{\"type\":\"IMAGES_CHANGED\",\"data\":{\"albumId\":1,\"added\":[{\"id\":11")
+            .endsWith("\"removed\":[5]}}");
+    }
+
+    @Test
+    void eventsOfDifferentAlbumsShouldNotBeMerged() {
+        coalescer.deleted(1L, TOPICOS);
+        coalescer.deleted(2L, TOPICOS);
+
+        coalescer.flush();
+
+        assertThat(recebidas).hasSize(2);
+    }
+
+    private static AlbumResponse album(Long id, String titulo) {
+        AlbumResponse album = new AlbumResponse();
+        album.setId(id);
+        album.setTitulo(titulo);
+        album.setAnoLancamento(2020);
+        return album;
+    }
+
+    private static AlbumImagemResponse imagem(Long id) {
+        AlbumImagemResponse imagem = new AlbumImagemResponse();
+        imagem.setId(id);
+        imagem.setNomeOriginal("capa-" + id + ".jpg");
+        imagem.setContentType("image/jpeg");
+        imagem.setTamanhoBytes(1024L);
+        return imagem;
+    }
+}
@@ -0,0 +1,138 @@
+package br.gov.mt.seplag.presentation.websocket;
+
+import br.gov.mt.seplag.domain.model.AlbumEvent;
+import br.gov.mt.seplag.domain.repository.AlbumEventRepository;
+import br.gov.mt.seplag.infrastructure.metrics.MetricsService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Testes unitarios para AlbumEventLog (sequencia e replay).
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+class AlbumEventLogTest {
+
+    private AlbumEventLog eventLog;
+    private AlbumBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = new AlbumBroadcaster();
+        broadcaster.objectMapper = new ObjectMapper();
+        broadcaster.metricsService = new MetricsService(new SimpleMeterRegistry());
+        broadcaster.overflowPolicy = OverflowPolicy.DROP_OLDEST;
+        broadcaster.queueCapacity = 64;
+
+        eventLog = new AlbumEventLog();
+        eventLog.broadcaster = broadcaster;
+        eventLog.cluster = new AlbumEventCluster();
+        eventLog.capacity = 3;
+        eventLog.init();
+    }
+
+    @Test
+    void publishShouldAssignIncreasingSeqAndIncludeItInPayload() {
+        List<String> aoVivo = connect("s1", null, "all");
+        long inicio = eventLog.currentSeq();
+
+        long seq1 = eventLog.publish("ALBUM_DELETED", Map.of("id", 1), List.of("all"));
+        long seq2 = eventLog.publish("ALBUM_DELETED", Map.of("id", 2), List.of("all"));
+
+        assertThat(seq1).isEqualTo(inicio + 1);
+        assertThat(seq2).isEqualTo(inicio + 2);
+        assertThat(aoVivo).containsExactly(
+            "{\"type\":\"ALBUM_DELETED\",\"seq\":" + seq1 + ",\"data\":{\"id\":1}}",
+            "{\"type\":\"ALBUM_DELETED\",\"seq\":" + seq2 + ",\"data\":{\"id\":2}}");
+    }
+
+    @Test
+    void attachWithSinceShouldReplayMissedEventsMatchingSubscriptions() {
+        long since = eventLog.currentSeq();
+        eventLog.publish("ALBUM_DELETED", Map.of("id", 1), List.of("all", "artista:1"));
+        eventLog.publish("ALBUM_DELETED", Map.of("id", 2), List.of("all", "artista:2"));
+
+        List<String> recebidas = connect("s1", since, "artista:2");
+
+        assertThat(recebidas).hasSize(2);
+        assertThat(recebidas.get(0)).contains("\"id\":2");
+        assertThat(recebidas.get(1)).startsWith("{\"type\":\"REPLAY_COMPLETE\"").contains("\"replayed\":1");
+    }
+
+    @Test
+    void attachShouldRequireResyncWhenGapLeftTheBuffer() {
+        long since = eventLog.currentSeq();
+        for (int i = 1; i <= 5; i++) {
+            eventLog.publish("ALBUM_DELETED", Map.of("id", i), List.of("all"));
+        }
+
+        List<String> recebidas = connect("s1", since, "all");
+
+        assertThat(recebidas).hasSize(1);
+        assertThat(recebidas.get(0)).startsWith("{\"type\":\"RESYNC_REQUIRED\"");
+    }
+
+    @Test
+    void attachShouldRequireResyncForSeqFromPreviousRun() {
+        List<String> recebidas = connect("s1", eventLog.currentSeq() + 1000, "all");
+
+        assertThat(recebidas).singleElement().asString().startsWith("{\"type\":\"RESYNC_REQUIRED\"");
+    }
+
+    @Test
+    void attachWithoutSinceShouldNotReplay() {
+        eventLog.publish("ALBUM_DELETED", Map.of("id", 1), List.of("all"));
+
+        assertThat(connect("s1", null, "all")).isEmpty();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flushShouldPersistEventsInBatchWhenEnabled() {
+        AlbumEventRepository repository = mock(AlbumEventRepository.class);
+        eventLog.repository = repository;
+        eventLog.persist = true;
+
+        eventLog.publish("ALBUM_DELETED", Map.of("id", 1), List.of("all", "ano:2020"));
+        eventLog.publish("ALBUM_DELETED", Map.of("id", 2), List.of("all"));
+        eventLog.flush();
+
+        ArgumentCaptor<Collection<AlbumEvent>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(repository).persistAll(captor.capture());
+        assertThat(captor.getValue()).hasSize(2);
+        assertThat(captor.getValue().iterator().next().getTopics()).isEqualTo("all,ano:2020");
+        assertThat(eventLog.getStatistics().get("pendingWrites")).isEqualTo(0);
+    }
+
+    private List<String> connect(String sessionId, Long since, String topic) {
+        List<String> recebidas = new ArrayList<>();
+        eventLog.attach(sessionId, since, () -> {
+            broadcaster.register(sessionId, "user", new SessionOutbox.Transport() {
+                @Override
+                public void send(String payload, Consumer<Throwable> onComplete) {
+                    recebidas.add(payload);
+                    onComplete.accept(null);
+                }
+
+                @Override
+                public void close(String reason) {
+                }
+            });
+            broadcaster.subscriptions().subscribe(sessionId, topic);
+        });
+        return recebidas;
+    }
+}
@@ -0,0 +1,198 @@
+package br.gov.mt.seplag.presentation.websocket;
+
+import br.gov.mt.seplag.domain.model.WebSocketTicket;
+import br.gov.mt.seplag.infrastructure.metrics.MetricsService;
+import br.gov.mt.seplag.infrastructure.security.WebSocketTicketService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.vertx.ext.web.handler.HttpException;
+import jakarta.websocket.CloseReason;
+import jakarta.websocket.RemoteEndpoint;
+import jakarta.websocket.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes unitarios do ciclo de vida das conexoes do AlbumWebSocket
+ * (limite por usuario e limpeza dos indices em todos os caminhos de saida).
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+class AlbumWebSocketConnectionTest {
+
+    private AlbumWebSocket endpoint;
+    private AlbumBroadcaster broadcaster;
+    private SessionHeartbeat heartbeat;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        MetricsService metricsService = new MetricsService(registry);
+
+        broadcaster = new AlbumBroadcaster();
+        broadcaster.objectMapper = new ObjectMapper();
+        broadcaster.metricsService = metricsService;
+        broadcaster.overflowPolicy = OverflowPolicy.DROP_OLDEST;
+        broadcaster.queueCapacity = 16;
+
+        heartbeat = new SessionHeartbeat();
+        heartbeat.metricsService = metricsService;
+        heartbeat.interval = Duration.ofSeconds(3);
+        heartbeat.tick = Duration.ofSeconds(1);
+        heartbeat.idleTimeout = Duration.ofSeconds(5);
+        heartbeat.init();
+
+        AlbumEventLog eventLog = mock(AlbumEventLog.class);
+        when(eventLog.attach(anyString(), any(), any())).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(2).run();
+            return 0;
+        });
+
+        WebSocketTicketService ticketService = mock(WebSocketTicketService.class);
+        when(ticketService.validateAndConsume(anyString())).thenAnswer(invocation ->
+            Optional.of(new WebSocketTicket("user", Set.of("USER"), 30)));
+
+        endpoint = new AlbumWebSocket();
+        endpoint.objectMapper = new ObjectMapper();
+        endpoint.broadcaster = broadcaster;
+        endpoint.eventLog = eventLog;
+        endpoint.ticketService = ticketService;
+        endpoint.heartbeat = heartbeat;
+        endpoint.metricsService = metricsService;
+        endpoint.maxTopicsPerSession = 10;
+        endpoint.maxConnectionsPerUser = 2;
+    }
+
+    @Test
+    void shouldRejectConnectionsAboveUserLimit() throws Exception {
+        open(session("s1"));
+        open(session("s2"));
+        Session terceira = session("s3");
+        open(terceira);
+
+        verify(terceira).close(any(CloseReason.class));
+        assertThat(endpoint.getConnectedClientsCount()).isEqualTo(2);
+        assertThat(broadcaster.getSessionCount()).isEqualTo(2);
+        assertThat(registry.get("websocket_connections_rejected_total").tag("reason", "user_limit")
+            .counter().count()).isEqualTo(1.0);
+
+        // O close da conexao recusada nao libera vagas das demais
+        endpoint.onClose(terceira, new CloseReason(CloseReason.CloseCodes.TRY_AGAIN_LATER, "limite"));
+        assertThat(endpoint.getConnectedClientsCount()).isEqualTo(2);
+        assertThat(endpoint.reserveUserSlot("user", "s4")).isFalse();
+    }
+
+    @Test
+    void closeShouldFreeSlotForNewConnection() {
+        Session primeira = session("s1");
+        open(primeira);
+        open(session("s2"));
+
+        endpoint.onClose(primeira, new CloseReason(CloseReason.CloseCodes.NORMAL_CLOSURE, "bye"));
+
+        assertThat(endpoint.reserveUserSlot("user", "s3")).isTrue();
+    }
+
+    @Test
+    void errorShouldCleanUpAllIndexes() {
+        Session session = session("s1");
+        open(session);
+
+        endpoint.onError(session, new IllegalStateException("reset"));
+
+        assertThat(endpoint.getConnectedClientsCount()).isZero();
+        assertThat(endpoint.getUniqueUsersCount()).isZero();
+        assertThat(broadcaster.getSessionCount()).isZero();
+        assertThat(broadcaster.subscriptions().topicCount()).isZero();
+        assertThat(heartbeat.trackedCount()).isZero();
+    }
+
+    @Test
+    void idleSessionReapedByHeartbeatShouldCleanUpAllIndexes() {
+        Session session = session("s1");
+        open(session);
+        assertThat(heartbeat.trackedCount()).isEqualTo(1);
+
+        // Conexao meio aberta: fechada pelo heartbeat sem @OnClose
+        when(session.isOpen()).thenReturn(false);
+        for (int i = 0; i < 3; i++) {
+            heartbeat.advance();
+        }
+
+        assertThat(endpoint.getConnectedClientsCount()).isZero();
+        assertThat(endpoint.getUniqueUsersCount()).isZero();
+        assertThat(broadcaster.getSessionCount()).isZero();
+        assertThat(heartbeat.trackedCount()).isZero();
+    }
+
+    @Test
+    void shouldRejectConnectionWithoutTicketAcceptedInHandshake() throws Exception {
+        Session session = session("s1");
+
+        endpoint.onOpen(session, null);
+
+        verify(session).close(any(CloseReason.class));
+        assertThat(endpoint.getConnectedClientsCount()).isZero();
+        verify(endpoint.ticketService, never()).validateAndConsume(anyString());
+    }
+
+    @Test
+    void handshakeWithoutTicketShouldFailWith401() {
+        assertThatThrownBy(() -> endpoint.acceptHandshake(null))
+            .isInstanceOfSatisfying(HttpException.class, e -> assertThat(e.getStatusCode()).isEqualTo(401));
+        verify(endpoint.ticketService, never()).validateAndConsume(anyString());
+    }
+
+    @Test
+    void handshakeWithInvalidTicketShouldFailWith403() {
+        when(endpoint.ticketService.validateAndConsume("expirado")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> endpoint.acceptHandshake("expirado"))
+            .isInstanceOfSatisfying(HttpException.class, e -> assertThat(e.getStatusCode()).isEqualTo(403));
+    }
+
+    @Test
+    void handshakeTicketShouldBeUsableOnlyOnce() throws Exception {
+        open(session("s1"));
+        Session repetida = session("s1-bis");
+        when(repetida.getRequestParameterMap()).thenReturn(Map.of("ticket", List.of("ticket-s1")));
+
+        endpoint.onOpen(repetida, null);
+
+        verify(repetida).close(any(CloseReason.class));
+        assertThat(endpoint.getConnectedClientsCount()).isEqualTo(1);
+    }
+
+    private void open(Session session) {
+        endpoint.acceptHandshake("ticket-" + session.getId());
+        endpoint.onOpen(session, null);
+    }
+
+    private static Session session(String id) {
+        Session session = mock(Session.class);
+        Map<String, Object> properties = new HashMap<>();
+        when(session.getId()).thenReturn(id);
+        when(session.isOpen()).thenReturn(true);
+        when(session.getUserProperties()).thenReturn(properties);
+        when(session.getRequestParameterMap()).thenReturn(Map.of("ticket", List.of("ticket-" + id)));
+        when(session.getAsyncRemote()).thenReturn(mock(RemoteEndpoint.Async.class));
+        return session;
+    }
+}
@@ -0,0 +1,117 @@
+package br.gov.mt.seplag.presentation.websocket;
+
+import br.gov.mt.seplag.infrastructure.metrics.MetricsService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.websocket.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes unitarios do protocolo de assinaturas do AlbumWebSocket.
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+class AlbumWebSocketSubscriptionTest {
+
+    private AlbumWebSocket endpoint;
+    private AlbumBroadcaster broadcaster;
+    private Session session;
+    private final List<String> recebidas = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = new AlbumBroadcaster();
+        broadcaster.objectMapper = new ObjectMapper();
+        broadcaster.metricsService = new MetricsService(new SimpleMeterRegistry());
+        broadcaster.overflowPolicy = OverflowPolicy.DROP_OLDEST;
+        broadcaster.queueCapacity = 16;
+
+        endpoint = new AlbumWebSocket();
+        endpoint.objectMapper = new ObjectMapper();
+        endpoint.broadcaster = broadcaster;
+        endpoint.maxTopicsPerSession = 2;
+        endpoint.heartbeat = new SessionHeartbeat();
+        endpoint.heartbeat.interval = Duration.ofSeconds(30);
+        endpoint.heartbeat.tick = Duration.ofSeconds(1);
+        endpoint.heartbeat.init();
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("implicitAll", true);
+        session = mock(Session.class);
+        when(session.getId()).thenReturn("s1");
+        when(session.getUserProperties()).thenReturn(properties);
+
+        broadcaster.register("s1", "user", new SessionOutbox.Transport() {
+            @Override
+            public void send(String payload, Consumer<Throwable> onComplete) {
+                recebidas.add(payload);
+                onComplete.accept(null);
+            }
+
+            @Override
+            public void close(String reason) {
+            }
+        });
+        broadcaster.subscriptions().subscribe("s1", AlbumTopics.ALL);
+    }
+
+    @Test
+    void firstSubscribeShouldReplaceImplicitAll() {
+        endpoint.onMessage("{\"action\":\"subscribe\",\"topics\":[\"artista:1\"]}", session);
+
+        assertThat(broadcaster.subscriptions().topicsOf("s1")).containsExactly("artista:1");
+        assertThat(recebidas).last().asString()
+            .isEqualTo("{\"type\":\"SUBSCRIPTIONS\",\"data\":{\"topics\":[\"artista:1\"]}}");
+    }
+
+    @Test
+    void subscribeShouldReportInvalidAndExcessTopics() {
+        endpoint.onMessage("{\"action\":\"subscribe\",\"topics\":[\"artista:1\",\"x\",\"ano:2020\",\"ano:2021\"]}",
+            session);
+
+        assertThat(broadcaster.subscriptions().topicsOf("s1")).containsExactlyInAnyOrder("artista:1", "ano:2020");
+        assertThat(recebidas).last().asString().contains("\"rejected\":[\"x\",\"ano:2021\"]");
+    }
+
+    @Test
+    void unsubscribeShouldRemoveTopic() {
+        endpoint.onMessage("{\"action\":\"subscribe\",\"topics\":[\"artista:1\",\"ano:2020\"]}", session);
+        endpoint.onMessage("{\"action\":\"unsubscribe\",\"topics\":[\"ano:2020\"]}", session);
+
+        assertThat(broadcaster.subscriptions().topicsOf("s1")).containsExactly("artista:1");
+    }
+
+    @Test
+    void invalidMessageShouldReturnError() {
+        endpoint.onMessage("nao e json", session);
+        endpoint.onMessage("{\"action\":\"dance\"}", session);
+
+        assertThat(recebidas).hasSize(2);
+        assertThat(recebidas).allSatisfy(msg -> assertThat(msg).startsWith("{\"type\":\"ERROR\""));
+    }
+
+    @Test
+    void publishShouldReachOnlyMatchingSessions() {
+        endpoint.onMessage("{\"action\":\"subscribe\",\"topics\":[\"artista:1\"]}", session);
+        recebidas.clear();
+
+        assertThat(broadcaster.publish("NEW_ALBUM", Map.of("id", 1), List.of("all", "artista:2"))).isZero();
+        assertThat(broadcaster.publish("NEW_ALBUM", Map.of("id", 2), List.of("all", "artista:1"))).isEqualTo(1);
+        assertThat(recebidas).hasSize(1);
+
+        broadcaster.unregister("s1");
+        assertThat(broadcaster.subscriptions().topicCount()).isZero();
+    }
+}
@@ -1,10 +1,20 @@
 package br.gov.mt.seplag.presentation.websocket;
 
+import br.gov.mt.seplag.infrastructure.security.WebSocketTicketService;
 import br.gov.mt.seplag.presentation.dto.album.AlbumResponse;
+import io.quarkus.test.common.http.TestHTTPResource;
 import io.quarkus.test.junit.QuarkusTest;
 import jakarta.inject.Inject;
 import org.junit.jupiter.api.Test;
 
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.net.http.WebSocketHandshakeException;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -20,6 +30,47 @@ class AlbumWebSocketTest {
     @Inject
     AlbumWebSocket albumWebSocket;
 
+    @Inject
+    WebSocketTicketService ticketService;
+
+    @TestHTTPResource("/ws/albuns")
+    URI endpointUri;
+
+    /**
+     * Faz o upgrade real (cliente do JDK) e devolve o status HTTP do handshake.
+     */
+    private int handshake(String query) throws Exception {
+        URI uri = URI.create(endpointUri.toString().replaceFirst("^http", "ws") + query);
+        try {
+            WebSocket webSocket = HttpClient.newHttpClient().newWebSocketBuilder()
+                .buildAsync(uri, new WebSocket.Listener() { })
+                .get(10, TimeUnit.SECONDS);
+            webSocket.abort();
+            return 101;
+        } catch (ExecutionException e) {
+            WebSocketHandshakeException recusa = assertInstanceOf(WebSocketHandshakeException.class, e.getCause());
+            return recusa.getResponse().statusCode();
+        }
+    }
+
+    @Test
+    void handshakeWithoutTicketShouldBeRejectedWith401() throws Exception {
+        assertEquals(401, handshake(""));
+    }
+
+    @Test
+    void handshakeWithInvalidTicketShouldBeRejectedWith403() throws Exception {
+        assertEquals(403, handshake("?ticket=00000000-0000-0000-0000-000000000000"));
+    }
+
+    @Test
+    void handshakeShouldConsumeTicketOnlyOnce() throws Exception {
+        String ticket = ticketService.createTicket("wsHandshake", Set.of("USER")).getTicket();
+
+        assertEquals(101, handshake("?ticket=" + ticket));
+        assertEquals(403, handshake("?ticket=" + ticket));
+    }
+
     @Test
     void shouldStartWithZeroConnections() {
         // Verifica que inicialmente nao ha clientes conectados
@@ -0,0 +1,59 @@
+package br.gov.mt.seplag.presentation.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes unitarios para CborEncoder (exemplos do apendice A da RFC 8949).
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+class CborEncoderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void shouldEncodeIntegers() throws Exception {
+        assertThat(encode("0")).isEqualTo("00");
+        assertThat(encode("23")).isEqualTo("17");
+        assertThat(encode("24")).isEqualTo("1818");
+        assertThat(encode("1000")).isEqualTo("1903e8");
+        assertThat(encode("1000000")).isEqualTo("1a000f4240");
+        assertThat(encode("1000000000000")).isEqualTo("1b000000e8d4a51000");
+        assertThat(encode("18446744073709551615")).isEqualTo("1bffffffffffffffff");
+        assertThat(encode("-1")).isEqualTo("20");
+        assertThat(encode("-1000")).isEqualTo("3903e7");
+    }
+
+    @Test
+    void shouldEncodeFloats() throws Exception {
+        assertThat(encode("1.1")).isEqualTo("fb3ff199999999999a");
+        assertThat(encode("100000.0")).isEqualTo("fa47c35000");
+    }
+
+    @Test
+    void shouldEncodeSimpleValuesAndText() throws Exception {
+        assertThat(encode("true")).isEqualTo("f5");
+        assertThat(encode("false")).isEqualTo("f4");
+        assertThat(encode("null")).isEqualTo("f6");
+        assertThat(encode("\"\"")).isEqualTo("60");
+        assertThat(encode("\"IETF\"")).isEqualTo("6449455446");
+        assertThat(encode("\"\\u00fc\"")).isEqualTo("62c3bc");
+    }
+
+    @Test
+    void shouldEncodeArraysAndMaps() throws Exception {
+        assertThat(encode("[]")).isEqualTo("80");
+        assertThat(encode("[1,[2,3],[4,5]]")).isEqualTo("8301820203820405");
+        assertThat(encode("{}")).isEqualTo("a0");
+        assertThat(encode("{\"a\":1,\"b\":[2,3]}")).isEqualTo("a26161016162820203");
+    }
+
+    private String encode(String json) throws Exception {
+        return HexFormat.of().formatHex(CborEncoder.encode(objectMapper.readTree(json)));
+    }
+}
@@ -0,0 +1,171 @@
+package br.gov.mt.seplag.presentation.websocket;
+
+import br.gov.mt.seplag.infrastructure.metrics.MetricsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.websocket.CloseReason;
+import jakarta.websocket.RemoteEndpoint;
+import jakarta.websocket.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes unitarios para SessionHeartbeat (pings e remocao de sessoes inativas).
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+class SessionHeartbeatTest {
+
+    private SessionHeartbeat heartbeat;
+    private SimpleMeterRegistry registry;
+    private final AtomicLong agora = new AtomicLong();
+    private final AtomicInteger expiradas = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        heartbeat = new SessionHeartbeat();
+        heartbeat.metricsService = new MetricsService(registry);
+        heartbeat.interval = Duration.ofSeconds(3);
+        heartbeat.tick = Duration.ofSeconds(1);
+        heartbeat.idleTimeout = Duration.ofSeconds(5);
+        heartbeat.clock = agora::get;
+        heartbeat.init();
+    }
+
+    @Test
+    void shouldPingEachSessionOncePerRevolution() throws Exception {
+        Session session = session("s1");
+        heartbeat.track(session, expiradas::incrementAndGet);
+
+        revolution();
+        revolution();
+
+        verify(session.getAsyncRemote(), times(2)).sendPing(any(ByteBuffer.class));
+        assertThat(registry.get("websocket_pings_total").counter().count()).isEqualTo(2.0);
+        assertThat(expiradas).hasValue(0);
+    }
+
+    @Test
+    void shouldReapSessionWithoutContactAfterIdleTimeout() throws Exception {
+        Session session = session("s1");
+        heartbeat.track(session, expiradas::incrementAndGet);
+
+        avancar(6);
+        revolution();
+
+        verify(session).close(any(CloseReason.class));
+        verify(session.getAsyncRemote(), never()).sendPing(any(ByteBuffer.class));
+        assertThat(expiradas).hasValue(1);
+        assertThat(heartbeat.trackedCount()).isZero();
+        assertThat(registry.get("websocket_sessions_reaped_total").tag("reason", "idle").counter().count())
+            .isEqualTo(1.0);
+    }
+
+    @Test
+    void touchShouldKeepSessionAlive() throws Exception {
+        Session session = session("s1");
+        heartbeat.track(session, expiradas::incrementAndGet);
+
+        avancar(6);
+        heartbeat.touch("s1");
+        revolution();
+
+        verify(session, never()).close(any(CloseReason.class));
+        verify(session.getAsyncRemote()).sendPing(any(ByteBuffer.class));
+        assertThat(expiradas).hasValue(0);
+    }
+
+    @Test
+    void shouldRemoveSessionAlreadyClosed() throws Exception {
+        Session session = session("s1");
+        when(session.isOpen()).thenReturn(false);
+        heartbeat.track(session, expiradas::incrementAndGet);
+
+        revolution();
+
+        verify(session, never()).close(any(CloseReason.class));
+        assertThat(expiradas).hasValue(1);
+        assertThat(registry.get("websocket_sessions_reaped_total").tag("reason", "closed").counter().count())
+            .isEqualTo(1.0);
+    }
+
+    @Test
+    void pingFailureShouldExpireSession() throws Exception {
+        Session session = session("s1");
+        RemoteEndpoint.Async remote = session.getAsyncRemote();
+        doThrow(new IOException("broken pipe")).when(remote).sendPing(any(ByteBuffer.class));
+        heartbeat.track(session, expiradas::incrementAndGet);
+
+        revolution();
+
+        assertThat(expiradas).hasValue(1);
+        assertThat(heartbeat.trackedCount()).isZero();
+    }
+
+    @Test
+    void untrackShouldStopMonitoringWithoutCallback() throws Exception {
+        Session session = session("s1");
+        heartbeat.track(session, expiradas::incrementAndGet);
+
+        heartbeat.untrack("s1");
+        avancar(6);
+        revolution();
+
+        verify(session.getAsyncRemote(), never()).sendPing(any(ByteBuffer.class));
+        assertThat(expiradas).hasValue(0);
+        assertThat(heartbeat.trackedCount()).isZero();
+    }
+
+    @Test
+    void sessionsShouldBeSpreadAcrossWheelSlots() throws Exception {
+        Session primeira = session("s1");
+        heartbeat.track(primeira, expiradas::incrementAndGet);
+        heartbeat.advance();
+        Session segunda = session("s2");
+        heartbeat.track(segunda, expiradas::incrementAndGet);
+
+        // Cada sessao so e visitada na propria posicao
+        heartbeat.advance();
+        heartbeat.advance();
+        verify(primeira.getAsyncRemote()).sendPing(any(ByteBuffer.class));
+        verify(segunda.getAsyncRemote(), never()).sendPing(any(ByteBuffer.class));
+
+        heartbeat.advance();
+        verify(segunda.getAsyncRemote()).sendPing(any(ByteBuffer.class));
+    }
+
+    private void revolution() {
+        for (int i = 0; i < 3; i++) {
+            heartbeat.advance();
+        }
+    }
+
+    private void avancar(long segundos) {
+        agora.addAndGet(TimeUnit.SECONDS.toNanos(segundos));
+    }
+
+    private static Session session(String id) {
+        Session session = mock(Session.class);
+        RemoteEndpoint.Async remote = mock(RemoteEndpoint.Async.class);
+        when(session.getId()).thenReturn(id);
+        when(session.isOpen()).thenReturn(true);
+        when(session.getAsyncRemote()).thenReturn(remote);
+        return session;
+    }
+}
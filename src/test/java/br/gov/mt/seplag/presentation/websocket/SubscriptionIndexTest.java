@@ -0,0 +1,130 @@
+package br.gov.mt.seplag.presentation.websocket;
+
+import br.gov.mt.seplag.presentation.dto.album.AlbumResponse;
+import br.gov.mt.seplag.presentation.dto.artista.ArtistaSimpleResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes unitarios para SubscriptionIndex e AlbumTopics.
+ *
+ * @author Jean Paulo Sassi de Miranda
+ */
+class SubscriptionIndexTest {
+
+    private final SubscriptionIndex index = new SubscriptionIndex();
+
+    @Test
+    void matchShouldReturnOnlySubscribedSessionsWithoutDuplicates() {
+        index.openSession("s1");
+        index.openSession("s2");
+        index.openSession("s3");
+        index.subscribe("s1", "artista:1");
+        index.subscribe("s1", "ano:2024");
+        index.subscribe("s2", "artista:2");
+        index.subscribe("s3", "all");
+
+        assertThat(index.match(List.of("all", "artista:1", "ano:2024"))).containsExactlyInAnyOrder("s1", "s3");
+        assertThat(index.match(List.of("artista:99"))).isEmpty();
+    }
+
+    @Test
+    void unsubscribeShouldRemoveEmptyTopics() {
+        index.openSession("s1");
+        index.subscribe("s1", "artista:1");
+
+        assertThat(index.unsubscribe("s1", "artista:1")).isTrue();
+        assertThat(index.unsubscribe("s1", "artista:1")).isFalse();
+        assertThat(index.topicCount()).isZero();
+    }
+
+    @Test
+    void removeSessionShouldCleanEveryTopic() {
+        index.openSession("s1");
+        index.openSession("s2");
+        index.subscribe("s1", "artista:1");
+        index.subscribe("s1", "ano:2024");
+        index.subscribe("s2", "ano:2024");
+
+        index.removeSession("s1");
+
+        assertThat(index.topicsOf("s1")).isEmpty();
+        assertThat(index.subscriberCount("artista:1")).isZero();
+        assertThat(index.subscriberCount("ano:2024")).isEqualTo(1);
+        assertThat(index.topicCount()).isEqualTo(1);
+    }
+
+    @Test
+    void subscribeShouldIgnoreSessionNotOpenOrAlreadyRemoved() {
+        assertThat(index.subscribe("desconhecida", "all")).isFalse();
+
+        index.openSession("s1");
+        index.removeSession("s1");
+
+        assertThat(index.subscribe("s1", "artista:1")).isFalse();
+        assertThat(index.topicsOf("s1")).isEmpty();
+        assertThat(index.topicCount()).isZero();
+    }
+
+    @Test
+    void subscribeRacingRemoveSessionShouldNotLeaveSessionInTopics() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int i = 0; i < 500; i++) {
+                String sessionId = "s" + i;
+                index.openSession(sessionId);
+                CountDownLatch largada = new CountDownLatch(1);
+                Future<?> assinaturas = executor.submit(() -> {
+                    largada.await();
+                    for (int t = 0; t < 20; t++) {
+                        index.subscribe(sessionId, "artista:" + t);
+                    }
+                    return null;
+                });
+                Future<?> remocao = executor.submit(() -> {
+                    largada.await();
+                    index.removeSession(sessionId);
+                    return null;
+                });
+                largada.countDown();
+                assinaturas.get(5, TimeUnit.SECONDS);
+                remocao.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(index.topicCount()).isZero();
+    }
+
+    @Test
+    void normalizeShouldAcceptOnlyKnownFormats() {
+        assertThat(AlbumTopics.normalize(" Artista:7 ")).contains("artista:7");
+        assertThat(AlbumTopics.normalize("ALL")).contains("all");
+        assertThat(AlbumTopics.normalize("ano:2012")).contains("ano:2012");
+        assertThat(AlbumTopics.normalize("artista:abc")).isEmpty();
+        assertThat(AlbumTopics.normalize("artista:-1")).isEmpty();
+        assertThat(AlbumTopics.normalize("genero:rock")).isEmpty();
+        assertThat(AlbumTopics.normalize(null)).isEmpty();
+    }
+
+    @Test
+    void forAlbumShouldIncludeArtistsYearAndAll() {
+        ArtistaSimpleResponse artista = new ArtistaSimpleResponse();
+        artista.setId(3L);
+        AlbumResponse album = new AlbumResponse();
+        album.setId(10L);
+        album.setAnoLancamento(2012);
+        album.setArtistas(List.of(artista));
+
+        assertThat(AlbumTopics.forAlbum(album)).containsExactly("all", "ano:2012", "artista:3");
+    }
+}